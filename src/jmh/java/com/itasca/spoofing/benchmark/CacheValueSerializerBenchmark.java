@@ -0,0 +1,119 @@
+package com.itasca.spoofing.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itasca.spoofing.model.GroupProfileDto;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.model.URLDto;
+import com.itasca.spoofing.model.URLGroupDto;
+import com.itasca.spoofing.service.cache.CacheNames;
+import com.itasca.spoofing.service.cache.CacheValueSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode time of shared cache values per format, for a group with its members,
+ * against GenericJackson2JsonRedisSerializer as the class-name embedding baseline
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CacheValueSerializerBenchmark {
+
+    @Param({"10", "200"})
+    private int members;
+
+    @Param({"generic", "json", "smile", "smile-lz4"})
+    private String serializerName;
+
+    private RedisSerializer<Object> serializer;
+    private GroupProfileDto group;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        var groupType = CacheNames.valueType(CacheNames.GROUP_PROFILES, objectMapper.getTypeFactory());
+        switch (serializerName) {
+            case "generic":
+                GenericJackson2JsonRedisSerializer generic = new GenericJackson2JsonRedisSerializer();
+                // Derived getters such as memberCount and remainingUrls have no setter to read back into
+                generic.configure(mapper -> mapper
+                        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                        .configure(MapperFeature.USE_GETTERS_AS_SETTERS, false));
+                serializer = generic;
+                break;
+            case "json":
+                serializer = new CacheValueSerializer(objectMapper, groupType, CacheValueSerializer.Format.JSON, -1);
+                break;
+            case "smile":
+                serializer = new CacheValueSerializer(objectMapper, groupType, CacheValueSerializer.Format.SMILE, -1);
+                break;
+            default:
+                serializer = new CacheValueSerializer(objectMapper, groupType, CacheValueSerializer.Format.SMILE, 1024);
+        }
+        group = group(members);
+        bytes = serializer.serialize(group);
+        if (!(serializer.deserialize(bytes) instanceof GroupProfileDto)) {
+            throw new IllegalStateException(serializerName + " does not read the group back");
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(group);
+    }
+
+    // The baseline reads the type from the embedded class names, as deserializing to Object
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(bytes);
+    }
+
+    /**
+     * A group built from plain collections, as the mapper builds them, so the baseline can
+     * instantiate the classes named in its output
+     */
+    private static GroupProfileDto group(int members) {
+        URLGroupDto urlGroup = URLGroupDto.builder().id(7L).name("Default")
+                .urls(new ArrayList<>(List.of(URLDto.builder().id(1L).url("https://example.com/login").build()))).build();
+        Set<SingleProfileDto> memberProfiles = new HashSet<>();
+        Map<String, Integer> weights = new HashMap<>();
+        for (int i = 0; i < members; i++) {
+            String id = String.format("00000000-0000-0000-0000-%012d", i);
+            Map<String, Object> fingerprint = new HashMap<>();
+            fingerprint.put("canvas_hash", Integer.toHexString(i * 31));
+            memberProfiles.add(SingleProfileDto.builder()
+                    .id(id)
+                    .name("Profile " + i)
+                    .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0." + i + " Safari/537.36")
+                    .hardwareConcurrency(4 + i % 12)
+                    .urlGroups(new ArrayList<>(List.of(urlGroup)))
+                    .generatedFingerprint(fingerprint)
+                    .build());
+            weights.put(id, 1 + i % 5);
+        }
+        return GroupProfileDto.builder()
+                .id("g1")
+                .name("Group")
+                .memberProfiles(memberProfiles)
+                .memberProfileIds(new HashSet<>(weights.keySet()))
+                .memberWeights(weights)
+                .urlGroup(urlGroup)
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.itasca.spoofing.benchmark;
+
+import com.itasca.spoofing.repository.StringListConverter;
+import com.itasca.spoofing.repository.converter.MapConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trips through the JSON column converters, as on every entity load and flush
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConverterBenchmark {
+
+    private final MapConverter mapConverter = new MapConverter();
+    private final StringListConverter stringListConverter = new StringListConverter();
+
+    private Map<String, Object> fingerprint;
+    private List<String> urls;
+
+    @Setup
+    public void setUp() {
+        fingerprint = new LinkedHashMap<>();
+        fingerprint.put("canvas_hash", "5d41402abc4b2a76b9719d911017c592");
+        fingerprint.put("audio_hash", "7d793037a0760186574b0282f2f435e7");
+        fingerprint.put("fonts", List.of("Arial", "Calibri", "Cambria", "Consolas", "Georgia", "Segoe UI", "Verdana"));
+        fingerprint.put("plugins", List.of(Map.of("name", "PDF Viewer", "filename", "internal-pdf-viewer")));
+        fingerprint.put("screen", Map.of("width", 1920, "height", 1080, "color_depth", 24, "pixel_ratio", 1.25));
+        fingerprint.put("timezone_offset", -300);
+        fingerprint.put("touch_support", false);
+
+        urls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            urls.add("https://example.com/landing/" + i + "?utm_source=profile");
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> mapRoundTrip() {
+        return mapConverter.convertToEntityAttribute(mapConverter.convertToDatabaseColumn(fingerprint));
+    }
+
+    @Benchmark
+    public List<String> stringListRoundTrip() {
+        return stringListConverter.convertToEntityAttribute(stringListConverter.convertToDatabaseColumn(urls));
+    }
+}
@@ -0,0 +1,68 @@
+package com.itasca.spoofing.benchmark;
+
+import com.itasca.spoofing.entity.GroupProfileEntity;
+import com.itasca.spoofing.entity.SingleProfileEntity;
+import com.itasca.spoofing.service.selection.GroupSelectionSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Next profile selection: the entity method against the snapshot used by the selector engine.
+ * Every tenth member is inactive so both have to skip members.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GroupSelectionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int members;
+
+    @Param({"random", "weighted", "sequential"})
+    private String selectionMode;
+
+    private GroupProfileEntity group;
+    private GroupSelectionSnapshot snapshot;
+    private final AtomicLong cursor = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        group = GroupProfileEntity.builder()
+                .id("group")
+                .name("group")
+                .selectionMode(selectionMode)
+                .build();
+
+        String[] memberIds = new String[members];
+        boolean[] memberActive = new boolean[members];
+        int[] memberWeights = new int[members];
+        for (int i = 0; i < members; i++) {
+            memberIds[i] = "profile-" + i;
+            memberActive[i] = i % 10 != 0;
+            memberWeights[i] = 1 + i % 5;
+
+            group.getMemberProfiles().add(SingleProfileEntity.builder()
+                    .id(memberIds[i])
+                    .name(memberIds[i])
+                    .status(memberActive[i] ? "Active" : "Inactive")
+                    .build());
+            group.getMemberWeights().put(memberIds[i], memberWeights[i]);
+        }
+        snapshot = new GroupSelectionSnapshot(selectionMode, memberIds, memberActive, memberWeights);
+    }
+
+    @Benchmark
+    public SingleProfileEntity entityNextProfile() {
+        return group.getNextProfile();
+    }
+
+    @Benchmark
+    public String snapshotPick() {
+        return snapshot.pick(cursor);
+    }
+}
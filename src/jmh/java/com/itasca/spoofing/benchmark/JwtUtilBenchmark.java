@@ -0,0 +1,45 @@
+package com.itasca.spoofing.benchmark;
+
+import com.itasca.spoofing.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation at sign-in and verification on every authenticated request
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtUtilBenchmark {
+
+    private static final Set<String> ROLES = Set.of("ROLE_ADMIN", "ROLE_USER");
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "myVerySecretKeyForJWTTokenGenerationThatShouldBeLongEnough");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        jwtUtil.init();
+        token = jwtUtil.generateToken("admin@example.com", ROLES);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("admin@example.com", ROLES);
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return jwtUtil.parseToken(token);
+    }
+}
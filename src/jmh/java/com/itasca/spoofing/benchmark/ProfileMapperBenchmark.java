@@ -0,0 +1,105 @@
+package com.itasca.spoofing.benchmark;
+
+import com.itasca.spoofing.entity.GroupProfileEntity;
+import com.itasca.spoofing.entity.SingleProfileEntity;
+import com.itasca.spoofing.entity.URLEntity;
+import com.itasca.spoofing.entity.URLGroupEntity;
+import com.itasca.spoofing.entity.UserEntity;
+import com.itasca.spoofing.mapper.ProfileMapper;
+import com.itasca.spoofing.model.GroupProfileDto;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.repository.URLRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of fully loaded profiles, so only the mapping itself is measured.
+ * The one repository call left, the URL lookup, is answered from memory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProfileMapperBenchmark {
+
+    private static final int URLS_PER_PROFILE = 5;
+
+    @Param({"10", "100", "500"})
+    private int members;
+
+    private ProfileMapper profileMapper;
+    private SingleProfileEntity single;
+    private GroupProfileEntity group;
+
+    @Setup
+    public void setUp() {
+        List<URLEntity> urls = new ArrayList<>();
+        for (int i = 0; i < URLS_PER_PROFILE; i++) {
+            urls.add(URLEntity.builder().id((long) i).url("https://example.com/" + i).name("url " + i).build());
+        }
+        profileMapper = new ProfileMapper();
+        ReflectionTestUtils.setField(profileMapper, "urlRepository", urlRepository(urls));
+
+        single = profile("single", urls);
+        group = GroupProfileEntity.builder()
+                .id("group")
+                .name("group")
+                .urlGroup(urlGroup("group urls", urls))
+                .build();
+        for (int i = 0; i < members; i++) {
+            SingleProfileEntity member = profile("member-" + i, urls);
+            group.getMemberProfiles().add(member);
+            group.getMemberWeights().put(member.getId(), 1 + i % 5);
+        }
+        group.getAssignedUsers().add(UserEntity.builder().id(1L).username("user").email("user@example.com").build());
+    }
+
+    @Benchmark
+    public SingleProfileDto singleToDto() {
+        return profileMapper.toDto(single);
+    }
+
+    @Benchmark
+    public GroupProfileDto groupToDto() {
+        return profileMapper.toDto(group);
+    }
+
+    private static SingleProfileEntity profile(String id, List<URLEntity> urls) {
+        SingleProfileEntity profile = SingleProfileEntity.builder()
+                .id(id)
+                .name(id)
+                .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Safari/537.36")
+                .webglRenderer("ANGLE (NVIDIA, NVIDIA GeForce RTX 3060 Direct3D11 vs_5_0 ps_5_0)")
+                .generatedFingerprint(Map.of("canvas_hash", "5d41402a", "audio_hash", "7d793037", "fonts", List.of("Arial", "Verdana")))
+                .build();
+        URLGroupEntity urlGroup = urlGroup(id + " urls", urls);
+        urlGroup.setSingleProfile(profile);
+        profile.getUrlGroups().add(urlGroup);
+        return profile;
+    }
+
+    private static URLGroupEntity urlGroup(String name, List<URLEntity> urls) {
+        return URLGroupEntity.builder()
+                .name(name)
+                .urls(urls.stream().map(URLEntity::getUrl).collect(ArrayList::new, List::add, List::addAll))
+                .build();
+    }
+
+    private static URLRepository urlRepository(List<URLEntity> urls) {
+        return (URLRepository) Proxy.newProxyInstance(URLRepository.class.getClassLoader(),
+                new Class<?>[] {URLRepository.class}, (proxy, method, args) -> {
+                    if ("findByUrlIn".equals(method.getName())) {
+                        return urls;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
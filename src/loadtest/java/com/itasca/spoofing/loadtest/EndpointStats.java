@@ -0,0 +1,78 @@
+package com.itasca.spoofing.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error count of one endpoint, shared by all virtual users
+ */
+class EndpointStats {
+
+    // Up to a minute with 3 significant digits
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final Map<Integer, LongAdder> errorStatuses = new ConcurrentSkipListMap<>();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void record(long latencyNanos, int status) {
+        latencies.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        if (status / 100 != 2) {
+            errors.increment();
+            errorStatuses.computeIfAbsent(status, ignored -> new LongAdder()).increment();
+        }
+    }
+
+    void reset() {
+        latencies.reset();
+        errors.reset();
+        errorStatuses.clear();
+    }
+
+    long getCount() {
+        return latencies.getTotalCount();
+    }
+
+    /**
+     * Summary for the report, latencies in milliseconds
+     */
+    Map<String, Object> summary(double elapsedSeconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("endpoint", name);
+        summary.put("requests", latencies.getTotalCount());
+        summary.put("errors", errors.sum());
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        errorStatuses.forEach((status, count) -> statuses.put(String.valueOf(status), count.sum()));
+        summary.put("error_statuses", statuses);
+        summary.put("throughput_per_second", round(latencies.getTotalCount() / elapsedSeconds));
+        summary.put("mean_ms", millis(latencies.getMean()));
+        summary.put("p50_ms", millis(latencies.getValueAtPercentile(50)));
+        summary.put("p99_ms", millis(latencies.getValueAtPercentile(99)));
+        summary.put("p999_ms", millis(latencies.getValueAtPercentile(99.9)));
+        summary.put("max_ms", millis(latencies.getMaxValue()));
+        return summary;
+    }
+
+    private static double millis(double nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,198 @@
+package com.itasca.spoofing.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itasca.spoofing.SpoofingApplication;
+import com.itasca.spoofing.model.GroupProfileDto;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.repository.UserRepository;
+import com.itasca.spoofing.service.AuthService;
+import com.itasca.spoofing.service.GroupManagementService;
+import com.itasca.spoofing.service.ProfileService;
+import com.itasca.spoofing.service.UserService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test against an in-process instance of the application.
+ *
+ * Boots the application with the test profile (H2, no Redis) on a random port, seeds
+ * groups, member profiles and users with assigned groups, then runs one {@link VirtualUser}
+ * per user for a warmup and a measured period. Prints throughput and latency percentiles
+ * per endpoint and writes them as JSON.
+ *
+ * Options are application properties, e.g. --loadtest.users=100 --loadtest.duration=2m;
+ * any other property such as spring.datasource.url can be overridden the same way.
+ * Exits with 1 when the error rate of any endpoint exceeds loadtest.max-error-rate.
+ */
+public final class LoadTestRunner {
+
+    private static final String PASSWORD = "loadtest-password";
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SpoofingApplication.class)
+                .profiles("test")
+                .run(withDefaults(args));
+
+        int exitCode;
+        try {
+            exitCode = run(context);
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * Arguments with defaults for options not given. Passed as arguments since they
+     * have to override application.yml, which default properties do not.
+     */
+    private static String[] withDefaults(String[] args) {
+        List<String> arguments = new ArrayList<>(List.of(args));
+        for (String option : List.of("--server.port=0", "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN", "--logging.level.com.itasca.spoofing=WARN")) {
+            String name = option.substring(0, option.indexOf('=') + 1);
+            if (arguments.stream().noneMatch(argument -> argument.startsWith(name))) {
+                arguments.add(option);
+            }
+        }
+        return arguments.toArray(String[]::new);
+    }
+
+    private static int run(ConfigurableApplicationContext context) throws Exception {
+        Environment environment = context.getEnvironment();
+        int users = environment.getProperty("loadtest.users", Integer.class, 50);
+        int groups = environment.getProperty("loadtest.groups", Integer.class, 10);
+        int groupSize = environment.getProperty("loadtest.group-size", Integer.class, 20);
+        int groupsPerUser = environment.getProperty("loadtest.groups-per-user", Integer.class, 3);
+        Duration warmup = environment.getProperty("loadtest.warmup", Duration.class, Duration.ofSeconds(10));
+        Duration duration = environment.getProperty("loadtest.duration", Duration.class, Duration.ofSeconds(60));
+        double maxErrorRate = environment.getProperty("loadtest.max-error-rate", Double.class, 0.01);
+        File report = new File(environment.getProperty("loadtest.report", "target/loadtest-report.json"));
+        String baseUrl = "http://localhost:" + environment.getProperty("local.server.port");
+
+        // Seed data
+        ProfileService profileService = context.getBean(ProfileService.class);
+        GroupManagementService groupManagementService = context.getBean(GroupManagementService.class);
+        List<String> groupIds = new ArrayList<>();
+        List<String> memberIds = new ArrayList<>();
+        for (int g = 0; g < groups; g++) {
+            HashSet<String> members = new HashSet<>();
+            for (int m = 0; m < groupSize; m++) {
+                members.add(profileService.createSingleProfile(SingleProfileDto.builder()
+                        .name("loadtest-" + g + "-" + m)
+                        .build()).getId());
+            }
+            memberIds.addAll(members);
+            groupIds.add(groupManagementService.createCustomGroup(GroupProfileDto.builder()
+                    .name("loadtest-group-" + g)
+                    .selectionMode(g % 2 == 0 ? "random" : "sequential")
+                    .maxConcurrentUsage(users)
+                    .memberProfileIds(members)
+                    .build()).getId());
+        }
+
+        AuthService authService = context.getBean(AuthService.class);
+        UserService userService = context.getBean(UserService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        for (String endpoint : List.of(VirtualUser.SIGN_IN, VirtualUser.ASSIGNED_PROFILES, VirtualUser.NEXT_PROFILE,
+                VirtualUser.SESSION_START, VirtualUser.SESSION_END, VirtualUser.PROFILE_STATS)) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            String email = "loadtest-" + u + "@example.com";
+            authService.signup(email, PASSWORD, "Load", "User " + u);
+            List<String> assigned = new ArrayList<>();
+            for (int i = 0; i < Math.min(groupsPerUser, groups); i++) {
+                assigned.add(groupIds.get((u + i) % groups));
+            }
+            userService.assignProfilesToUser(userRepository.findByEmail(email).orElseThrow().getId(), new HashSet<>(assigned));
+            virtualUsers.add(new VirtualUser(httpClient, objectMapper, baseUrl, stats, email, PASSWORD, assigned, memberIds));
+        }
+
+        System.out.printf("Seeded %d groups of %d profiles and %d users, warming up for %s%n",
+                groups, groupSize, users, warmup);
+
+        // Run
+        List<Thread> threads = new ArrayList<>();
+        for (int u = 0; u < virtualUsers.size(); u++) {
+            Thread thread = new Thread(virtualUsers.get(u), "virtual-user-" + u);
+            thread.start();
+            threads.add(thread);
+        }
+        Thread.sleep(warmup.toMillis());
+        stats.values().forEach(EndpointStats::reset);
+
+        System.out.printf("Measuring for %s%n", duration);
+        long start = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        virtualUsers.forEach(VirtualUser::stop);
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+
+        // Report
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        stats.values().forEach(endpoint -> endpoints.add(endpoint.summary(elapsedSeconds)));
+        long totalRequests = stats.values().stream().mapToLong(EndpointStats::getCount).sum();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("users", users);
+        result.put("groups", groups);
+        result.put("group_size", groupSize);
+        result.put("duration_seconds", Math.round(elapsedSeconds * 100) / 100.0);
+        result.put("throughput_per_second", Math.round(totalRequests / elapsedSeconds * 100) / 100.0);
+        result.put("endpoints", endpoints);
+
+        printTable(endpoints);
+        System.out.printf("Total: %d requests, %.1f/s%n", totalRequests, totalRequests / elapsedSeconds);
+        if (report.getParentFile() != null) {
+            report.getParentFile().mkdirs();
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(report, result);
+        System.out.println("Report written to " + report.getAbsolutePath());
+
+        boolean failed = totalRequests == 0;
+        for (Map<String, Object> endpoint : endpoints) {
+            long requests = (Long) endpoint.get("requests");
+            long errors = (Long) endpoint.get("errors");
+            if (requests > 0 && (double) errors / requests > maxErrorRate) {
+                System.out.printf("Error rate of %s is above %.2f%%%n", endpoint.get("endpoint"), maxErrorRate * 100);
+                failed = true;
+            }
+        }
+        return failed ? 1 : 0;
+    }
+
+    private static void printTable(List<Map<String, Object>> endpoints) {
+        String format = "%-44s %9s %7s %9s %9s %9s %9s %9s%n";
+        System.out.printf(format, "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p999 ms", "Max ms");
+        for (Map<String, Object> endpoint : endpoints) {
+            System.out.printf(format, endpoint.get("endpoint"), endpoint.get("requests"), endpoint.get("errors"),
+                    endpoint.get("throughput_per_second"), endpoint.get("p50_ms"), endpoint.get("p99_ms"),
+                    endpoint.get("p999_ms"), endpoint.get("max_ms"));
+        }
+    }
+}
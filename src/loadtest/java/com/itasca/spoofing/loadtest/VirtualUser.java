@@ -0,0 +1,161 @@
+package com.itasca.spoofing.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One signed-in client running the request mix in a closed loop until stopped.
+ *
+ * Each iteration picks one action by weight: fetch assigned profiles, rotate to the next
+ * profile of an assigned group, start and end a session, read a member's stats or sign in
+ * again. Every request is timed on its own endpoint.
+ */
+@Slf4j
+class VirtualUser implements Runnable {
+
+    static final String SIGN_IN = "POST /api/auth/signin";
+    static final String ASSIGNED_PROFILES = "GET /api/user/assigned-profiles";
+    static final String NEXT_PROFILE = "POST /api/profiles/group/{id}/next-profile";
+    static final String SESSION_START = "POST /api/user/group/{id}/sessions";
+    static final String SESSION_END = "DELETE /api/user/sessions/{leaseId}";
+    static final String PROFILE_STATS = "GET /api/profiles/{id}/stats";
+
+    // Percent of iterations per action, in the order of the switch below
+    private static final int[] MIX = {35, 25, 20, 15, 5};
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Map<String, EndpointStats> stats;
+    private final String email;
+    private final String password;
+    private final List<String> groupIds;
+    private final List<String> memberIds;
+
+    private volatile boolean running = true;
+    private String token;
+
+    VirtualUser(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, Map<String, EndpointStats> stats,
+                String email, String password, List<String> groupIds, List<String> memberIds) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+        this.email = email;
+        this.password = password;
+        this.groupIds = groupIds;
+        this.memberIds = memberIds;
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        signIn();
+        while (running) {
+            try {
+                switch (pickAction()) {
+                    case 0:
+                        send(ASSIGNED_PROFILES, get("/api/user/assigned-profiles"));
+                        break;
+                    case 1:
+                        send(NEXT_PROFILE, post("/api/profiles/group/" + pick(groupIds) + "/next-profile", ""));
+                        break;
+                    case 2:
+                        startAndEndSession();
+                        break;
+                    case 3:
+                        send(PROFILE_STATS, get("/api/profiles/" + pick(memberIds) + "/stats"));
+                        break;
+                    default:
+                        signIn();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.debug("Request of {} failed: {}", email, e.getMessage());
+            }
+        }
+    }
+
+    private void signIn() {
+        try {
+            String body = objectMapper.writeValueAsString(Map.of("email", email, "password", password));
+            JsonNode response = send(SIGN_IN, HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/signin"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+            if (response != null && response.hasNonNull("token")) {
+                token = response.get("token").asText();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.debug("Sign in of {} failed: {}", email, e.getMessage());
+        }
+    }
+
+    private void startAndEndSession() throws Exception {
+        JsonNode lease = send(SESSION_START, post("/api/user/group/" + pick(groupIds) + "/sessions", "{}"));
+        if (lease != null && lease.hasNonNull("lease_id")) {
+            send(SESSION_END, authorized("/api/user/sessions/" + lease.get("lease_id").asText()).DELETE());
+        }
+    }
+
+    /**
+     * Send a request and time it, returns the parsed body of a successful response
+     */
+    private JsonNode send(String endpoint, HttpRequest.Builder request) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        long latency = System.nanoTime() - start;
+
+        stats.get(endpoint).record(latency, response.statusCode());
+        if (response.statusCode() / 100 != 2) {
+            log.debug("{} returned {}: {}", endpoint, response.statusCode(), new String(response.body()));
+            return null;
+        }
+        return response.body().length > 0 ? objectMapper.readTree(response.body()) : null;
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return authorized(path).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        return authorized(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private static int pickAction() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        for (int action = 0; action < MIX.length; action++) {
+            roll -= MIX[action];
+            if (roll < 0) {
+                return action;
+            }
+        }
+        return MIX.length - 1;
+    }
+
+    private static String pick(List<String> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+}
@@ -1,7 +1,6 @@
 package com.itasca.spoofing.config;
 
 
-import com.itasca.spoofing.entity.listener.ProfileAuditListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
@@ -22,11 +21,6 @@ public class JpaConfig {
         return new AuditorAwareImpl();
     }
 
-    @Bean
-    public ProfileAuditListener profileAuditListener() {
-        return new ProfileAuditListener();
-    }
-
     public static class AuditorAwareImpl implements AuditorAware<String> {
         @Override
         public Optional<String> getCurrentAuditor() {
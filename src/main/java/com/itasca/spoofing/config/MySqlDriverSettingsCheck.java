@@ -0,0 +1,82 @@
+package com.itasca.spoofing.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Refuses to start on MySQL without the Connector/J settings the data access relies on.
+ *
+ * Without useCursorFetch the driver ignores fetch sizes and reads a whole result set into
+ * memory, so the streaming exports would load every row. Without rewriteBatchedStatements
+ * JDBC batches are sent one statement per row. Both may come from the URL or the
+ * data source properties, a URL setting wins as it does in the driver.
+ */
+@Component
+@Slf4j
+public class MySqlDriverSettingsCheck {
+
+    static final List<String> REQUIRED_SETTINGS = List.of("useCursorFetch", "rewriteBatchedStatements");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PostConstruct
+    public void verify() throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            log.warn("Cannot check the MySQL driver settings of a {}", dataSource.getClass().getName());
+            return;
+        }
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        String url = hikari.getJdbcUrl();
+        if (url == null || !url.startsWith("jdbc:mysql:")) {
+            return;
+        }
+        List<String> missing = missingSettings(url, hikari.getDataSourceProperties());
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("MySQL connections need " + missing + " set to true, "
+                    + "set them under spring.datasource.hikari.data-source-properties");
+        }
+    }
+
+    /**
+     * Required settings that are not true in the URL, or in the properties when the URL leaves them out
+     */
+    static List<String> missingSettings(String url, Properties properties) {
+        List<String> missing = new ArrayList<>();
+        for (String setting : REQUIRED_SETTINGS) {
+            String value = urlSetting(url, setting);
+            if (value == null) {
+                value = properties.getProperty(setting);
+            }
+            if (!"true".equalsIgnoreCase(value)) {
+                missing.add(setting);
+            }
+        }
+        return missing;
+    }
+
+    private static String urlSetting(String url, String setting) {
+        int query = url.indexOf('?');
+        if (query < 0) {
+            return null;
+        }
+        String value = null;
+        for (String pair : url.substring(query + 1).split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            if (key.equalsIgnoreCase(setting)) {
+                value = equals < 0 ? "" : pair.substring(equals + 1);
+            }
+        }
+        return value;
+    }
+}
@@ -1,31 +1,64 @@
 package com.itasca.spoofing.config;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itasca.spoofing.service.cache.CacheNames;
+import com.itasca.spoofing.service.cache.CacheValueSerializer;
+import com.itasca.spoofing.service.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.cache.annotation.EnableCaching;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @EnableCaching
 public class RedisConfig {
 
+    private static final int CLEAR_SCAN_BATCH_SIZE = 1000;
+
     @Value("${spring.data.redis.host:localhost}")
     private String redisHost;
 
     @Value("${spring.data.redis.port:6379}")
     private int redisPort;
 
+    @Value("${cache.redis.enabled:true}")
+    private boolean sharedCacheEnabled;
+
+    @Value("${cache.redis.channel:spoofing:cache:invalidation}")
+    private String invalidationChannel;
+
+    @Value("${cache.redis.retry-after-ms:30000}")
+    private long sharedRetryMs;
+
+    @Value("${cache.redis.format:SMILE}")
+    private CacheValueSerializer.Format cacheFormat;
+
+    @Value("${cache.redis.compression-threshold:1024}")
+    private int compressionThreshold;
+
     @Bean
     public LettuceConnectionFactory redisConnectionFactory() {
         RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration();
@@ -43,13 +76,54 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * Read caches: a Caffeine near cache per instance backed by Redis, see {@link TwoLevelCacheManager}.
+     * Also the {@link com.itasca.spoofing.service.cache.ClusterMessenger} of the application.
+     */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory, StringRedisTemplate stringRedisTemplate,
+                                     ObjectMapper objectMapper, MeterRegistry meterRegistry, Environment environment) {
+        if (!sharedCacheEnabled) {
+            return new TwoLevelCacheManager(null, null, invalidationChannel, sharedRetryMs, environment, meterRegistry);
+        }
+
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofHours(1));
-        
-        return RedisCacheManager.builder(connectionFactory)
+
+        // Read caches store a known type each, serialized without class names
+        Map<String, RedisCacheConfiguration> readCaches = new HashMap<>();
+        for (String name : CacheNames.ALL) {
+            JavaType valueType = CacheNames.valueType(name, objectMapper.getTypeFactory());
+            Duration ttl = environment.getProperty("cache.specs." + name + ".shared-ttl", Duration.class, Duration.ofHours(1));
+            readCaches.put(name, config
+                    .entryTtl(ttl)
+                    .disableCachingNullValues()
+                    .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                            new CacheValueSerializer(objectMapper, valueType, cacheFormat, compressionThreshold))));
+        }
+
+        // Clearing a cache walks its keys with SCAN, the default KEYS blocks Redis while it runs
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(
+                connectionFactory, BatchStrategies.scan(CLEAR_SCAN_BATCH_SIZE));
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(config)
+                .withInitialCacheConfigurations(readCaches)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+        return new TwoLevelCacheManager(redisCacheManager, stringRedisTemplate, invalidationChannel,
+                sharedRetryMs, environment, meterRegistry);
+    }
+
+    /**
+     * Subscribe to invalidations from other instances once the application is up, so an
+     * unreachable Redis does not block startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startCacheInvalidationListener(ApplicationReadyEvent event) {
+        if (sharedCacheEnabled) {
+            ApplicationContext context = event.getApplicationContext();
+            ((TwoLevelCacheManager) context.getBean(CacheManager.class))
+                    .listen(context.getBean(RedisConnectionFactory.class));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package com.itasca.spoofing.controller;
+
+import com.itasca.spoofing.exception.ProfileValidationException;
+import com.itasca.spoofing.service.ProfileAuditService;
+import com.itasca.spoofing.service.audit.AuditQuery;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/audit")
+@Tag(name = "Audit", description = "APIs for querying the profile audit log")
+@Slf4j
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AuditController {
+
+    @Autowired
+    private ProfileAuditService auditService;
+
+    @GetMapping
+    @Operation(summary = "Query audit entries", description = "Audit entries matching the filter, newest first, with keyset pagination")
+    public ResponseEntity<?> getAuditEntries(
+            @Parameter(description = "Only entries of this profile") @RequestParam(name = "profile_id", required = false) String profileId,
+            @Parameter(description = "Only entries of this action, e.g. UPDATE") @RequestParam(required = false) String action,
+            @Parameter(description = "Entries at or after this time (ISO-8601)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Entries before this time (ISO-8601)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Cursor from the previous page, empty for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Also count all matching entries") @RequestParam(name = "include_total", defaultValue = "false") boolean includeTotal) {
+        AuditQuery query = AuditQuery.builder().profileId(profileId).action(action).from(from).to(to).build();
+        log.debug("Retrieving audit entries for {}, cursor: {}", query, cursor);
+
+        try {
+            return ResponseEntity.ok(auditService.findAuditEntries(query, cursor, size, includeTotal));
+        } catch (ProfileValidationException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export audit entries", description = "Streams audit entries matching the filter as NDJSON, oldest first, gzip=true compresses the download")
+    public ResponseEntity<?> exportAuditEntries(
+            @Parameter(description = "Only entries of this profile") @RequestParam(name = "profile_id", required = false) String profileId,
+            @Parameter(description = "Only entries of this action, e.g. UPDATE") @RequestParam(required = false) String action,
+            @Parameter(description = "Entries at or after this time (ISO-8601)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Entries before this time (ISO-8601)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Compress the export with gzip") @RequestParam(defaultValue = "false") boolean gzip) {
+        if (to != null && !from.isBefore(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from must be before to"));
+        }
+        AuditQuery query = AuditQuery.builder().profileId(profileId).action(action).from(from).to(to).build();
+        String fileName = "profile-audit-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                + (gzip ? ".ndjson.gz" : ".ndjson");
+        log.info("Exporting audit entries for {} to {}", query, fileName);
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip
+                    ? new GZIPOutputStream(outputStream, 64 * 1024)
+                    : new BufferedOutputStream(outputStream, 64 * 1024);
+            try (out) {
+                auditService.exportAuditEntries(query, out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+}
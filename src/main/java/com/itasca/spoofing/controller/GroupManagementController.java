@@ -55,6 +55,45 @@ public class GroupManagementController {
         return ResponseEntity.ok(groups);
     }
 
+    @GetMapping("/custom")
+    public ResponseEntity<?> getCustomGroups(@PageableDefault(size = 20) Pageable pageable,
+                                             @RequestParam(defaultValue = "full") String view) {
+        log.debug("Retrieving custom groups with pagination: {}, view: {}", pageable, view);
+
+        ListView listView = ListView.fromValue(view);
+        if (listView == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown view: " + view));
+        }
+        if (listView == ListView.SUMMARY) {
+            return ResponseEntity.ok(groupManagementService.getCustomGroupSummaries(pageable));
+        }
+        return ResponseEntity.ok(groupManagementService.getCustomGroups(pageable));
+    }
+
+    @GetMapping("/popular")
+    public ResponseEntity<?> getPopularGroups(@RequestParam(defaultValue = "24h") String window,
+                                              @RequestParam(defaultValue = "10") int limit) {
+        log.debug("Retrieving {} most used groups over {}", limit, window);
+
+        PopularityWindow popularityWindow = PopularityWindow.fromValue(window);
+        if (popularityWindow == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown window: " + window));
+        }
+        return ResponseEntity.ok(groupManagementService.getPopularGroups(popularityWindow, Math.max(1, Math.min(limit, 100))));
+    }
+
+    @GetMapping("/popular/profiles")
+    public ResponseEntity<?> getPopularProfiles(@RequestParam(defaultValue = "24h") String window,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        log.debug("Retrieving {} most used profiles over {}", limit, window);
+
+        PopularityWindow popularityWindow = PopularityWindow.fromValue(window);
+        if (popularityWindow == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown window: " + window));
+        }
+        return ResponseEntity.ok(groupManagementService.getPopularProfiles(popularityWindow, Math.max(1, Math.min(limit, 100))));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<GroupProfileDto> getGroup(@PathVariable @NotBlank String id) {
         log.debug("Retrieving group: {}", id);
@@ -80,6 +119,22 @@ public class GroupManagementController {
         }
     }
 
+    @PutMapping("/{id}/weights")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<GroupProfileDto> updateMemberWeights(
+            @PathVariable @NotBlank String id,
+            @RequestBody @NotEmpty Map<String, Integer> memberWeights) {
+        log.info("Updating member weights of group: {}", id);
+
+        try {
+            GroupProfileDto updatedGroup = groupManagementService.updateMemberWeights(id, memberWeights);
+            return ResponseEntity.ok(updatedGroup);
+        } catch (Exception e) {
+            log.error("Error updating member weights of group {}: {}", id, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
     public ResponseEntity<Void> deleteGroup(@PathVariable @NotBlank String id) {
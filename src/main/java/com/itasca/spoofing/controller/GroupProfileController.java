@@ -1,6 +1,7 @@
 package com.itasca.spoofing.controller;
 
 import com.itasca.spoofing.exception.ProfileNotFoundException;
+import com.itasca.spoofing.exception.ProfileValidationException;
 import com.itasca.spoofing.model.*;
 import com.itasca.spoofing.service.ProfileService;
 import com.itasca.spoofing.service.ProfileAuditService;
@@ -10,12 +11,17 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.HashMap;
 import java.util.HashSet;
 
 @RestController
@@ -76,6 +82,11 @@ public class GroupProfileController {
             if (memberIds != null) {
                 profileDto.setMemberProfileIds(new HashSet<>(memberIds));
             }
+
+            Map<String, Object> memberWeightsData = (Map<String, Object>) payload.get("member_weights");
+            if (memberWeightsData != null) {
+                profileDto.setMemberWeights(toMemberWeights(memberWeightsData));
+            }
             
             GroupProfileDto createdProfile = profileService.createGroupProfile(profileDto);
             ProfileResponseDto response = ProfileResponseDto.success(createdProfile);
@@ -99,14 +110,59 @@ public class GroupProfileController {
     }
 
     @GetMapping("/group")
-    @Operation(summary = "Get all group profiles", description = "Retrieves all group profiles")
-    public ResponseEntity<List<GroupProfileDto>> getAllGroupProfiles() {
-        log.debug("Retrieving all group profiles");
+    @Operation(summary = "Get all group profiles", description = "Retrieves all group profiles, view=summary returns only list columns")
+    public ResponseEntity<?> getAllGroupProfiles(
+            @Parameter(description = "Response view: summary or full") @RequestParam(defaultValue = "full") String view) {
+        log.debug("Retrieving all group profiles, view: {}", view);
+
+        ListView listView = ListView.fromValue(view);
+        if (listView == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown view: " + view));
+        }
+        if (listView == ListView.SUMMARY) {
+            return ResponseEntity.ok(profileService.getAllGroupProfileSummaries());
+        }
 
         List<GroupProfileDto> profiles = profileService.getAllGroupProfiles();
         return ResponseEntity.ok(profiles);
     }
 
+    @GetMapping("/group/cursor")
+    @Operation(summary = "Get group profiles by cursor", description = "Keyset pagination ordered by creation time, pass next_cursor back to read the following page")
+    public ResponseEntity<?> getGroupProfilesByCursor(
+            @Parameter(description = "Cursor from the previous page, empty for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Also count all groups") @RequestParam(name = "include_total", defaultValue = "false") boolean includeTotal) {
+        log.debug("Retrieving group profiles by cursor: {}, size: {}", cursor, size);
+
+        try {
+            return ResponseEntity.ok(profileService.getGroupProfilesAfter(cursor, size, includeTotal));
+        } catch (ProfileValidationException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/group/search")
+    @Operation(summary = "Search group profiles", description = "Ranked prefix and fuzzy search over group name and description")
+    public ResponseEntity<SearchResultDto<GroupProfileDto>> searchGroupProfiles(
+            @Parameter(description = "Search term") @RequestParam String q,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        log.debug("Searching group profiles with term: {}, page: {}, size: {}", q, page, size);
+
+        return ResponseEntity.ok(profileService.searchGroupProfiles(q, page, size));
+    }
+
+    @PostMapping("/group/filter")
+    @Operation(summary = "Filter group profiles", description = "Combine status, group type, selection mode, proxy country, member profiles, last used and created windows")
+    public ResponseEntity<Page<GroupProfileDto>> filterGroupProfiles(
+            @RequestBody ProfileFilterDto filter,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.debug("Filtering group profiles: {}, page: {}", filter, pageable);
+
+        return ResponseEntity.ok(profileService.filterGroupProfiles(filter, pageable));
+    }
+
     @PutMapping("/group/{id}")
     @Operation(summary = "Update group profile", description = "Updates an existing group profile")
     public ResponseEntity<?> updateProfile(
@@ -149,6 +205,10 @@ public class GroupProfileController {
             if (memberIds != null) {
                 profileDto.setMemberProfileIds(new HashSet<>(memberIds));
             }
+
+            // Keep existing weights unless the payload sends them
+            Map<String, Object> memberWeightsData = (Map<String, Object>) payload.get("member_weights");
+            profileDto.setMemberWeights(memberWeightsData != null ? toMemberWeights(memberWeightsData) : null);
             
             GroupProfileDto updatedProfile = profileService.updateGroupProfile(id, profileDto);
             ProfileResponseDto response = ProfileResponseDto.success(updatedProfile);
@@ -215,4 +275,27 @@ public class GroupProfileController {
                     .body(Map.of("error", "Failed to get next profile: " + e.getMessage(), "status", "error"));
         }
     }
+
+    private Map<String, Integer> toMemberWeights(Map<String, Object> memberWeightsData) {
+        Map<String, Integer> memberWeights = new HashMap<>();
+        memberWeightsData.forEach((profileId, weight) -> memberWeights.put(profileId, toWeight(profileId, weight)));
+        return memberWeights;
+    }
+
+    /**
+     * JSON numbers arrive as Integer or Double (2.0), clients may also send them as strings
+     */
+    private Integer toWeight(String profileId, Object weight) {
+        if (weight == null) {
+            return null;
+        }
+        if (weight instanceof Number) {
+            return ((Number) weight).intValue();
+        }
+        try {
+            return new BigDecimal(weight.toString().trim()).intValue();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid weight for member " + profileId + ": " + weight);
+        }
+    }
 }
\ No newline at end of file
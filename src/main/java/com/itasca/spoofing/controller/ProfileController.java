@@ -2,10 +2,14 @@ package com.itasca.spoofing.controller;
 
 
 import com.itasca.spoofing.exception.ProfileNotFoundException;
+import com.itasca.spoofing.exception.ProfileValidationException;
+import com.itasca.spoofing.exception.UnauthorizedAccessException;
 import com.itasca.spoofing.model.*;
 import com.itasca.spoofing.service.ProfileService;
 import com.itasca.spoofing.service.ProfileAuditService;
+import com.itasca.spoofing.service.ProfileExportService;
 import com.itasca.spoofing.service.ProfileStatsService;
+import com.itasca.spoofing.service.audit.AuditQuery;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,14 +18,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/profiles")
@@ -36,6 +50,9 @@ public class ProfileController {
     @Autowired
     private ProfileAuditService auditService;
 
+    @Autowired
+    private ProfileExportService exportService;
+
     @Autowired
     private ProfileStatsService statsService;
 
@@ -101,24 +118,80 @@ public class ProfileController {
     }
 
     @GetMapping("/single")
-    @Operation(summary = "Get all single profiles", description = "Retrieves all browser profiles")
-    public ResponseEntity<List<SingleProfileDto>> getAllProfiles() {
-        log.debug("Retrieving all single profiles");
+    @Operation(summary = "Get all single profiles", description = "Retrieves all browser profiles, view=summary returns only list columns")
+    public ResponseEntity<?> getAllProfiles(
+            @Parameter(description = "Response view: summary or full") @RequestParam(defaultValue = "full") String view) {
+        log.debug("Retrieving all single profiles, view: {}", view);
+
+        ListView listView = ListView.fromValue(view);
+        if (listView == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown view: " + view));
+        }
+        if (listView == ListView.SUMMARY) {
+            return ResponseEntity.ok(profileService.getAllSingleProfileSummaries());
+        }
 
         List<SingleProfileDto> profiles = profileService.getAllSingleProfiles();
         return ResponseEntity.ok(profiles);
     }
 
     @GetMapping("/single/paged")
-    @Operation(summary = "Get all single profiles with pagination", description = "Retrieves all browser profiles with pagination support")
-    public ResponseEntity<Page<SingleProfileDto>> getAllProfilesPaged(
-            @PageableDefault(size = 20) Pageable pageable) {
-        log.debug("Retrieving single profiles with pagination: {}", pageable);
+    @Operation(summary = "Get all single profiles with pagination", description = "Retrieves all browser profiles with pagination support, view=summary returns only list columns")
+    public ResponseEntity<?> getAllProfilesPaged(
+            @PageableDefault(size = 20) Pageable pageable,
+            @Parameter(description = "Response view: summary or full") @RequestParam(defaultValue = "full") String view) {
+        log.debug("Retrieving single profiles with pagination: {}, view: {}", pageable, view);
+
+        ListView listView = ListView.fromValue(view);
+        if (listView == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown view: " + view));
+        }
+        if (listView == ListView.SUMMARY) {
+            return ResponseEntity.ok(profileService.getSingleProfileSummaries(pageable));
+        }
 
         Page<SingleProfileDto> profiles = profileService.getSingleProfiles(pageable);
         return ResponseEntity.ok(profiles);
     }
 
+    @GetMapping("/single/cursor")
+    @Operation(summary = "Get single profiles by cursor", description = "Keyset pagination ordered by creation time, pass next_cursor back to read the following page")
+    public ResponseEntity<?> getProfilesByCursor(
+            @Parameter(description = "Cursor from the previous page, empty for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Also count all profiles") @RequestParam(name = "include_total", defaultValue = "false") boolean includeTotal) {
+        log.debug("Retrieving single profiles by cursor: {}, size: {}", cursor, size);
+
+        try {
+            return ResponseEntity.ok(profileService.getSingleProfilesAfter(cursor, size, includeTotal));
+        } catch (ProfileValidationException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/single/export")
+    @Operation(summary = "Export all single profiles", description = "Streams every profile as NDJSON, one profile per line, gzip=true compresses the download")
+    public ResponseEntity<StreamingResponseBody> exportProfiles(
+            @Parameter(description = "Compress the export with gzip") @RequestParam(defaultValue = "false") boolean gzip) {
+        String fileName = "single-profiles-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                + (gzip ? ".ndjson.gz" : ".ndjson");
+        log.info("Exporting single profiles to {}", fileName);
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip
+                    ? new GZIPOutputStream(outputStream, 64 * 1024)
+                    : new BufferedOutputStream(outputStream, 64 * 1024);
+            try (out) {
+                exportService.exportSingleProfiles(out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @PutMapping("/single/{id}")
     @Operation(summary = "Update single profile", description = "Updates an existing browser profile")
     public ResponseEntity<ProfileResponseDto> updateProfile(
@@ -165,13 +238,34 @@ public class ProfileController {
     }
 
     @GetMapping("/single/search")
-    @Operation(summary = "Search single profiles", description = "Search profiles by name")
+    @Operation(summary = "Search single profiles", description = "Ranked prefix and fuzzy search over name, description, operating system, user agent and WebGL renderer, best match first")
     public ResponseEntity<List<SingleProfileDto>> searchProfiles(
-            @Parameter(description = "Search term") @RequestParam String q) {
-        log.debug("Searching single profiles with term: {}", q);
+            @Parameter(description = "Search term") @RequestParam String q,
+            @Parameter(description = "Maximum number of profiles, at most 200") @RequestParam(defaultValue = "200") int size) {
+        log.debug("Searching single profiles with term: {}, size: {}", q, size);
 
-        List<SingleProfileDto> profiles = profileService.searchSingleProfiles(q);
-        return ResponseEntity.ok(profiles);
+        return ResponseEntity.ok(profileService.searchSingleProfiles(q, 0, size).getItems());
+    }
+
+    @GetMapping("/single/search/paged")
+    @Operation(summary = "Search single profiles with pagination", description = "Ranked prefix and fuzzy search over name, description, operating system, user agent and WebGL renderer, with the total number of hits")
+    public ResponseEntity<SearchResultDto<SingleProfileDto>> searchProfilesPaged(
+            @Parameter(description = "Search term") @RequestParam String q,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        log.debug("Searching single profiles with term: {}, page: {}, size: {}", q, page, size);
+
+        return ResponseEntity.ok(profileService.searchSingleProfiles(q, page, size));
+    }
+
+    @PostMapping("/single/filter")
+    @Operation(summary = "Filter single profiles", description = "Combine status, OS, screen resolution, hardware concurrency range, proxy country, group membership, last used and created windows")
+    public ResponseEntity<Page<SingleProfileDto>> filterProfiles(
+            @RequestBody ProfileFilterDto filter,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.debug("Filtering single profiles: {}, page: {}", filter, pageable);
+
+        return ResponseEntity.ok(profileService.filterSingleProfiles(filter, pageable));
     }
 
     @GetMapping("/single/filter/status/{status}")
@@ -214,6 +308,30 @@ public class ProfileController {
         }
     }
 
+    @PostMapping("/{id}/outcome")
+    @Operation(summary = "Report session outcome", description = "Record how a session on a profile ended, repeated failures quarantine the profile from group rotation")
+    public ResponseEntity<?> reportSessionOutcome(
+            @Parameter(description = "Profile ID") @PathVariable String id,
+            @Parameter(description = "Outcome: success, failure, proxy_failure or fingerprint_detection") @RequestParam String outcome,
+            @Parameter(description = "Session length in minutes") @RequestParam(name = "duration_minutes", defaultValue = "0") int durationMinutes,
+            @Parameter(description = "URLs visited in the session") @RequestParam(name = "urls_visited", defaultValue = "0") int urlsVisited,
+            Authentication authentication) {
+        SessionOutcome sessionOutcome = SessionOutcome.fromValue(outcome);
+        if (sessionOutcome == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown outcome: " + outcome));
+        }
+        log.debug("Recording {} session outcome for single profile: {}", sessionOutcome.getValue(), id);
+
+        try {
+            statsService.reportSessionOutcome(id, sessionOutcome, durationMinutes, urlsVisited, authentication.getName());
+            return ResponseEntity.accepted().build();
+        } catch (ProfileNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (UnauthorizedAccessException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}/activate")
     @Operation(summary = "Activate profile", description = "Activate a profile")
     public ResponseEntity<ProfileResponseDto> activateProfile(
@@ -272,6 +390,26 @@ public class ProfileController {
         }
     }
 
+    @GetMapping("/{id}/audit")
+    @Operation(summary = "Get profile audit history", description = "Audit entries of a profile, newest first, with keyset pagination")
+    public ResponseEntity<?> getProfileAuditHistory(
+            @Parameter(description = "Profile ID") @PathVariable @NotBlank String id,
+            @Parameter(description = "Only entries of this action, e.g. UPDATE") @RequestParam(required = false) String action,
+            @Parameter(description = "Entries at or after this time (ISO-8601)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Entries before this time (ISO-8601)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Cursor from the previous page, empty for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Also count all entries") @RequestParam(name = "include_total", defaultValue = "false") boolean includeTotal) {
+        log.debug("Retrieving audit history for profile: {}, cursor: {}", id, cursor);
+
+        try {
+            AuditQuery query = AuditQuery.builder().profileId(id).action(action).from(from).to(to).build();
+            return ResponseEntity.ok(auditService.findAuditEntries(query, cursor, size, includeTotal));
+        } catch (ProfileValidationException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/bulk")
     @Operation(summary = "Create multiple profiles", description = "Create multiple profiles in bulk")
     public ResponseEntity<List<ProfileResponseDto>> createBulkProfiles(
@@ -293,15 +431,18 @@ public class ProfileController {
     }
 
     @DeleteMapping("/bulk")
-    @Operation(summary = "Delete multiple profiles", description = "Delete multiple profiles in bulk")
-    public ResponseEntity<ProfileResponseDto> deleteBulkProfiles(@RequestBody List<String> profileIds) {
-        log.info("Deleting {} single profiles in bulk", profileIds.size());
+    @Operation(summary = "Delete multiple profiles", description = "Delete multiple profiles in bulk, reports deleted and missing profiles")
+    public ResponseEntity<ProfileResponseDto> deleteBulkProfiles(
+            @RequestBody List<String> profileIds,
+            @Parameter(description = "Profile type: single or group") @RequestParam(name = "profile_type", defaultValue = "single") String profileType) {
+        log.info("Deleting {} {} profiles in bulk", profileIds.size(), profileType);
 
         try {
-            profileService.deleteMultipleProfiles(profileIds, ProfileType.SINGLE);
+            BulkOperationResultDto result = profileService.deleteMultipleProfiles(profileIds, toProfileType(profileType));
             ProfileResponseDto response = ProfileResponseDto.builder()
                     .status("success")
-                    .message(profileIds.size() + " profiles deleted successfully")
+                    .message(result.getAffected() + " profiles deleted successfully")
+                    .data(result)
                     .build();
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -310,4 +451,35 @@ public class ProfileController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    @PutMapping("/bulk/status")
+    @Operation(summary = "Update status of multiple profiles", description = "Sets Active or Inactive on many profiles with one statement per chunk")
+    public ResponseEntity<ProfileResponseDto> updateBulkStatus(@RequestBody Map<String, Object> payload) {
+        Object ids = payload.get("ids");
+        Object status = payload.get("status");
+        if (!(ids instanceof List<?> idList) || !(status instanceof String)) {
+            return ResponseEntity.badRequest().body(ProfileResponseDto.error("ids and status are required"));
+        }
+        log.info("Setting status {} on {} profiles in bulk", status, idList.size());
+
+        try {
+            List<String> profileIds = idList.stream().map(String::valueOf).toList();
+            String profileType = (String) payload.getOrDefault("profile_type", "single");
+            BulkOperationResultDto result = profileService.bulkStatusUpdate(profileIds, (String) status, toProfileType(profileType));
+            ProfileResponseDto response = ProfileResponseDto.builder()
+                    .status("success")
+                    .message(result.getAffected() + " profiles updated successfully")
+                    .data(result)
+                    .build();
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error updating bulk profile status: {}", e.getMessage(), e);
+            ProfileResponseDto errorResponse = ProfileResponseDto.error("Failed to update bulk profile status: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    private ProfileType toProfileType(String value) {
+        return ProfileType.GROUP.getValue().equalsIgnoreCase(value) ? ProfileType.GROUP : ProfileType.SINGLE;
+    }
+}
@@ -0,0 +1,81 @@
+package com.itasca.spoofing.controller;
+
+import com.itasca.spoofing.exception.ProfileNotFoundException;
+import com.itasca.spoofing.exception.ProfileValidationException;
+import com.itasca.spoofing.model.ImportFormat;
+import com.itasca.spoofing.model.ProfileImportJobDto;
+import com.itasca.spoofing.service.ProfileImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/profiles/import")
+@Tag(name = "Profile Import", description = "APIs for bulk importing browser profiles")
+@Slf4j
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ProfileImportController {
+
+    @Autowired
+    private ProfileImportService importService;
+
+    @PostMapping
+    @Operation(summary = "Start profile import", description = "Imports single profiles from an NDJSON or CSV request body in the background, returns the job to poll")
+    public ResponseEntity<?> startImport(
+            @Parameter(description = "Input format: ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            InputStream body) {
+        ImportFormat importFormat = ImportFormat.fromValue(format);
+        if (importFormat == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown format: " + format));
+        }
+
+        try {
+            ProfileImportJobDto job = importService.startImport(body, importFormat);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IOException e) {
+            log.error("Error storing profile import: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to store import: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get import job", description = "Progress and counts of an import job")
+    public ResponseEntity<?> getImportJob(
+            @Parameter(description = "Import job ID") @PathVariable String jobId) {
+        return importService.getImportJob(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Import job not found: " + jobId)));
+    }
+
+    @GetMapping("/{jobId}/errors")
+    @Operation(summary = "Get import errors", description = "Rejected rows of an import job in row order, pass the last row_number as after_row for the next page")
+    public ResponseEntity<?> getImportErrors(
+            @Parameter(description = "Import job ID") @PathVariable String jobId,
+            @Parameter(description = "Return rows after this row number") @RequestParam(name = "after_row", defaultValue = "0") long afterRow,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(importService.getImportErrors(jobId, afterRow, size));
+    }
+
+    @PostMapping("/{jobId}/resume")
+    @Operation(summary = "Resume import job", description = "Continues a failed or interrupted import from its first uncommitted row")
+    public ResponseEntity<?> resumeImport(
+            @Parameter(description = "Import job ID") @PathVariable String jobId) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(importService.resumeImport(jobId));
+        } catch (ProfileNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (ProfileValidationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.itasca.spoofing.controller;
+
+import com.itasca.spoofing.model.RankingMetric;
+import com.itasca.spoofing.model.StatsPeriod;
+import com.itasca.spoofing.service.ProfileStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+@Tag(name = "Statistics", description = "APIs for fleet statistics, profile leaderboards and quarantine")
+@Slf4j
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class StatsController {
+
+    @Autowired
+    private ProfileStatsService statsService;
+
+    @GetMapping("/fleet")
+    @Operation(summary = "Get fleet statistics", description = "Usage and session totals of all profiles for the current day, week or month")
+    public ResponseEntity<?> getFleetStats(
+            @Parameter(description = "Period: day, week or month") @RequestParam(defaultValue = "month") String period) {
+        StatsPeriod statsPeriod = StatsPeriod.fromValue(period);
+        if (statsPeriod == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown period: " + period));
+        }
+        return ResponseEntity.ok(statsService.getFleetReport(statsPeriod));
+    }
+
+    @GetMapping("/groups/{id}")
+    @Operation(summary = "Get group statistics", description = "Distinct users of a group for the current day, week or month")
+    public ResponseEntity<?> getGroupStats(
+            @Parameter(description = "Group ID") @PathVariable String id,
+            @Parameter(description = "Period: day, week or month") @RequestParam(defaultValue = "month") String period) {
+        StatsPeriod statsPeriod = StatsPeriod.fromValue(period);
+        if (statsPeriod == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown period: " + period));
+        }
+        return ResponseEntity.ok(statsService.getGroupReport(id, statsPeriod));
+    }
+
+    @GetMapping("/quarantine")
+    @Operation(summary = "Get quarantined profiles", description = "Profiles skipped by group rotation after repeated failures, with their release time")
+    public ResponseEntity<?> getQuarantinedProfiles() {
+        return ResponseEntity.ok(statsService.getQuarantinedProfiles());
+    }
+
+    @DeleteMapping("/quarantine/{profileId}")
+    @Operation(summary = "Release quarantined profile", description = "Return a profile to group rotation before its cool-off ends")
+    public ResponseEntity<?> releaseQuarantine(
+            @Parameter(description = "Profile ID") @PathVariable String profileId) {
+        if (!statsService.releaseQuarantine(profileId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Profile is not quarantined: " + profileId));
+        }
+        return ResponseEntity.ok(Map.of("message", "Profile released from quarantine", "profile_id", profileId));
+    }
+
+    @GetMapping("/leaderboard")
+    @Operation(summary = "Get profile leaderboard", description = "Top profiles of the current day, week or month by usage or success rate")
+    public ResponseEntity<?> getLeaderboard(
+            @Parameter(description = "Period: day, week or month") @RequestParam(defaultValue = "week") String period,
+            @Parameter(description = "Ranking: usage or success_rate") @RequestParam(defaultValue = "usage") String metric,
+            @Parameter(description = "Number of profiles") @RequestParam(defaultValue = "10") int limit) {
+        StatsPeriod statsPeriod = StatsPeriod.fromValue(period);
+        if (statsPeriod == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown period: " + period));
+        }
+        RankingMetric rankingMetric = RankingMetric.fromValue(metric);
+        if (rankingMetric == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown metric: " + metric));
+        }
+        log.debug("Retrieving {} leaderboard by {}", period, metric);
+        return ResponseEntity.ok(statsService.getTopPerformingProfiles(statsPeriod, rankingMetric, limit));
+    }
+}
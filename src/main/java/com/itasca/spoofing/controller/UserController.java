@@ -78,6 +78,19 @@ public class UserController {
             }
         }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Get users by cursor", description = "Keyset pagination ordered by creation time, pass next_cursor back to read the following page")
+    public ResponseEntity<?> getUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(name = "include_total", defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(userService.getUsersAfter(cursor, size, includeTotal));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID", description = "Retrieves a user by ID")
     public ResponseEntity<?> getUserById(@PathVariable Long id) {
@@ -1,13 +1,21 @@
 package com.itasca.spoofing.controller;
 
+import com.itasca.spoofing.exception.ProfileNotFoundException;
+import com.itasca.spoofing.exception.ProfileValidationException;
+import com.itasca.spoofing.exception.UnauthorizedAccessException;
+import com.itasca.spoofing.model.SessionLeaseDto;
+import com.itasca.spoofing.service.SessionLeaseService;
 import com.itasca.spoofing.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @RestController
@@ -20,6 +28,9 @@ public class UserProfileController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private SessionLeaseService sessionLeaseService;
+
     @GetMapping("/assigned-profiles")
     @Operation(summary = "Get assigned profiles for current user", description = "Retrieves group profiles assigned to the currently logged-in user")
     public ResponseEntity<?> getAssignedProfiles() {
@@ -43,4 +54,55 @@ public class UserProfileController {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+
+    @PostMapping("/group/{groupId}/sessions")
+    @Operation(summary = "Start a group session", description = "Acquires a session lease in a group for the current user, renew it with heartbeats before it expires")
+    public ResponseEntity<?> startSession(@PathVariable String groupId,
+                                          @RequestBody(required = false) Map<String, Object> payload,
+                                          Authentication authentication) {
+        try {
+            String profileId = payload != null ? (String) payload.get("profile_id") : null;
+            SessionLeaseDto lease = sessionLeaseService.acquireLease(groupId, profileId, authentication.getName());
+            return ResponseEntity.status(HttpStatus.CREATED).body(lease);
+        } catch (ProfileNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (UnauthorizedAccessException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        } catch (ProfileValidationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error starting session in group {}: {}", groupId, e.getMessage(), e);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PutMapping("/sessions/{leaseId}/heartbeat")
+    @Operation(summary = "Renew a session lease", description = "Extends the expiry of a session lease held by the current user")
+    public ResponseEntity<?> heartbeat(@PathVariable String leaseId, Authentication authentication) {
+        try {
+            LocalDateTime expiresAt = sessionLeaseService.renewLease(leaseId, authentication.getName());
+            return ResponseEntity.ok(Map.of("lease_id", leaseId, "expires_at", expiresAt));
+        } catch (ProfileNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error renewing session lease {}: {}", leaseId, e.getMessage(), e);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/sessions/{leaseId}")
+    @Operation(summary = "End a group session", description = "Releases a session lease held by the current user")
+    public ResponseEntity<?> endSession(@PathVariable String leaseId, Authentication authentication) {
+        try {
+            boolean released = sessionLeaseService.releaseLease(leaseId, authentication.getName());
+            return ResponseEntity.ok(Map.of("lease_id", leaseId, "released", released));
+        } catch (ProfileNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (UnauthorizedAccessException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error releasing session lease {}: {}", leaseId, e.getMessage(), e);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
\ No newline at end of file
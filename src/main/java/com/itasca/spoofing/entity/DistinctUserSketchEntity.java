@@ -0,0 +1,54 @@
+package com.itasca.spoofing.entity;
+
+import com.itasca.spoofing.model.UsageSubject;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * HyperLogLog sketch of the users who used a profile or group on one day.
+ *
+ * Written by {@link com.itasca.spoofing.service.stats.DistinctUserCounter}, which merges new
+ * users into the stored sketch and relies on the version to detect concurrent writers.
+ * Fleet-wide sketches use {@link ProfileStatsRollupEntity#FLEET_PROFILE_ID}.
+ */
+@Entity
+@Table(
+        name = "distinct_user_sketch",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_distinct_user_sketch_subject_date",
+                        columnNames = {"subject_type", "subject_id", "usage_date"})
+        },
+        indexes = {
+                @Index(name = "idx_distinct_user_sketch_date", columnList = "usage_date")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DistinctUserSketchEntity extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "subject_type", nullable = false, length = 10)
+    private UsageSubject subjectType;
+
+    @Column(name = "subject_id", nullable = false)
+    private String subjectId;
+
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    @Lob
+    @Column(name = "sketch", nullable = false, length = 65536)
+    private byte[] sketch;
+
+    @Column(name = "version", nullable = false)
+    @Builder.Default
+    private Long version = 0L;
+}
@@ -7,28 +7,33 @@ import com.itasca.spoofing.model.ProfileType;
 import jakarta.persistence.*;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Entity
+// created_at orders the keyset listings, which skip rows without it
+@AttributeOverride(name = "createdAt", column = @Column(name = "created_at", nullable = false, updatable = false))
 @Table(
         name = "group_profiles",
         indexes = {
                 @Index(name = "idx_group_profile_name", columnList = "name"),
-                @Index(name = "idx_group_profile_status", columnList = "status"),
                 @Index(name = "idx_group_profile_created", columnList = "created_at"),
                 @Index(name = "idx_group_profile_type", columnList = "group_type"),
-                @Index(name = "idx_group_profile_system", columnList = "is_system_generated")
+                @Index(name = "idx_group_profile_system", columnList = "is_system_generated"),
+                @Index(name = "idx_group_profile_status_country", columnList = "status, proxy_country"),
+                @Index(name = "idx_group_profile_status_last_used", columnList = "status, last_used")
         }
 )
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@ToString(exclude = {"urlGroup", "memberProfiles", "assignedUsers", "defaultForProfile"})
-@EqualsAndHashCode(exclude = {"urlGroup", "memberProfiles", "assignedUsers", "defaultForProfile"}, callSuper = true)
+@ToString(exclude = {"urlGroup", "memberProfiles", "memberWeights", "assignedUsers", "defaultForProfile"})
+@EqualsAndHashCode(exclude = {"urlGroup", "memberProfiles", "memberWeights", "assignedUsers", "defaultForProfile"}, callSuper = true)
 public class GroupProfileEntity extends BaseEntity {
 
     @Id
@@ -70,11 +75,23 @@ public class GroupProfileEntity extends BaseEntity {
     @JoinTable(
             name = "group_profile_members",
             joinColumns = @JoinColumn(name = "group_profile_id", foreignKey = @ForeignKey(name = "fk_group_members_group_id")),
-            inverseJoinColumns = @JoinColumn(name = "single_profile_id", foreignKey = @ForeignKey(name = "fk_group_members_profile_id"))
+            inverseJoinColumns = @JoinColumn(name = "single_profile_id", foreignKey = @ForeignKey(name = "fk_group_members_profile_id")),
+            indexes = @Index(name = "idx_group_members_profile", columnList = "single_profile_id, group_profile_id")
     )
     @Builder.Default
     private Set<SingleProfileEntity> memberProfiles = new HashSet<>();
 
+    // Selection weight per member profile ID for weighted mode, members without an entry weigh 1
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(
+            name = "group_profile_member_weights",
+            joinColumns = @JoinColumn(name = "group_profile_id", foreignKey = @ForeignKey(name = "fk_group_member_weights_group_id"))
+    )
+    @MapKeyColumn(name = "single_profile_id", length = 36)
+    @Column(name = "weight", nullable = false)
+    @Builder.Default
+    private Map<String, Integer> memberWeights = new HashMap<>();
+
     // Proxy/IP configuration for the group
     @Embedded
     @Builder.Default
@@ -152,9 +169,17 @@ public class GroupProfileEntity extends BaseEntity {
      */
     public void removeMemberProfile(SingleProfileEntity profile) {
         memberProfiles.remove(profile);
+        memberWeights.remove(profile.getId());
         profile.getMemberOfGroups().remove(this);
     }
 
+    /**
+     * Get selection weight of a member profile
+     */
+    public int getMemberWeight(String profileId) {
+        return memberWeights.getOrDefault(profileId, 1);
+    }
+
     // Business logic methods for profile selection
 
     /**
@@ -177,9 +202,7 @@ public class GroupProfileEntity extends BaseEntity {
             case "sequential":
                 return getSequentialProfile(activeProfiles);
             case "weighted":
-                // For weighted selection, you might need additional weight data
-                // For now, fall back to random
-                return getRandomProfile(activeProfiles);
+                return getWeightedProfile(activeProfiles);
             case "random":
             default:
                 return getRandomProfile(activeProfiles);
@@ -190,11 +213,31 @@ public class GroupProfileEntity extends BaseEntity {
      * Get random profile from active profiles
      */
     private SingleProfileEntity getRandomProfile(List<SingleProfileEntity> activeProfiles) {
-        Random random = new Random();
-        int index = random.nextInt(activeProfiles.size());
+        int index = ThreadLocalRandom.current().nextInt(activeProfiles.size());
         return activeProfiles.get(index);
     }
 
+    /**
+     * Get weighted profile from active profiles
+     */
+    private SingleProfileEntity getWeightedProfile(List<SingleProfileEntity> activeProfiles) {
+        long totalWeight = activeProfiles.stream()
+                .mapToLong(profile -> getMemberWeight(profile.getId()))
+                .sum();
+        if (totalWeight <= 0) {
+            return null;
+        }
+
+        long target = ThreadLocalRandom.current().nextLong(totalWeight);
+        for (SingleProfileEntity profile : activeProfiles) {
+            target -= getMemberWeight(profile.getId());
+            if (target < 0) {
+                return profile;
+            }
+        }
+        return null;
+    }
+
     /**
      * Get sequential profile from active profiles
      */
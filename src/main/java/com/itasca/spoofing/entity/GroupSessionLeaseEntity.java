@@ -0,0 +1,53 @@
+package com.itasca.spoofing.entity;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "group_session_leases",
+        indexes = {
+                @Index(name = "idx_session_lease_group", columnList = "group_id"),
+                @Index(name = "idx_session_lease_expires", columnList = "expires_at"),
+                @Index(name = "idx_session_lease_owner", columnList = "owner_email")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupSessionLeaseEntity extends BaseEntity {
+
+    @Id
+    @Column(name = "id", length = 36, nullable = false)
+    private String id;
+
+    @Column(name = "group_id", length = 36, nullable = false)
+    private String groupId;
+
+    @Column(name = "profile_id", length = 36)
+    private String profileId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "owner_email", nullable = false)
+    private String ownerEmail;
+
+    @Column(name = "acquired_at", nullable = false)
+    private LocalDateTime acquiredAt;
+
+    @Column(name = "last_heartbeat_at", nullable = false)
+    private LocalDateTime lastHeartbeatAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * Check if lease has expired
+     */
+    public boolean isExpired() {
+        return !expiresAt.isAfter(LocalDateTime.now());
+    }
+}
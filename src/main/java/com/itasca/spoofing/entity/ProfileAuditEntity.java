@@ -5,8 +5,22 @@ import com.itasca.spoofing.model.ProfileType;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
+/**
+ * One audited profile action.
+ *
+ * On MySQL the table is range partitioned by month of action_timestamp, see
+ * {@link com.itasca.spoofing.service.audit.AuditPartitionManager}. The primary key is then
+ * (id, action_timestamp) in the database, id stays unique since it is auto-incremented.
+ */
 @Entity
-@Table(name = "profile_audit")
+@Table(
+        name = "profile_audit",
+        indexes = {
+                @Index(name = "idx_profile_audit_profile_time", columnList = "profile_id, action_timestamp, id"),
+                @Index(name = "idx_profile_audit_action_time", columnList = "action, action_timestamp, id"),
+                @Index(name = "idx_profile_audit_time", columnList = "action_timestamp, id")
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
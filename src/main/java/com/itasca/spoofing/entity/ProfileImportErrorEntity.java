@@ -0,0 +1,37 @@
+package com.itasca.spoofing.entity;
+
+import lombok.*;
+import jakarta.persistence.*;
+
+/**
+ * A row of an import that was rejected, with the reason
+ */
+@Entity
+@Table(
+        name = "profile_import_errors",
+        indexes = {
+                @Index(name = "idx_import_error_job_row", columnList = "job_id, row_number")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProfileImportErrorEntity extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", length = 36, nullable = false)
+    private String jobId;
+
+    @Column(name = "row_number", nullable = false)
+    private Long rowNumber;
+
+    @Column(name = "profile_name")
+    private String profileName;
+
+    @Column(name = "message", length = 1000, nullable = false)
+    private String message;
+}
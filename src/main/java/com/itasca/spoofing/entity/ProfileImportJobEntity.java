@@ -0,0 +1,73 @@
+package com.itasca.spoofing.entity;
+
+import com.itasca.spoofing.model.ImportFormat;
+import com.itasca.spoofing.model.ImportJobStatus;
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Bulk profile import. processedRows only moves when a chunk commits,
+ * so a failed or interrupted job resumes from the first uncommitted row.
+ * A running job is held by the run in leaseOwner for as long as it keeps
+ * moving heartbeatAt, after that any instance may take it over.
+ */
+@Entity
+@Table(
+        name = "profile_import_jobs",
+        indexes = {
+                @Index(name = "idx_import_job_status", columnList = "status")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProfileImportJobEntity extends BaseEntity {
+
+    @Id
+    @Column(name = "id", length = 36, nullable = false)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", length = 10, nullable = false)
+    private ImportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    @Builder.Default
+    private ImportJobStatus status = ImportJobStatus.PENDING;
+
+    @Column(name = "source_file", length = 1000, nullable = false)
+    private String sourceFile;
+
+    @Column(name = "processed_rows", nullable = false)
+    @Builder.Default
+    private Long processedRows = 0L;
+
+    @Column(name = "imported_count", nullable = false)
+    @Builder.Default
+    private Long importedCount = 0L;
+
+    @Column(name = "failed_count", nullable = false)
+    @Builder.Default
+    private Long failedCount = 0L;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "error_message", length = 2000)
+    private String errorMessage;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "lease_owner", length = 36)
+    private String leaseOwner;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+}
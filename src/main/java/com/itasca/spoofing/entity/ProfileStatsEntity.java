@@ -6,7 +6,12 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "profile_stats")
+@Table(
+        name = "profile_stats",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_profile_stats_profile_date", columnNames = {"profile_id", "date"})
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,6 +44,15 @@ public class ProfileStatsEntity extends BaseEntity {
     @Builder.Default
     private Integer failureCount = 0;
 
+    // Failures by cause, also counted in failureCount
+    @Column(name = "proxy_failure_count")
+    @Builder.Default
+    private Integer proxyFailureCount = 0;
+
+    @Column(name = "detection_count")
+    @Builder.Default
+    private Integer detectionCount = 0;
+
     public static ProfileStatsEntity createStats(String profileId, ProfileType profileType) {
         return ProfileStatsEntity.builder()
                 .profileId(profileId)
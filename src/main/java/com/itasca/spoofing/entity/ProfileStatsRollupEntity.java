@@ -0,0 +1,73 @@
+package com.itasca.spoofing.entity;
+
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.model.StatsPeriod;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Stats counters of one profile, or of all profiles of a type, summed over a day, week or month.
+ *
+ * Maintained together with the daily profile_stats rows on every stats flush, so a period
+ * report is a single row lookup. Fleet-wide rows use {@link #FLEET_PROFILE_ID}.
+ */
+@Entity
+@Table(
+        name = "profile_stats_rollup",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_stats_rollup_period_profile",
+                        columnNames = {"period", "period_start", "profile_id", "profile_type"})
+        },
+        indexes = {
+                @Index(name = "idx_stats_rollup_period_usage", columnList = "period, period_start, usage_count")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProfileStatsRollupEntity extends BaseEntity {
+
+    public static final String FLEET_PROFILE_ID = "*";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period", nullable = false, length = 10)
+    private StatsPeriod period;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "profile_id", nullable = false)
+    private String profileId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "profile_type", nullable = false, length = 10)
+    private ProfileType profileType;
+
+    @Column(name = "usage_count")
+    @Builder.Default
+    private Long usageCount = 0L;
+
+    @Column(name = "success_count")
+    @Builder.Default
+    private Long successCount = 0L;
+
+    @Column(name = "failure_count")
+    @Builder.Default
+    private Long failureCount = 0L;
+
+    // Failures by cause, also counted in failureCount
+    @Column(name = "proxy_failure_count")
+    @Builder.Default
+    private Long proxyFailureCount = 0L;
+
+    @Column(name = "detection_count")
+    @Builder.Default
+    private Long detectionCount = 0L;
+}
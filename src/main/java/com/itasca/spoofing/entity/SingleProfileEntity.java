@@ -17,13 +17,17 @@ import java.util.Map;
 import java.util.Set;
 
 @Entity
+// created_at orders the keyset listings, which skip rows without it
+@AttributeOverride(name = "createdAt", column = @Column(name = "created_at", nullable = false, updatable = false))
 @Table(
         name = "single_profiles",
         indexes = {
                 @Index(name = "idx_single_profile_name", columnList = "name"),
-                @Index(name = "idx_single_profile_status", columnList = "status"),
                 @Index(name = "idx_single_profile_created", columnList = "created_at"),
-                @Index(name = "idx_single_profile_default_group", columnList = "default_group_id")
+                @Index(name = "idx_single_profile_default_group", columnList = "default_group_id"),
+                @Index(name = "idx_single_profile_status_os", columnList = "status, operating_system, screen_resolution"),
+                @Index(name = "idx_single_profile_status_cores", columnList = "status, hardware_concurrency"),
+                @Index(name = "idx_single_profile_status_last_used", columnList = "status, last_used")
         }
 )
 @Data
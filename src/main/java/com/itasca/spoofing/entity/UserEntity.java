@@ -12,7 +12,14 @@ import java.util.HashSet;
 import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "users")
+// created_at orders the keyset listings, which skip rows without it
+@AttributeOverride(name = "createdAt", column = @Column(name = "created_at", nullable = false, updatable = false))
+@Table(
+        name = "users",
+        indexes = {
+                @Index(name = "idx_user_created", columnList = "created_at, id")
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -107,6 +114,10 @@ public class UserEntity extends BaseEntity implements UserDetails {
         return roles.contains(userRole);
     }
 
+    public boolean hasRoleOrHigher(UserRole userRole) {
+        return roles.stream().anyMatch(role -> role.hasLevelOrHigher(userRole));
+    }
+
     public UserEntity getManager() {
         return manager;
     }
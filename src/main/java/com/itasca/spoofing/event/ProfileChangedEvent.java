@@ -0,0 +1,79 @@
+package com.itasca.spoofing.event;
+
+import com.itasca.spoofing.model.ProfileType;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Published whenever single or group profiles change. Listeners that keep
+ * in-memory state derived from profiles (selection snapshots, caches, indexes)
+ * use it to refresh after the surrounding transaction commits.
+ */
+@Getter
+@ToString
+public class ProfileChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        MEMBERSHIP_CHANGED,
+        WEIGHTS_CHANGED,
+        DELETED
+    }
+
+    private final ProfileType profileType;
+    private final ChangeType changeType;
+    private final Set<String> profileIds;
+
+    // New status for STATUS_CHANGED events, null otherwise
+    private final String status;
+
+    // Changed member weights for WEIGHTS_CHANGED events, empty otherwise
+    private final Map<String, Integer> memberWeights;
+
+    public ProfileChangedEvent(ProfileType profileType, ChangeType changeType, Collection<String> profileIds, String status) {
+        this(profileType, changeType, profileIds, status, Map.of());
+    }
+
+    public ProfileChangedEvent(ProfileType profileType, ChangeType changeType, Collection<String> profileIds,
+                               String status, Map<String, Integer> memberWeights) {
+        this.profileType = profileType;
+        this.changeType = changeType;
+        this.profileIds = Set.copyOf(profileIds);
+        this.status = status;
+        this.memberWeights = Map.copyOf(memberWeights);
+    }
+
+    public static ProfileChangedEvent created(String profileId, ProfileType profileType) {
+        return new ProfileChangedEvent(profileType, ChangeType.CREATED, Set.of(profileId), null);
+    }
+
+    public static ProfileChangedEvent created(Collection<String> profileIds, ProfileType profileType) {
+        return new ProfileChangedEvent(profileType, ChangeType.CREATED, profileIds, null);
+    }
+
+    public static ProfileChangedEvent updated(String profileId, ProfileType profileType) {
+        return new ProfileChangedEvent(profileType, ChangeType.UPDATED, Set.of(profileId), null);
+    }
+
+    public static ProfileChangedEvent statusChanged(Collection<String> profileIds, ProfileType profileType, String status) {
+        return new ProfileChangedEvent(profileType, ChangeType.STATUS_CHANGED, profileIds, status);
+    }
+
+    public static ProfileChangedEvent membershipChanged(String groupId) {
+        return new ProfileChangedEvent(ProfileType.GROUP, ChangeType.MEMBERSHIP_CHANGED, Set.of(groupId), null);
+    }
+
+    public static ProfileChangedEvent weightsChanged(String groupId, Map<String, Integer> memberWeights) {
+        return new ProfileChangedEvent(ProfileType.GROUP, ChangeType.WEIGHTS_CHANGED, Set.of(groupId), null, memberWeights);
+    }
+
+    public static ProfileChangedEvent deleted(Collection<String> profileIds, ProfileType profileType) {
+        return new ProfileChangedEvent(profileType, ChangeType.DELETED, profileIds, null);
+    }
+}
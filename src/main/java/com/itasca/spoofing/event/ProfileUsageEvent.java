@@ -0,0 +1,27 @@
+package com.itasca.spoofing.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a client selects a profile from a group or starts a session in it,
+ * feeds the usage-based popularity rankings.
+ */
+@Getter
+@ToString
+public class ProfileUsageEvent {
+
+    private final String groupId;
+
+    // Selected profile, null when a session does not name one
+    private final String profileId;
+
+    // Acting user, null for selections made without a user
+    private final Long userId;
+
+    public ProfileUsageEvent(String groupId, String profileId, Long userId) {
+        this.groupId = groupId;
+        this.profileId = profileId;
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,45 @@
+package com.itasca.spoofing.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a group session lease is acquired, renewed or released so
+ * the lease reaper can track expiry deadlines in memory.
+ */
+@Getter
+@ToString
+public class SessionLeaseEvent {
+
+    public enum Type {
+        ACQUIRED,
+        RENEWED,
+        RELEASED
+    }
+
+    private final Type type;
+    private final String leaseId;
+
+    // New expiry for ACQUIRED and RENEWED events, null otherwise
+    private final LocalDateTime expiresAt;
+
+    public SessionLeaseEvent(Type type, String leaseId, LocalDateTime expiresAt) {
+        this.type = type;
+        this.leaseId = leaseId;
+        this.expiresAt = expiresAt;
+    }
+
+    public static SessionLeaseEvent acquired(String leaseId, LocalDateTime expiresAt) {
+        return new SessionLeaseEvent(Type.ACQUIRED, leaseId, expiresAt);
+    }
+
+    public static SessionLeaseEvent renewed(String leaseId, LocalDateTime expiresAt) {
+        return new SessionLeaseEvent(Type.RENEWED, leaseId, expiresAt);
+    }
+
+    public static SessionLeaseEvent released(String leaseId) {
+        return new SessionLeaseEvent(Type.RELEASED, leaseId, null);
+    }
+}
@@ -0,0 +1,19 @@
+package com.itasca.spoofing.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a user's roles, status or login email change, or the user is
+ * deleted, so cached authentication for that user is dropped.
+ */
+@Getter
+@ToString
+public class UserAccessChangedEvent {
+
+    private final Long userId;
+
+    public UserAccessChangedEvent(Long userId) {
+        this.userId = userId;
+    }
+}
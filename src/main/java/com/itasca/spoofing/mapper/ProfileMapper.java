@@ -3,17 +3,21 @@ package com.itasca.spoofing.mapper;
 
 import com.itasca.spoofing.model.*;
 import com.itasca.spoofing.entity.*;
+import com.itasca.spoofing.repository.GroupProfileRepository;
 import com.itasca.spoofing.repository.SingleProfileRepository;
 import com.itasca.spoofing.repository.URLGroupRepository;
 import com.itasca.spoofing.repository.UserRepository;
 import com.itasca.spoofing.repository.URLRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.Set;
-import java.util.HashSet;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 public class ProfileMapper {
@@ -30,13 +34,40 @@ public class ProfileMapper {
     @Autowired
     private URLRepository urlRepository;
 
+    @Autowired
+    private GroupProfileRepository groupProfileRepository;
+
     // SingleProfile mappings
 
     public SingleProfileDto toDto(SingleProfileEntity entity) {
         if (entity == null) {
             return null;
         }
+        return toSingleProfileDtos(List.of(entity)).get(0);
+    }
 
+    /**
+     * Map profiles with a constant number of queries, however many profiles and URLs there are
+     */
+    public List<SingleProfileDto> toSingleProfileDtos(Collection<SingleProfileEntity> entities) {
+        List<SingleProfileEntity> profiles = entities.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        prefetchUrlGroups(profiles);
+        Map<String, URLEntity> urlsByValue = prefetchUrls(profiles.stream()
+                .flatMap(profile -> profile.getUrlGroups().stream()));
+
+        return profiles.stream()
+                .map(profile -> toDto(profile, urlsByValue))
+                .collect(Collectors.toList());
+    }
+
+    public Page<SingleProfileDto> toSingleProfileDtoPage(Page<SingleProfileEntity> page) {
+        return new PageImpl<>(toSingleProfileDtos(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    private SingleProfileDto toDto(SingleProfileEntity entity, Map<String, URLEntity> urlsByValue) {
         return SingleProfileDto.builder()
                 .id(entity.getId())
                 .name(entity.getName())
@@ -55,7 +86,9 @@ public class ProfileMapper {
                 .cookiesEnabled(entity.getCookiesEnabled())
                 .geolocationEnabled(entity.getGeolocationEnabled())
                 .doNotTrack(entity.getDoNotTrack())
-                .urlGroups(entity.getUrlGroups().stream().map(this::toDto).collect(Collectors.toList()))
+                .urlGroups(entity.getUrlGroups().stream()
+                        .map(urlGroup -> toDto(urlGroup, urlsByValue))
+                        .collect(Collectors.toList()))
                 .defaultUrlGroup(entity.getDefaultUrlGroup())
                 .status(entity.getStatus())
                 .created(entity.getCreatedAt() != null ? entity.getCreatedAt().toString() : null)
@@ -111,7 +144,41 @@ public class ProfileMapper {
         if (entity == null) {
             return null;
         }
+        return toGroupProfileDtos(List.of(entity)).get(0);
+    }
+
+    /**
+     * Map groups with a constant number of queries, however many groups, members and URLs there are
+     */
+    public List<GroupProfileDto> toGroupProfileDtos(Collection<GroupProfileEntity> entities) {
+        List<GroupProfileEntity> groups = entities.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        prefetchGroupCollections(groups);
+        Map<String, Set<Long>> assignedUserIds = prefetchAssignedUserIds(groups);
+
+        List<SingleProfileEntity> members = groups.stream()
+                .flatMap(group -> group.getMemberProfiles().stream())
+                .distinct()
+                .collect(Collectors.toList());
+        prefetchUrlGroups(members);
 
+        Map<String, URLEntity> urlsByValue = prefetchUrls(Stream.concat(
+                members.stream().flatMap(member -> member.getUrlGroups().stream()),
+                groups.stream().map(GroupProfileEntity::getUrlGroup).filter(Objects::nonNull)));
+
+        return groups.stream()
+                .map(group -> toDto(group, urlsByValue, assignedUserIds))
+                .collect(Collectors.toList());
+    }
+
+    public Page<GroupProfileDto> toGroupProfileDtoPage(Page<GroupProfileEntity> page) {
+        return new PageImpl<>(toGroupProfileDtos(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    private GroupProfileDto toDto(GroupProfileEntity entity, Map<String, URLEntity> urlsByValue,
+                                  Map<String, Set<Long>> assignedUserIds) {
         return GroupProfileDto.builder()
                 .id(entity.getId())
                 .name(entity.getName())
@@ -121,18 +188,19 @@ public class ProfileMapper {
                         .map(SingleProfileEntity::getId)
                         .collect(Collectors.toSet()))
                 .memberProfiles(entity.getMemberProfiles().stream()
-                        .map(this::toDto)
+                        .map(member -> toDto(member, urlsByValue))
                         .collect(Collectors.toCollection(HashSet::new)))
-                .assignedUserIds(entity.getAssignedUsers().stream()
-                        .map(UserEntity::getId)
-                        .collect(Collectors.toSet()))
+                .memberWeights(new HashMap<>(entity.getMemberWeights()))
+                .assignedUserIds(Hibernate.isInitialized(entity.getAssignedUsers())
+                        ? entity.getAssignedUsers().stream().map(UserEntity::getId).collect(Collectors.toSet())
+                        : new HashSet<>(assignedUserIds.getOrDefault(entity.getId(), Set.of())))
                 .selectionMode(entity.getSelectionMode())
                 .currentProfileIndex(entity.getCurrentProfileIndex())
                 .proxyConfig(toDto(entity.getProxyConfig()))
                 .timezone(entity.getTimezone())
                 .language(entity.getLanguage())
                 .urlGroupId(entity.getUrlGroupId())
-                .urlGroup(entity.getUrlGroup() != null ? toDto(entity.getUrlGroup()) : null)
+                .urlGroup(entity.getUrlGroup() != null ? toDto(entity.getUrlGroup(), urlsByValue) : null)
                 .status(entity.getStatus())
                 .created(entity.getCreatedAt() != null ? entity.getCreatedAt().toString() : null)
                 .lastUsed(entity.getLastUsed())
@@ -161,20 +229,24 @@ public class ProfileMapper {
 
         // Map member profiles
         if (dto.getMemberProfileIds() != null && !dto.getMemberProfileIds().isEmpty()) {
-            Set<SingleProfileEntity> memberProfiles = new HashSet<>();
-            for (String profileId : dto.getMemberProfileIds()) {
-                singleProfileRepository.findById(profileId).ifPresent(memberProfiles::add);
+            entity.setMemberProfiles(new HashSet<>(singleProfileRepository.findAllById(dto.getMemberProfileIds())));
+        }
+
+        // Map member weights, only for profiles that are members
+        if (dto.getMemberWeights() != null && !dto.getMemberWeights().isEmpty()) {
+            Map<String, Integer> memberWeights = new HashMap<>();
+            for (SingleProfileEntity member : entity.getMemberProfiles()) {
+                Integer weight = dto.getMemberWeights().get(member.getId());
+                if (weight != null) {
+                    memberWeights.put(member.getId(), weight);
+                }
             }
-            entity.setMemberProfiles(memberProfiles);
+            entity.setMemberWeights(memberWeights);
         }
         
         // Map assigned users
         if (dto.getAssignedUserIds() != null && !dto.getAssignedUserIds().isEmpty()) {
-            Set<UserEntity> assignedUsers = new HashSet<>();
-            for (Long userId : dto.getAssignedUserIds()) {
-                userRepository.findById(userId).ifPresent(assignedUsers::add);
-            }
-            entity.setAssignedUsers(assignedUsers);
+            entity.setAssignedUsers(new HashSet<>(userRepository.findAllById(dto.getAssignedUserIds())));
         }
 
         // Map URL group by ID
@@ -192,11 +264,14 @@ public class ProfileMapper {
         if (entity == null) {
             return null;
         }
+        return toDto(entity, prefetchUrls(Stream.of(entity)));
+    }
 
+    private URLGroupDto toDto(URLGroupEntity entity, Map<String, URLEntity> urlsByValue) {
         // Convert URL strings to URLDto objects with proper IDs
         List<URLDto> urlDtos = entity.getUrls().stream()
                 .map(urlString -> {
-                    URLEntity urlEntity = urlRepository.findByUrl(urlString);
+                    URLEntity urlEntity = urlsByValue.get(urlString);
                     if (urlEntity != null) {
                         return URLDto.builder()
                                 .id(urlEntity.getId())
@@ -235,6 +310,82 @@ public class ProfileMapper {
                 .build();
     }
 
+    // Batch loading
+    // Lazy associations that are not loaded yet are fetched with one IN query per
+    // association. The fetch joins initialize the collections of the entities
+    // already in the persistence context, so mapping afterwards runs no queries.
+
+    private void prefetchGroupCollections(List<GroupProfileEntity> groups) {
+        List<String> withoutMembers = groups.stream()
+                .filter(group -> !Hibernate.isInitialized(group.getMemberProfiles()))
+                .map(GroupProfileEntity::getId)
+                .collect(Collectors.toList());
+        if (!withoutMembers.isEmpty()) {
+            groupProfileRepository.findAllWithMembersByIdIn(withoutMembers);
+        }
+
+        List<String> withoutWeights = groups.stream()
+                .filter(group -> !Hibernate.isInitialized(group.getMemberWeights()))
+                .map(GroupProfileEntity::getId)
+                .collect(Collectors.toList());
+        if (!withoutWeights.isEmpty()) {
+            groupProfileRepository.findAllWithMemberWeightsByIdIn(withoutWeights);
+        }
+    }
+
+    private Map<String, Set<Long>> prefetchAssignedUserIds(List<GroupProfileEntity> groups) {
+        List<String> withoutUsers = groups.stream()
+                .filter(group -> !Hibernate.isInitialized(group.getAssignedUsers()))
+                .map(GroupProfileEntity::getId)
+                .collect(Collectors.toList());
+        if (withoutUsers.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, Set<Long>> userIds = new HashMap<>();
+        for (Object[] row : groupProfileRepository.findAssignedUserIds(withoutUsers)) {
+            userIds.computeIfAbsent((String) row[0], id -> new HashSet<>()).add((Long) row[1]);
+        }
+        return userIds;
+    }
+
+    private void prefetchUrlGroups(List<SingleProfileEntity> profiles) {
+        List<String> withoutUrlGroups = profiles.stream()
+                .filter(profile -> !Hibernate.isInitialized(profile.getUrlGroups()))
+                .map(SingleProfileEntity::getId)
+                .collect(Collectors.toList());
+        if (!withoutUrlGroups.isEmpty()) {
+            singleProfileRepository.findAllWithUrlGroupsByIdIn(withoutUrlGroups);
+        }
+    }
+
+    /**
+     * Load the URL lists of the given URL groups and the URL entities they refer to,
+     * returns the URL entities by URL
+     */
+    private Map<String, URLEntity> prefetchUrls(Stream<URLGroupEntity> urlGroups) {
+        // Identity based, URLGroupEntity equality would initialize its lazy associations
+        Set<URLGroupEntity> groups = urlGroups.collect(Collectors.toCollection(
+                () -> Collections.newSetFromMap(new IdentityHashMap<>())));
+
+        List<Long> withoutUrls = groups.stream()
+                .filter(group -> !Hibernate.isInitialized(group) || !Hibernate.isInitialized(group.getUrls()))
+                .map(URLGroupEntity::getId)
+                .collect(Collectors.toList());
+        if (!withoutUrls.isEmpty()) {
+            urlGroupRepository.findAllWithUrlsByIdIn(withoutUrls);
+        }
+
+        Set<String> urls = groups.stream()
+                .flatMap(group -> group.getUrls().stream())
+                .collect(Collectors.toSet());
+        if (urls.isEmpty()) {
+            return Map.of();
+        }
+        return urlRepository.findByUrlIn(urls).stream()
+                .collect(Collectors.toMap(URLEntity::getUrl, Function.identity(), (first, second) -> first));
+    }
+
     // ProxyConfig mappings
 
     public ProxyConfig toDto(ProxyConfigEntity entity) {
@@ -0,0 +1,36 @@
+package com.itasca.spoofing.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk status update or delete
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOperationResultDto {
+
+    private int requested;
+
+    // Profiles changed or deleted
+    private int affected;
+
+    // Profiles that already had the requested status
+    private int unchanged;
+
+    @JsonProperty("not_found_ids")
+    @Builder.Default
+    private List<String> notFoundIds = new ArrayList<>();
+
+    // Rows removed per table, including join tables and cascaded rows
+    @JsonProperty("deleted_rows")
+    @Builder.Default
+    private Map<String, Integer> deletedRows = new LinkedHashMap<>();
+}
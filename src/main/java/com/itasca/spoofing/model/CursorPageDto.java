@@ -0,0 +1,51 @@
+package com.itasca.spoofing.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset listing. next_cursor is null on the last page,
+ * total_count is only filled when the caller asked for it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageDto<T> {
+
+    private List<T> items;
+
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    @JsonProperty("has_more")
+    private boolean hasMore;
+
+    private int size;
+
+    @JsonProperty("total_count")
+    private Long totalCount;
+
+    /**
+     * Build a page from rows fetched with a limit of size + 1, the extra row only signals that more exist
+     */
+    public static <E, T> CursorPageDto<T> of(List<E> rows, int size, Function<E, String> cursorOf,
+                                            Function<List<E>, List<T>> mapper, Long totalCount) {
+        boolean hasMore = rows.size() > size;
+        List<E> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null;
+
+        return CursorPageDto.<T>builder()
+                .items(mapper.apply(pageRows))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .size(pageRows.size())
+                .totalCount(totalCount)
+                .build();
+    }
+}
@@ -10,6 +10,8 @@ import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.HashMap;
 import java.util.ArrayList;
 import java.util.Set;
 import java.util.HashSet;
@@ -67,6 +69,11 @@ public class GroupProfileDto {
     @Builder.Default
     private Set<String> memberProfileIds = new HashSet<>();
 
+    // Selection weight per member profile ID, used by weighted selection mode (defaults to 1)
+    @JsonProperty("member_weights")
+    @Builder.Default
+    private Map<String, @Min(value = 0, message = "Member weight cannot be negative") Integer> memberWeights = new HashMap<>();
+
     // Proxy/IP configuration for the group
     @JsonProperty("proxy_config")
     @Valid
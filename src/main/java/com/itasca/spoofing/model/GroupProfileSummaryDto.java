@@ -0,0 +1,42 @@
+package com.itasca.spoofing.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.itasca.spoofing.entity.GroupType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * List view of a group profile, selected column by column without loading the entity or its members
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupProfileSummaryDto {
+
+    private String id;
+    private String name;
+    private String status;
+
+    @JsonProperty("group_type")
+    private GroupType groupType;
+
+    @JsonProperty("selection_mode")
+    private String selectionMode;
+
+    @JsonProperty("member_count")
+    private Integer memberCount;
+
+    @JsonProperty("last_used")
+    private String lastUsed;
+
+    private String created;
+
+    // Used by JPQL constructor expressions
+    public GroupProfileSummaryDto(String id, String name, String status, GroupType groupType, String selectionMode,
+                                  Integer memberCount, String lastUsed, LocalDateTime createdAt) {
+        this(id, name, status, groupType, selectionMode, memberCount, lastUsed,
+                createdAt != null ? createdAt.toString() : null);
+    }
+}
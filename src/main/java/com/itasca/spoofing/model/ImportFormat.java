@@ -0,0 +1,31 @@
+package com.itasca.spoofing.model;
+
+/**
+ * Input format of a bulk profile import
+ */
+public enum ImportFormat {
+    NDJSON("ndjson"),
+    CSV("csv");
+
+    private final String value;
+
+    ImportFormat(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Format for a request parameter value, or null if it is not a known format
+     */
+    public static ImportFormat fromValue(String value) {
+        for (ImportFormat format : values()) {
+            if (format.value.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
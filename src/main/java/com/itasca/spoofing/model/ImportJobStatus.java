@@ -0,0 +1,8 @@
+package com.itasca.spoofing.model;
+
+public enum ImportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
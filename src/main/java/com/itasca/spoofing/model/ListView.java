@@ -0,0 +1,31 @@
+package com.itasca.spoofing.model;
+
+/**
+ * Shape of list endpoint responses, selected with the {@code view} request parameter
+ */
+public enum ListView {
+    SUMMARY("summary"),
+    FULL("full");
+
+    private final String value;
+
+    ListView(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * View for a request parameter value, or null if it is not a known view
+     */
+    public static ListView fromValue(String value) {
+        for (ListView view : values()) {
+            if (view.value.equalsIgnoreCase(value)) {
+                return view;
+            }
+        }
+        return null;
+    }
+}
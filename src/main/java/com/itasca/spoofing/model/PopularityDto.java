@@ -0,0 +1,27 @@
+package com.itasca.spoofing.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+/**
+ * Estimated usage of a group or profile in a popularity window. The true count is
+ * between usage_count - max_error and usage_count.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PopularityDto {
+
+    private int rank;
+
+    private String id;
+
+    private String name;
+
+    @JsonProperty("usage_count")
+    private long usageCount;
+
+    @JsonProperty("max_error")
+    private long maxError;
+}
@@ -0,0 +1,53 @@
+package com.itasca.spoofing.model;
+
+import java.time.Duration;
+
+/**
+ * Time window of a usage popularity ranking
+ */
+public enum PopularityWindow {
+    HOUR("1h", Duration.ofHours(1), 12),
+    DAY("24h", Duration.ofHours(24), 24),
+    WEEK("7d", Duration.ofDays(7), 28),
+    ALL("all", null, 0);
+
+    private final String value;
+    private final Duration length;
+    private final int buckets;
+
+    PopularityWindow(String value, Duration length, int buckets) {
+        this.value = value;
+        this.length = length;
+        this.buckets = buckets;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Length of the window, null for all time
+     */
+    public Duration getLength() {
+        return length;
+    }
+
+    /**
+     * Slices the window is tracked in
+     */
+    public int getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * Window for a request parameter value, or null if it is not a known window
+     */
+    public static PopularityWindow fromValue(String value) {
+        for (PopularityWindow window : values()) {
+            if (window.value.equalsIgnoreCase(value)) {
+                return window;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,75 @@
+package com.itasca.spoofing.model;
+
+import com.itasca.spoofing.entity.GroupType;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Server-side filter for single and group profile listings.
+ *
+ * Every criterion is optional and criteria are combined with AND; list values match any
+ * of their entries. Criteria that do not exist on a profile type are ignored, e.g.
+ * operating_system for groups or group_type for single profiles.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode
+public class ProfileFilterDto {
+
+    @JsonProperty("status")
+    private List<String> statuses;
+
+    // Single profiles only
+    @JsonProperty("operating_system")
+    private List<String> operatingSystems;
+
+    @JsonProperty("screen_resolution")
+    private List<String> screenResolutions;
+
+    @JsonProperty("min_hardware_concurrency")
+    private Integer minHardwareConcurrency;
+
+    @JsonProperty("max_hardware_concurrency")
+    private Integer maxHardwareConcurrency;
+
+    // Single profiles: member of any group with this proxy country; groups: own proxy country
+    @JsonProperty("proxy_country")
+    private List<String> proxyCountries;
+
+    // Single profiles only: member of any of these groups
+    @JsonProperty("group_id")
+    private List<String> groupIds;
+
+    // Group profiles only
+    @JsonProperty("group_type")
+    private List<GroupType> groupTypes;
+
+    @JsonProperty("selection_mode")
+    private List<String> selectionModes;
+
+    // Group profiles only: contains any of these single profiles
+    @JsonProperty("member_profile_id")
+    private List<String> memberProfileIds;
+
+    @JsonProperty("last_used_from")
+    private LocalDateTime lastUsedFrom;
+
+    @JsonProperty("last_used_to")
+    private LocalDateTime lastUsedTo;
+
+    // true: never used, false: used at least once
+    @JsonProperty("never_used")
+    private Boolean neverUsed;
+
+    @JsonProperty("created_from")
+    private LocalDateTime createdFrom;
+
+    @JsonProperty("created_to")
+    private LocalDateTime createdTo;
+}
@@ -0,0 +1,19 @@
+package com.itasca.spoofing.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProfileImportErrorDto {
+
+    @JsonProperty("row_number")
+    private Long rowNumber;
+
+    @JsonProperty("profile_name")
+    private String profileName;
+
+    private String message;
+}
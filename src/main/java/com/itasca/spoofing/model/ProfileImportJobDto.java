@@ -0,0 +1,43 @@
+package com.itasca.spoofing.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProfileImportJobDto {
+
+    @JsonProperty("job_id")
+    private String jobId;
+
+    private ImportFormat format;
+    private ImportJobStatus status;
+
+    @JsonProperty("processed_rows")
+    private Long processedRows;
+
+    @JsonProperty("imported_count")
+    private Long importedCount;
+
+    @JsonProperty("failed_count")
+    private Long failedCount;
+
+    @JsonProperty("created_by")
+    private String createdBy;
+
+    @JsonProperty("error_message")
+    private String errorMessage;
+
+    @JsonProperty("created_at")
+    private LocalDateTime createdAt;
+
+    @JsonProperty("started_at")
+    private LocalDateTime startedAt;
+
+    @JsonProperty("finished_at")
+    private LocalDateTime finishedAt;
+}
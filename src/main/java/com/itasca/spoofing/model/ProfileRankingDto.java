@@ -0,0 +1,32 @@
+package com.itasca.spoofing.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProfileRankingDto {
+
+    private int rank;
+
+    @JsonProperty("profile_id")
+    private String profileId;
+
+    @JsonProperty("profile_type")
+    private ProfileType profileType;
+
+    @JsonProperty("usage_count")
+    private long usageCount;
+
+    @JsonProperty("success_count")
+    private long successCount;
+
+    @JsonProperty("failure_count")
+    private long failureCount;
+
+    // Percent of sessions that succeeded
+    @JsonProperty("success_rate")
+    private double successRate;
+}
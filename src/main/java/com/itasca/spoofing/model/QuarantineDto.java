@@ -0,0 +1,27 @@
+package com.itasca.spoofing.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuarantineDto {
+
+    @JsonProperty("profile_id")
+    private String profileId;
+
+    private String reason;
+
+    @JsonProperty("quarantined_at")
+    private LocalDateTime quarantinedAt;
+
+    @JsonProperty("released_at")
+    private LocalDateTime releasedAt;
+
+    // Consecutive quarantines, each one doubles the cool-off
+    private int strikes;
+}
@@ -0,0 +1,31 @@
+package com.itasca.spoofing.model;
+
+/**
+ * What a stats leaderboard ranks profiles by
+ */
+public enum RankingMetric {
+    USAGE("usage"),
+    SUCCESS_RATE("success_rate");
+
+    private final String value;
+
+    RankingMetric(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Metric for a request parameter value, or null if it is not a known metric
+     */
+    public static RankingMetric fromValue(String value) {
+        for (RankingMetric metric : values()) {
+            if (metric.value.equalsIgnoreCase(value)) {
+                return metric;
+            }
+        }
+        return null;
+    }
+}
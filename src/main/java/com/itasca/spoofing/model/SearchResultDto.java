@@ -0,0 +1,25 @@
+package com.itasca.spoofing.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results, best match first
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchResultDto<T> {
+
+    private List<T> items;
+
+    @JsonProperty("total_hits")
+    private int totalHits;
+
+    private int page;
+
+    private int size;
+}
@@ -0,0 +1,37 @@
+package com.itasca.spoofing.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SessionLeaseDto {
+
+    @JsonProperty("lease_id")
+    private String leaseId;
+
+    @JsonProperty("group_id")
+    private String groupId;
+
+    @JsonProperty("profile_id")
+    private String profileId;
+
+    @JsonProperty("user_id")
+    private Long userId;
+
+    @JsonProperty("acquired_at")
+    private LocalDateTime acquiredAt;
+
+    @JsonProperty("last_heartbeat_at")
+    private LocalDateTime lastHeartbeatAt;
+
+    @JsonProperty("expires_at")
+    private LocalDateTime expiresAt;
+
+    @JsonProperty("ttl_seconds")
+    private Long ttlSeconds;
+}
@@ -0,0 +1,37 @@
+package com.itasca.spoofing.model;
+
+/**
+ * How a session on a profile ended, as reported by the client
+ */
+public enum SessionOutcome {
+    SUCCESS("success"),
+    FAILURE("failure"),
+    PROXY_FAILURE("proxy_failure"),
+    FINGERPRINT_DETECTION("fingerprint_detection");
+
+    private final String value;
+
+    SessionOutcome(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public boolean isFailure() {
+        return this != SUCCESS;
+    }
+
+    /**
+     * Outcome for a request parameter value, or null if it is not a known outcome
+     */
+    public static SessionOutcome fromValue(String value) {
+        for (SessionOutcome outcome : values()) {
+            if (outcome.value.equalsIgnoreCase(value)) {
+                return outcome;
+            }
+        }
+        return null;
+    }
+}
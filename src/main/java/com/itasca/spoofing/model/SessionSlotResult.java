@@ -0,0 +1,11 @@
+package com.itasca.spoofing.model;
+
+public enum SessionSlotResult {
+    ACQUIRED,
+    CAPACITY_REACHED,
+    GROUP_NOT_FOUND;
+
+    public boolean isAcquired() {
+        return this == ACQUIRED;
+    }
+}
@@ -0,0 +1,34 @@
+package com.itasca.spoofing.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * List view of a single profile, selected column by column without loading the entity
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SingleProfileSummaryDto {
+
+    private String id;
+    private String name;
+    private String status;
+
+    @JsonProperty("operating_system")
+    private String operatingSystem;
+
+    @JsonProperty("last_used")
+    private String lastUsed;
+
+    private String created;
+
+    // Used by JPQL constructor expressions
+    public SingleProfileSummaryDto(String id, String name, String status, String operatingSystem,
+                                   String lastUsed, LocalDateTime createdAt) {
+        this(id, name, status, operatingSystem, lastUsed, createdAt != null ? createdAt.toString() : null);
+    }
+}
@@ -0,0 +1,49 @@
+package com.itasca.spoofing.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * Length of a stats rollup period, weeks start on Monday
+ */
+public enum StatsPeriod {
+    DAY("day"),
+    WEEK("week"),
+    MONTH("month");
+
+    private final String value;
+
+    StatsPeriod(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * First day of the period containing the date
+     */
+    public LocalDate startOf(LocalDate date) {
+        switch (this) {
+            case WEEK:
+                return date.with(DayOfWeek.MONDAY);
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date;
+        }
+    }
+
+    /**
+     * Period for a request parameter value, or null if it is not a known period
+     */
+    public static StatsPeriod fromValue(String value) {
+        for (StatsPeriod period : values()) {
+            if (period.value.equalsIgnoreCase(value)) {
+                return period;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.itasca.spoofing.model;
+
+/**
+ * What a distinct user count is kept for
+ */
+public enum UsageSubject {
+    PROFILE("profile"),
+    GROUP("group");
+
+    private final String value;
+
+    UsageSubject(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
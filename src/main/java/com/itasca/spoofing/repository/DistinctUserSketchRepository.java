@@ -0,0 +1,124 @@
+package com.itasca.spoofing.repository;
+
+import com.itasca.spoofing.model.UsageSubject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and compare-and-set writes of distinct_user_sketch rows
+ */
+@Repository
+public class DistinctUserSketchRepository {
+
+    public static final class StoredSketch {
+        private final long id;
+        private final long version;
+        private final byte[] sketch;
+
+        private StoredSketch(long id, long version, byte[] sketch) {
+            this.id = id;
+            this.version = version;
+            this.sketch = sketch;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public byte[] getSketch() {
+            return sketch;
+        }
+    }
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Sketches of one subject for the days from through to
+     */
+    public List<byte[]> findSketches(UsageSubject subject, String subjectId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+                "SELECT sketch FROM distinct_user_sketch " +
+                        "WHERE subject_type = :subject AND subject_id = :subjectId AND usage_date BETWEEN :from AND :to",
+                new MapSqlParameterSource()
+                        .addValue("subject", subject.name())
+                        .addValue("subjectId", subjectId)
+                        .addValue("from", Date.valueOf(from))
+                        .addValue("to", Date.valueOf(to)),
+                (rs, rowNum) -> rs.getBytes(1));
+    }
+
+    /**
+     * Stored sketches of one day by subject id, subjects without one are left out
+     */
+    public Map<String, StoredSketch> findDay(UsageSubject subject, LocalDate date, Collection<String> subjectIds) {
+        Map<String, StoredSketch> sketches = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, subject_id, version, sketch FROM distinct_user_sketch " +
+                        "WHERE subject_type = :subject AND usage_date = :date AND subject_id IN (:subjectIds)",
+                new MapSqlParameterSource()
+                        .addValue("subject", subject.name())
+                        .addValue("date", Date.valueOf(date))
+                        .addValue("subjectIds", subjectIds),
+                rs -> {
+                    sketches.put(rs.getString(2), new StoredSketch(rs.getLong(1), rs.getLong(3), rs.getBytes(4)));
+                });
+        return sketches;
+    }
+
+    /**
+     * Store the first sketch of a subject and day, false if another writer stored one first
+     */
+    public boolean insert(UsageSubject subject, String subjectId, LocalDate date, byte[] sketch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO distinct_user_sketch (subject_type, subject_id, usage_date, sketch, version, created_at, updated_at) " +
+                            "VALUES (:subject, :subjectId, :date, :sketch, 0, :now, :now)",
+                    new MapSqlParameterSource()
+                            .addValue("subject", subject.name())
+                            .addValue("subjectId", subjectId)
+                            .addValue("date", Date.valueOf(date))
+                            .addValue("sketch", sketch)
+                            .addValue("now", now));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Replace a sketch read at the given version, false if another writer changed it since
+     */
+    public boolean update(long id, long version, byte[] sketch) {
+        return jdbcTemplate.update(
+                "UPDATE distinct_user_sketch SET sketch = :sketch, version = version + 1, updated_at = :now " +
+                        "WHERE id = :id AND version = :version",
+                new MapSqlParameterSource()
+                        .addValue("sketch", sketch)
+                        .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+                        .addValue("id", id)
+                        .addValue("version", version)) == 1;
+    }
+
+    public int deleteBefore(LocalDate cutoff) {
+        return jdbcTemplate.update("DELETE FROM distinct_user_sketch WHERE usage_date < :cutoff",
+                new MapSqlParameterSource("cutoff", Date.valueOf(cutoff)));
+    }
+}
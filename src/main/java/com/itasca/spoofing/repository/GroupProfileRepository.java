@@ -3,25 +3,42 @@ package com.itasca.spoofing.repository;
 
 import com.itasca.spoofing.entity.GroupProfileEntity;
 import com.itasca.spoofing.entity.GroupType;
+import com.itasca.spoofing.model.GroupProfileSummaryDto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface GroupProfileRepository extends JpaRepository<GroupProfileEntity, String> {
+public interface GroupProfileRepository extends JpaRepository<GroupProfileEntity, String>, JpaSpecificationExecutor<GroupProfileEntity> {
 
     /**
      * Find groups by name (case insensitive)
      */
     List<GroupProfileEntity> findByNameContainingIgnoreCase(String name);
 
+    /**
+     * Find search index documents (id, name, description) after an ID
+     */
+    @Query("SELECT g.id, g.name, g.description FROM GroupProfileEntity g WHERE g.id > :afterId ORDER BY g.id")
+    List<Object[]> findSearchDocumentsAfter(@Param("afterId") String afterId, Limit limit);
+
+    /**
+     * Find search index documents for the given IDs
+     */
+    @Query("SELECT g.id, g.name, g.description FROM GroupProfileEntity g WHERE g.id IN :ids")
+    List<Object[]> findSearchDocuments(@Param("ids") Collection<String> ids);
+
     /**
      * Find groups by status
      */
@@ -66,6 +83,24 @@ public interface GroupProfileRepository extends JpaRepository<GroupProfileEntity
     @Query("SELECT g FROM GroupProfileEntity g JOIN g.assignedUsers u WHERE u.id = :userId AND g.status = 'Active'")
     List<GroupProfileEntity> findActiveGroupsForUser(@Param("userId") Long userId);
 
+    /**
+     * IDs of the groups containing any of the profiles
+     */
+    @Query("SELECT DISTINCT g.id FROM GroupProfileEntity g JOIN g.memberProfiles p WHERE p.id IN :profileIds")
+    List<String> findGroupIdsContainingProfiles(@Param("profileIds") Collection<String> profileIds);
+
+    /**
+     * Whether a profile is a member of a group
+     */
+    @Query("SELECT COUNT(p) > 0 FROM GroupProfileEntity g JOIN g.memberProfiles p WHERE g.id = :groupId AND p.id = :profileId")
+    boolean isMember(@Param("groupId") String groupId, @Param("profileId") String profileId);
+
+    /**
+     * ID and email of the users assigned to any of the groups
+     */
+    @Query("SELECT DISTINCT u.id, u.email FROM GroupProfileEntity g JOIN g.assignedUsers u WHERE g.id IN :ids")
+    List<Object[]> findAssignedUserKeys(@Param("ids") Collection<String> ids);
+
     /**
      * Find default group for profile
      */
@@ -126,4 +161,140 @@ public interface GroupProfileRepository extends JpaRepository<GroupProfileEntity
      */
     @Query("SELECT g FROM GroupProfileEntity g LEFT JOIN FETCH g.memberProfiles LEFT JOIN FETCH g.assignedUsers WHERE g.id = :id")
     Optional<GroupProfileEntity> findByIdWithMembers(@Param("id") String id);
-}
\ No newline at end of file
+
+    /**
+     * Find selection mode of a group without loading the entity
+     */
+    @Query("SELECT g.selectionMode FROM GroupProfileEntity g WHERE g.id = :id")
+    Optional<String> findSelectionModeById(@Param("id") String id);
+
+    /**
+     * Find summaries of all groups, selecting only the list view columns and the member count
+     */
+    @Query("SELECT new com.itasca.spoofing.model.GroupProfileSummaryDto(" +
+            "g.id, g.name, g.status, g.groupType, g.selectionMode, SIZE(g.memberProfiles), g.lastUsed, g.createdAt) " +
+            "FROM GroupProfileEntity g")
+    List<GroupProfileSummaryDto> findAllSummaries();
+
+    /**
+     * Find a page of group summaries of one type, selecting only the list view columns and the member count
+     */
+    @Query(value = "SELECT new com.itasca.spoofing.model.GroupProfileSummaryDto(" +
+            "g.id, g.name, g.status, g.groupType, g.selectionMode, SIZE(g.memberProfiles), g.lastUsed, g.createdAt) " +
+            "FROM GroupProfileEntity g WHERE g.groupType = :groupType",
+            countQuery = "SELECT COUNT(g) FROM GroupProfileEntity g WHERE g.groupType = :groupType")
+    Page<GroupProfileSummaryDto> findSummariesByGroupType(@Param("groupType") GroupType groupType, Pageable pageable);
+
+    /**
+     * Load groups with their member profiles in one query
+     */
+    @Query("SELECT DISTINCT g FROM GroupProfileEntity g LEFT JOIN FETCH g.memberProfiles WHERE g.id IN :ids")
+    List<GroupProfileEntity> findAllWithMembersByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Load groups with their member weights in one query
+     */
+    @Query("SELECT DISTINCT g FROM GroupProfileEntity g LEFT JOIN FETCH g.memberWeights WHERE g.id IN :ids")
+    List<GroupProfileEntity> findAllWithMemberWeightsByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Find [group id, user id] rows of assigned users without loading the users
+     */
+    @Query("SELECT g.id, u.id FROM GroupProfileEntity g JOIN g.assignedUsers u WHERE g.id IN :ids")
+    List<Object[]> findAssignedUserIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * Find member profile IDs and statuses of a group as [id, status] rows
+     */
+    @Query("SELECT p.id, p.status FROM GroupProfileEntity g JOIN g.memberProfiles p WHERE g.id = :groupId ORDER BY p.id")
+    List<Object[]> findMemberStatuses(@Param("groupId") String groupId);
+
+    /**
+     * Find explicit member weights of a group as [profileId, weight] rows
+     */
+    @Query("SELECT KEY(w), VALUE(w) FROM GroupProfileEntity g JOIN g.memberWeights w WHERE g.id = :groupId")
+    List<Object[]> findMemberWeights(@Param("groupId") String groupId);
+
+    /**
+     * Check whether a group can accept another session without loading the entity
+     */
+    @Query("SELECT CASE WHEN g.currentActiveSessions < g.maxConcurrentUsage THEN true ELSE false END FROM GroupProfileEntity g WHERE g.id = :id")
+    Optional<Boolean> hasAvailableCapacity(@Param("id") String id);
+
+    /**
+     * Update last used value of a group without loading the entity
+     */
+    @Modifying
+    @Query("UPDATE GroupProfileEntity g SET g.lastUsed = :lastUsed WHERE g.id = :id")
+    int updateLastUsed(@Param("id") String id, @Param("lastUsed") String lastUsed);
+
+    /**
+     * Find current active session count of a group without loading the entity
+     */
+    @Query("SELECT g.currentActiveSessions FROM GroupProfileEntity g WHERE g.id = :id")
+    Optional<Integer> findCurrentActiveSessionsById(@Param("id") String id);
+
+    /**
+     * Read the session counter of a group and lock its row until the transaction ends
+     */
+    @Query(value = "SELECT current_active_sessions FROM group_profiles WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockCurrentActiveSessions(@Param("id") String id);
+
+    /**
+     * Overwrite the session counter of a group
+     */
+    @Modifying
+    @Query("UPDATE GroupProfileEntity g SET g.currentActiveSessions = :sessions WHERE g.id = :id")
+    int setCurrentActiveSessions(@Param("id") String id, @Param("sessions") int sessions);
+
+    /**
+     * Take a session slot if the group is below its concurrent usage limit, returns rows updated
+     */
+    @Modifying
+    @Query("UPDATE GroupProfileEntity g SET g.currentActiveSessions = g.currentActiveSessions + 1 " +
+            "WHERE g.id = :id AND g.currentActiveSessions < g.maxConcurrentUsage")
+    int tryAcquireSessionSlot(@Param("id") String id);
+
+    /**
+     * Give back a session slot if any is taken, returns rows updated
+     */
+    @Modifying
+    @Query("UPDATE GroupProfileEntity g SET g.currentActiveSessions = g.currentActiveSessions - 1 " +
+            "WHERE g.id = :id AND g.currentActiveSessions > 0")
+    int releaseSessionSlot(@Param("id") String id);
+
+    /**
+     * First keyset page of groups ordered by creation time and ID
+     */
+    @Query("SELECT g FROM GroupProfileEntity g ORDER BY g.createdAt, g.id")
+    List<GroupProfileEntity> findFirstKeysetPage(Limit limit);
+
+    /**
+     * Keyset page of groups created after the given (createdAt, id) position
+     */
+    @Query("SELECT g FROM GroupProfileEntity g " +
+            "WHERE g.createdAt > :createdAt OR (g.createdAt = :createdAt AND g.id > :id) " +
+            "ORDER BY g.createdAt, g.id")
+    List<GroupProfileEntity> findKeysetPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") String id, Limit limit);
+
+    /**
+     * IDs among the given ones that exist
+     */
+    @Query("SELECT g.id FROM GroupProfileEntity g WHERE g.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * IDs among the given ones whose status differs from the given status
+     */
+    @Query("SELECT g.id FROM GroupProfileEntity g WHERE g.id IN :ids AND g.status <> :status")
+    List<String> findIdsWithOtherStatus(@Param("ids") Collection<String> ids, @Param("status") String status);
+
+    /**
+     * Set the status of groups in one statement, returns rows updated
+     */
+    @Modifying
+    @Query("UPDATE GroupProfileEntity g SET g.status = :status, g.updatedAt = :updatedAt WHERE g.id IN :ids")
+    int updateStatus(@Param("ids") Collection<String> ids, @Param("status") String status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,70 @@
+package com.itasca.spoofing.repository;
+
+import com.itasca.spoofing.entity.GroupSessionLeaseEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GroupSessionLeaseRepository extends JpaRepository<GroupSessionLeaseEntity, String> {
+
+    /**
+     * Find leases held by a user in a group, oldest first
+     */
+    List<GroupSessionLeaseEntity> findByGroupIdAndUserIdOrderByAcquiredAtAsc(String groupId, Long userId);
+
+    /**
+     * Find group ID of a lease without loading the entity
+     */
+    @Query("SELECT l.groupId FROM GroupSessionLeaseEntity l WHERE l.id = :id")
+    Optional<String> findGroupIdById(@Param("id") String id);
+
+    /**
+     * Find IDs of expired leases
+     */
+    @Query("SELECT l.id FROM GroupSessionLeaseEntity l WHERE l.expiresAt <= :now ORDER BY l.expiresAt")
+    List<String> findExpiredLeaseIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Extend a live lease owned by the given user, returns rows updated
+     */
+    @Modifying
+    @Query("UPDATE GroupSessionLeaseEntity l SET l.lastHeartbeatAt = :now, l.expiresAt = :expiresAt " +
+            "WHERE l.id = :id AND l.ownerEmail = :ownerEmail AND l.expiresAt > :now")
+    int renew(@Param("id") String id, @Param("ownerEmail") String ownerEmail,
+              @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Delete a lease, returns rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM GroupSessionLeaseEntity l WHERE l.id = :id")
+    int deleteLease(@Param("id") String id);
+
+    /**
+     * Delete a lease only if it has expired, returns rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM GroupSessionLeaseEntity l WHERE l.id = :id AND l.expiresAt <= :now")
+    int deleteIfExpired(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    /**
+     * Count leases held in a group
+     */
+    long countByGroupId(String groupId);
+
+    /**
+     * Find IDs of groups whose session counter differs from the number of leases they hold
+     */
+    @Query(value = "SELECT g.id FROM group_profiles g " +
+            "WHERE g.current_active_sessions <> (SELECT COUNT(*) FROM group_session_leases l WHERE l.group_id = g.id)",
+            nativeQuery = true)
+    List<String> findMiscountedGroupIds();
+}
@@ -0,0 +1,43 @@
+package com.itasca.spoofing.repository;
+
+import com.itasca.spoofing.service.audit.AuditRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Batched inserts for profile_audit
+ */
+@Repository
+public class ProfileAuditBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO profile_audit (profile_id, profile_type, action, user_id, action_timestamp, changes, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert audit records in one batch and one transaction
+     */
+    @Transactional
+    public void insertBatch(List<AuditRecord> records) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, records, records.size(), (ps, record) -> {
+            ps.setString(1, record.getProfileId());
+            ps.setString(2, record.getProfileType() != null ? record.getProfileType().name() : null);
+            ps.setString(3, record.getAction());
+            ps.setString(4, record.getUserId());
+            ps.setTimestamp(5, Timestamp.valueOf(record.getActionTimestamp()));
+            ps.setString(6, record.getChanges());
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+    }
+}
@@ -2,51 +2,94 @@ package com.itasca.spoofing.repository;
 
 
 import com.itasca.spoofing.entity.ProfileAuditEntity;
-import com.itasca.spoofing.model.ProfileType;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Audit entries are read newest first in keyset pages. Every page query is bounded by
+ * [from, before) on action_timestamp and led by one of the composite indexes, so on MySQL
+ * it also prunes the monthly partitions outside the window.
+ */
 @Repository
 public interface ProfileAuditRepository extends JpaRepository<ProfileAuditEntity, Long> {
 
     /**
-     * Find audit entries by profile ID
+     * Count actions by profile ID and action type
      */
-    List<ProfileAuditEntity> findByProfileIdOrderByActionTimestampDesc(String profileId);
+    long countByProfileIdAndAction(String profileId, String action);
 
     /**
-     * Find audit entries by action
+     * Keyset page of a profile's audit entries older than the (before, id) position, optionally of one action
      */
-    List<ProfileAuditEntity> findByAction(String action);
+    @Query("SELECT a FROM ProfileAuditEntity a WHERE a.profileId = :profileId " +
+            "AND (:action IS NULL OR a.action = :action) AND a.actionTimestamp >= :from " +
+            "AND (a.actionTimestamp < :before OR (a.actionTimestamp = :before AND a.id < :id)) " +
+            "ORDER BY a.actionTimestamp DESC, a.id DESC")
+    List<ProfileAuditEntity> findProfilePage(@Param("profileId") String profileId, @Param("action") String action,
+                                             @Param("from") LocalDateTime from, @Param("before") LocalDateTime before,
+                                             @Param("id") Long id, Limit limit);
 
     /**
-     * Find audit entries by user ID
+     * Keyset page of audit entries of one action older than the (before, id) position
      */
-    List<ProfileAuditEntity> findByUserIdOrderByActionTimestampDesc(String userId);
+    @Query("SELECT a FROM ProfileAuditEntity a WHERE a.action = :action AND a.actionTimestamp >= :from " +
+            "AND (a.actionTimestamp < :before OR (a.actionTimestamp = :before AND a.id < :id)) " +
+            "ORDER BY a.actionTimestamp DESC, a.id DESC")
+    List<ProfileAuditEntity> findActionPage(@Param("action") String action, @Param("from") LocalDateTime from,
+                                            @Param("before") LocalDateTime before, @Param("id") Long id, Limit limit);
 
     /**
-     * Find audit entries within date range
+     * Keyset page of all audit entries older than the (before, id) position
      */
-    List<ProfileAuditEntity> findByActionTimestampBetween(LocalDateTime startDate, LocalDateTime endDate);
+    @Query("SELECT a FROM ProfileAuditEntity a WHERE a.actionTimestamp >= :from " +
+            "AND (a.actionTimestamp < :before OR (a.actionTimestamp = :before AND a.id < :id)) " +
+            "ORDER BY a.actionTimestamp DESC, a.id DESC")
+    List<ProfileAuditEntity> findPage(@Param("from") LocalDateTime from, @Param("before") LocalDateTime before,
+                                      @Param("id") Long id, Limit limit);
 
     /**
-     * Find recent audit entries for a profile
+     * Count a profile's audit entries in [from, to), optionally of one action
      */
-    @Query("SELECT a FROM ProfileAuditEntity a WHERE a.profileId = :profileId AND a.actionTimestamp >= :since ORDER BY a.actionTimestamp DESC")
-    List<ProfileAuditEntity> findRecentAuditEntries(@Param("profileId") String profileId, @Param("since") LocalDateTime since);
+    @Query("SELECT COUNT(a) FROM ProfileAuditEntity a WHERE a.profileId = :profileId " +
+            "AND (:action IS NULL OR a.action = :action) AND a.actionTimestamp >= :from AND a.actionTimestamp < :to")
+    long countProfileEntries(@Param("profileId") String profileId, @Param("action") String action,
+                             @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
     /**
-     * Count actions by profile ID and action type
+     * Count audit entries of one action in [from, to)
      */
-    long countByProfileIdAndAction(String profileId, String action);
+    @Query("SELECT COUNT(a) FROM ProfileAuditEntity a WHERE a.action = :action " +
+            "AND a.actionTimestamp >= :from AND a.actionTimestamp < :to")
+    long countActionEntries(@Param("action") String action, @Param("from") LocalDateTime from,
+                            @Param("to") LocalDateTime to);
+
+    /**
+     * Count audit entries in [from, to)
+     */
+    @Query("SELECT COUNT(a) FROM ProfileAuditEntity a WHERE a.actionTimestamp >= :from AND a.actionTimestamp < :to")
+    long countEntries(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
     /**
-     * Find audit entries by profile type
+     * Stream audit entries in [from, to) oldest first, optionally of one profile and one action
      */
-    List<ProfileAuditEntity> findByProfileType(ProfileType profileType);
-}
\ No newline at end of file
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT a FROM ProfileAuditEntity a WHERE a.actionTimestamp >= :from AND a.actionTimestamp < :to " +
+            "AND (:profileId IS NULL OR a.profileId = :profileId) AND (:action IS NULL OR a.action = :action) " +
+            "ORDER BY a.actionTimestamp, a.id")
+    Stream<ProfileAuditEntity> streamForExport(@Param("profileId") String profileId, @Param("action") String action,
+                                               @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
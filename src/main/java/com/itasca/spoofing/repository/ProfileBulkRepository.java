@@ -0,0 +1,95 @@
+package com.itasca.spoofing.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based deletes of profiles and every row that references them.
+ *
+ * Join tables and element collections have no entities, so the cascades Hibernate
+ * would run row by row are done here with one statement per table. Callers must
+ * flush and clear the persistence context around these calls.
+ */
+@Repository
+public class ProfileBulkRepository {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Delete single profiles with their URL groups, group memberships and default groups.
+     * Returns rows deleted per table, IDs of the deleted default groups are added to {@code deletedDefaultGroupIds}
+     */
+    public Map<String, Integer> deleteSingleProfiles(Collection<String> ids, Set<String> deletedDefaultGroupIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        Map<String, Integer> deleted = new LinkedHashMap<>();
+
+        List<String> defaultGroupIds = jdbcTemplate.queryForList(
+                "SELECT default_group_id FROM single_profiles WHERE id IN (:ids) AND default_group_id IS NOT NULL",
+                params, String.class);
+        if (!defaultGroupIds.isEmpty()) {
+            deleteGroupProfiles(defaultGroupIds).forEach((table, count) -> deleted.merge(table, count, Integer::sum));
+            deletedDefaultGroupIds.addAll(defaultGroupIds);
+        }
+
+        deleted.merge("group_profile_members", jdbcTemplate.update(
+                "DELETE FROM group_profile_members WHERE single_profile_id IN (:ids)", params), Integer::sum);
+        deleted.merge("group_profile_member_weights", jdbcTemplate.update(
+                "DELETE FROM group_profile_member_weights WHERE single_profile_id IN (:ids)", params), Integer::sum);
+        deleted.merge("url_group_urls", jdbcTemplate.update(
+                "DELETE FROM url_group_urls WHERE url_group_id IN " +
+                        "(SELECT id FROM url_groups WHERE single_profile_id IN (:ids))", params), Integer::sum);
+        deleted.merge("url_groups", jdbcTemplate.update(
+                "DELETE FROM url_groups WHERE single_profile_id IN (:ids)", params), Integer::sum);
+        deleted.put("single_profiles", jdbcTemplate.update(
+                "DELETE FROM single_profiles WHERE id IN (:ids)", params));
+        return deleted;
+    }
+
+    /**
+     * Delete group profiles with their members, weights, user assignments, URL groups and session leases.
+     * Returns rows deleted per table
+     */
+    public Map<String, Integer> deleteGroupProfiles(Collection<String> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        Map<String, Integer> deleted = new LinkedHashMap<>();
+
+        jdbcTemplate.update("UPDATE single_profiles SET default_group_id = NULL WHERE default_group_id IN (:ids)", params);
+        deleted.put("group_profile_members", jdbcTemplate.update(
+                "DELETE FROM group_profile_members WHERE group_profile_id IN (:ids)", params));
+        deleted.put("group_profile_member_weights", jdbcTemplate.update(
+                "DELETE FROM group_profile_member_weights WHERE group_profile_id IN (:ids)", params));
+        deleted.put("user_group_assignments", jdbcTemplate.update(
+                "DELETE FROM user_group_assignments WHERE group_profile_id IN (:ids)", params));
+        deleted.put("group_session_leases", jdbcTemplate.update(
+                "DELETE FROM group_session_leases WHERE group_id IN (:ids)", params));
+
+        // group_profiles and url_groups reference each other, unlink before deleting either side
+        Set<Long> urlGroupIds = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT url_group_id FROM group_profiles WHERE id IN (:ids) AND url_group_id IS NOT NULL",
+                params, Long.class));
+        urlGroupIds.addAll(jdbcTemplate.queryForList(
+                "SELECT id FROM url_groups WHERE group_profile_id IN (:ids)", params, Long.class));
+        if (!urlGroupIds.isEmpty()) {
+            MapSqlParameterSource urlGroupParams = new MapSqlParameterSource("urlGroupIds", urlGroupIds);
+            jdbcTemplate.update("UPDATE group_profiles SET url_group_id = NULL WHERE id IN (:ids)", params);
+            deleted.put("url_group_urls", jdbcTemplate.update(
+                    "DELETE FROM url_group_urls WHERE url_group_id IN (:urlGroupIds)", urlGroupParams));
+            deleted.put("url_groups", jdbcTemplate.update(
+                    "DELETE FROM url_groups WHERE id IN (:urlGroupIds)", urlGroupParams));
+        }
+
+        deleted.put("group_profiles", jdbcTemplate.update(
+                "DELETE FROM group_profiles WHERE id IN (:ids)", params));
+        return deleted;
+    }
+}
@@ -0,0 +1,17 @@
+package com.itasca.spoofing.repository;
+
+import com.itasca.spoofing.entity.ProfileImportErrorEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProfileImportErrorRepository extends JpaRepository<ProfileImportErrorEntity, Long> {
+
+    /**
+     * Errors of a job after the given row, in row order
+     */
+    List<ProfileImportErrorEntity> findByJobIdAndRowNumberGreaterThanOrderByRowNumber(String jobId, Long rowNumber, Limit limit);
+}
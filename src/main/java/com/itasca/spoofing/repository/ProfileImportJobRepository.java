@@ -0,0 +1,65 @@
+package com.itasca.spoofing.repository;
+
+import com.itasca.spoofing.entity.ProfileImportJobEntity;
+import com.itasca.spoofing.model.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProfileImportJobRepository extends JpaRepository<ProfileImportJobEntity, String> {
+
+    /**
+     * Mark a job running for the given owner, unless it is completed or running with a
+     * heartbeat at or after staleBefore. Returns 1 if the job was claimed
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ProfileImportJobEntity j SET j.status = :running, j.leaseOwner = :owner, j.heartbeatAt = :now, " +
+            "j.startedAt = COALESCE(j.startedAt, :now), j.errorMessage = NULL WHERE j.id = :id AND j.status <> :completed " +
+            "AND (j.status <> :running OR j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)")
+    int claim(@Param("id") String id, @Param("owner") String owner, @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore, @Param("running") ImportJobStatus running,
+              @Param("completed") ImportJobStatus completed);
+
+    default boolean claim(String id, String owner, LocalDateTime now, LocalDateTime staleBefore) {
+        return claim(id, owner, now, staleBefore, ImportJobStatus.RUNNING, ImportJobStatus.COMPLETED) == 1;
+    }
+
+    /**
+     * Add a committed chunk to the progress and renew the heartbeat, returns 0 if the owner lost the job
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ProfileImportJobEntity j SET j.processedRows = j.processedRows + :rows, " +
+            "j.importedCount = j.importedCount + :imported, j.failedCount = j.failedCount + :failed, " +
+            "j.heartbeatAt = :now WHERE j.id = :id AND j.leaseOwner = :owner")
+    int recordProgress(@Param("id") String id, @Param("owner") String owner, @Param("rows") long rows,
+                       @Param("imported") long imported, @Param("failed") long failed, @Param("now") LocalDateTime now);
+
+    /**
+     * Finish a job held by the owner, returns 0 if the owner lost the job
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ProfileImportJobEntity j SET j.status = :status, j.errorMessage = :errorMessage, " +
+            "j.finishedAt = :now, j.leaseOwner = NULL WHERE j.id = :id AND j.leaseOwner = :owner")
+    int finish(@Param("id") String id, @Param("owner") String owner, @Param("status") ImportJobStatus status,
+               @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+
+    /**
+     * Running jobs whose owner stopped renewing the heartbeat before staleBefore,
+     * and pending jobs created before it that no instance started
+     */
+    @Query("SELECT j.id FROM ProfileImportJobEntity j " +
+            "WHERE (j.status = :running AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)) " +
+            "OR (j.status = :pending AND j.createdAt < :staleBefore)")
+    List<String> findStaleJobIds(@Param("staleBefore") LocalDateTime staleBefore,
+                                 @Param("running") ImportJobStatus running, @Param("pending") ImportJobStatus pending);
+
+    default List<String> findStaleJobIds(LocalDateTime staleBefore) {
+        return findStaleJobIds(staleBefore, ImportJobStatus.RUNNING, ImportJobStatus.PENDING);
+    }
+}
@@ -0,0 +1,143 @@
+package com.itasca.spoofing.repository;
+
+import com.itasca.spoofing.entity.GroupProfileEntity;
+import com.itasca.spoofing.entity.SingleProfileEntity;
+import com.itasca.spoofing.model.ProfileFilterDto;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JPA specifications for {@link ProfileFilterDto}.
+ *
+ * Each criterion becomes one predicate and absent criteria add nothing, so the generated
+ * WHERE clause only contains the columns a caller filtered on. Group membership is
+ * expressed as an IN subquery over group_profile_members rather than a join, which keeps
+ * result rows unique without DISTINCT and lets paging count the root table directly.
+ *
+ * last_used is stored as an ISO-8601 string or "Never"; ISO local date times sort
+ * lexicographically in time order, so windows compare strings and exclude "Never".
+ */
+public final class ProfileSpecifications {
+
+    private static final String NEVER_USED = "Never";
+
+    private ProfileSpecifications() {
+    }
+
+    /**
+     * Specification for single profiles matching every criterion of the filter
+     */
+    public static Specification<SingleProfileEntity> singleProfiles(ProfileFilterDto filter) {
+        List<Specification<SingleProfileEntity>> specs = new ArrayList<>();
+        specs.add(in("status", filter.getStatuses()));
+        specs.add(in("operatingSystem", filter.getOperatingSystems()));
+        specs.add(in("screenResolution", filter.getScreenResolutions()));
+        specs.add(between("hardwareConcurrency", filter.getMinHardwareConcurrency(), filter.getMaxHardwareConcurrency()));
+        specs.add(memberOfGroups("id", filter.getGroupIds()));
+        specs.add(memberOfGroups("proxyConfig.country", filter.getProxyCountries()));
+        specs.add(lastUsed(filter));
+        specs.add(between("createdAt", filter.getCreatedFrom(), filter.getCreatedTo()));
+        return Specification.allOf(specs);
+    }
+
+    /**
+     * Specification for group profiles matching every criterion of the filter
+     */
+    public static Specification<GroupProfileEntity> groupProfiles(ProfileFilterDto filter) {
+        List<Specification<GroupProfileEntity>> specs = new ArrayList<>();
+        specs.add(in("status", filter.getStatuses()));
+        specs.add(in("groupType", filter.getGroupTypes()));
+        specs.add(in("selectionMode", filter.getSelectionModes()));
+        specs.add(in("proxyConfig.country", filter.getProxyCountries()));
+        specs.add(containsMembers(filter.getMemberProfileIds()));
+        specs.add(lastUsed(filter));
+        specs.add(between("createdAt", filter.getCreatedFrom(), filter.getCreatedTo()));
+        return Specification.allOf(specs);
+    }
+
+    private static <T> Specification<T> in(String attribute, Collection<?> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> values.size() == 1
+                ? cb.equal(path(root, attribute), values.iterator().next())
+                : path(root, attribute).in(values);
+    }
+
+    private static <T, Y extends Comparable<? super Y>> Specification<T> between(String attribute, Y from, Y to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Path<Y> path = path(root, attribute);
+            if (from == null) {
+                return cb.lessThanOrEqualTo(path, to);
+            }
+            return to == null ? cb.greaterThanOrEqualTo(path, from) : cb.between(path, from, to);
+        };
+    }
+
+    private static <T> Specification<T> lastUsed(ProfileFilterDto filter) {
+        List<Specification<T>> specs = new ArrayList<>();
+        if (filter.getNeverUsed() != null) {
+            specs.add((root, query, cb) -> filter.getNeverUsed()
+                    ? cb.equal(root.get("lastUsed"), NEVER_USED)
+                    : cb.notEqual(root.get("lastUsed"), NEVER_USED));
+        }
+        if (filter.getLastUsedFrom() != null || filter.getLastUsedTo() != null) {
+            specs.add((root, query, cb) -> cb.notEqual(root.get("lastUsed"), NEVER_USED));
+            specs.add(between("lastUsed", isoString(filter.getLastUsedFrom()), isoString(filter.getLastUsedTo())));
+        }
+        return specs.isEmpty() ? null : Specification.allOf(specs);
+    }
+
+    // Single profile ID IN (member IDs of groups whose attribute is one of the values)
+    private static Specification<SingleProfileEntity> memberOfGroups(String groupAttribute, Collection<?> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<String> members = query.subquery(String.class);
+            Root<GroupProfileEntity> group = members.from(GroupProfileEntity.class);
+            Join<GroupProfileEntity, SingleProfileEntity> member = group.join("memberProfiles");
+            members.select(member.get("id")).where(path(group, groupAttribute).in(values));
+            return root.get("id").in(members);
+        };
+    }
+
+    // Group ID IN (groups having any of the members)
+    private static Specification<GroupProfileEntity> containsMembers(Collection<String> memberIds) {
+        if (memberIds == null || memberIds.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<String> groups = query.subquery(String.class);
+            Root<GroupProfileEntity> group = groups.from(GroupProfileEntity.class);
+            Join<GroupProfileEntity, SingleProfileEntity> member = group.join("memberProfiles");
+            groups.select(group.get("id")).where(member.get("id").in(memberIds));
+            return root.get("id").in(groups);
+        };
+    }
+
+    private static <Y> Path<Y> path(Path<?> root, String attribute) {
+        Path<?> path = root;
+        for (String part : attribute.split("\\.")) {
+            path = path.get(part);
+        }
+        @SuppressWarnings("unchecked")
+        Path<Y> typed = (Path<Y>) path;
+        return typed;
+    }
+
+    private static String isoString(LocalDateTime time) {
+        return time == null ? null : time.toString();
+    }
+}
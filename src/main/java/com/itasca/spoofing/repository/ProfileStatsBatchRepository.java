@@ -0,0 +1,183 @@
+package com.itasca.spoofing.repository;
+
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.service.stats.ProfileStatsDelta;
+import com.itasca.spoofing.service.stats.ProfileStatsRollupDelta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batched counter upserts for profile_stats and profile_stats_rollup, relying on their unique keys
+ */
+@Repository
+public class ProfileStatsBatchRepository {
+
+    static final String DAILY_KEY = "uk_profile_stats_profile_date";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO profile_stats (profile_id, profile_type, date, usage_count, success_count, failure_count, " +
+            "proxy_failure_count, detection_count, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "usage_count = usage_count + VALUES(usage_count), " +
+            "success_count = success_count + VALUES(success_count), " +
+            "failure_count = failure_count + VALUES(failure_count), " +
+            // Rows from before the cause columns hold null there
+            "proxy_failure_count = COALESCE(proxy_failure_count, 0) + VALUES(proxy_failure_count), " +
+            "detection_count = COALESCE(detection_count, 0) + VALUES(detection_count), " +
+            "updated_at = VALUES(updated_at)";
+
+    private static final String ROLLUP_UPSERT_SQL =
+            "INSERT INTO profile_stats_rollup (period, period_start, profile_id, profile_type, usage_count, success_count, failure_count, " +
+            "proxy_failure_count, detection_count, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "usage_count = usage_count + VALUES(usage_count), " +
+            "success_count = success_count + VALUES(success_count), " +
+            "failure_count = failure_count + VALUES(failure_count), " +
+            "proxy_failure_count = COALESCE(proxy_failure_count, 0) + VALUES(proxy_failure_count), " +
+            "detection_count = COALESCE(detection_count, 0) + VALUES(detection_count), " +
+            "updated_at = VALUES(updated_at)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add the deltas to their daily rows and to the day, week and month rollups,
+     * creating missing rows, in one transaction
+     */
+    @Transactional
+    public void upsertDeltas(List<ProfileStatsDelta> deltas) {
+        upsertDailyRows(deltas);
+        upsertRollups(ProfileStatsRollupDelta.rollUp(deltas));
+    }
+
+    /**
+     * Add rollup deltas to their rows, creating missing rows, in one batch
+     */
+    @Transactional
+    public void upsertRollups(List<ProfileStatsRollupDelta> rollups) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(ROLLUP_UPSERT_SQL, rollups, rollups.size(), (ps, rollup) -> {
+            ps.setString(1, rollup.getPeriod().name());
+            ps.setDate(2, Date.valueOf(rollup.getPeriodStart()));
+            ps.setString(3, rollup.getProfileId());
+            ps.setString(4, rollup.getProfileType().name());
+            ps.setLong(5, rollup.getUsageCount());
+            ps.setLong(6, rollup.getSuccessCount());
+            ps.setLong(7, rollup.getFailureCount());
+            ps.setLong(8, rollup.getProxyFailureCount());
+            ps.setLong(9, rollup.getDetectionCount());
+            ps.setTimestamp(10, now);
+            ps.setTimestamp(11, now);
+        });
+    }
+
+    /**
+     * Whether profile_stats has the unique key the daily upsert merges on
+     */
+    public boolean hasDailyUniqueKey() {
+        Integer keys = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.TABLE_CONSTRAINTS " +
+                        "WHERE TABLE_SCHEMA = SCHEMA() AND LOWER(TABLE_NAME) = 'profile_stats' " +
+                        "AND LOWER(CONSTRAINT_NAME) = ? AND CONSTRAINT_TYPE = 'UNIQUE'",
+                Integer.class, DAILY_KEY);
+        return keys != null && keys > 0;
+    }
+
+    /**
+     * Merge daily rows sharing a profile and date into the oldest of them, summing the counters,
+     * so the unique key can be added. Returns the number of rows removed.
+     */
+    @Transactional
+    public int mergeDuplicateDailyRows() {
+        List<DuplicateDay> duplicates = jdbcTemplate.query(
+                "SELECT profile_id, date, MIN(id), SUM(COALESCE(usage_count, 0)), " +
+                        "SUM(COALESCE(success_count, 0)), SUM(COALESCE(failure_count, 0)), " +
+                        "SUM(COALESCE(proxy_failure_count, 0)), SUM(COALESCE(detection_count, 0)) " +
+                        "FROM profile_stats GROUP BY profile_id, date HAVING COUNT(*) > 1",
+                (rs, rowNum) -> new DuplicateDay(rs.getString(1), rs.getDate(2), rs.getLong(3),
+                        rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getLong(7), rs.getLong(8)));
+
+        int removed = 0;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (DuplicateDay day : duplicates) {
+            jdbcTemplate.update("UPDATE profile_stats SET usage_count = ?, success_count = ?, failure_count = ?, " +
+                            "proxy_failure_count = ?, detection_count = ?, updated_at = ? WHERE id = ?",
+                    day.usage(), day.success(), day.failure(), day.proxyFailure(), day.detection(), now, day.keepId());
+            removed += jdbcTemplate.update("DELETE FROM profile_stats WHERE profile_id = ? AND date = ? AND id <> ?",
+                    day.profileId(), day.date(), day.keepId());
+        }
+        return removed;
+    }
+
+    /**
+     * Add the unique key of the daily rows, fails while duplicates remain
+     */
+    public void addDailyUniqueKey() {
+        jdbcTemplate.execute("ALTER TABLE profile_stats ADD CONSTRAINT " + DAILY_KEY + " UNIQUE (profile_id, date)");
+    }
+
+    /**
+     * Whether the rollup table has any rows
+     */
+    public boolean hasRollups() {
+        return !jdbcTemplate.queryForList("SELECT id FROM profile_stats_rollup LIMIT 1", Long.class).isEmpty();
+    }
+
+    /**
+     * Build the rollups from every daily row, for an empty rollup table. Upserts add up,
+     * so the rows are rolled up and written a chunk at a time. Returns the daily rows read.
+     */
+    @Transactional
+    public long backfillRollups(int chunkSize) {
+        List<ProfileStatsDelta> chunk = new ArrayList<>(chunkSize);
+        long[] read = {0};
+        jdbcTemplate.query(
+                "SELECT profile_id, profile_type, date, usage_count, success_count, failure_count, " +
+                        "proxy_failure_count, detection_count FROM profile_stats WHERE profile_type IS NOT NULL",
+                rs -> {
+                    // getLong reads null cause counts as 0
+                    chunk.add(new ProfileStatsDelta(rs.getString(1), ProfileType.valueOf(rs.getString(2)),
+                            rs.getDate(3).toLocalDate(), rs.getLong(4), rs.getLong(5), rs.getLong(6),
+                            rs.getLong(7), rs.getLong(8)));
+                    read[0]++;
+                    if (chunk.size() >= chunkSize) {
+                        upsertRollups(ProfileStatsRollupDelta.rollUp(chunk));
+                        chunk.clear();
+                    }
+                });
+        if (!chunk.isEmpty()) {
+            upsertRollups(ProfileStatsRollupDelta.rollUp(chunk));
+        }
+        return read[0];
+    }
+
+    private void upsertDailyRows(List<ProfileStatsDelta> deltas) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setString(1, delta.getProfileId());
+            ps.setString(2, delta.getProfileType().name());
+            ps.setDate(3, Date.valueOf(delta.getDate()));
+            ps.setLong(4, delta.getUsageCount());
+            ps.setLong(5, delta.getSuccessCount());
+            ps.setLong(6, delta.getFailureCount());
+            ps.setLong(7, delta.getProxyFailureCount());
+            ps.setLong(8, delta.getDetectionCount());
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        });
+    }
+
+    private record DuplicateDay(String profileId, Date date, long keepId, long usage, long success,
+                                long failure, long proxyFailure, long detection) {
+    }
+}
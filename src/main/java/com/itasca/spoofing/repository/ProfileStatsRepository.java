@@ -28,6 +28,10 @@ public interface ProfileStatsRepository extends JpaRepository<ProfileStatsEntity
     @Query("SELECT s FROM ProfileStatsEntity s WHERE s.date >= :since AND (s.failureCount * 100.0 / NULLIF(s.successCount + s.failureCount, 0)) > :failureThreshold")
     List<ProfileStatsEntity> findProfilesWithHighFailureRate(@Param("since") LocalDate since, @Param("failureThreshold") double failureThreshold);
 
+    // Days since the date where failures exceeded the threshold times successes
+    @Query("SELECT s FROM ProfileStatsEntity s WHERE s.date > :since AND s.failureCount > s.successCount * :failureThreshold")
+    List<ProfileStatsEntity> findProblemDays(@Param("since") LocalDate since, @Param("failureThreshold") double failureThreshold);
+
     @Query("SELECT SUM(s.usageCount), SUM(s.successCount), SUM(s.failureCount) FROM ProfileStatsEntity s WHERE s.date BETWEEN :startDate AND :endDate")
     Object[] getTotalStatistics(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
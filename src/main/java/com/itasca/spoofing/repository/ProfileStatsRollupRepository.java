@@ -0,0 +1,53 @@
+package com.itasca.spoofing.repository;
+
+import com.itasca.spoofing.entity.ProfileStatsRollupEntity;
+import com.itasca.spoofing.model.StatsPeriod;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProfileStatsRollupRepository extends JpaRepository<ProfileStatsRollupEntity, Long> {
+
+    /**
+     * Rollup rows of one profile, or of the fleet, for a period
+     */
+    List<ProfileStatsRollupEntity> findByPeriodAndPeriodStartAndProfileId(StatsPeriod period, LocalDate periodStart, String profileId);
+
+    /**
+     * Rollup rows of the given profiles for a period
+     */
+    List<ProfileStatsRollupEntity> findByPeriodAndPeriodStartAndProfileIdIn(StatsPeriod period, LocalDate periodStart,
+                                                                            Collection<String> profileIds);
+
+    /**
+     * Profiles of a period with the highest usage, fleet rows excluded
+     */
+    @Query("SELECT r FROM ProfileStatsRollupEntity r WHERE r.period = :period AND r.periodStart = :periodStart " +
+            "AND r.profileId <> '" + ProfileStatsRollupEntity.FLEET_PROFILE_ID + "' " +
+            "ORDER BY r.usageCount DESC, r.profileId")
+    List<ProfileStatsRollupEntity> findTopByUsage(@Param("period") StatsPeriod period,
+                                                  @Param("periodStart") LocalDate periodStart, Limit limit);
+
+    /**
+     * Profiles of a period with at least minSessions sessions and the highest success rate, fleet rows excluded
+     */
+    @Query("SELECT r FROM ProfileStatsRollupEntity r WHERE r.period = :period AND r.periodStart = :periodStart " +
+            "AND r.profileId <> '" + ProfileStatsRollupEntity.FLEET_PROFILE_ID + "' " +
+            "AND r.successCount + r.failureCount >= :minSessions " +
+            "ORDER BY (r.successCount * 1.0 / (r.successCount + r.failureCount)) DESC, r.profileId")
+    List<ProfileStatsRollupEntity> findTopBySuccessRate(@Param("period") StatsPeriod period,
+                                                        @Param("periodStart") LocalDate periodStart,
+                                                        @Param("minSessions") long minSessions, Limit limit);
+
+    /**
+     * Delete rollups of periods starting before the cutoff
+     */
+    long deleteByPeriodAndPeriodStartBefore(StatsPeriod period, LocalDate cutoff);
+}
@@ -2,23 +2,48 @@ package com.itasca.spoofing.repository;
 
 
 import com.itasca.spoofing.entity.SingleProfileEntity;
+import com.itasca.spoofing.model.SingleProfileSummaryDto;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface SingleProfileRepository extends JpaRepository<SingleProfileEntity, String> {
+public interface SingleProfileRepository extends JpaRepository<SingleProfileEntity, String>, JpaSpecificationExecutor<SingleProfileEntity> {
 
     /**
      * Find profiles by name (case insensitive)
      */
     List<SingleProfileEntity> findByNameContainingIgnoreCase(String name);
 
+    /**
+     * Find search index documents (id, name, description, OS, user agent, WebGL renderer) after an ID
+     */
+    @Query("SELECT p.id, p.name, p.description, p.operatingSystem, p.userAgent, p.webglRenderer " +
+            "FROM SingleProfileEntity p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findSearchDocumentsAfter(@Param("afterId") String afterId, Limit limit);
+
+    /**
+     * Find search index documents for the given IDs
+     */
+    @Query("SELECT p.id, p.name, p.description, p.operatingSystem, p.userAgent, p.webglRenderer " +
+            "FROM SingleProfileEntity p WHERE p.id IN :ids")
+    List<Object[]> findSearchDocuments(@Param("ids") Collection<String> ids);
+
     /**
      * Find profiles by status
      */
@@ -56,6 +81,87 @@ public interface SingleProfileRepository extends JpaRepository<SingleProfileEnti
     /**
      * Find most recently used profiles
      */
-    @Query("SELECT p FROM SingleProfileEntity p WHERE p.lastUsed != 'Never' ORDER BY p.updatedAt DESC")
+    @Query("SELECT p FROM SingleProfileEntity p WHERE p.lastUsed != 'Never' ORDER BY p.lastUsed DESC")
     List<SingleProfileEntity> findRecentlyUsedProfiles();
-}
\ No newline at end of file
+
+    /**
+     * Find summaries of all profiles, selecting only the list view columns
+     */
+    @Query("SELECT new com.itasca.spoofing.model.SingleProfileSummaryDto(" +
+            "p.id, p.name, p.status, p.operatingSystem, p.lastUsed, p.createdAt) FROM SingleProfileEntity p")
+    List<SingleProfileSummaryDto> findAllSummaries();
+
+    /**
+     * Find a page of profile summaries, selecting only the list view columns
+     */
+    @Query(value = "SELECT new com.itasca.spoofing.model.SingleProfileSummaryDto(" +
+            "p.id, p.name, p.status, p.operatingSystem, p.lastUsed, p.createdAt) FROM SingleProfileEntity p",
+            countQuery = "SELECT COUNT(p) FROM SingleProfileEntity p")
+    Page<SingleProfileSummaryDto> findAllSummaries(Pageable pageable);
+
+    /**
+     * Names that are already taken among the given names, as stored. The name column
+     * compares case-insensitively, so this matches any casing and can use idx_single_profile_name
+     */
+    @Query("SELECT p.name FROM SingleProfileEntity p WHERE p.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    /**
+     * Load profiles with their URL groups in one query
+     */
+    @Query("SELECT DISTINCT p FROM SingleProfileEntity p LEFT JOIN FETCH p.urlGroups WHERE p.id IN :ids")
+    List<SingleProfileEntity> findAllWithUrlGroupsByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Update last used value of a profile without loading the entity
+     */
+    @Modifying
+    @Query("UPDATE SingleProfileEntity p SET p.lastUsed = :lastUsed WHERE p.id = :id")
+    int updateLastUsed(@Param("id") String id, @Param("lastUsed") String lastUsed);
+
+    /**
+     * First keyset page of profiles ordered by creation time and ID
+     */
+    @Query("SELECT p FROM SingleProfileEntity p ORDER BY p.createdAt, p.id")
+    List<SingleProfileEntity> findFirstKeysetPage(Limit limit);
+
+    /**
+     * Keyset page of profiles created after the given (createdAt, id) position
+     */
+    @Query("SELECT p FROM SingleProfileEntity p " +
+            "WHERE p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id) " +
+            "ORDER BY p.createdAt, p.id")
+    List<SingleProfileEntity> findKeysetPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") String id, Limit limit);
+
+    /**
+     * Forward-only read of every profile for exports, the caller must close the stream inside a transaction
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM SingleProfileEntity p ORDER BY p.createdAt, p.id")
+    Stream<SingleProfileEntity> streamAllForExport();
+
+    /**
+     * IDs among the given ones that exist
+     */
+    @Query("SELECT p.id FROM SingleProfileEntity p WHERE p.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * IDs among the given ones whose status differs from the given status
+     */
+    @Query("SELECT p.id FROM SingleProfileEntity p WHERE p.id IN :ids AND p.status <> :status")
+    List<String> findIdsWithOtherStatus(@Param("ids") Collection<String> ids, @Param("status") String status);
+
+    /**
+     * Set the status of profiles in one statement, returns rows updated
+     */
+    @Modifying
+    @Query("UPDATE SingleProfileEntity p SET p.status = :status, p.updatedAt = :updatedAt WHERE p.id IN :ids")
+    int updateStatus(@Param("ids") Collection<String> ids, @Param("status") String status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+}
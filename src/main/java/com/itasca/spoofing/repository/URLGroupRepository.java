@@ -2,10 +2,21 @@ package com.itasca.spoofing.repository;
 
 import com.itasca.spoofing.entity.URLGroupEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface URLGroupRepository extends JpaRepository<URLGroupEntity, Long> {
     
     URLGroupEntity findByName(String name);
-}
\ No newline at end of file
+
+    /**
+     * Load URL groups with their URLs in one query
+     */
+    @Query("SELECT DISTINCT g FROM URLGroupEntity g LEFT JOIN FETCH g.urls WHERE g.id IN :ids")
+    List<URLGroupEntity> findAllWithUrlsByIdIn(@Param("ids") Collection<Long> ids);
+}
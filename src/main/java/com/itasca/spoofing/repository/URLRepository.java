@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,4 +16,6 @@ public interface URLRepository extends JpaRepository<URLEntity, Long> {
     List<URLEntity> findAvailableUrls();
     
     URLEntity findByUrl(String url);
+
+    List<URLEntity> findByUrlIn(Collection<String> urls);
 }
\ No newline at end of file
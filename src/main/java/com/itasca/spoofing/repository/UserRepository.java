@@ -2,8 +2,12 @@ package com.itasca.spoofing.repository;
 
 import com.itasca.spoofing.entity.UserEntity;
 import com.itasca.spoofing.entity.UserRole;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +16,34 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByEmail(String email);
     List<UserEntity> findByRolesContaining(UserRole role);
     List<UserEntity> findByStatus(String status);
-}
\ No newline at end of file
+
+    @Query("SELECT u FROM UserEntity u ORDER BY u.createdAt, u.id")
+    List<UserEntity> findFirstKeysetPage(Limit limit);
+
+    @Query("SELECT u FROM UserEntity u " +
+            "WHERE u.createdAt > :createdAt OR (u.createdAt = :createdAt AND u.id > :id) " +
+            "ORDER BY u.createdAt, u.id")
+    List<UserEntity> findKeysetPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id, Limit limit);
+
+    @Query("SELECT COUNT(g) > 0 FROM UserEntity u JOIN u.assignedGroups g WHERE u.id = :userId AND g.id = :groupId")
+    boolean isAssignedToGroup(@Param("userId") Long userId, @Param("groupId") String groupId);
+
+    @Query("SELECT COUNT(g) > 0 FROM UserEntity u JOIN u.assignedGroups g JOIN g.memberProfiles p " +
+            "WHERE u.id = :userId AND p.id = :profileId")
+    boolean isAssignedToProfile(@Param("userId") Long userId, @Param("profileId") String profileId);
+
+    /**
+     * Administrators may use every group, other users only the groups assigned to them
+     */
+    default boolean hasGroupAccess(UserEntity user, String groupId) {
+        return user.hasRoleOrHigher(UserRole.ADMIN) || isAssignedToGroup(user.getId(), groupId);
+    }
+
+    /**
+     * Administrators may use every profile, other users only the members of groups assigned to them
+     */
+    default boolean hasProfileAccess(UserEntity user, String profileId) {
+        return user.hasRoleOrHigher(UserRole.ADMIN) || isAssignedToProfile(user.getId(), profileId);
+    }
+}
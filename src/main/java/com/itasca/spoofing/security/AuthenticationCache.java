@@ -0,0 +1,188 @@
+package com.itasca.spoofing.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.itasca.spoofing.event.UserAccessChangedEvent;
+import com.itasca.spoofing.service.cache.ClusterMessenger;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of verified principals keyed by the SHA-256 of the bearer token.
+ *
+ * A hit means the exact token was verified before, so the filter can skip both
+ * the signature check and the user lookup. Entries expire with the token, or
+ * after the max TTL if that is sooner, and are dropped when the user's access changes.
+ * Invalidations are broadcast so other instances drop their entries as well.
+ */
+@Component
+@Slf4j
+public class AuthenticationCache {
+
+    static final String INVALIDATION_TOPIC = "auth";
+    private static final String ALL_USERS = "*";
+
+    @Value("${jwt.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${jwt.principal-cache.max-ttl-seconds:300}")
+    private long maxTtlSeconds;
+
+    @Autowired(required = false)
+    private ClusterMessenger clusterMessenger;
+
+    private Cache<String, CachedPrincipal> cache;
+
+    // Bumped on every invalidation so a lookup that raced with it is not cached
+    private final AtomicLong version = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        long maxTtlNanos = TimeUnit.SECONDS.toNanos(maxTtlSeconds);
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+                        long untilTokenExpiry = TimeUnit.MILLISECONDS.toNanos(
+                                value.tokenExpiresAt - System.currentTimeMillis());
+                        return Math.max(0, Math.min(untilTokenExpiry, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        if (clusterMessenger != null) {
+            clusterMessenger.subscribe(INVALIDATION_TOPIC, this::onRemoteInvalidation);
+        }
+    }
+
+    /**
+     * Authentication for a previously verified token, or null if it is not cached
+     */
+    public Authentication get(String token) {
+        CachedPrincipal principal = cache.getIfPresent(hash(token));
+        if (principal == null || principal.tokenExpiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(principal.username, null, principal.authorities);
+    }
+
+    /**
+     * Current invalidation version, read before loading the user for {@link #put}
+     */
+    public long currentVersion() {
+        return version.get();
+    }
+
+    /**
+     * Cache a verified token, skipped if an invalidation happened since {@code loadedAtVersion}
+     */
+    public void put(String token, Long userId, String username, Collection<? extends GrantedAuthority> authorities,
+                    Date tokenExpiration, long loadedAtVersion) {
+        if (tokenExpiration == null) {
+            return;
+        }
+        String key = hash(token);
+        cache.put(key, new CachedPrincipal(userId, username, List.copyOf(authorities), tokenExpiration.getTime()));
+        if (version.get() != loadedAtVersion) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Drop all cached tokens of a user, on every instance
+     */
+    public void invalidateUser(Long userId) {
+        evictUser(userId);
+        broadcast(String.valueOf(userId));
+    }
+
+    public void invalidateAll() {
+        evictAll();
+        broadcast(ALL_USERS);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccessChanged(UserAccessChangedEvent event) {
+        invalidateUser(event.getUserId());
+    }
+
+    private void onRemoteInvalidation(String payload) {
+        if (ALL_USERS.equals(payload)) {
+            evictAll();
+        } else {
+            evictUser(Long.valueOf(payload));
+        }
+    }
+
+    private void evictUser(Long userId) {
+        version.incrementAndGet();
+        cache.asMap().values().removeIf(principal -> userId.equals(principal.userId));
+        log.debug("Invalidated cached authentication for user: {}", userId);
+    }
+
+    private void evictAll() {
+        version.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private void broadcast(String payload) {
+        if (clusterMessenger != null) {
+            clusterMessenger.broadcast(INVALIDATION_TOPIC, payload);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class CachedPrincipal {
+        private final Long userId;
+        private final String username;
+        private final List<GrantedAuthority> authorities;
+        private final long tokenExpiresAt;
+
+        private CachedPrincipal(Long userId, String username, List<GrantedAuthority> authorities, long tokenExpiresAt) {
+            this.userId = userId;
+            this.username = username;
+            this.authorities = authorities;
+            this.tokenExpiresAt = tokenExpiresAt;
+        }
+    }
+}
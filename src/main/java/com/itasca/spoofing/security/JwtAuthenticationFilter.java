@@ -1,12 +1,14 @@
 package com.itasca.spoofing.security;
 
 import com.itasca.spoofing.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -25,6 +27,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -35,22 +40,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
             
             try {
-                String username = jwtUtil.getUsernameFromToken(token);
-                
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    if (jwtUtil.validateToken(token, username)) {
-                        // Fetch user from database to get current roles
-                        userRepository.findByEmail(username).ifPresent(user -> {
-                            if ("ACTIVE".equals(user.getStatus())) {
-                                Set<SimpleGrantedAuthority> authorities = user.getRoles().stream()
-                                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
-                                        .collect(Collectors.toSet());
-
-                                UsernamePasswordAuthenticationToken authToken = 
-                                        new UsernamePasswordAuthenticationToken(username, null, authorities);
-                                SecurityContextHolder.getContext().setAuthentication(authToken);
-                            }
-                        });
+                if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                    Authentication cached = authenticationCache.get(token);
+                    if (cached != null) {
+                        SecurityContextHolder.getContext().setAuthentication(cached);
+                    } else {
+                        authenticate(token);
                     }
                 }
             } catch (Exception e) {
@@ -60,4 +55,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(String token) {
+        // Single parse, verifies signature and expiry
+        Claims claims = jwtUtil.parseToken(token);
+        String username = claims.getSubject();
+        if (username == null) {
+            return;
+        }
+
+        long cacheVersion = authenticationCache.currentVersion();
+
+        // Fetch user from database to get current roles
+        userRepository.findByEmail(username).ifPresent(user -> {
+            if ("ACTIVE".equals(user.getStatus())) {
+                Set<SimpleGrantedAuthority> authorities = user.getRoles().stream()
+                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
+                        .collect(Collectors.toSet());
+
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(username, null, authorities);
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                authenticationCache.put(token, user.getId(), username, authorities, claims.getExpiration(), cacheVersion);
+            }
+        });
+    }
 }
\ No newline at end of file
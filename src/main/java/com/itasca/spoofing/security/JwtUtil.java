@@ -2,6 +2,7 @@ package com.itasca.spoofing.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -18,8 +19,16 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Key and parser are immutable and thread-safe, so they are built once
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateToken(String username, Set<String> roles) {
@@ -28,31 +37,31 @@ public class JwtUtil {
                 .claim("roles", roles)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verify the signature and expiry of a token and return its claims.
+     * Throws a {@link JwtException} when the token is invalid or expired.
+     */
+    public Claims parseToken(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     public String getUsernameFromToken(String token) {
-        return getClaimsFromToken(token).getSubject();
+        return parseToken(token).getSubject();
     }
 
     public Set<String> getRolesFromToken(String token) {
-        return (Set<String>) getClaimsFromToken(token).get("roles");
+        return (Set<String>) parseToken(token).get("roles");
     }
 
     public boolean isTokenExpired(String token) {
-        return getClaimsFromToken(token).getExpiration().before(new Date());
+        return parseToken(token).getExpiration().before(new Date());
     }
 
     public boolean validateToken(String token, String username) {
         return username.equals(getUsernameFromToken(token)) && !isTokenExpired(token);
     }
-
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-}
\ No newline at end of file
+}
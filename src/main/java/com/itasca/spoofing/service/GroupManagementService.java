@@ -2,6 +2,9 @@ package com.itasca.spoofing.service;
 
 
 import com.itasca.spoofing.model.GroupProfileDto;
+import com.itasca.spoofing.model.GroupProfileSummaryDto;
+import com.itasca.spoofing.model.PopularityDto;
+import com.itasca.spoofing.model.PopularityWindow;
 import com.itasca.spoofing.model.SingleProfileDto;
 import com.itasca.spoofing.model.UserDto;
 import org.springframework.data.domain.Page;
@@ -24,12 +27,14 @@ public interface GroupManagementService {
     List<GroupProfileDto> getGroupsForUser(Long userId);
     List<GroupProfileDto> getCustomGroups();
     Page<GroupProfileDto> getCustomGroups(Pageable pageable);
+    Page<GroupProfileSummaryDto> getCustomGroupSummaries(Pageable pageable);
 
     // Group Membership Management
     boolean addProfilesToGroup(String groupId, Set<String> profileIds);
     boolean removeProfilesFromGroup(String groupId, Set<String> profileIds);
     List<SingleProfileDto> getGroupMembers(String groupId);
     List<GroupProfileDto> getGroupsForProfile(String profileId);
+    GroupProfileDto updateMemberWeights(String groupId, Map<String, Integer> memberWeights);
 
     // User Assignment Management (Admin only)
     boolean assignGroupsToUser(Long userId, Set<String> groupIds);
@@ -55,5 +60,7 @@ public interface GroupManagementService {
     // Statistics and Analytics
     GroupProfileDto getMostUsedGroupForUser(Long userId);
     List<GroupProfileDto> getPopularGroups(int limit);
+    List<PopularityDto> getPopularGroups(PopularityWindow window, int limit);
+    List<PopularityDto> getPopularProfiles(PopularityWindow window, int limit);
     Map<String, Object> getGroupUsageStatistics(String groupId);
 }
\ No newline at end of file
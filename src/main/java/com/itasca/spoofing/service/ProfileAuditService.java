@@ -1,22 +1,30 @@
 package com.itasca.spoofing.service;
 
+import com.itasca.spoofing.model.CursorPageDto;
 import com.itasca.spoofing.model.ProfileType;
 import com.itasca.spoofing.entity.ProfileAuditEntity;
+import com.itasca.spoofing.service.audit.AuditQuery;
+import com.itasca.spoofing.service.audit.ProfileChangeSet;
 
-import java.time.LocalDateTime;
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
 
 public interface ProfileAuditService {
 
     void logProfileCreation(String profileId, ProfileType profileType);
-    void logProfileUpdate(String profileId, ProfileType profileType);
+    void logProfileCreations(Collection<String> profileIds, ProfileType profileType);
+    void logProfileCreations(Collection<String> profileIds, ProfileType profileType, String userId);
+    void logProfileUpdate(String profileId, ProfileType profileType, ProfileChangeSet changes);
     void logProfileDeletion(String profileId, ProfileType profileType);
+    void logProfileDeletions(Collection<String> profileIds, ProfileType profileType);
     void logProfileUsage(String profileId, ProfileType profileType);
     void logProfileActivation(String profileId, ProfileType profileType);
     void logProfileDeactivation(String profileId, ProfileType profileType);
+    void logProfileStatusChanges(Collection<String> profileIds, ProfileType profileType, boolean active);
 
-    List<ProfileAuditEntity> getProfileAuditHistory(String profileId);
-    List<ProfileAuditEntity> getRecentAuditEntries(String profileId, int hours);
-    List<ProfileAuditEntity> getAuditEntriesByDateRange(LocalDateTime start, LocalDateTime end);
+    CursorPageDto<ProfileAuditEntity> getProfileAuditHistory(String profileId, String cursor, int size, boolean includeTotal);
+    CursorPageDto<ProfileAuditEntity> findAuditEntries(AuditQuery query, String cursor, int size, boolean includeTotal);
+    long exportAuditEntries(AuditQuery query, OutputStream out) throws IOException;
     long getUsageCount(String profileId);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.itasca.spoofing.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ProfileExportService {
+
+    /**
+     * Write every single profile as NDJSON, one profile per line, returns the number written
+     */
+    long exportSingleProfiles(OutputStream out) throws IOException;
+}
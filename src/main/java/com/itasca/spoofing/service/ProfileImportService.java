@@ -0,0 +1,35 @@
+package com.itasca.spoofing.service;
+
+import com.itasca.spoofing.model.ImportFormat;
+import com.itasca.spoofing.model.ProfileImportErrorDto;
+import com.itasca.spoofing.model.ProfileImportJobDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProfileImportService {
+
+    /**
+     * Store the input and start importing it in the background
+     */
+    ProfileImportJobDto startImport(InputStream input, ImportFormat format) throws IOException;
+
+    /**
+     * Continue a failed or interrupted job from its first uncommitted row
+     */
+    ProfileImportJobDto resumeImport(String jobId);
+
+    /**
+     * Resume jobs left running or pending by an instance that stopped, returns how many were submitted
+     */
+    int recoverStaleJobs();
+
+    Optional<ProfileImportJobDto> getImportJob(String jobId);
+
+    /**
+     * Rejected rows of a job after the given row number, in row order
+     */
+    List<ProfileImportErrorDto> getImportErrors(String jobId, long afterRow, int size);
+}
@@ -16,6 +16,9 @@ public interface ProfileService {
     Optional<SingleProfileDto> getSingleProfile(String id);
     List<SingleProfileDto> getAllSingleProfiles();
     Page<SingleProfileDto> getSingleProfiles(Pageable pageable);
+    List<SingleProfileSummaryDto> getAllSingleProfileSummaries();
+    Page<SingleProfileSummaryDto> getSingleProfileSummaries(Pageable pageable);
+    CursorPageDto<SingleProfileDto> getSingleProfilesAfter(String cursor, int size, boolean includeTotal);
     SingleProfileDto updateSingleProfile(String id, SingleProfileDto profileDto);
     boolean deleteSingleProfile(String id);
 
@@ -24,14 +27,18 @@ public interface ProfileService {
     Optional<GroupProfileDto> getGroupProfile(String id);
     List<GroupProfileDto> getAllGroupProfiles();
     Page<GroupProfileDto> getGroupProfiles(Pageable pageable);
+    List<GroupProfileSummaryDto> getAllGroupProfileSummaries();
+    CursorPageDto<GroupProfileDto> getGroupProfilesAfter(String cursor, int size, boolean includeTotal);
     GroupProfileDto updateGroupProfile(String id, GroupProfileDto profileDto);
     boolean deleteGroupProfile(String id);
 
     // Search and Filter Operations
-    List<SingleProfileDto> searchSingleProfiles(String searchTerm);
+    SearchResultDto<SingleProfileDto> searchSingleProfiles(String searchTerm, int page, int size);
     List<SingleProfileDto> getSingleProfilesByStatus(String status);
     List<SingleProfileDto> getSingleProfilesByOS(String operatingSystem);
-    List<GroupProfileDto> searchGroupProfiles(String searchTerm);
+    SearchResultDto<GroupProfileDto> searchGroupProfiles(String searchTerm, int page, int size);
+    Page<SingleProfileDto> filterSingleProfiles(ProfileFilterDto filter, Pageable pageable);
+    Page<GroupProfileDto> filterGroupProfiles(ProfileFilterDto filter, Pageable pageable);
     List<GroupProfileDto> getGroupProfilesByStatus(String status);
 
     // Business Logic Operations
@@ -48,6 +55,6 @@ public interface ProfileService {
 
     // Bulk Operations
     List<SingleProfileDto> createSingleProfiles(List<SingleProfileDto> profiles);
-    boolean deleteMultipleProfiles(List<String> ids, ProfileType profileType);
-    boolean bulkStatusUpdate(List<String> ids, String status, ProfileType profileType);
+    BulkOperationResultDto deleteMultipleProfiles(List<String> ids, ProfileType profileType);
+    BulkOperationResultDto bulkStatusUpdate(List<String> ids, String status, ProfileType profileType);
 }
\ No newline at end of file
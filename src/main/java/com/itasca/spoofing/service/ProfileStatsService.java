@@ -1,7 +1,12 @@
 package com.itasca.spoofing.service;
 
 
+import com.itasca.spoofing.model.ProfileRankingDto;
 import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.model.QuarantineDto;
+import com.itasca.spoofing.model.RankingMetric;
+import com.itasca.spoofing.model.SessionOutcome;
+import com.itasca.spoofing.model.StatsPeriod;
 import com.itasca.spoofing.entity.ProfileStatsEntity;
 
 import java.time.LocalDate;
@@ -15,14 +20,22 @@ public interface ProfileStatsService {
     void recordFailedSession(String profileId, ProfileType profileType);
     void recordProxyFailure(String profileId, ProfileType profileType);
     void recordFingerprintDetection(String profileId, ProfileType profileType);
+    void recordSessionOutcome(String profileId, SessionOutcome outcome, int durationMinutes, int urlsVisited);
+    void reportSessionOutcome(String profileId, SessionOutcome outcome, int durationMinutes, int urlsVisited, String reporterEmail);
 
     ProfileStatsEntity getTodayStats(String profileId);
     List<ProfileStatsEntity> getMonthStats(String profileId);
     List<ProfileStatsEntity> getDateRangeStats(String profileId, LocalDate startDate, LocalDate endDate);
 
     Map<String, Object> getProfilePerformanceReport(String profileId);
-    List<ProfileStatsEntity> getTopPerformingProfiles(LocalDate since, int limit);
+    Map<String, Object> getProfilePerformanceReport(String profileId, StatsPeriod period);
+    Map<String, Object> getFleetReport(StatsPeriod period);
+    Map<String, Object> getGroupReport(String groupId, StatsPeriod period);
+    List<ProfileRankingDto> getTopPerformingProfiles(StatsPeriod period, RankingMetric metric, int limit);
     List<ProfileStatsEntity> getProblemsProfiles(LocalDate since, double failureThreshold);
 
+    List<QuarantineDto> getQuarantinedProfiles();
+    boolean releaseQuarantine(String profileId);
+
     void cleanupOldStats(int daysToKeep);
 }
@@ -0,0 +1,21 @@
+package com.itasca.spoofing.service;
+
+import com.itasca.spoofing.model.SessionLeaseDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SessionLeaseService {
+
+    // Client lease lifecycle
+    SessionLeaseDto acquireLease(String groupId, String profileId, String ownerEmail);
+    LocalDateTime renewLease(String leaseId, String ownerEmail);
+    boolean releaseLease(String leaseId, String ownerEmail);
+    boolean releaseOldestLease(String groupId, String profileId, Long userId);
+
+    // Reclamation
+    boolean reclaimIfExpired(String leaseId);
+    int reclaimExpiredLeases();
+    List<String> findMiscountedGroupIds();
+    boolean reconcileSessionCount(String groupId);
+}
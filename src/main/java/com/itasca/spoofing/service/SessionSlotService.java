@@ -0,0 +1,10 @@
+package com.itasca.spoofing.service;
+
+import com.itasca.spoofing.model.SessionSlotResult;
+
+public interface SessionSlotService {
+
+    SessionSlotResult acquireSlot(String groupId);
+    boolean releaseSlot(String groupId);
+    int getActiveSessions(String groupId);
+}
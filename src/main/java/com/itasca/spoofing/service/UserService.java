@@ -1,5 +1,6 @@
 package com.itasca.spoofing.service;
 
+import com.itasca.spoofing.model.CursorPageDto;
 import com.itasca.spoofing.model.UserDto;
 import com.itasca.spoofing.model.GroupProfileDto;
 import org.springframework.data.domain.Page;
@@ -11,6 +12,7 @@ import java.util.List;
 
 public interface UserService {
     Page<UserDto> getUsers(Pageable pageable);
+    CursorPageDto<UserDto> getUsersAfter(String cursor, int size, boolean includeTotal);
     Optional<UserDto> getUserById(Long id);
     UserDto createUser(UserDto userDto);
     UserDto updateUser(Long id, UserDto userDto);
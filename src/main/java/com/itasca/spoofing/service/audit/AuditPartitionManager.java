@@ -0,0 +1,247 @@
+package com.itasca.spoofing.service.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps profile_audit range partitioned by month of action_timestamp on MySQL.
+ *
+ * Partitions are named pYYYYMM and hold the entries of that month, a trailing pmax
+ * partition catches anything later. Partitioning an existing table rebuilds it and
+ * needs action_timestamp in the primary key, so it only happens when convert-existing
+ * is set. Once partitioned, on startup and then daily, the months up to months-ahead
+ * are split off pmax while it is still empty, and months older than retention-months
+ * are dropped, which is instant compared to deleting rows. Each run holds a MySQL
+ * named lock so only one instance alters the table. Other databases keep a plain table.
+ */
+@Component
+@Slf4j
+public class AuditPartitionManager {
+
+    static final String TABLE = "profile_audit";
+    static final String MAX_PARTITION = "pmax";
+    static final String LOCK_NAME = "profile_audit_partitions";
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${audit.partitioning.enabled:true}")
+    private boolean enabled;
+
+    // Partitioning an unpartitioned table copies every row, so it has to be asked for
+    @Value("${audit.partitioning.convert-existing:false}")
+    private boolean convertExisting;
+
+    @Value("${audit.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    // 0 keeps every month
+    @Value("${audit.partitioning.retention-months:0}")
+    private int retentionMonths;
+
+    private volatile boolean supported;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Audit partitioning disabled");
+            return;
+        }
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            supported = "MySQL".equalsIgnoreCase(product);
+            if (!supported) {
+                log.info("Audit partitioning is only supported on MySQL, {} keeps a plain {} table", product, TABLE);
+                return;
+            }
+        } catch (Exception e) {
+            log.error("Could not determine the database for audit partitioning: {}", e.getMessage(), e);
+            return;
+        }
+
+        // Partitioning an existing table copies it, keep that off the startup path
+        Thread maintainer = new Thread(this::maintain, "audit-partition-maintenance");
+        maintainer.setDaemon(true);
+        maintainer.start();
+    }
+
+    /**
+     * Create upcoming monthly partitions and drop expired ones, skipped while another
+     * instance holds the partition lock
+     */
+    @Scheduled(cron = "${audit.partitioning.cron:0 30 3 * * *}")
+    public synchronized void maintain() {
+        if (!supported) {
+            return;
+        }
+        try {
+            // Named locks belong to the connection, so the whole run uses the one that took it
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                JdbcTemplate locked = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+                Integer acquired = locked.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, LOCK_NAME);
+                if (acquired == null || acquired != 1) {
+                    log.debug("Audit partitions are being maintained by another instance");
+                    return null;
+                }
+                try {
+                    maintainPartitions(locked);
+                } finally {
+                    locked.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Error maintaining audit partitions: {}", e.getMessage(), e);
+        }
+    }
+
+    private void maintainPartitions(JdbcTemplate locked) {
+        YearMonth current = YearMonth.now();
+        List<String> names = readPartitionNames(locked);
+        if (names.isEmpty()) {
+            if (!convertExisting) {
+                log.warn("{} is not partitioned, set audit.partitioning.convert-existing to partition it, "
+                        + "which rebuilds the table", TABLE);
+                return;
+            }
+            partitionTable(locked, current);
+            names = readPartitionNames(locked);
+        }
+        Map<String, YearMonth> partitions = monthlyPartitions(names);
+
+        List<YearMonth> missing = missingMonths(partitions.values(), current.plusMonths(monthsAhead));
+        if (!missing.isEmpty()) {
+            locked.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION
+                    + " INTO (" + partitionDefinitions(missing) + ")");
+            log.info("Added audit partitions {}", missing.stream().map(AuditPartitionManager::partitionName).toList());
+        }
+
+        if (retentionMonths > 0) {
+            List<String> expired = expiredPartitions(partitions, current.minusMonths(retentionMonths));
+            if (!expired.isEmpty()) {
+                locked.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(", ", expired));
+                log.info("Dropped audit partitions {} older than {} months", expired, retentionMonths);
+            }
+        }
+    }
+
+    /**
+     * Partition names of the table, empty while the table is not partitioned
+     */
+    private List<String> readPartitionNames(JdbcTemplate locked) {
+        return locked.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                String.class, TABLE);
+    }
+
+    /**
+     * Monthly partitions by name, pmax and partitions not named by this class are left out
+     */
+    static Map<String, YearMonth> monthlyPartitions(Collection<String> names) {
+        Map<String, YearMonth> partitions = new TreeMap<>();
+        for (String name : names) {
+            YearMonth month = parseMonth(name);
+            if (month != null) {
+                partitions.put(name, month);
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Partition the table from the month of its oldest entry through the current month
+     */
+    private void partitionTable(JdbcTemplate locked, YearMonth current) {
+        Timestamp oldest = locked.queryForObject("SELECT MIN(action_timestamp) FROM " + TABLE, Timestamp.class);
+        YearMonth first = oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : current;
+        if (first.isAfter(current)) {
+            first = current;
+        }
+
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(current); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+
+        log.info("Partitioning {} by month from {}, this rebuilds the table", TABLE, first);
+        long started = System.currentTimeMillis();
+        // Every unique key of a partitioned table must contain the partitioning column
+        locked.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, action_timestamp)");
+        locked.execute("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(action_timestamp) ("
+                + partitionDefinitions(months) + ")");
+        log.info("Partitioned {} into {} monthly partitions in {} ms", TABLE, months.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Months after the newest existing partition through the given month
+     */
+    static List<YearMonth> missingMonths(Collection<YearMonth> existing, YearMonth through) {
+        YearMonth next = existing.stream().max(YearMonth::compareTo)
+                .map(newest -> newest.plusMonths(1))
+                .orElse(through);
+        List<YearMonth> missing = new ArrayList<>();
+        for (YearMonth month = next; !month.isAfter(through); month = month.plusMonths(1)) {
+            missing.add(month);
+        }
+        return missing;
+    }
+
+    /**
+     * Names of the partitions of months before the cutoff month
+     */
+    static List<String> expiredPartitions(Map<String, YearMonth> partitions, YearMonth cutoff) {
+        return partitions.entrySet().stream()
+                .filter(partition -> partition.getValue().isBefore(cutoff))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Definitions of the monthly partitions followed by pmax
+     */
+    static String partitionDefinitions(List<YearMonth> months) {
+        StringBuilder definitions = new StringBuilder();
+        for (YearMonth month : months) {
+            definitions.append("PARTITION ").append(partitionName(month))
+                    .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append(" 00:00:00'), ");
+        }
+        return definitions.append("PARTITION ").append(MAX_PARTITION).append(" VALUES LESS THAN (MAXVALUE)").toString();
+    }
+
+    static String partitionName(YearMonth month) {
+        return month.format(NAME_FORMAT);
+    }
+
+    /**
+     * Month of a pYYYYMM partition name, null for pmax and foreign names
+     */
+    static YearMonth parseMonth(String name) {
+        if (name == null || !name.matches("p\\d{6}")) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(name.substring(1, 5)), Integer.parseInt(name.substring(5)));
+    }
+}
@@ -0,0 +1,41 @@
+package com.itasca.spoofing.service.audit;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter of an audit listing or export. Every field is optional, from is inclusive
+ * and to is exclusive.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditQuery {
+
+    // Bounds used for an open window, both fit a MySQL DATETIME
+    public static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+    public static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private String profileId;
+    private String action;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    public static AuditQuery forProfile(String profileId) {
+        return AuditQuery.builder().profileId(profileId).build();
+    }
+
+    public LocalDateTime fromOrMin() {
+        return from != null ? from : MIN_TIMESTAMP;
+    }
+
+    public LocalDateTime toOrMax() {
+        return to != null ? to : MAX_TIMESTAMP;
+    }
+
+    public String actionOrNull() {
+        return action == null || action.isBlank() ? null : action.trim().toUpperCase();
+    }
+}
@@ -0,0 +1,23 @@
+package com.itasca.spoofing.service.audit;
+
+import com.itasca.spoofing.model.ProfileType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audit event captured on the request thread and written by {@link AuditWriter}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditRecord {
+
+    private String profileId;
+    private ProfileType profileType;
+    private String action;
+    private String userId;
+    private LocalDateTime actionTimestamp;
+    private String changes;
+}
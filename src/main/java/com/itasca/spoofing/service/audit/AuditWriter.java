@@ -0,0 +1,430 @@
+package com.itasca.spoofing.service.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itasca.spoofing.repository.ProfileAuditBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous audit writer.
+ *
+ * Records are queued in a bounded in-memory queue once the caller's transaction
+ * commits, and a single writer thread inserts them with JDBC batches. A batch
+ * is written when it is full or when the linger time since its first record
+ * has passed. When the database fails, or the queue is full, records are
+ * appended to an NDJSON spill file that is replayed once the database is healthy.
+ *
+ * Callers never touch the spill file: records that do not fit the queue go to a
+ * second bounded queue drained by a spiller thread, and are dropped when that is
+ * full too. The writer replays a few batches of the spill file after every batch
+ * it writes, streaming the file, so the spill drains under steady load as well.
+ * The file being replayed is locked, so writers sharing a spill directory never
+ * replay the same file twice.
+ */
+@Component
+@Slf4j
+public class AuditWriter {
+
+    private static final long REPLAY_RETRY_MS = 30_000;
+
+    @Autowired
+    private ProfileAuditBatchRepository auditBatchRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${audit.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${audit.async.batch-size:200}")
+    private int batchSize;
+
+    @Value("${audit.async.linger-ms:50}")
+    private long lingerMs;
+
+    @Value("${audit.spill.enabled:true}")
+    private boolean spillEnabled;
+
+    @Value("${audit.spill.directory:${java.io.tmpdir}/spoofing-audit-spill}")
+    private String spillDirectory;
+
+    @Value("${audit.spill.queue-capacity:10000}")
+    private int spillQueueCapacity;
+
+    // Batches of the spill file replayed per writer cycle
+    @Value("${audit.spill.replay-batches:1}")
+    private int replayBatches;
+
+    private BlockingQueue<AuditRecord> queue;
+    private BlockingQueue<AuditRecord> spillQueue;
+    private Path spillFile;
+    private Path replayFile;
+    private final Object spillLock = new Object();
+    private final AtomicLong droppedSinceLog = new AtomicLong();
+
+    private Counter writtenCounter;
+    private Counter spilledCounter;
+    private Counter droppedCounter;
+    private Counter replayedCounter;
+    private Timer batchTimer;
+
+    private volatile boolean running;
+    private Thread writerThread;
+    private Thread spillerThread;
+    private long nextReplayAttempt;
+
+    // Open replay file and the lines of it already written, owned by the writer thread
+    private BufferedReader replayReader;
+    private long replayedLines;
+    private Object replayFileKey;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        spillQueue = new ArrayBlockingQueue<>(spillQueueCapacity);
+        spillFile = Paths.get(spillDirectory, "audit-spill.ndjson");
+        replayFile = Paths.get(spillDirectory, "audit-spill.replaying.ndjson");
+
+        Gauge.builder("audit.queue.size", queue, BlockingQueue::size)
+                .description("Audit records waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("audit.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("Free audit queue slots")
+                .register(meterRegistry);
+        writtenCounter = meterRegistry.counter("audit.records", "outcome", "written");
+        spilledCounter = meterRegistry.counter("audit.records", "outcome", "spilled");
+        droppedCounter = meterRegistry.counter("audit.records", "outcome", "dropped");
+        replayedCounter = meterRegistry.counter("audit.records", "outcome", "replayed");
+        batchTimer = meterRegistry.timer("audit.batch.write");
+
+        running = true;
+        writerThread = new Thread(this::writeLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        spillerThread = new Thread(this::spillLoop, "audit-spiller");
+        spillerThread.setDaemon(true);
+        spillerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            // The writer drains what is left in the queue before exiting
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (spillerThread != null) {
+            spillerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        closeReplayReader();
+        List<AuditRecord> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        spillQueue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            overflow(remaining);
+        }
+    }
+
+    /**
+     * Queue a record once the current transaction commits, or right away outside a transaction
+     */
+    public void submit(AuditRecord record) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(record);
+                }
+            });
+        } else {
+            enqueue(record);
+        }
+    }
+
+    /**
+     * Number of records waiting in the queue
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    private void enqueue(AuditRecord record) {
+        if (!running) {
+            overflow(List.of(record));
+        } else if (!queue.offer(record) && (!spillEnabled || !spillQueue.offer(record))) {
+            // Both queues are full, the spiller logs the drops so callers never block on I/O
+            droppedCounter.increment();
+            droppedSinceLog.incrementAndGet();
+        }
+    }
+
+    private void writeLoop() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditRecord first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpill(replayBatches);
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    AuditRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                write(batch);
+                replaySpill(replayBatches);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Unexpected error in audit writer: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        try {
+            batchTimer.record(() -> auditBatchRepository.insertBatch(batch));
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            log.error("Error writing {} audit records: {}", batch.size(), e.getMessage());
+            // Replaying into a failing database would only fail again
+            nextReplayAttempt = System.currentTimeMillis() + REPLAY_RETRY_MS;
+            overflow(batch);
+        }
+    }
+
+    private void spillLoop() {
+        List<AuditRecord> records = new ArrayList<>(batchSize);
+        while (running || !spillQueue.isEmpty()) {
+            try {
+                AuditRecord first = spillQueue.poll(500, TimeUnit.MILLISECONDS);
+                long dropped = droppedSinceLog.getAndSet(0);
+                if (dropped > 0) {
+                    log.warn("Dropped {} audit records, the audit and spill queues were full", dropped);
+                }
+                if (first == null) {
+                    continue;
+                }
+                records.add(first);
+                spillQueue.drainTo(records, batchSize - 1);
+                overflow(records);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Unexpected error in audit spiller: {}", e.getMessage(), e);
+            } finally {
+                records.clear();
+            }
+        }
+    }
+
+    /**
+     * Records that cannot be written now go to the spill file, or are dropped if spilling is off
+     */
+    private void overflow(List<AuditRecord> records) {
+        if (!spillEnabled) {
+            droppedCounter.increment(records.size());
+            log.warn("Dropped {} audit records", records.size());
+            return;
+        }
+
+        synchronized (spillLock) {
+            try {
+                Files.createDirectories(spillFile.getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (AuditRecord record : records) {
+                        writer.write(objectMapper.writeValueAsString(record));
+                        writer.newLine();
+                    }
+                }
+                spilledCounter.increment(records.size());
+            } catch (IOException e) {
+                droppedCounter.increment(records.size());
+                log.error("Error spilling {} audit records to {}: {}", records.size(), spillFile, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write up to the given number of batches of spilled records back to the database.
+     * The spill file is read line by line and only the lines written so far are remembered,
+     * so a failure part way through resumes after them. Records are written at least once,
+     * a restart replays the current file from its start.
+     */
+    private void replaySpill(int batches) {
+        if (!spillEnabled || System.currentTimeMillis() < nextReplayAttempt) {
+            return;
+        }
+
+        try {
+            if (replayReader == null && !openReplayFile()) {
+                return;
+            }
+
+            List<AuditRecord> records = new ArrayList<>(batchSize);
+            for (int i = 0; i < batches; i++) {
+                int lines = readBatch(records);
+                if (lines == 0) {
+                    // Deleted while still locked so no other writer picks the file up again
+                    Files.delete(replayFile);
+                    closeReplayReader();
+                    log.info("Replayed {} lines of spilled audit records", replayedLines);
+                    replayedLines = 0;
+                    return;
+                }
+                if (!records.isEmpty()) {
+                    auditBatchRepository.insertBatch(records);
+                    replayedCounter.increment(records.size());
+                }
+                replayedLines += lines;
+                records.clear();
+            }
+        } catch (Exception e) {
+            // Reopened on the next attempt and skipped to the first line not written
+            closeReplayReader();
+            nextReplayAttempt = System.currentTimeMillis() + REPLAY_RETRY_MS;
+            log.warn("Error replaying spilled audit records, retrying in {}s: {}", REPLAY_RETRY_MS / 1000, e.getMessage());
+        }
+    }
+
+    /**
+     * Open and lock the file being replayed, taking over the spill file if there is none.
+     * False if there is nothing to replay or another writer is replaying it.
+     */
+    private boolean openReplayFile() throws IOException {
+        boolean moved = false;
+        synchronized (spillLock) {
+            if (!Files.exists(replayFile)) {
+                if (!Files.exists(spillFile)) {
+                    return false;
+                }
+                Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                moved = true;
+            }
+        }
+
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(replayFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (NoSuchFileException e) {
+            // Another writer finished it in the meantime
+            return false;
+        }
+        try {
+            if (!tryLock(channel)) {
+                channel.close();
+                return false;
+            }
+            // Progress only carries over to the file it was made on
+            Object fileKey = Files.readAttributes(replayFile, BasicFileAttributes.class).fileKey();
+            if (moved || (fileKey != null && !fileKey.equals(replayFileKey))) {
+                replayedLines = 0;
+            }
+            replayFileKey = fileKey;
+
+            replayReader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+            for (long line = 0; line < replayedLines; line++) {
+                if (replayReader.readLine() == null) {
+                    break;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            channel.close();
+            replayReader = null;
+            throw e;
+        }
+    }
+
+    private static boolean tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock() != null;
+        } catch (OverlappingFileLockException e) {
+            // Held by another writer in this JVM
+            return false;
+        }
+    }
+
+    /**
+     * Read up to a batch of records from the replay file, returns the number of lines consumed
+     */
+    private int readBatch(List<AuditRecord> records) throws IOException {
+        int lines = 0;
+        String line;
+        while (records.size() < batchSize && (line = replayReader.readLine()) != null) {
+            lines++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                records.add(objectMapper.readValue(line, AuditRecord.class));
+            } catch (IOException e) {
+                droppedCounter.increment();
+                log.error("Skipping unreadable spilled audit record: {}", e.getMessage());
+            }
+        }
+        return lines;
+    }
+
+    private void closeReplayReader() {
+        if (replayReader != null) {
+            try {
+                replayReader.close();
+            } catch (IOException e) {
+                log.debug("Error closing audit replay file: {}", e.getMessage());
+            }
+            replayReader = null;
+        }
+    }
+}
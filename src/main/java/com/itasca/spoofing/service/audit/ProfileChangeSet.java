@@ -0,0 +1,171 @@
+package com.itasca.spoofing.service.audit;
+
+import com.itasca.spoofing.entity.GroupProfileEntity;
+import com.itasca.spoofing.entity.ProxyConfigEntity;
+import com.itasca.spoofing.entity.SingleProfileEntity;
+
+import java.util.*;
+
+/**
+ * Field-level diff of one logical change to a profile, stored as the audit record's changes.
+ *
+ * Only fields a user can edit are captured. Bookkeeping such as last used, timestamps,
+ * the sequential cursor and active session counts is left out, so touching them never
+ * produces an UPDATE audit. Collection fields are diffed into added/removed values.
+ */
+public final class ProfileChangeSet {
+
+    private static final String REDACTED = "********";
+    private static final Set<String> SECRET_FIELDS = Set.of("proxy_password");
+
+    private final Map<String, Object> changes = new LinkedHashMap<>();
+
+    public static ProfileChangeSet create() {
+        return new ProfileChangeSet();
+    }
+
+    /**
+     * Diff two captured states, see {@link #capture(SingleProfileEntity)} and {@link #capture(GroupProfileEntity)}
+     */
+    public static ProfileChangeSet diff(Map<String, Object> before, Map<String, Object> after) {
+        ProfileChangeSet changeSet = new ProfileChangeSet();
+        Set<String> fields = new LinkedHashSet<>(before.keySet());
+        fields.addAll(after.keySet());
+        for (String field : fields) {
+            Object from = before.get(field);
+            Object to = after.get(field);
+            if (from instanceof Collection<?> && to instanceof Collection<?>) {
+                changeSet.collection(field, (Collection<?>) from, (Collection<?>) to);
+            } else {
+                changeSet.field(field, from, to);
+            }
+        }
+        return changeSet;
+    }
+
+    /**
+     * Auditable state of a single profile
+     */
+    public static Map<String, Object> capture(SingleProfileEntity profile) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("name", profile.getName());
+        state.put("description", profile.getDescription());
+        state.put("status", profile.getStatus());
+        state.put("operating_system", profile.getOperatingSystem());
+        state.put("user_agent", profile.getUserAgent());
+        state.put("screen_resolution", profile.getScreenResolution());
+        state.put("webgl_vendor", profile.getWebglVendor());
+        state.put("webgl_renderer", profile.getWebglRenderer());
+        state.put("hardware_concurrency", profile.getHardwareConcurrency());
+        state.put("device_memory", profile.getDeviceMemory());
+        state.put("canvas_fingerprint", profile.getCanvasFingerprint());
+        state.put("webrtc_enabled", profile.getWebrtcEnabled());
+        state.put("javascript_enabled", profile.getJavascriptEnabled());
+        state.put("cookies_enabled", profile.getCookiesEnabled());
+        state.put("geolocation_enabled", profile.getGeolocationEnabled());
+        state.put("do_not_track", profile.getDoNotTrack());
+        state.put("default_url_group", profile.getDefaultUrlGroup());
+        return state;
+    }
+
+    /**
+     * Auditable state of a group profile, member IDs are captured sorted
+     */
+    public static Map<String, Object> capture(GroupProfileEntity group) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("name", group.getName());
+        state.put("description", group.getDescription());
+        state.put("status", group.getStatus());
+        state.put("selection_mode", group.getSelectionMode());
+        state.put("timezone", group.getTimezone());
+        state.put("language", group.getLanguage());
+        state.put("url_group_id", group.getUrlGroupId());
+        state.put("max_concurrent_usage", group.getMaxConcurrentUsage());
+        captureProxyConfig(state, group.getProxyConfig());
+
+        Set<String> memberIds = new TreeSet<>();
+        group.getMemberProfiles().forEach(profile -> memberIds.add(profile.getId()));
+        state.put("member_profile_ids", memberIds);
+        state.put("member_weights", new TreeMap<>(group.getMemberWeights()));
+        return state;
+    }
+
+    private static void captureProxyConfig(Map<String, Object> state, ProxyConfigEntity proxyConfig) {
+        ProxyConfigEntity proxy = proxyConfig != null ? proxyConfig : new ProxyConfigEntity();
+        state.put("proxy_type", proxy.getProxyType());
+        state.put("proxy_host", proxy.getHost());
+        state.put("proxy_port", proxy.getPort());
+        state.put("proxy_end_port", proxy.getEndPort());
+        state.put("proxy_username", proxy.getUsername());
+        state.put("proxy_password", proxy.getPassword());
+        state.put("proxy_ip_type", proxy.getIpType());
+        state.put("proxy_fixed_ip", proxy.getFixedIp());
+        state.put("proxy_country", proxy.getCountry());
+    }
+
+    /**
+     * Record a value change, ignored when the values are equal
+     */
+    public ProfileChangeSet field(String field, Object from, Object to) {
+        if (Objects.equals(from, to)) {
+            return this;
+        }
+
+        Map<String, Object> change = new LinkedHashMap<>();
+        if (SECRET_FIELDS.contains(field)) {
+            change.put("from", REDACTED);
+            change.put("to", REDACTED);
+        } else {
+            change.put("from", from);
+            change.put("to", to);
+        }
+        changes.put(field, change);
+        return this;
+    }
+
+    /**
+     * Record the values added to and removed from a collection, ignored when there are none
+     */
+    public ProfileChangeSet collection(String field, Collection<?> from, Collection<?> to) {
+        List<Object> added = new ArrayList<>(to);
+        added.removeAll(from);
+        List<Object> removed = new ArrayList<>(from);
+        removed.removeAll(to);
+        return collectionDelta(field, added, removed);
+    }
+
+    /**
+     * Record values known to be added to or removed from a collection, ignored when both are empty
+     */
+    public ProfileChangeSet collectionDelta(String field, Collection<?> added, Collection<?> removed) {
+        if (added.isEmpty() && removed.isEmpty()) {
+            return this;
+        }
+
+        Map<String, Object> change = new LinkedHashMap<>();
+        if (!added.isEmpty()) {
+            change.put("added", added);
+        }
+        if (!removed.isEmpty()) {
+            change.put("removed", removed);
+        }
+        changes.put(field, change);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public boolean hasChanged(String field) {
+        return changes.containsKey(field);
+    }
+
+    public Set<String> getChangedFields() {
+        return Collections.unmodifiableSet(changes.keySet());
+    }
+
+    public Map<String, Object> getChanges() {
+        return Collections.unmodifiableMap(changes);
+    }
+}
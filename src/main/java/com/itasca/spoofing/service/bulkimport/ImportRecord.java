@@ -0,0 +1,37 @@
+package com.itasca.spoofing.service.bulkimport;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * One raw record of an import file, either an NDJSON line or CSV fields by header,
+ * or an error if the record could not even be split into fields
+ */
+@Getter
+public class ImportRecord {
+
+    private final long rowNumber;
+    private final String line;
+    private final Map<String, String> fields;
+    private final String error;
+
+    private ImportRecord(long rowNumber, String line, Map<String, String> fields, String error) {
+        this.rowNumber = rowNumber;
+        this.line = line;
+        this.fields = fields;
+        this.error = error;
+    }
+
+    public static ImportRecord ofLine(long rowNumber, String line) {
+        return new ImportRecord(rowNumber, line, null, null);
+    }
+
+    public static ImportRecord ofFields(long rowNumber, Map<String, String> fields) {
+        return new ImportRecord(rowNumber, null, fields, null);
+    }
+
+    public static ImportRecord invalid(long rowNumber, String error) {
+        return new ImportRecord(rowNumber, null, null, error);
+    }
+}
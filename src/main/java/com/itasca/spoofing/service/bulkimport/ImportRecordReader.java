@@ -0,0 +1,130 @@
+package com.itasca.spoofing.service.bulkimport;
+
+import com.itasca.spoofing.model.ImportFormat;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sequential reader of import records. Only splits the input into records,
+ * decoding and validation happen later so they can run in parallel.
+ *
+ * Row numbers count records from 1, blank lines and the CSV header are not rows.
+ */
+public class ImportRecordReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private List<String> header;
+    private long rowNumber;
+
+    public ImportRecordReader(BufferedReader reader, ImportFormat format) {
+        this.reader = reader;
+        this.format = format;
+    }
+
+    /**
+     * Next record, or null at the end of the input
+     */
+    public ImportRecord next() throws IOException {
+        if (format == ImportFormat.NDJSON) {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            return line == null ? null : ImportRecord.ofLine(++rowNumber, line);
+        }
+
+        if (header == null) {
+            header = readCsvRecord();
+            if (header == null) {
+                return null;
+            }
+            header = header.stream().map(name -> name.trim().toLowerCase()).toList();
+        }
+
+        List<String> values;
+        do {
+            values = readCsvRecord();
+        } while (values != null && values.size() == 1 && values.get(0).isBlank());
+        if (values == null) {
+            return null;
+        }
+
+        if (values.size() > header.size()) {
+            return ImportRecord.invalid(++rowNumber, "Expected " + header.size() + " columns but found " + values.size());
+        }
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            if (!values.get(i).isEmpty()) {
+                fields.put(header.get(i), values.get(i));
+            }
+        }
+        return ImportRecord.ofFields(++rowNumber, fields);
+    }
+
+    /**
+     * Skip records that were already processed, returns how many were skipped
+     */
+    public long skip(long records) throws IOException {
+        long skipped = 0;
+        while (skipped < records && next() != null) {
+            skipped++;
+        }
+        return skipped;
+    }
+
+    /**
+     * Read one RFC 4180 record, quoted fields may contain commas, quotes and line breaks
+     */
+    private List<String> readCsvRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int following = reader.read();
+                    if (following == '"') {
+                        value.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    value.append(ch);
+                }
+            } else if (ch == '"' && value.isEmpty()) {
+                quoted = true;
+            } else if (ch == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (ch == '\n') {
+                break;
+            } else if (ch != '\r') {
+                value.append(ch);
+            }
+            c = reader.read();
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,44 @@
+package com.itasca.spoofing.service.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.itasca.spoofing.model.GroupProfileDto;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.model.URLGroupDto;
+
+import java.util.List;
+
+/**
+ * Names of the read caches and the value type stored in each, so the shared tier
+ * can serialize entries without embedding class names
+ */
+public final class CacheNames {
+
+    public static final String SINGLE_PROFILES = "single_profiles";
+    public static final String GROUP_PROFILES = "group_profiles";
+    public static final String ASSIGNED_PROFILES = "assigned_profiles";
+    public static final String URL_GROUPS = "url_groups";
+
+    public static final List<String> ALL = List.of(SINGLE_PROFILES, GROUP_PROFILES, ASSIGNED_PROFILES, URL_GROUPS);
+
+    private CacheNames() {
+    }
+
+    /**
+     * Value type of a cache in {@link #ALL}
+     */
+    public static JavaType valueType(String cacheName, TypeFactory typeFactory) {
+        switch (cacheName) {
+            case SINGLE_PROFILES:
+                return typeFactory.constructType(SingleProfileDto.class);
+            case GROUP_PROFILES:
+                return typeFactory.constructType(GroupProfileDto.class);
+            case ASSIGNED_PROFILES:
+                return typeFactory.constructCollectionType(List.class, GroupProfileDto.class);
+            case URL_GROUPS:
+                return typeFactory.constructType(URLGroupDto.class);
+            default:
+                throw new IllegalArgumentException("Unknown cache: " + cacheName);
+        }
+    }
+}
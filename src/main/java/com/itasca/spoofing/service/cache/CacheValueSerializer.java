@@ -0,0 +1,136 @@
+package com.itasca.spoofing.service.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Serializer for values of one shared cache.
+ *
+ * Values are written as Smile (binary JSON) or JSON for the cache's value type, without
+ * class names, and LZ4-compressed when larger than a threshold. Every entry starts with
+ * a header:
+ *
+ * <pre>
+ *   magic (1) | version (1) | format (1) | compression (1) | [raw length (4), when compressed] | payload
+ * </pre>
+ *
+ * Reading does not depend on the configured format, so the format and threshold can be
+ * changed during a rolling deploy. Entries without a header are read as plain JSON, the
+ * format written before the header was introduced. Entries from a newer version fail with
+ * a {@link SerializationException}, which makes {@link TwoLevelCache} drop and reload them.
+ */
+public class CacheValueSerializer implements RedisSerializer<Object> {
+
+    public enum Format {
+        JSON, SMILE
+    }
+
+    // Not a valid first byte of JSON text or of a Smile header (':')
+    static final byte MAGIC = (byte) 0xCA;
+    static final byte VERSION = 1;
+
+    private static final byte COMPRESSION_NONE = 0;
+    private static final byte COMPRESSION_LZ4 = 1;
+    private static final int HEADER_SIZE = 4;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final JavaType valueType;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final Format format;
+    private final int compressionThreshold;
+
+    private final LZ4Compressor compressor = LZ4.fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4.fastDecompressor();
+
+    /**
+     * @param compressionThreshold payloads of at least this many bytes are compressed, negative to never compress
+     */
+    public CacheValueSerializer(ObjectMapper objectMapper, JavaType valueType, Format format, int compressionThreshold) {
+        this.valueType = valueType;
+        this.jsonMapper = objectMapper;
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+        this.format = format;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        byte[] payload;
+        try {
+            payload = mapper(format).writerFor(valueType).writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value of type " + valueType, e);
+        }
+
+        if (compressionThreshold < 0 || payload.length < compressionThreshold) {
+            return ByteBuffer.allocate(HEADER_SIZE + payload.length)
+                    .put(MAGIC).put(VERSION).put((byte) format.ordinal()).put(COMPRESSION_NONE)
+                    .put(payload)
+                    .array();
+        }
+
+        byte[] compressed = new byte[compressor.maxCompressedLength(payload.length)];
+        int compressedLength = compressor.compress(payload, 0, payload.length, compressed, 0);
+        return ByteBuffer.allocate(HEADER_SIZE + 4 + compressedLength)
+                .put(MAGIC).put(VERSION).put((byte) format.ordinal()).put(COMPRESSION_LZ4)
+                .putInt(payload.length)
+                .put(compressed, 0, compressedLength)
+                .array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            if (bytes[0] != MAGIC) {
+                return jsonMapper.readValue(bytes, valueType);
+            }
+            if (bytes.length < HEADER_SIZE || bytes[1] != VERSION) {
+                throw new SerializationException("Unsupported cache value version " + (bytes.length > 1 ? bytes[1] : -1));
+            }
+            ObjectMapper mapper = mapper(formatOf(bytes[2]));
+            switch (bytes[3]) {
+                case COMPRESSION_NONE:
+                    return mapper.readValue(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE, valueType);
+                case COMPRESSION_LZ4:
+                    int rawLength = ByteBuffer.wrap(bytes, HEADER_SIZE, 4).getInt();
+                    byte[] payload = decompressor.decompress(bytes, HEADER_SIZE + 4, rawLength);
+                    return mapper.readValue(payload, valueType);
+                default:
+                    throw new SerializationException("Unsupported cache value compression " + bytes[3]);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof SerializationException) {
+                throw (SerializationException) e;
+            }
+            throw new SerializationException("Could not read cache value of type " + valueType, e);
+        }
+    }
+
+    private ObjectMapper mapper(Format format) {
+        return format == Format.SMILE ? smileMapper : jsonMapper;
+    }
+
+    private static Format formatOf(byte value) {
+        if (value < 0 || value >= Format.values().length) {
+            throw new SerializationException("Unsupported cache value format " + value);
+        }
+        return Format.values()[value];
+    }
+}
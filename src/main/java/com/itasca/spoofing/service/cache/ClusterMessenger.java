@@ -0,0 +1,21 @@
+package com.itasca.spoofing.service.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Short messages between instances for in-memory state that has to follow changes
+ * made on another instance. Delivery is best effort and a message never reaches the
+ * instance that sent it, so senders apply the change locally themselves.
+ */
+public interface ClusterMessenger {
+
+    /**
+     * Send a payload to the subscribers of a topic on every other instance
+     */
+    void broadcast(String topic, String payload);
+
+    /**
+     * Receive the payloads other instances broadcast on a topic, one listener per topic
+     */
+    void subscribe(String topic, Consumer<String> listener);
+}
@@ -0,0 +1,192 @@
+package com.itasca.spoofing.service.cache;
+
+import com.itasca.spoofing.event.ProfileChangedEvent;
+import com.itasca.spoofing.event.UserAccessChangedEvent;
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.repository.GroupProfileRepository;
+import com.itasca.spoofing.service.selection.ProfileSelectorEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evicts cached profile reads when the data behind them changes.
+ *
+ * Profile changes arrive as events after commit. Writes that publish no event call the
+ * evict methods, which also wait for the commit so a concurrent read cannot cache the
+ * old rows again. Group DTOs embed member profiles and assigned users, so a profile
+ * change evicts the groups containing it and the assigned profile lists of their users.
+ * Groups are found in the database and in the selection engine, which still knows the
+ * groups of members whose rows were deleted. Group DTOs also show the live session
+ * counter and last use, so every session start, end and rotation evicts its group.
+ * Changes touching more than
+ * cache.invalidation.max-evictions keys, to assignments or to URL groups clear the
+ * caches instead; these writes are rare next to reads.
+ */
+@Component
+@Slf4j
+public class ProfileCacheInvalidator {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private GroupProfileRepository groupProfileRepository;
+
+    @Autowired
+    private ProfileSelectorEngine profileSelectorEngine;
+
+    @Value("${cache.invalidation.max-evictions:500}")
+    private int maxEvictions;
+
+    // Runs before the selection engine forgets the groups of deleted members
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(ProfileChangedEvent event) {
+        if (event.getProfileType() == ProfileType.SINGLE) {
+            if (event.getChangeType() == ProfileChangedEvent.ChangeType.CREATED) {
+                // Misses are not cached, so there is nothing to drop
+                return;
+            }
+            evictAll(CacheNames.SINGLE_PROFILES, event.getProfileIds());
+            Set<String> groupIds = groupsContaining(event.getProfileIds());
+            if (groupIds == null) {
+                clear(CacheNames.GROUP_PROFILES);
+                clear(CacheNames.ASSIGNED_PROFILES);
+                return;
+            }
+            evictAll(CacheNames.GROUP_PROFILES, groupIds);
+            evictAssignedProfiles(groupIds);
+        } else {
+            evictAll(CacheNames.GROUP_PROFILES, event.getProfileIds());
+            if (event.getChangeType() == ProfileChangedEvent.ChangeType.DELETED) {
+                // The assignments went with the groups, so their users cannot be looked up
+                clear(CacheNames.ASSIGNED_PROFILES);
+            } else {
+                evictAssignedProfiles(event.getProfileIds());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccessChanged(UserAccessChangedEvent event) {
+        clear(CacheNames.GROUP_PROFILES);
+        clear(CacheNames.ASSIGNED_PROFILES);
+    }
+
+    /**
+     * Evict a single profile whose bookkeeping fields changed without an event
+     */
+    public void evictSingleProfile(String profileId) {
+        afterCommit(() -> cache(CacheNames.SINGLE_PROFILES).evict(profileId));
+    }
+
+    /**
+     * Evict a group whose session counter or last use changed, and the assigned profile lists showing it
+     */
+    public void evictGroupUsage(String groupId) {
+        afterCommit(() -> {
+            cache(CacheNames.GROUP_PROFILES).evict(groupId);
+            evictAssignedProfiles(Set.of(groupId));
+        });
+    }
+
+    /**
+     * Evict everything derived from user to group assignments
+     */
+    public void evictAssignments() {
+        afterCommit(() -> {
+            clear(CacheNames.GROUP_PROFILES);
+            clear(CacheNames.ASSIGNED_PROFILES);
+        });
+    }
+
+    /**
+     * Evict URL groups and the profiles embedding them
+     */
+    public void evictUrlGroups() {
+        afterCommit(() -> CacheNames.ALL.forEach(this::clear));
+    }
+
+    /**
+     * Groups containing any of the profiles, null when they could not be looked up
+     */
+    private Set<String> groupsContaining(Set<String> profileIds) {
+        Set<String> groupIds = profileSelectorEngine.groupsContaining(profileIds);
+        try {
+            groupIds.addAll(groupProfileRepository.findGroupIdsContainingProfiles(profileIds));
+        } catch (RuntimeException e) {
+            log.warn("Could not look up the groups of changed profiles, clearing group caches: {}", e.getMessage());
+            return null;
+        }
+        return groupIds;
+    }
+
+    /**
+     * Evict the assigned profile lists, cached by user ID and by email, of the users of the groups
+     */
+    private void evictAssignedProfiles(Set<String> groupIds) {
+        if (groupIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> users;
+        try {
+            users = groupIds.size() <= maxEvictions ? groupProfileRepository.findAssignedUserKeys(groupIds) : null;
+        } catch (RuntimeException e) {
+            log.warn("Could not look up the users of changed groups, clearing assigned profiles: {}", e.getMessage());
+            users = null;
+        }
+        if (users == null || users.size() * 2 > maxEvictions) {
+            clear(CacheNames.ASSIGNED_PROFILES);
+            return;
+        }
+        Cache assignedProfiles = cache(CacheNames.ASSIGNED_PROFILES);
+        for (Object[] user : users) {
+            assignedProfiles.evict(user[0]);
+            assignedProfiles.evict("email:" + user[1]);
+        }
+    }
+
+    private void evictAll(String cacheName, Collection<String> keys) {
+        if (keys.size() > maxEvictions) {
+            clear(cacheName);
+            return;
+        }
+        Cache cache = cache(cacheName);
+        keys.forEach(cache::evict);
+    }
+
+    private void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    private void clear(String cacheName) {
+        log.debug("Clearing cache {}", cacheName);
+        cache(cacheName).clear();
+    }
+
+    private Cache cache(String cacheName) {
+        return cacheManager.getCache(cacheName);
+    }
+}
@@ -0,0 +1,251 @@
+package com.itasca.spoofing.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near cache in front of a shared cache.
+ *
+ * Reads try the local Caffeine cache first, then the shared (Redis) cache, then the loader,
+ * and fill the tiers they missed. Writes and evictions go to both tiers and are broadcast
+ * so other instances drop their local copy. Null values are never cached.
+ *
+ * A failing shared cache is skipped for a retry interval so requests fall back to local
+ * caching instead of waiting on Redis. Writes skipped or failed in that time leave the
+ * shared cache possibly stale, so it is cleared once it is reachable again.
+ *
+ * A value loaded while the cache was invalidated, here or by another instance, may have
+ * been read before the change and is kept locally but not written to the shared tier,
+ * where it would outlive the invalidation. An invalidation that arrives only after the
+ * write is not caught, the shared TTL bounds how long such a value lives.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    /**
+     * Tells other instances to drop a key, or every key when key is null
+     */
+    @FunctionalInterface
+    public interface InvalidationPublisher {
+        void publish(String cacheName, String key);
+    }
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final Cache shared;
+    private final InvalidationPublisher publisher;
+    private final long sharedRetryMs;
+
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+    private final Counter sharedErrors;
+
+    // Bumped on every write or invalidation, local or remote
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile long sharedDownUntil;
+    private volatile boolean sharedStale;
+
+    /**
+     * @param shared shared tier, or null for a local-only cache
+     */
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> local, Cache shared,
+                         InvalidationPublisher publisher, long sharedRetryMs, MeterRegistry meterRegistry) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.shared = shared;
+        this.publisher = publisher;
+        this.sharedRetryMs = sharedRetryMs;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name, "tier", "l1");
+        this.sharedHits = meterRegistry.counter("cache.l2.gets", "cache", name, "result", "hit");
+        this.sharedMisses = meterRegistry.counter("cache.l2.gets", "cache", name, "result", "miss");
+        this.sharedErrors = meterRegistry.counter("cache.l2.errors", "cache", name);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String cacheKey = cacheKey(key);
+        Object value = local.getIfPresent(cacheKey);
+        if (value == null) {
+            value = sharedGet(cacheKey);
+            if (value != null) {
+                local.put(cacheKey, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = cacheKey(key);
+        // Caffeine runs the mapping once per key, concurrent callers wait for it
+        return (T) local.get(cacheKey, ignored -> {
+            long loadGeneration = generation.get();
+            Object value = sharedGet(cacheKey);
+            if (value == null) {
+                try {
+                    value = valueLoader.call();
+                } catch (Exception e) {
+                    throw new ValueRetrievalException(key, valueLoader, e);
+                }
+                if (value != null) {
+                    if (generation.get() == loadGeneration) {
+                        sharedPut(cacheKey, value);
+                    } else {
+                        log.debug("Cache {} was invalidated while loading {}, not sharing the loaded value", name, cacheKey);
+                    }
+                }
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        String cacheKey = cacheKey(key);
+        generation.incrementAndGet();
+        local.put(cacheKey, value);
+        sharedPut(cacheKey, value);
+        publisher.publish(name, cacheKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String cacheKey = cacheKey(key);
+        generation.incrementAndGet();
+        local.invalidate(cacheKey);
+        if (sharedAvailable(true)) {
+            try {
+                shared.evict(cacheKey);
+            } catch (RuntimeException e) {
+                sharedFailed("evict", e);
+            }
+        }
+        publisher.publish(name, cacheKey);
+    }
+
+    @Override
+    public void clear() {
+        generation.incrementAndGet();
+        local.invalidateAll();
+        if (sharedAvailable(true)) {
+            try {
+                shared.clear();
+            } catch (RuntimeException e) {
+                sharedFailed("clear", e);
+            }
+        }
+        publisher.publish(name, null);
+    }
+
+    /**
+     * Drop a key from the local tier only, for invalidations from other instances
+     */
+    public void evictLocal(String key) {
+        generation.incrementAndGet();
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    private Object sharedGet(String key) {
+        if (!sharedAvailable(false)) {
+            return null;
+        }
+        try {
+            ValueWrapper wrapper = shared.get(key);
+            if (wrapper == null || wrapper.get() == null) {
+                sharedMisses.increment();
+                return null;
+            }
+            sharedHits.increment();
+            return wrapper.get();
+        } catch (SerializationException e) {
+            // Entry written by an incompatible version, drop it and load again
+            sharedErrors.increment();
+            log.warn("Dropping unreadable entry {} from cache {}: {}", key, name, e.getMessage());
+            try {
+                shared.evict(key);
+            } catch (RuntimeException evictFailure) {
+                sharedFailed("evict", evictFailure);
+            }
+            return null;
+        } catch (RuntimeException e) {
+            sharedFailed("get", e);
+            return null;
+        }
+    }
+
+    private void sharedPut(String key, Object value) {
+        if (sharedAvailable(true)) {
+            try {
+                shared.put(key, value);
+            } catch (RuntimeException e) {
+                sharedFailed("put", e);
+            }
+        }
+    }
+
+    private boolean sharedAvailable(boolean write) {
+        if (shared == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() < sharedDownUntil) {
+            if (write) {
+                // The write is lost, so the shared tier may now be stale
+                sharedStale = true;
+            }
+            return false;
+        }
+        if (sharedStale) {
+            try {
+                shared.clear();
+                sharedStale = false;
+                log.info("Shared tier of cache {} is reachable again, cleared entries that may be stale", name);
+            } catch (RuntimeException e) {
+                sharedFailed("clear", e);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void sharedFailed(String operation, RuntimeException e) {
+        sharedErrors.increment();
+        sharedStale = true;
+        sharedDownUntil = System.currentTimeMillis() + sharedRetryMs;
+        log.warn("Shared tier {} failed for cache {}, using the local tier only for {} ms: {}",
+                operation, name, sharedRetryMs, e.getMessage());
+    }
+
+    private static String cacheKey(Object key) {
+        return String.valueOf(key);
+    }
+}
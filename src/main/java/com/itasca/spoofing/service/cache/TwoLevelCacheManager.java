@@ -0,0 +1,190 @@
+package com.itasca.spoofing.service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Creates {@link TwoLevelCache}s on demand and relays their invalidations over Redis pub/sub.
+ *
+ * Local tier size and TTL come from cache.specs.&lt;name&gt;.local-max-size and local-ttl,
+ * falling back to cache.local.max-size and cache.local.ttl. Messages from this instance are
+ * ignored on receipt since its local tier was already updated. The same channel carries the
+ * {@link ClusterMessenger} topics of other in-memory state; without a shared tier there is
+ * no other instance to tell and broadcasts are skipped.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, ClusterMessenger, MessageListener, DisposableBean {
+
+    private static final String CLEAR = "*";
+
+    // Marks topic messages, cache names never start with it
+    private static final String TOPIC_PREFIX = "topic:";
+
+    private final CacheManager sharedCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final long sharedRetryMs;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Consumer<String>> subscribers = new ConcurrentHashMap<>();
+
+    private volatile long publishDownUntil;
+    private volatile RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * @param sharedCacheManager shared tier, or null to cache locally only
+     * @param redisTemplate used to publish invalidations, or null when there is no shared tier
+     */
+    public TwoLevelCacheManager(CacheManager sharedCacheManager, StringRedisTemplate redisTemplate, String channel,
+                                long sharedRetryMs, Environment environment, MeterRegistry meterRegistry) {
+        this.sharedCacheManager = sharedCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.sharedRetryMs = sharedRetryMs;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return caches.keySet();
+    }
+
+    @Override
+    public void broadcast(String topic, String payload) {
+        send(TOPIC_PREFIX + topic, payload);
+    }
+
+    @Override
+    public void subscribe(String topic, Consumer<String> listener) {
+        subscribers.put(topic, listener);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length != 3 || instanceId.equals(parts[0])) {
+            return;
+        }
+        if (parts[1].startsWith(TOPIC_PREFIX)) {
+            Consumer<String> listener = subscribers.get(parts[1].substring(TOPIC_PREFIX.length()));
+            if (listener != null) {
+                try {
+                    listener.accept(parts[2]);
+                } catch (RuntimeException e) {
+                    log.error("Error handling message on topic {}: {}", parts[1], e.getMessage(), e);
+                }
+            }
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.evictLocal(CLEAR.equals(parts[2]) ? null : parts[2]);
+        }
+    }
+
+    /**
+     * Subscribe to invalidations from other instances without holding up startup.
+     *
+     * The listener container fails to start while Redis is unreachable, so this retries on a
+     * daemon thread; once subscribed the container recovers from later disconnects by itself.
+     */
+    public void listen(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this, new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        listenerContainer = container;
+
+        Thread subscriber = new Thread(() -> {
+            while (listenerContainer != null && !container.isListening()) {
+                try {
+                    container.start();
+                    log.info("Subscribed to cache invalidations on {}", channel);
+                } catch (RuntimeException e) {
+                    container.stop();
+                    log.warn("Could not subscribe to cache invalidations, retrying in {} ms: {}", sharedRetryMs, e.getMessage());
+                    try {
+                        Thread.sleep(sharedRetryMs);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }, "cache-invalidation-subscriber");
+        subscriber.setDaemon(true);
+        subscriber.start();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        RedisMessageListenerContainer container = listenerContainer;
+        listenerContainer = null;
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        long maxSize = environment.getProperty("cache.specs." + name + ".local-max-size", Long.class,
+                environment.getProperty("cache.local.max-size", Long.class, 10_000L));
+        Duration ttl = environment.getProperty("cache.specs." + name + ".local-ttl", Duration.class,
+                environment.getProperty("cache.local.ttl", Duration.class, Duration.ofMinutes(10)));
+
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        Cache shared = sharedCacheManager != null ? sharedCacheManager.getCache(name) : null;
+
+        log.debug("Created cache {} (local max size {}, local ttl {}, shared tier {})",
+                name, maxSize, ttl, shared != null ? "on" : "off");
+        return new TwoLevelCache(name, local, shared, this::publish, sharedRetryMs, meterRegistry);
+    }
+
+    private void publish(String cacheName, String key) {
+        send(cacheName, key == null ? CLEAR : key);
+    }
+
+    private void send(String name, String payload) {
+        if (redisTemplate == null || System.currentTimeMillis() < publishDownUntil) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(channel, instanceId + "\n" + name + "\n" + payload);
+        } catch (RuntimeException e) {
+            publishDownUntil = System.currentTimeMillis() + sharedRetryMs;
+            log.warn("Could not publish {} to other instances, they keep their local state until it expires: {}",
+                    name, e.getMessage());
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.itasca.spoofing.service.impl;
 
 
 
+import com.itasca.spoofing.event.ProfileChangedEvent;
+import com.itasca.spoofing.event.ProfileUsageEvent;
 import com.itasca.spoofing.model.*;
 import com.itasca.spoofing.entity.*;
 import com.itasca.spoofing.repository.*;
@@ -10,11 +12,20 @@ import com.itasca.spoofing.mapper.ProfileMapper;
 import com.itasca.spoofing.service.GroupManagementService;
 import com.itasca.spoofing.service.ProfileAuditService;
 import com.itasca.spoofing.service.ProfileStatsService;
+import com.itasca.spoofing.service.SessionLeaseService;
+import com.itasca.spoofing.service.SessionSlotService;
+import com.itasca.spoofing.service.audit.ProfileChangeSet;
+import com.itasca.spoofing.service.cache.ProfileCacheInvalidator;
+import com.itasca.spoofing.service.popularity.PopularityTracker;
+import com.itasca.spoofing.service.popularity.SpaceSaving;
+import com.itasca.spoofing.service.selection.GroupSelectionSnapshot;
+import com.itasca.spoofing.service.selection.ProfileSelectorEngine;
 import com.itasca.spoofing.exception.ProfileNotFoundException;
 import com.itasca.spoofing.exception.ProfileValidationException;
 import com.itasca.spoofing.exception.UnauthorizedAccessException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -47,6 +58,24 @@ public class GroupManagementServiceImpl implements GroupManagementService {
     @Autowired
     private ProfileStatsService statsService;
 
+    @Autowired
+    private ProfileSelectorEngine profileSelectorEngine;
+
+    @Autowired
+    private ProfileCacheInvalidator profileCacheInvalidator;
+
+    @Autowired
+    private SessionSlotService sessionSlotService;
+
+    @Autowired
+    private SessionLeaseService sessionLeaseService;
+
+    @Autowired
+    private PopularityTracker popularityTracker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ==================== GROUP OPERATIONS ====================
 
     @Override
@@ -76,6 +105,15 @@ public class GroupManagementServiceImpl implements GroupManagementService {
             memberProfiles = validateAndLoadMemberProfiles(groupDto.getMemberProfileIds());
         }
 
+        Map<String, Integer> memberWeights = new HashMap<>();
+        if (groupDto.getMemberWeights() != null) {
+            Set<String> memberIds = memberProfiles.stream()
+                    .map(SingleProfileEntity::getId)
+                    .collect(Collectors.toSet());
+            validateMemberWeights(groupDto.getMemberWeights(), memberIds);
+            memberWeights.putAll(groupDto.getMemberWeights());
+        }
+
         // Create entity
         GroupProfileEntity entity = GroupProfileEntity.builder()
                 .id(groupDto.getId())
@@ -87,6 +125,7 @@ public class GroupManagementServiceImpl implements GroupManagementService {
                 .selectionMode(groupDto.getSelectionMode())
                 .currentProfileIndex(0)
                 .memberProfiles(memberProfiles)
+                .memberWeights(memberWeights)
                 .urlGroupId(groupDto.getUrlGroupId())
                 .status(groupDto.getStatus())
                 .maxConcurrentUsage(groupDto.getMaxConcurrentUsage())
@@ -106,6 +145,7 @@ public class GroupManagementServiceImpl implements GroupManagementService {
 
         // Create audit entry
         auditService.logProfileCreation(savedEntity.getId(), ProfileType.GROUP);
+        eventPublisher.publishEvent(ProfileChangedEvent.created(savedEntity.getId(), ProfileType.GROUP));
 
         log.info("Custom group created successfully with ID: {}", savedEntity.getId());
         return profileMapper.toDto(savedEntity);
@@ -150,10 +190,9 @@ public class GroupManagementServiceImpl implements GroupManagementService {
         UserEntity user = userRepository.findById(userId)
                 .orElseThrow(() -> new ProfileNotFoundException("User not found: " + userId));
 
-        return user.getAssignedGroups().stream()
+        return profileMapper.toGroupProfileDtos(user.getAssignedGroups().stream()
                 .filter(group -> "Active".equals(group.getStatus()))
-                .map(profileMapper::toDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
@@ -162,9 +201,7 @@ public class GroupManagementServiceImpl implements GroupManagementService {
         log.debug("Retrieving all custom groups");
 
         List<GroupProfileEntity> entities = groupProfileRepository.findByGroupType(GroupType.CUSTOM);
-        return entities.stream()
-                .map(profileMapper::toDto)
-                .collect(Collectors.toList());
+        return profileMapper.toGroupProfileDtos(entities);
     }
 
     @Override
@@ -173,7 +210,15 @@ public class GroupManagementServiceImpl implements GroupManagementService {
         log.debug("Retrieving custom groups with pagination: {}", pageable);
 
         Page<GroupProfileEntity> entityPage = groupProfileRepository.findByGroupType(GroupType.CUSTOM, pageable);
-        return entityPage.map(profileMapper::toDto);
+        return profileMapper.toGroupProfileDtoPage(entityPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<GroupProfileSummaryDto> getCustomGroupSummaries(Pageable pageable) {
+        log.debug("Retrieving custom group summaries with pagination: {}", pageable);
+
+        return groupProfileRepository.findSummariesByGroupType(GroupType.CUSTOM, pageable);
     }
 
     // ==================== GROUP MEMBERSHIP MANAGEMENT ====================
@@ -190,6 +235,13 @@ public class GroupManagementServiceImpl implements GroupManagementService {
         }
 
         Set<SingleProfileEntity> profilesToAdd = validateAndLoadMemberProfiles(profileIds);
+        Set<String> existingIds = sortedIds(group.getMemberProfiles());
+        profilesToAdd.removeIf(profile -> existingIds.contains(profile.getId()));
+
+        if (profilesToAdd.isEmpty()) {
+            log.info("All profiles are already members of group: {}", groupId);
+            return true;
+        }
 
         // Add profiles to group
         profilesToAdd.forEach(group::addMemberProfile);
@@ -197,10 +249,10 @@ public class GroupManagementServiceImpl implements GroupManagementService {
         group.setUpdatedAt(LocalDateTime.now());
         groupProfileRepository.save(group);
 
-        // Create audit entries
-        profileIds.forEach(profileId ->
-                auditService.logProfileUpdate(profileId, ProfileType.SINGLE));
-        auditService.logProfileUpdate(groupId, ProfileType.GROUP);
+        // One audit entry for the group covers the whole membership change
+        auditService.logProfileUpdate(groupId, ProfileType.GROUP, ProfileChangeSet.create()
+                .collectionDelta("member_profile_ids", sortedIds(profilesToAdd), List.of()));
+        eventPublisher.publishEvent(ProfileChangedEvent.membershipChanged(groupId));
 
         log.info("Successfully added {} profiles to group: {}", profileIds.size(), groupId);
         return true;
@@ -232,15 +284,46 @@ public class GroupManagementServiceImpl implements GroupManagementService {
         group.setUpdatedAt(LocalDateTime.now());
         groupProfileRepository.save(group);
 
-        // Create audit entries
-        profileIds.forEach(profileId ->
-                auditService.logProfileUpdate(profileId, ProfileType.SINGLE));
-        auditService.logProfileUpdate(groupId, ProfileType.GROUP);
+        // One audit entry for the group covers the whole membership change
+        auditService.logProfileUpdate(groupId, ProfileType.GROUP, ProfileChangeSet.create()
+                .collectionDelta("member_profile_ids", List.of(), sortedIds(profilesToRemove)));
+        eventPublisher.publishEvent(ProfileChangedEvent.membershipChanged(groupId));
 
         log.info("Successfully removed {} profiles from group: {}", profilesToRemove.size(), groupId);
         return true;
     }
 
+    @Override
+    public GroupProfileDto updateMemberWeights(String groupId, Map<String, Integer> memberWeights) {
+        log.info("Updating {} member weights in group: {}", memberWeights.size(), groupId);
+
+        GroupProfileEntity group = groupProfileRepository.findById(groupId)
+                .orElseThrow(() -> new ProfileNotFoundException("Group not found: " + groupId));
+
+        Set<String> memberIds = group.getMemberProfiles().stream()
+                .map(SingleProfileEntity::getId)
+                .collect(Collectors.toSet());
+        validateMemberWeights(memberWeights, memberIds);
+
+        ProfileChangeSet changes = ProfileChangeSet.create();
+        new TreeMap<>(memberWeights).forEach((profileId, weight) ->
+                changes.field("member_weights." + profileId,
+                        group.getMemberWeights().getOrDefault(profileId, GroupSelectionSnapshot.DEFAULT_WEIGHT), weight));
+        if (changes.isEmpty()) {
+            log.info("Member weights unchanged in group: {}", groupId);
+            return profileMapper.toDto(group);
+        }
+
+        group.getMemberWeights().putAll(memberWeights);
+        group.setUpdatedAt(LocalDateTime.now());
+        GroupProfileEntity savedGroup = groupProfileRepository.save(group);
+
+        auditService.logProfileUpdate(groupId, ProfileType.GROUP, changes);
+        eventPublisher.publishEvent(ProfileChangedEvent.weightsChanged(groupId, memberWeights));
+
+        return profileMapper.toDto(savedGroup);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<SingleProfileDto> getGroupMembers(String groupId) {
@@ -249,9 +332,7 @@ public class GroupManagementServiceImpl implements GroupManagementService {
         GroupProfileEntity group = groupProfileRepository.findById(groupId)
                 .orElseThrow(() -> new ProfileNotFoundException("Group not found: " + groupId));
 
-        return group.getMemberProfiles().stream()
-                .map(profileMapper::toDto)
-                .collect(Collectors.toList());
+        return profileMapper.toSingleProfileDtos(group.getMemberProfiles());
     }
 
     @Override
@@ -262,9 +343,7 @@ public class GroupManagementServiceImpl implements GroupManagementService {
         SingleProfileEntity profile = singleProfileRepository.findById(profileId)
                 .orElseThrow(() -> new ProfileNotFoundException("Profile not found: " + profileId));
 
-        return profile.getAllGroups().stream()
-                .map(profileMapper::toDto)
-                .collect(Collectors.toList());
+        return profileMapper.toGroupProfileDtos(profile.getAllGroups());
     }
 
     // ==================== USER ASSIGNMENT MANAGEMENT ====================
@@ -288,8 +367,10 @@ public class GroupManagementServiceImpl implements GroupManagementService {
 
         // Create audit entries
         groupIds.forEach(groupId ->
-                auditService.logProfileUpdate(groupId, ProfileType.GROUP));
+                auditService.logProfileUpdate(groupId, ProfileType.GROUP, ProfileChangeSet.create()
+                        .collectionDelta("assigned_user_ids", List.of(userId), List.of())));
 
+        profileCacheInvalidator.evictAssignments();
         log.info("Successfully assigned {} groups to user: {}", groupIds.size(), userId);
         return true;
     }
@@ -315,10 +396,12 @@ public class GroupManagementServiceImpl implements GroupManagementService {
 
         userRepository.save(user);
 
-        // Create audit entries
-        groupIds.forEach(groupId ->
-                auditService.logProfileUpdate(groupId, ProfileType.GROUP));
+        // Create audit entries, only for groups the user was actually assigned to
+        groupsToRemove.forEach(group ->
+                auditService.logProfileUpdate(group.getId(), ProfileType.GROUP, ProfileChangeSet.create()
+                        .collectionDelta("assigned_user_ids", List.of(), List.of(userId))));
 
+        profileCacheInvalidator.evictAssignments();
         log.info("Successfully removed {} groups from user: {}", groupsToRemove.size(), userId);
         return true;
     }
@@ -354,8 +437,10 @@ public class GroupManagementServiceImpl implements GroupManagementService {
         userRepository.saveAll(usersToAssign);
 
         // Create audit entry
-        auditService.logProfileUpdate(groupId, ProfileType.GROUP);
+        auditService.logProfileUpdate(groupId, ProfileType.GROUP, ProfileChangeSet.create()
+                .collectionDelta("assigned_user_ids", new TreeSet<>(userIds), List.of()));
 
+        profileCacheInvalidator.evictAssignments();
         log.info("Successfully assigned group {} to {} users", groupId, userIds.size());
         return true;
     }
@@ -369,26 +454,32 @@ public class GroupManagementServiceImpl implements GroupManagementService {
         // Verify user access
         UserEntity user = verifyUserGroupAccess(userId, groupId);
 
-        GroupProfileEntity group = groupProfileRepository.findById(groupId)
+        boolean hasCapacity = groupProfileRepository.hasAvailableCapacity(groupId)
                 .orElseThrow(() -> new ProfileNotFoundException("Group not found: " + groupId));
-
-        if (!group.canAcceptNewSession()) {
+        if (!hasCapacity) {
             throw new ProfileValidationException("Group has reached maximum concurrent usage limit");
         }
 
-        SingleProfileEntity selectedProfile = group.getNextProfile();
-        if (selectedProfile == null) {
+        // Selection runs against the in-memory snapshot, the group row is not loaded or saved
+        String selectedProfileId = profileSelectorEngine.selectNextProfileId(groupId);
+        if (selectedProfileId == null) {
             throw new ProfileNotFoundException("No active profiles available in group: " + groupId);
         }
 
+        SingleProfileEntity selectedProfile = singleProfileRepository.findById(selectedProfileId)
+                .orElseThrow(() -> {
+                    profileSelectorEngine.invalidateGroup(groupId);
+                    return new ProfileNotFoundException("Selected profile no longer exists: " + selectedProfileId);
+                });
+
         // Update group usage
-        group.setLastUsed(LocalDateTime.now().toString());
-        group.setUpdatedAt(LocalDateTime.now());
-        groupProfileRepository.save(group);
+        groupProfileRepository.updateLastUsed(groupId, LocalDateTime.now().toString());
+        profileCacheInvalidator.evictGroupUsage(groupId);
 
         // Log usage
         auditService.logProfileUsage(groupId, ProfileType.GROUP);
         statsService.recordProfileUsage(groupId, ProfileType.GROUP);
+        eventPublisher.publishEvent(new ProfileUsageEvent(groupId, selectedProfileId, userId));
 
         return profileMapper.toDto(selectedProfile);
     }
@@ -412,16 +503,16 @@ public class GroupManagementServiceImpl implements GroupManagementService {
             throw new ProfileValidationException("Group has reached maximum concurrent usage limit");
         }
 
-        // Update group usage
-        group.setLastUsed(LocalDateTime.now().toString());
-        group.setUpdatedAt(LocalDateTime.now());
-        groupProfileRepository.save(group);
+        // Update group usage, a usage is not a profile update so the group row is not saved
+        groupProfileRepository.updateLastUsed(groupId, LocalDateTime.now().toString());
+        profileCacheInvalidator.evictGroupUsage(groupId);
 
         // Log usage
         auditService.logProfileUsage(groupId, ProfileType.GROUP);
         auditService.logProfileUsage(profileId, ProfileType.SINGLE);
         statsService.recordProfileUsage(groupId, ProfileType.GROUP);
         statsService.recordProfileUsage(profileId, ProfileType.SINGLE);
+        eventPublisher.publishEvent(new ProfileUsageEvent(groupId, profileId, userId));
 
         return profileMapper.toDto(selectedProfile);
     }
@@ -437,10 +528,9 @@ public class GroupManagementServiceImpl implements GroupManagementService {
         GroupProfileEntity group = groupProfileRepository.findById(groupId)
                 .orElseThrow(() -> new ProfileNotFoundException("Group not found: " + groupId));
 
-        return group.getMemberProfiles().stream()
+        return profileMapper.toSingleProfileDtos(group.getMemberProfiles().stream()
                 .filter(profile -> "Active".equals(profile.getStatus()))
-                .map(profileMapper::toDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     // ==================== SESSION MANAGEMENT ====================
@@ -449,18 +539,10 @@ public class GroupManagementServiceImpl implements GroupManagementService {
     public boolean startGroupSession(String groupId, String profileId, Long userId) {
         log.info("Starting group session - Group: {}, Profile: {}, User: {}", groupId, profileId, userId);
 
-        verifyUserGroupAccess(userId, groupId);
-
-        GroupProfileEntity group = groupProfileRepository.findById(groupId)
-                .orElseThrow(() -> new ProfileNotFoundException("Group not found: " + groupId));
-
-        if (!group.canAcceptNewSession()) {
-            throw new ProfileValidationException("Group has reached maximum concurrent usage limit");
-        }
+        UserEntity user = verifyUserGroupAccess(userId, groupId);
 
-        group.incrementActiveSession();
-        group.setUpdatedAt(LocalDateTime.now());
-        groupProfileRepository.save(group);
+        // Sessions are leases, so a client that never ends its session gives the slot back on expiry
+        sessionLeaseService.acquireLease(groupId, profileId, user.getEmail());
 
         // Log session start
         auditService.logProfileUsage(groupId, ProfileType.GROUP);
@@ -475,23 +557,13 @@ public class GroupManagementServiceImpl implements GroupManagementService {
     public boolean endGroupSession(String groupId, String profileId, Long userId) {
         log.info("Ending group session - Group: {}, Profile: {}, User: {}", groupId, profileId, userId);
 
-        GroupProfileEntity group = groupProfileRepository.findById(groupId)
-                .orElseThrow(() -> new ProfileNotFoundException("Group not found: " + groupId));
-
-        group.decrementActiveSession();
-        group.setUpdatedAt(LocalDateTime.now());
-        groupProfileRepository.save(group);
-
-        return true;
+        return sessionLeaseService.releaseOldestLease(groupId, profileId, userId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public int getActiveSessionsForGroup(String groupId) {
-        GroupProfileEntity group = groupProfileRepository.findById(groupId)
-                .orElseThrow(() -> new ProfileNotFoundException("Group not found: " + groupId));
-
-        return group.getCurrentActiveSessions();
+        return sessionSlotService.getActiveSessions(groupId);
     }
 
     // ==================== DEFAULT GROUP MANAGEMENT ====================
@@ -511,6 +583,7 @@ public class GroupManagementServiceImpl implements GroupManagementService {
         profile.setUpdatedAt(LocalDateTime.now());
 
         singleProfileRepository.save(profile);
+        eventPublisher.publishEvent(ProfileChangedEvent.created(defaultGroup.getId(), ProfileType.GROUP));
 
         log.info("Default group created for profile: {}", profileId);
         return profileMapper.toDto(defaultGroup);
@@ -549,6 +622,7 @@ public class GroupManagementServiceImpl implements GroupManagementService {
 
         singleProfileRepository.save(profile);
         groupProfileRepository.delete(defaultGroup);
+        eventPublisher.publishEvent(ProfileChangedEvent.deleted(Set.of(defaultGroup.getId()), ProfileType.GROUP));
 
         log.info("Default group deleted for profile: {}", profileId);
         return true;
@@ -564,11 +638,16 @@ public class GroupManagementServiceImpl implements GroupManagementService {
         UserEntity user = userRepository.findById(userId)
                 .orElseThrow(() -> new ProfileNotFoundException("User not found: " + userId));
 
-        // This would require additional statistics tracking
-        // For now, return the first assigned group
-        return user.getAssignedGroups().stream()
+        Map<String, GroupProfileEntity> activeGroups = user.getAssignedGroups().stream()
                 .filter(group -> "Active".equals(group.getStatus()))
+                .collect(Collectors.toMap(GroupProfileEntity::getId, group -> group));
+
+        // Most used group the user still has access to, else the first assigned group
+        return popularityTracker.topGroupsForUser(userId, Integer.MAX_VALUE).stream()
+                .map(estimate -> activeGroups.get(estimate.getKey()))
+                .filter(Objects::nonNull)
                 .findFirst()
+                .or(() -> activeGroups.values().stream().findFirst())
                 .map(profileMapper::toDto)
                 .orElse(null);
     }
@@ -578,16 +657,49 @@ public class GroupManagementServiceImpl implements GroupManagementService {
     public List<GroupProfileDto> getPopularGroups(int limit) {
         log.debug("Getting {} most popular groups", limit);
 
-        // This would require usage statistics
-        // For now, return active groups ordered by member count
-        List<GroupProfileEntity> groups = groupProfileRepository.findByStatus("Active");
-
-        return groups.stream()
-                .filter(group -> group.getGroupType() == GroupType.CUSTOM)
-                .sorted((g1, g2) -> Integer.compare(g2.getMemberCount(), g1.getMemberCount()))
-                .limit(limit)
-                .map(profileMapper::toDto)
+        // Most used active custom groups, topped up by member count while usage is sparse
+        List<String> usedIds = popularityTracker.topGroups(PopularityWindow.ALL, limit * 2).stream()
+                .map(SpaceSaving.Estimate::getKey)
                 .collect(Collectors.toList());
+        Map<String, GroupProfileEntity> used = groupProfileRepository.findAllById(usedIds).stream()
+                .collect(Collectors.toMap(GroupProfileEntity::getId, group -> group));
+
+        List<GroupProfileEntity> popular = new ArrayList<>();
+        for (String id : usedIds) {
+            GroupProfileEntity group = used.get(id);
+            if (group != null && isPopularCandidate(group) && popular.size() < limit) {
+                popular.add(group);
+            }
+        }
+        if (popular.size() < limit) {
+            Set<String> included = popular.stream().map(GroupProfileEntity::getId).collect(Collectors.toSet());
+            groupProfileRepository.findByStatus("Active").stream()
+                    .filter(this::isPopularCandidate)
+                    .filter(group -> !included.contains(group.getId()))
+                    .sorted((g1, g2) -> Integer.compare(g2.getMemberCount(), g1.getMemberCount()))
+                    .limit(limit - popular.size())
+                    .forEach(popular::add);
+        }
+
+        return profileMapper.toGroupProfileDtos(popular);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PopularityDto> getPopularGroups(PopularityWindow window, int limit) {
+        List<SpaceSaving.Estimate> estimates = popularityTracker.topGroups(window, limit);
+        Map<String, String> names = groupProfileRepository.findAllById(ids(estimates)).stream()
+                .collect(Collectors.toMap(GroupProfileEntity::getId, GroupProfileEntity::getName));
+        return toPopularityDtos(estimates, names);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PopularityDto> getPopularProfiles(PopularityWindow window, int limit) {
+        List<SpaceSaving.Estimate> estimates = popularityTracker.topProfiles(window, limit);
+        Map<String, String> names = singleProfileRepository.findAllById(ids(estimates)).stream()
+                .collect(Collectors.toMap(SingleProfileEntity::getId, SingleProfileEntity::getName));
+        return toPopularityDtos(estimates, names);
     }
 
     @Override
@@ -615,17 +727,50 @@ public class GroupManagementServiceImpl implements GroupManagementService {
 
     // ==================== HELPER METHODS ====================
 
+    private boolean isPopularCandidate(GroupProfileEntity group) {
+        return group.getGroupType() == GroupType.CUSTOM && "Active".equals(group.getStatus());
+    }
+
+    private static List<String> ids(List<SpaceSaving.Estimate> estimates) {
+        return estimates.stream().map(SpaceSaving.Estimate::getKey).collect(Collectors.toList());
+    }
+
+    /**
+     * Ranked DTOs of the estimates, deleted groups and profiles are left out
+     */
+    private static List<PopularityDto> toPopularityDtos(List<SpaceSaving.Estimate> estimates, Map<String, String> names) {
+        List<PopularityDto> popular = new ArrayList<>(estimates.size());
+        for (SpaceSaving.Estimate estimate : estimates) {
+            if (names.containsKey(estimate.getKey())) {
+                popular.add(PopularityDto.builder()
+                        .rank(popular.size() + 1)
+                        .id(estimate.getKey())
+                        .name(names.get(estimate.getKey()))
+                        .usageCount(estimate.getCount())
+                        .maxError(estimate.getError())
+                        .build());
+            }
+        }
+        return popular;
+    }
+
     private UserEntity verifyUserGroupAccess(Long userId, String groupId) {
         UserEntity user = userRepository.findById(userId)
                 .orElseThrow(() -> new ProfileNotFoundException("User not found: " + userId));
 
-//        if (!user.hasAccessToGroup(groupId)) {
-//            throw new UnauthorizedAccessException("User does not have access to group: " + groupId);
-//        }
+        if (!userRepository.hasGroupAccess(user, groupId)) {
+            throw new UnauthorizedAccessException("User does not have access to group: " + groupId);
+        }
 
         return user;
     }
 
+    private Set<String> sortedIds(Collection<SingleProfileEntity> profiles) {
+        return profiles.stream()
+                .map(SingleProfileEntity::getId)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
     private Set<SingleProfileEntity> validateAndLoadMemberProfiles(Set<String> profileIds) {
         Set<SingleProfileEntity> profiles = new HashSet<>();
 
@@ -648,6 +793,17 @@ public class GroupManagementServiceImpl implements GroupManagementService {
         }
     }
 
+    private void validateMemberWeights(Map<String, Integer> memberWeights, Set<String> memberIds) {
+        memberWeights.forEach((profileId, weight) -> {
+            if (weight == null || weight < 0) {
+                throw new ProfileValidationException("Member weight cannot be negative: " + profileId);
+            }
+            if (!memberIds.contains(profileId)) {
+                throw new ProfileValidationException("Profile is not a member of the group: " + profileId);
+            }
+        });
+    }
+
     private UserDto mapUserToDto(UserEntity user) {
         return UserDto.builder()
                 .id(user.getId())
@@ -1,96 +1,223 @@
 package com.itasca.spoofing.service.impl;
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.itasca.spoofing.exception.ProfileValidationException;
+import com.itasca.spoofing.model.CursorPageDto;
 import com.itasca.spoofing.model.ProfileType;
 import com.itasca.spoofing.entity.ProfileAuditEntity;
 import com.itasca.spoofing.repository.ProfileAuditRepository;
 import com.itasca.spoofing.service.ProfileAuditService;
+import com.itasca.spoofing.service.audit.AuditQuery;
+import com.itasca.spoofing.service.audit.AuditRecord;
+import com.itasca.spoofing.service.audit.AuditWriter;
+import com.itasca.spoofing.service.audit.ProfileChangeSet;
+import com.itasca.spoofing.service.pagination.KeysetCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 @Slf4j
 public class ProfileAuditServiceImpl implements ProfileAuditService {
 
+    private static final byte NEWLINE = '\n';
+
     @Autowired
     private ProfileAuditRepository auditRepository;
 
+    @Autowired
+    private AuditWriter auditWriter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired(required = false)
     private HttpServletRequest request;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${export.chunk-size:500}")
+    private int exportChunkSize;
+
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void logProfileCreation(String profileId, ProfileType profileType) {
-        ProfileAuditEntity audit = createBaseAuditEntity(profileId, profileType, "CREATE");
+        AuditRecord audit = createBaseAuditRecord(profileId, profileType, "CREATE");
         audit.setChanges("Profile created");
-        auditRepository.save(audit);
+        auditWriter.submit(audit);
         log.info("Logged profile creation: {} ({})", profileId, profileType);
     }
 
     @Override
-    public void logProfileUpdate(String profileId, ProfileType profileType) {
-        ProfileAuditEntity audit = createBaseAuditEntity(profileId, profileType, "UPDATE");
-        audit.setChanges("Profile updated");
-        auditRepository.save(audit);
-        log.info("Logged profile update: {} ({})", profileId, profileType);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void logProfileCreations(Collection<String> profileIds, ProfileType profileType) {
+        logProfileCreations(profileIds, profileType, getCurrentUserId());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void logProfileCreations(Collection<String> profileIds, ProfileType profileType, String userId) {
+        submitAll(profileIds, profileType, "CREATE", "Profile created", userId);
+        log.info("Logged creation of {} profiles ({})", profileIds.size(), profileType);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void logProfileUpdate(String profileId, ProfileType profileType, ProfileChangeSet changes) {
+        if (changes.isEmpty()) {
+            log.debug("Skipped audit of no-op update: {} ({})", profileId, profileType);
+            return;
+        }
+        AuditRecord audit = createBaseAuditRecord(profileId, profileType, "UPDATE");
+        audit.setChanges(toJson(changes));
+        auditWriter.submit(audit);
+        log.info("Logged profile update: {} ({}) fields {}", profileId, profileType, changes.getChangedFields());
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void logProfileDeletion(String profileId, ProfileType profileType) {
-        ProfileAuditEntity audit = createBaseAuditEntity(profileId, profileType, "DELETE");
+        AuditRecord audit = createBaseAuditRecord(profileId, profileType, "DELETE");
         audit.setChanges("Profile deleted");
-        auditRepository.save(audit);
+        auditWriter.submit(audit);
         log.info("Logged profile deletion: {} ({})", profileId, profileType);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void logProfileDeletions(Collection<String> profileIds, ProfileType profileType) {
+        submitAll(profileIds, profileType, "DELETE", "Profile deleted", getCurrentUserId());
+        log.info("Logged deletion of {} profiles ({})", profileIds.size(), profileType);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void logProfileUsage(String profileId, ProfileType profileType) {
-        ProfileAuditEntity audit = createBaseAuditEntity(profileId, profileType, "USE");
-        auditRepository.save(audit);
+        AuditRecord audit = createBaseAuditRecord(profileId, profileType, "USE");
+        auditWriter.submit(audit);
         log.debug("Logged profile usage: {} ({})", profileId, profileType);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void logProfileActivation(String profileId, ProfileType profileType) {
-        ProfileAuditEntity audit = createBaseAuditEntity(profileId, profileType, "ACTIVATE");
+        AuditRecord audit = createBaseAuditRecord(profileId, profileType, "ACTIVATE");
         audit.setChanges("Profile activated");
-        auditRepository.save(audit);
+        auditWriter.submit(audit);
         log.info("Logged profile activation: {} ({})", profileId, profileType);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void logProfileDeactivation(String profileId, ProfileType profileType) {
-        ProfileAuditEntity audit = createBaseAuditEntity(profileId, profileType, "DEACTIVATE");
+        AuditRecord audit = createBaseAuditRecord(profileId, profileType, "DEACTIVATE");
         audit.setChanges("Profile deactivated");
-        auditRepository.save(audit);
+        auditWriter.submit(audit);
         log.info("Logged profile deactivation: {} ({})", profileId, profileType);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void logProfileStatusChanges(Collection<String> profileIds, ProfileType profileType, boolean active) {
+        submitAll(profileIds, profileType, active ? "ACTIVATE" : "DEACTIVATE",
+                active ? "Profile activated" : "Profile deactivated", getCurrentUserId());
+        log.info("Logged {} of {} profiles ({})", active ? "activation" : "deactivation", profileIds.size(), profileType);
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public List<ProfileAuditEntity> getProfileAuditHistory(String profileId) {
-        return auditRepository.findByProfileIdOrderByActionTimestampDesc(profileId);
+    public CursorPageDto<ProfileAuditEntity> getProfileAuditHistory(String profileId, String cursor, int size, boolean includeTotal) {
+        return findAuditEntries(AuditQuery.forProfile(profileId), cursor, size, includeTotal);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProfileAuditEntity> getRecentAuditEntries(String profileId, int hours) {
-        LocalDateTime since = LocalDateTime.now().minusHours(hours);
-        return auditRepository.findRecentAuditEntries(profileId, since);
+    public CursorPageDto<ProfileAuditEntity> findAuditEntries(AuditQuery query, String cursor, int size, boolean includeTotal) {
+        if (query.getFrom() != null && query.getTo() != null && !query.getFrom().isBefore(query.getTo())) {
+            throw new ProfileValidationException("from must be before to");
+        }
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.clampSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        String profileId = query.getProfileId();
+        String action = query.actionOrNull();
+        LocalDateTime from = query.fromOrMin();
+        LocalDateTime to = query.toOrMax();
+        // The first page starts right below to, id 0 excludes entries at to itself
+        LocalDateTime before = position == null ? to : position.getTimestamp();
+        Long id = position == null ? 0L : position.getLongId();
+
+        // Pick the query led by the index matching the filter
+        List<ProfileAuditEntity> rows;
+        Long total = null;
+        if (profileId != null) {
+            rows = auditRepository.findProfilePage(profileId, action, from, before, id, limit);
+            if (includeTotal) {
+                total = auditRepository.countProfileEntries(profileId, action, from, to);
+            }
+        } else if (action != null) {
+            rows = auditRepository.findActionPage(action, from, before, id, limit);
+            if (includeTotal) {
+                total = auditRepository.countActionEntries(action, from, to);
+            }
+        } else {
+            rows = auditRepository.findPage(from, before, id, limit);
+            if (includeTotal) {
+                total = auditRepository.countEntries(from, to);
+            }
+        }
+
+        return CursorPageDto.of(rows, pageSize,
+                audit -> KeysetCursor.of(audit.getActionTimestamp(), audit.getId()).encode(),
+                audits -> audits, total);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProfileAuditEntity> getAuditEntriesByDateRange(LocalDateTime start, LocalDateTime end) {
-        return auditRepository.findByActionTimestampBetween(start, end);
+    public long exportAuditEntries(AuditQuery query, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        long exported = 0;
+
+        try (Stream<ProfileAuditEntity> audits = auditRepository.streamForExport(
+                query.getProfileId(), query.actionOrNull(), query.fromOrMin(), query.toOrMax())) {
+            Iterator<ProfileAuditEntity> iterator = audits.iterator();
+            while (iterator.hasNext()) {
+                out.write(writer.writeValueAsBytes(iterator.next()));
+                out.write(NEWLINE);
+                // Detach written entries so the persistence context does not grow with the export
+                if (++exported % exportChunkSize == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+
+        out.flush();
+        log.info("Exported {} audit entries for {}", exported, query);
+        return exported;
     }
 
     @Override
@@ -99,24 +226,40 @@ public class ProfileAuditServiceImpl implements ProfileAuditService {
         return auditRepository.countByProfileIdAndAction(profileId, "USE");
     }
 
-    private ProfileAuditEntity createBaseAuditEntity(String profileId, ProfileType profileType, String action) {
-        ProfileAuditEntity audit = ProfileAuditEntity.builder()
+    private AuditRecord createBaseAuditRecord(String profileId, ProfileType profileType, String action) {
+        return AuditRecord.builder()
                 .profileId(profileId)
                 .profileType(profileType)
                 .action(action)
                 .actionTimestamp(LocalDateTime.now())
                 .userId(getCurrentUserId())
                 .build();
+    }
 
-        // Add request details if available
-        if (request != null) {
-//            audit.setIpAddress(getClientIpAddress());
-//            audit.setUserAgent(request.getHeader("User-Agent"));
-//            audit.setSessionId(request.getSession(false) != null ?
-//                    request.getSession(false).getId());
+    /**
+     * One audit record per profile for a bulk action, all with the same timestamp
+     */
+    private void submitAll(Collection<String> profileIds, ProfileType profileType, String action, String changes, String userId) {
+        LocalDateTime now = LocalDateTime.now();
+        for (String profileId : profileIds) {
+            auditWriter.submit(AuditRecord.builder()
+                    .profileId(profileId)
+                    .profileType(profileType)
+                    .action(action)
+                    .actionTimestamp(now)
+                    .userId(userId)
+                    .changes(changes)
+                    .build());
         }
+    }
 
-        return audit;
+    private String toJson(ProfileChangeSet changes) {
+        try {
+            return objectMapper.writeValueAsString(changes.getChanges());
+        } catch (JsonProcessingException e) {
+            log.warn("Error serializing audit changes: {}", e.getMessage());
+            return "Profile updated: " + changes.getChangedFields();
+        }
     }
 
     private String getCurrentUserId() {
@@ -0,0 +1,91 @@
+package com.itasca.spoofing.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.itasca.spoofing.entity.SingleProfileEntity;
+import com.itasca.spoofing.mapper.ProfileMapper;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.repository.SingleProfileRepository;
+import com.itasca.spoofing.service.ProfileExportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams profiles from a forward-only cursor straight to the output.
+ *
+ * Rows are mapped in chunks so the mapper can batch-load URL groups, and the
+ * persistence context is cleared after each chunk, so memory use does not
+ * grow with the number of profiles exported.
+ */
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class ProfileExportServiceImpl implements ProfileExportService {
+
+    private static final byte NEWLINE = '\n';
+
+    @Autowired
+    private SingleProfileRepository singleProfileRepository;
+
+    @Autowired
+    private ProfileMapper profileMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${export.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public long exportSingleProfiles(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        long exported = 0;
+
+        try (Stream<SingleProfileEntity> profiles = singleProfileRepository.streamAllForExport()) {
+            Iterator<SingleProfileEntity> iterator = profiles.iterator();
+            List<SingleProfileEntity> chunk = new ArrayList<>(chunkSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() >= chunkSize) {
+                    exported += writeChunk(chunk, writer, out);
+                }
+            }
+            exported += writeChunk(chunk, writer, out);
+        }
+
+        out.flush();
+        log.info("Exported {} single profiles", exported);
+        return exported;
+    }
+
+    private int writeChunk(List<SingleProfileEntity> chunk, ObjectWriter writer, OutputStream out) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<SingleProfileDto> dtos = profileMapper.toSingleProfileDtos(chunk);
+        for (SingleProfileDto dto : dtos) {
+            out.write(writer.writeValueAsBytes(dto));
+            out.write(NEWLINE);
+        }
+        chunk.clear();
+        // Detach the written profiles and their URL groups, hasNext() has not read ahead yet
+        entityManager.clear();
+        return dtos.size();
+    }
+}
@@ -0,0 +1,480 @@
+package com.itasca.spoofing.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itasca.spoofing.entity.ProfileImportErrorEntity;
+import com.itasca.spoofing.entity.ProfileImportJobEntity;
+import com.itasca.spoofing.entity.SingleProfileEntity;
+import com.itasca.spoofing.event.ProfileChangedEvent;
+import com.itasca.spoofing.exception.ProfileNotFoundException;
+import com.itasca.spoofing.exception.ProfileValidationException;
+import com.itasca.spoofing.mapper.ProfileMapper;
+import com.itasca.spoofing.model.*;
+import com.itasca.spoofing.repository.ProfileImportErrorRepository;
+import com.itasca.spoofing.repository.ProfileImportJobRepository;
+import com.itasca.spoofing.repository.SingleProfileRepository;
+import com.itasca.spoofing.service.ProfileAuditService;
+import com.itasca.spoofing.service.ProfileImportService;
+import com.itasca.spoofing.service.bulkimport.ImportRecord;
+import com.itasca.spoofing.service.bulkimport.ImportRecordReader;
+import com.itasca.spoofing.service.pagination.KeysetCursor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk import of single profiles from NDJSON or CSV.
+ *
+ * The upload is spooled to disk and a background job reads it in chunks. Each chunk
+ * is decoded and validated in parallel, checked for taken names with one query,
+ * inserted with JDBC batches and committed together with the job progress and the
+ * rejected rows, so a job that stops part way can resume from its last chunk.
+ *
+ * A run claims its job with a conditional update and renews a heartbeat with every
+ * chunk, so only one instance runs a job at a time. A job whose heartbeat is older
+ * than the lease is taken over by the recovery sweep of any instance, and the run
+ * that lost it stops at its next chunk without committing it.
+ */
+@Service
+@Slf4j
+public class ProfileImportServiceImpl implements ProfileImportService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private ProfileImportJobRepository jobRepository;
+
+    @Autowired
+    private ProfileImportErrorRepository errorRepository;
+
+    @Autowired
+    private SingleProfileRepository singleProfileRepository;
+
+    @Autowired
+    private ProfileMapper profileMapper;
+
+    @Autowired
+    private ProfileAuditService auditService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${import.directory:${java.io.tmpdir}/spoofing-imports}")
+    private String importDirectory;
+
+    @Value("${import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${import.max-concurrent-jobs:1}")
+    private int maxConcurrentJobs;
+
+    @Value("${import.validation-parallelism:0}")
+    private int validationParallelism;
+
+    // A running job whose heartbeat is older than this is taken over
+    @Value("${import.job-lease-ms:300000}")
+    private long jobLeaseMs;
+
+    private ExecutorService jobExecutor;
+    private ForkJoinPool validationPool;
+
+    // Jobs running in this instance, a job that is not here can be resumed
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void start() {
+        jobExecutor = Executors.newFixedThreadPool(maxConcurrentJobs, runnable -> {
+            Thread thread = new Thread(runnable, "profile-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        validationPool = new ForkJoinPool(validationParallelism > 0
+                ? validationParallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        jobExecutor.shutdownNow();
+        jobExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        validationPool.shutdownNow();
+    }
+
+    @Override
+    public ProfileImportJobDto startImport(InputStream input, ImportFormat format) throws IOException {
+        String jobId = UUID.randomUUID().toString();
+        Path sourceFile = Paths.get(importDirectory, jobId + "." + format.getValue());
+        Files.createDirectories(sourceFile.getParent());
+        Files.copy(input, sourceFile);
+
+        ProfileImportJobEntity job = jobRepository.save(ProfileImportJobEntity.builder()
+                .id(jobId)
+                .format(format)
+                .sourceFile(sourceFile.toString())
+                .createdBy(getCurrentUserId())
+                .build());
+        log.info("Created profile import job {} ({}, {} bytes)", jobId, format, Files.size(sourceFile));
+
+        submit(jobId);
+        return toDto(job);
+    }
+
+    @Override
+    public ProfileImportJobDto resumeImport(String jobId) {
+        ProfileImportJobEntity job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new ProfileNotFoundException("Import job not found: " + jobId));
+        if (job.getStatus() == ImportJobStatus.COMPLETED) {
+            throw new ProfileValidationException("Import job is already completed: " + jobId);
+        }
+        if (job.getStatus() == ImportJobStatus.RUNNING && !isStale(job.getHeartbeatAt())) {
+            throw new ProfileValidationException("Import job is already running: " + jobId);
+        }
+
+        log.info("Resuming profile import job {} after row {}", jobId, job.getProcessedRows());
+        submit(jobId);
+        return toDto(job);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${import.recovery-interval-ms:60000}",
+            initialDelayString = "${import.recovery-interval-ms:60000}")
+    public int recoverStaleJobs() {
+        int submitted = 0;
+        try {
+            for (String jobId : jobRepository.findStaleJobIds(staleBefore())) {
+                if (activeJobs.contains(jobId)) {
+                    continue;
+                }
+                log.warn("Recovering stale profile import job {}", jobId);
+                try {
+                    submit(jobId);
+                    submitted++;
+                } catch (ProfileValidationException e) {
+                    // Submitted here in the meantime
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error recovering stale profile import jobs: {}", e.getMessage(), e);
+        }
+        return submitted;
+    }
+
+    @Override
+    public Optional<ProfileImportJobDto> getImportJob(String jobId) {
+        return jobRepository.findById(jobId).map(this::toDto);
+    }
+
+    @Override
+    public List<ProfileImportErrorDto> getImportErrors(String jobId, long afterRow, int size) {
+        return errorRepository.findByJobIdAndRowNumberGreaterThanOrderByRowNumber(
+                        jobId, afterRow, Limit.of(KeysetCursor.clampSize(size))).stream()
+                .map(error -> ProfileImportErrorDto.builder()
+                        .rowNumber(error.getRowNumber())
+                        .profileName(error.getProfileName())
+                        .message(error.getMessage())
+                        .build())
+                .toList();
+    }
+
+    private void submit(String jobId) {
+        if (!activeJobs.add(jobId)) {
+            throw new ProfileValidationException("Import job is already running: " + jobId);
+        }
+        jobExecutor.execute(() -> {
+            try {
+                runJob(jobId);
+            } finally {
+                activeJobs.remove(jobId);
+            }
+        });
+    }
+
+    private void runJob(String jobId) {
+        String owner = UUID.randomUUID().toString();
+        Boolean claimed = transactionTemplate.execute(status ->
+                jobRepository.claim(jobId, owner, LocalDateTime.now(), staleBefore()));
+        if (!Boolean.TRUE.equals(claimed)) {
+            log.info("Profile import job {} is completed or running on another instance, skipped", jobId);
+            return;
+        }
+        ProfileImportJobEntity job = jobRepository.findById(jobId).orElseThrow();
+
+        Path sourceFile = Paths.get(job.getSourceFile());
+        try (ImportRecordReader reader = new ImportRecordReader(
+                Files.newBufferedReader(sourceFile, StandardCharsets.UTF_8), job.getFormat())) {
+            reader.skip(job.getProcessedRows());
+
+            List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+            while (true) {
+                ImportRecord record = reader.next();
+                if (record != null) {
+                    chunk.add(record);
+                }
+                if (chunk.size() >= chunkSize || (record == null && !chunk.isEmpty())) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException("Import interrupted");
+                    }
+                    importChunk(job, owner, chunk);
+                    chunk.clear();
+                }
+                if (record == null) {
+                    break;
+                }
+            }
+
+            if (finishJob(jobId, owner, ImportJobStatus.COMPLETED, null)) {
+                Files.deleteIfExists(sourceFile);
+            }
+        } catch (JobTakenOverException e) {
+            log.warn("Profile import job {} was taken over by another run, stopped", jobId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finishJob(jobId, owner, ImportJobStatus.FAILED, "Interrupted, resume to continue");
+        } catch (Exception e) {
+            log.error("Profile import job {} failed: {}", jobId, e.getMessage(), e);
+            finishJob(jobId, owner, ImportJobStatus.FAILED, truncate(e.getMessage()));
+        }
+    }
+
+    private void importChunk(ProfileImportJobEntity job, String owner, List<ImportRecord> records)
+            throws InterruptedException, ExecutionException {
+        List<ImportRow> rows = validationPool.submit(() -> records.parallelStream()
+                .map(this::decode)
+                .toList()).get();
+
+        List<String> createdIds = transactionTemplate.execute(status -> {
+            Set<String> takenNames = findTakenNames(rows);
+            Set<String> chunkNames = new HashSet<>();
+            List<String> ids = new ArrayList<>();
+            List<ProfileImportErrorEntity> errors = new ArrayList<>();
+
+            for (ImportRow row : rows) {
+                String error = row.error;
+                if (error == null) {
+                    String name = row.profile.getName().toLowerCase();
+                    if (takenNames.contains(name)) {
+                        error = "Profile name already exists: " + row.profile.getName();
+                    } else if (!chunkNames.add(name)) {
+                        error = "Duplicate profile name in import: " + row.profile.getName();
+                    }
+                }
+                if (error != null) {
+                    errors.add(ProfileImportErrorEntity.builder()
+                            .jobId(job.getId())
+                            .rowNumber(row.rowNumber)
+                            .profileName(row.profile != null ? truncate(row.profile.getName()) : null)
+                            .message(truncate(error))
+                            .build());
+                    continue;
+                }
+
+                row.profile.setId(UUID.randomUUID().toString());
+                SingleProfileEntity entity = profileMapper.toEntity(row.profile);
+                // persist, not save, an assigned ID would make save() merge with a select per row
+                entityManager.persist(entity);
+                ids.add(entity.getId());
+            }
+            errorRepository.saveAll(errors);
+            entityManager.flush();
+            entityManager.clear();
+
+            // Rolls the chunk back if another run took the job over
+            if (jobRepository.recordProgress(job.getId(), owner, rows.size(), ids.size(), errors.size(),
+                    LocalDateTime.now()) == 0) {
+                throw new JobTakenOverException();
+            }
+
+            if (!ids.isEmpty()) {
+                auditService.logProfileCreations(ids, ProfileType.SINGLE, job.getCreatedBy());
+                eventPublisher.publishEvent(ProfileChangedEvent.created(ids, ProfileType.SINGLE));
+            }
+            return ids;
+        });
+
+        log.debug("Import job {} committed {} of {} rows", job.getId(), createdIds.size(), rows.size());
+    }
+
+    /**
+     * Names of the chunk that are already taken, lower-cased, with one query
+     */
+    private Set<String> findTakenNames(List<ImportRow> rows) {
+        Set<String> names = new HashSet<>();
+        rows.stream()
+                .filter(row -> row.error == null)
+                .forEach(row -> names.add(row.profile.getName().toLowerCase()));
+        if (names.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> taken = new HashSet<>();
+        singleProfileRepository.findExistingNames(names).forEach(name -> taken.add(name.toLowerCase()));
+        return taken;
+    }
+
+    /**
+     * Decode and validate one record, runs on the validation pool
+     */
+    private ImportRow decode(ImportRecord record) {
+        if (record.getError() != null) {
+            return ImportRow.invalid(record.getRowNumber(), null, record.getError());
+        }
+
+        SingleProfileDto profile;
+        try {
+            profile = record.getLine() != null
+                    ? objectMapper.readValue(record.getLine(), SingleProfileDto.class)
+                    : objectMapper.convertValue(record.getFields(), SingleProfileDto.class);
+        } catch (JsonProcessingException e) {
+            return ImportRow.invalid(record.getRowNumber(), null, "Invalid JSON: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            return ImportRow.invalid(record.getRowNumber(), null, "Invalid record: " + e.getMessage());
+        }
+        if (profile == null) {
+            return ImportRow.invalid(record.getRowNumber(), null, "Empty record");
+        }
+
+        String error = validate(profile);
+        return error != null
+                ? ImportRow.invalid(record.getRowNumber(), profile, error)
+                : new ImportRow(record.getRowNumber(), profile, null);
+    }
+
+    private String validate(SingleProfileDto profile) {
+        if (!StringUtils.hasText(profile.getName())) {
+            return "Profile name is required";
+        }
+        if (profile.getName().length() > 255) {
+            return "Profile name is longer than 255 characters";
+        }
+        if (!StringUtils.hasText(profile.getOperatingSystem())) {
+            return "Operating system is required";
+        }
+        if (profile.getOperatingSystem().length() > 50) {
+            return "Operating system is longer than 50 characters";
+        }
+        if (profile.getDescription() != null && profile.getDescription().length() > 1000) {
+            return "Description is longer than 1000 characters";
+        }
+        if (profile.getUserAgent() != null && profile.getUserAgent().length() > 2000) {
+            return "User agent is longer than 2000 characters";
+        }
+        if (profile.getStatus() == null) {
+            profile.setStatus("Active");
+        }
+        return null;
+    }
+
+    /**
+     * Record how a run ended, false if the job was taken over by another run
+     */
+    private boolean finishJob(String jobId, String owner, ImportJobStatus status, String errorMessage) {
+        Boolean finished = transactionTemplate.execute(tx -> {
+            if (jobRepository.finish(jobId, owner, status, errorMessage, LocalDateTime.now()) == 0) {
+                log.warn("Profile import job {} was taken over by another run, not marked {}", jobId, status);
+                return false;
+            }
+            ProfileImportJobEntity job = jobRepository.findById(jobId).orElseThrow();
+            log.info("Profile import job {} {}: {} imported, {} rejected, {} rows processed",
+                    jobId, status, job.getImportedCount(), job.getFailedCount(), job.getProcessedRows());
+            return true;
+        });
+        return Boolean.TRUE.equals(finished);
+    }
+
+    private LocalDateTime staleBefore() {
+        return LocalDateTime.now().minus(jobLeaseMs, ChronoUnit.MILLIS);
+    }
+
+    private boolean isStale(LocalDateTime heartbeatAt) {
+        return heartbeatAt == null || heartbeatAt.isBefore(staleBefore());
+    }
+
+    private ProfileImportJobDto toDto(ProfileImportJobEntity job) {
+        return ProfileImportJobDto.builder()
+                .jobId(job.getId())
+                .format(job.getFormat())
+                .status(job.getStatus())
+                .processedRows(job.getProcessedRows())
+                .importedCount(job.getImportedCount())
+                .failedCount(job.getFailedCount())
+                .createdBy(job.getCreatedBy())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    private String getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return authentication.getName();
+        }
+        return "system";
+    }
+
+    private static String truncate(String value) {
+        if (value == null || value.length() <= MAX_ERROR_LENGTH) {
+            return value;
+        }
+        return value.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Thrown inside a chunk transaction when the run no longer holds its job
+     */
+    private static final class JobTakenOverException extends RuntimeException {
+    }
+
+    private static final class ImportRow {
+        private final long rowNumber;
+        private final SingleProfileDto profile;
+        private final String error;
+
+        private ImportRow(long rowNumber, SingleProfileDto profile, String error) {
+            this.rowNumber = rowNumber;
+            this.profile = profile;
+            this.error = error;
+        }
+
+        private static ImportRow invalid(long rowNumber, SingleProfileDto profile, String error) {
+            return new ImportRow(rowNumber, profile, error);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.itasca.spoofing.service.impl;
 
 
+import com.itasca.spoofing.event.ProfileChangedEvent;
+import com.itasca.spoofing.event.ProfileUsageEvent;
 import com.itasca.spoofing.exception.ProfileNotFoundException;
 import com.itasca.spoofing.exception.ProfileValidationException;
 import com.itasca.spoofing.model.*;
@@ -10,9 +12,22 @@ import com.itasca.spoofing.mapper.ProfileMapper;
 import com.itasca.spoofing.service.ProfileService;
 import com.itasca.spoofing.service.ProfileAuditService;
 import com.itasca.spoofing.service.ProfileStatsService;
+import com.itasca.spoofing.service.audit.ProfileChangeSet;
+import com.itasca.spoofing.service.cache.CacheNames;
+import com.itasca.spoofing.service.cache.ProfileCacheInvalidator;
+import com.itasca.spoofing.service.pagination.KeysetCursor;
+import com.itasca.spoofing.service.search.ProfileSearchIndex;
+import com.itasca.spoofing.service.search.TrigramIndex;
+import com.itasca.spoofing.service.selection.ProfileSelectorEngine;
 import com.itasca.spoofing.exception.UnauthorizedAccessException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -20,10 +35,14 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -49,6 +68,27 @@ public class ProfileServiceImpl implements ProfileService {
     @Autowired
     private URLGroupRepository urlGroupRepository;
 
+    @Autowired
+    private ProfileSelectorEngine profileSelectorEngine;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProfileBulkRepository profileBulkRepository;
+
+    @Autowired
+    private ProfileSearchIndex profileSearchIndex;
+
+    @Autowired
+    private ProfileCacheInvalidator profileCacheInvalidator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
     // ==================== SINGLE PROFILE OPERATIONS ====================
 
     @Override
@@ -79,6 +119,7 @@ public class ProfileServiceImpl implements ProfileService {
 
         // Create audit entry
         auditService.logProfileCreation(savedEntity.getId(), ProfileType.SINGLE);
+        eventPublisher.publishEvent(ProfileChangedEvent.created(savedEntity.getId(), ProfileType.SINGLE));
 
         log.info("Single profile created successfully with ID: {}", savedEntity.getId());
         return profileMapper.toDto(savedEntity);
@@ -86,6 +127,7 @@ public class ProfileServiceImpl implements ProfileService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.SINGLE_PROFILES, key = "#id", sync = true)
     public Optional<SingleProfileDto> getSingleProfile(String id) {
         log.debug("Retrieving single profile with ID: {}", id);
 
@@ -104,9 +146,7 @@ public class ProfileServiceImpl implements ProfileService {
         log.debug("Retrieving all single profiles");
 
         List<SingleProfileEntity> entities = singleProfileRepository.findAll();
-        return entities.stream()
-                .map(profileMapper::toDto)
-                .collect(Collectors.toList());
+        return profileMapper.toSingleProfileDtos(entities);
     }
 
     @Override
@@ -115,7 +155,42 @@ public class ProfileServiceImpl implements ProfileService {
         log.debug("Retrieving single profiles with pagination: {}", pageable);
 
         Page<SingleProfileEntity> entityPage = singleProfileRepository.findAll(pageable);
-        return entityPage.map(profileMapper::toDto);
+        return profileMapper.toSingleProfileDtoPage(entityPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SingleProfileSummaryDto> getAllSingleProfileSummaries() {
+        log.debug("Retrieving all single profile summaries");
+
+        return singleProfileRepository.findAllSummaries();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<SingleProfileSummaryDto> getSingleProfileSummaries(Pageable pageable) {
+        log.debug("Retrieving single profile summaries with pagination: {}", pageable);
+
+        return singleProfileRepository.findAllSummaries(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<SingleProfileDto> getSingleProfilesAfter(String cursor, int size, boolean includeTotal) {
+        log.debug("Retrieving single profiles after cursor: {}, size: {}", cursor, size);
+
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.clampSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<SingleProfileEntity> rows = position == null
+                ? singleProfileRepository.findFirstKeysetPage(limit)
+                : singleProfileRepository.findKeysetPageAfter(position.getTimestamp(), position.getId(), limit);
+        Long total = includeTotal ? singleProfileRepository.count() : null;
+
+        return CursorPageDto.of(rows, pageSize,
+                profile -> KeysetCursor.of(profile.getCreatedAt(), profile.getId()).encode(),
+                profileMapper::toSingleProfileDtos, total);
     }
 
     @Override
@@ -133,14 +208,29 @@ public class ProfileServiceImpl implements ProfileService {
             throw new ProfileValidationException("Profile name already exists: " + profileDto.getName());
         }
 
+        Map<String, Object> before = ProfileChangeSet.capture(existingEntity);
+
         // Update entity fields
         updateSingleProfileEntity(existingEntity, profileDto);
+
+        ProfileChangeSet changes = ProfileChangeSet.diff(before, ProfileChangeSet.capture(existingEntity));
+        if (changes.isEmpty()) {
+            log.info("Single profile unchanged, skipping update: {}", id);
+            return profileMapper.toDto(existingEntity);
+        }
         existingEntity.setUpdatedAt(LocalDateTime.now());
 
         SingleProfileEntity updatedEntity = singleProfileRepository.save(existingEntity);
 
         // Create audit entry
-        auditService.logProfileUpdate(updatedEntity.getId(), ProfileType.SINGLE);
+        auditService.logProfileUpdate(updatedEntity.getId(), ProfileType.SINGLE, changes);
+        if (changes.hasChanged("status")) {
+            eventPublisher.publishEvent(ProfileChangedEvent.statusChanged(
+                    Set.of(updatedEntity.getId()), ProfileType.SINGLE, updatedEntity.getStatus()));
+        }
+        if (!changes.hasChanged("status") || changes.getChangedFields().size() > 1) {
+            eventPublisher.publishEvent(ProfileChangedEvent.updated(updatedEntity.getId(), ProfileType.SINGLE));
+        }
 
         log.info("Single profile updated successfully: {}", id);
         return profileMapper.toDto(updatedEntity);
@@ -165,6 +255,7 @@ public class ProfileServiceImpl implements ProfileService {
 //        }
 
         singleProfileRepository.deleteById(id);
+        eventPublisher.publishEvent(ProfileChangedEvent.deleted(Set.of(id), ProfileType.SINGLE));
 
         log.info("Single profile deleted successfully: {}", id);
         return true;
@@ -206,6 +297,7 @@ public class ProfileServiceImpl implements ProfileService {
 
         // Create audit entry
         auditService.logProfileCreation(savedEntity.getId(), ProfileType.GROUP);
+        eventPublisher.publishEvent(ProfileChangedEvent.created(savedEntity.getId(), ProfileType.GROUP));
 
         log.info("Group profile created successfully with ID: {}", savedEntity.getId());
         return profileMapper.toDto(savedEntity);
@@ -213,6 +305,7 @@ public class ProfileServiceImpl implements ProfileService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.GROUP_PROFILES, key = "#id", sync = true)
     public Optional<GroupProfileDto> getGroupProfile(String id) {
         log.debug("Retrieving group profile with ID: {}", id);
 
@@ -231,9 +324,7 @@ public class ProfileServiceImpl implements ProfileService {
         log.debug("Retrieving all group profiles");
 
         List<GroupProfileEntity> entities = groupProfileRepository.findAll();
-        return entities.stream()
-                .map(profileMapper::toDto)
-                .collect(Collectors.toList());
+        return profileMapper.toGroupProfileDtos(entities);
     }
 
     @Override
@@ -242,7 +333,34 @@ public class ProfileServiceImpl implements ProfileService {
         log.debug("Retrieving group profiles with pagination: {}", pageable);
 
         Page<GroupProfileEntity> entityPage = groupProfileRepository.findAll(pageable);
-        return entityPage.map(profileMapper::toDto);
+        return profileMapper.toGroupProfileDtoPage(entityPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GroupProfileSummaryDto> getAllGroupProfileSummaries() {
+        log.debug("Retrieving all group profile summaries");
+
+        return groupProfileRepository.findAllSummaries();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<GroupProfileDto> getGroupProfilesAfter(String cursor, int size, boolean includeTotal) {
+        log.debug("Retrieving group profiles after cursor: {}, size: {}", cursor, size);
+
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.clampSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<GroupProfileEntity> rows = position == null
+                ? groupProfileRepository.findFirstKeysetPage(limit)
+                : groupProfileRepository.findKeysetPageAfter(position.getTimestamp(), position.getId(), limit);
+        Long total = includeTotal ? groupProfileRepository.count() : null;
+
+        return CursorPageDto.of(rows, pageSize,
+                group -> KeysetCursor.of(group.getCreatedAt(), group.getId()).encode(),
+                profileMapper::toGroupProfileDtos, total);
     }
 
     @Override
@@ -255,11 +373,19 @@ public class ProfileServiceImpl implements ProfileService {
         validateGroupProfile(profileDto);
         validateMemberProfiles(profileDto.getMemberProfileIds());
 
+        Map<String, Object> before = ProfileChangeSet.capture(existingEntity);
         updateGroupProfileEntity(existingEntity, profileDto);
+
+        ProfileChangeSet changes = ProfileChangeSet.diff(before, ProfileChangeSet.capture(existingEntity));
+        if (changes.isEmpty()) {
+            log.info("Group profile unchanged, skipping update: {}", id);
+            return profileMapper.toDto(existingEntity);
+        }
         existingEntity.setUpdatedAt(LocalDateTime.now());
 
         groupProfileRepository.save(existingEntity);
-        auditService.logProfileUpdate(existingEntity.getId(), ProfileType.GROUP);
+        auditService.logProfileUpdate(existingEntity.getId(), ProfileType.GROUP, changes);
+        eventPublisher.publishEvent(ProfileChangedEvent.membershipChanged(existingEntity.getId()));
 
         // Fetch the complete updated entity with all relationships
         GroupProfileEntity completeUpdatedEntity = groupProfileRepository.findByIdWithMembers(id)
@@ -276,85 +402,114 @@ public class ProfileServiceImpl implements ProfileService {
         }
         auditService.logProfileDeletion(id, ProfileType.GROUP);
         groupProfileRepository.deleteById(id);
+        eventPublisher.publishEvent(ProfileChangedEvent.deleted(Set.of(id), ProfileType.GROUP));
         return true;
     }
 
     @Override
-    public List<SingleProfileDto> searchSingleProfiles(String searchTerm) {
-        return singleProfileRepository.findByNameContainingIgnoreCase(searchTerm)
-                .stream().map(profileMapper::toDto).collect(Collectors.toList());
+    public SearchResultDto<SingleProfileDto> searchSingleProfiles(String searchTerm, int page, int size) {
+        int pageSize = KeysetCursor.clampSize(size);
+        int offset = Math.max(page, 0) * pageSize;
+        if (!profileSearchIndex.isReady()) {
+            List<SingleProfileEntity> matches = singleProfileRepository.findByNameContainingIgnoreCase(searchTerm);
+            return searchResult(page, pageSize, matches.size(),
+                    profileMapper.toSingleProfileDtos(pageOf(matches, offset, pageSize)));
+        }
+
+        TrigramIndex.Hits hits = profileSearchIndex.search(ProfileType.SINGLE, searchTerm, offset, pageSize);
+        List<SingleProfileEntity> entities = inOrder(hits.getIds(),
+                singleProfileRepository.findAllById(hits.getIds()), SingleProfileEntity::getId);
+        return searchResult(page, pageSize, hits.getTotal(), profileMapper.toSingleProfileDtos(entities));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<SingleProfileDto> filterSingleProfiles(ProfileFilterDto filter, Pageable pageable) {
+        log.debug("Filtering single profiles: {}, page: {}", filter, pageable);
+        return profileMapper.toSingleProfileDtoPage(
+                singleProfileRepository.findAll(ProfileSpecifications.singleProfiles(filter), pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<GroupProfileDto> filterGroupProfiles(ProfileFilterDto filter, Pageable pageable) {
+        log.debug("Filtering group profiles: {}, page: {}", filter, pageable);
+        return profileMapper.toGroupProfileDtoPage(
+                groupProfileRepository.findAll(ProfileSpecifications.groupProfiles(filter), pageable));
     }
 
     @Override
     public List<SingleProfileDto> getSingleProfilesByStatus(String status) {
-        return singleProfileRepository.findByStatus(status)
-                .stream().map(profileMapper::toDto).collect(Collectors.toList());
+        return profileMapper.toSingleProfileDtos(singleProfileRepository.findByStatus(status));
     }
 
     @Override
     public List<SingleProfileDto> getSingleProfilesByOS(String operatingSystem) {
-        return singleProfileRepository.findByOperatingSystem(operatingSystem)
-                .stream().map(profileMapper::toDto).collect(Collectors.toList());
+        return profileMapper.toSingleProfileDtos(singleProfileRepository.findByOperatingSystem(operatingSystem));
     }
 
     @Override
-    public List<GroupProfileDto> searchGroupProfiles(String searchTerm) {
-        return groupProfileRepository.findByNameContainingIgnoreCase(searchTerm)
-                .stream().map(profileMapper::toDto).collect(Collectors.toList());
+    public SearchResultDto<GroupProfileDto> searchGroupProfiles(String searchTerm, int page, int size) {
+        int pageSize = KeysetCursor.clampSize(size);
+        int offset = Math.max(page, 0) * pageSize;
+        if (!profileSearchIndex.isReady()) {
+            List<GroupProfileEntity> matches = groupProfileRepository.findByNameContainingIgnoreCase(searchTerm);
+            return searchResult(page, pageSize, matches.size(),
+                    profileMapper.toGroupProfileDtos(pageOf(matches, offset, pageSize)));
+        }
+
+        TrigramIndex.Hits hits = profileSearchIndex.search(ProfileType.GROUP, searchTerm, offset, pageSize);
+        List<GroupProfileEntity> entities = inOrder(hits.getIds(),
+                groupProfileRepository.findAllById(hits.getIds()), GroupProfileEntity::getId);
+        return searchResult(page, pageSize, hits.getTotal(), profileMapper.toGroupProfileDtos(entities));
     }
 
     @Override
     public List<GroupProfileDto> getGroupProfilesByStatus(String status) {
-        return groupProfileRepository.findByStatus(status)
-                .stream().map(profileMapper::toDto).collect(Collectors.toList());
+        return profileMapper.toGroupProfileDtos(groupProfileRepository.findByStatus(status));
     }
 
     @Override
     public boolean activateProfile(String id, ProfileType profileType) {
-        if (profileType == ProfileType.SINGLE) {
-            SingleProfileEntity entity = singleProfileRepository.findById(id)
-                    .orElseThrow(() -> new ProfileNotFoundException("Single profile not found: " + id));
-            entity.setStatus("Active");
-            singleProfileRepository.save(entity);
-        } else {
-            GroupProfileEntity entity = groupProfileRepository.findById(id)
-                    .orElseThrow(() -> new ProfileNotFoundException("Group profile not found: " + id));
-            entity.setStatus("Active");
-            groupProfileRepository.save(entity);
+        if (changeStatus(id, profileType, "Active")) {
+            auditService.logProfileActivation(id, profileType);
+            eventPublisher.publishEvent(ProfileChangedEvent.statusChanged(Set.of(id), profileType, "Active"));
         }
         return true;
     }
 
     @Override
     public boolean deactivateProfile(String id, ProfileType profileType) {
-        if (profileType == ProfileType.SINGLE) {
-            SingleProfileEntity entity = singleProfileRepository.findById(id)
-                    .orElseThrow(() -> new ProfileNotFoundException("Single profile not found: " + id));
-            entity.setStatus("Inactive");
-            singleProfileRepository.save(entity);
-        } else {
-            GroupProfileEntity entity = groupProfileRepository.findById(id)
-                    .orElseThrow(() -> new ProfileNotFoundException("Group profile not found: " + id));
-            entity.setStatus("Inactive");
-            groupProfileRepository.save(entity);
+        if (changeStatus(id, profileType, "Inactive")) {
+            auditService.logProfileDeactivation(id, profileType);
+            eventPublisher.publishEvent(ProfileChangedEvent.statusChanged(Set.of(id), profileType, "Inactive"));
         }
         return true;
     }
 
     @Override
     public SingleProfileDto useProfile(String id) {
+        // Usage is tracked by the last used column and stats, it is not a profile update
+        String lastUsed = LocalDateTime.now().toString();
+        if (singleProfileRepository.updateLastUsed(id, lastUsed) == 0) {
+            throw new ProfileNotFoundException("Single profile not found: " + id);
+        }
+        statsService.recordProfileUsage(id, ProfileType.SINGLE);
+        profileCacheInvalidator.evictSingleProfile(id);
+
         SingleProfileEntity entity = singleProfileRepository.findById(id)
                 .orElseThrow(() -> new ProfileNotFoundException("Single profile not found: " + id));
-        entity.setLastUsed(LocalDateTime.now().toString());
-        SingleProfileEntity updatedEntity = singleProfileRepository.save(entity);
-        return profileMapper.toDto(updatedEntity);
+        entity.setLastUsed(lastUsed);
+        return profileMapper.toDto(entity);
     }
 
     @Override
     public String getNextProfileFromGroup(String groupId) {
-        GroupProfileEntity groupEntity = groupProfileRepository.findById(groupId)
-                .orElseThrow(() -> new ProfileNotFoundException("Group profile not found: " + groupId));
-        return groupEntity.getMemberProfiles().stream().findFirst().map(SingleProfileEntity::getId).orElse(null);
+        String profileId = profileSelectorEngine.selectNextProfileId(groupId);
+        if (profileId != null) {
+            eventPublisher.publishEvent(new ProfileUsageEvent(groupId, profileId, null));
+        }
+        return profileId;
     }
 
     @Override
@@ -374,36 +529,190 @@ public class ProfileServiceImpl implements ProfileService {
 
     @Override
     public List<SingleProfileDto> getRecentlyUsedProfiles() {
-        return singleProfileRepository.findRecentlyUsedProfiles()
-                .stream().map(profileMapper::toDto).collect(Collectors.toList());
+        return profileMapper.toSingleProfileDtos(singleProfileRepository.findRecentlyUsedProfiles());
     }
 
     @Override
     public List<SingleProfileDto> createSingleProfiles(List<SingleProfileDto> profiles) {
-        return profiles.stream().map(this::createSingleProfile).collect(Collectors.toList());
+        log.info("Creating {} single profiles", profiles.size());
+
+        Set<String> names = new HashSet<>();
+        for (SingleProfileDto profileDto : profiles) {
+            validateSingleProfile(profileDto);
+            if (!names.add(profileDto.getName().toLowerCase())) {
+                throw new ProfileValidationException("Duplicate profile name in request: " + profileDto.getName());
+            }
+        }
+
+        // One lookup for all names instead of one per profile
+        Set<String> takenNames = names.isEmpty() ? Set.of() : singleProfileRepository.findExistingNames(names).stream()
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        for (SingleProfileDto profileDto : profiles) {
+            if (takenNames.contains(profileDto.getName().toLowerCase())) {
+                throw new ProfileValidationException("Profile name already exists: " + profileDto.getName());
+            }
+        }
+
+        List<SingleProfileEntity> entities = new ArrayList<>(profiles.size());
+        for (SingleProfileDto profileDto : profiles) {
+            profileDto.setId(UUID.randomUUID().toString());
+            if (profileDto.getStatus() == null) {
+                profileDto.setStatus("Active");
+            }
+            SingleProfileEntity entity = profileMapper.toEntity(profileDto);
+            // persist, not save, an assigned ID would make save() merge with a select per profile
+            entityManager.persist(entity);
+            entities.add(entity);
+        }
+        entityManager.flush();
+
+        List<String> ids = entities.stream().map(SingleProfileEntity::getId).collect(Collectors.toList());
+        auditService.logProfileCreations(ids, ProfileType.SINGLE);
+        eventPublisher.publishEvent(ProfileChangedEvent.created(ids, ProfileType.SINGLE));
+
+        return profileMapper.toSingleProfileDtos(entities);
     }
 
     @Override
-    public boolean deleteMultipleProfiles(List<String> ids, ProfileType profileType) {
-        ids.forEach(id -> {
+    public BulkOperationResultDto deleteMultipleProfiles(List<String> ids, ProfileType profileType) {
+        List<String> requested = ids.stream().distinct().collect(Collectors.toList());
+        log.info("Deleting {} {} profiles in bulk", requested.size(), profileType.getValue());
+        BulkOperationResultDto result = BulkOperationResultDto.builder().requested(requested.size()).build();
+
+        // Pending changes must reach the database before the set-based statements run
+        entityManager.flush();
+        for (List<String> chunk : chunks(requested)) {
+            List<String> existing = profileType == ProfileType.SINGLE
+                    ? singleProfileRepository.findExistingIds(chunk)
+                    : groupProfileRepository.findExistingIds(chunk);
+            addNotFound(result, chunk, existing);
+            if (existing.isEmpty()) {
+                continue;
+            }
+
+            Map<String, Integer> deletedRows;
             if (profileType == ProfileType.SINGLE) {
-                deleteSingleProfile(id);
+                Set<String> defaultGroupIds = new HashSet<>();
+                deletedRows = profileBulkRepository.deleteSingleProfiles(existing, defaultGroupIds);
+                result.setAffected(result.getAffected() + deletedRows.getOrDefault("single_profiles", 0));
+                if (!defaultGroupIds.isEmpty()) {
+                    auditService.logProfileDeletions(defaultGroupIds, ProfileType.GROUP);
+                    eventPublisher.publishEvent(ProfileChangedEvent.deleted(defaultGroupIds, ProfileType.GROUP));
+                }
             } else {
-                deleteGroupProfile(id);
+                deletedRows = profileBulkRepository.deleteGroupProfiles(existing);
+                result.setAffected(result.getAffected() + deletedRows.getOrDefault("group_profiles", 0));
             }
-        });
-        return true;
+            deletedRows.forEach((table, count) -> result.getDeletedRows().merge(table, count, Integer::sum));
+
+            // One audit batch and one selection engine refresh per chunk
+            auditService.logProfileDeletions(existing, profileType);
+            eventPublisher.publishEvent(ProfileChangedEvent.deleted(existing, profileType));
+        }
+        // Entities loaded earlier in this transaction may have been deleted underneath
+        entityManager.clear();
+
+        log.info("Bulk deleted {} of {} {} profiles", result.getAffected(), result.getRequested(), profileType.getValue());
+        return result;
     }
 
     @Override
-    public boolean bulkStatusUpdate(List<String> ids, String status, ProfileType profileType) {
-        ids.forEach(id -> {
-            if ("Active".equals(status)) {
-                activateProfile(id, profileType);
+    public BulkOperationResultDto bulkStatusUpdate(List<String> ids, String status, ProfileType profileType) {
+        boolean active = "Active".equals(status);
+        String newStatus = active ? "Active" : "Inactive";
+        List<String> requested = ids.stream().distinct().collect(Collectors.toList());
+        log.info("Setting status {} on {} {} profiles", newStatus, requested.size(), profileType.getValue());
+        BulkOperationResultDto result = BulkOperationResultDto.builder().requested(requested.size()).build();
+
+        entityManager.flush();
+        LocalDateTime now = LocalDateTime.now();
+        for (List<String> chunk : chunks(requested)) {
+            List<String> existing;
+            List<String> changing;
+            if (profileType == ProfileType.SINGLE) {
+                existing = singleProfileRepository.findExistingIds(chunk);
+                changing = singleProfileRepository.findIdsWithOtherStatus(chunk, newStatus);
             } else {
-                deactivateProfile(id, profileType);
+                existing = groupProfileRepository.findExistingIds(chunk);
+                changing = groupProfileRepository.findIdsWithOtherStatus(chunk, newStatus);
+            }
+            addNotFound(result, chunk, existing);
+            result.setUnchanged(result.getUnchanged() + existing.size() - changing.size());
+            if (changing.isEmpty()) {
+                continue;
             }
-        });
+
+            int updated = profileType == ProfileType.SINGLE
+                    ? singleProfileRepository.updateStatus(changing, newStatus, now)
+                    : groupProfileRepository.updateStatus(changing, newStatus, now);
+            result.setAffected(result.getAffected() + updated);
+
+            auditService.logProfileStatusChanges(changing, profileType, active);
+            eventPublisher.publishEvent(ProfileChangedEvent.statusChanged(changing, profileType, newStatus));
+        }
+        entityManager.clear();
+
+        log.info("Bulk status update changed {} of {} {} profiles", result.getAffected(), result.getRequested(), profileType.getValue());
+        return result;
+    }
+
+    private static <T> SearchResultDto<T> searchResult(int page, int size, int totalHits, List<T> items) {
+        return SearchResultDto.<T>builder()
+                .items(items)
+                .totalHits(totalHits)
+                .page(Math.max(page, 0))
+                .size(size)
+                .build();
+    }
+
+    private static <E> List<E> pageOf(List<E> rows, int offset, int size) {
+        int from = Math.min(offset, rows.size());
+        return rows.subList(from, Math.min(from + size, rows.size()));
+    }
+
+    // Restore the ranked order of index hits, dropping rows deleted since they were indexed
+    private static <E> List<E> inOrder(List<String> ids, List<E> rows, Function<E, String> idOf) {
+        Map<String, E> byId = rows.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream().map(byId::get).filter(row -> row != null).collect(Collectors.toList());
+    }
+
+    private List<List<String>> chunks(List<String> ids) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + bulkChunkSize, ids.size())));
+        }
+        return chunks;
+    }
+
+    private void addNotFound(BulkOperationResultDto result, List<String> requested, List<String> existing) {
+        Set<String> found = new HashSet<>(existing);
+        requested.stream()
+                .filter(id -> !found.contains(id))
+                .forEach(result.getNotFoundIds()::add);
+    }
+
+    /**
+     * Set the status of a profile, returns false when it already had that status
+     */
+    private boolean changeStatus(String id, ProfileType profileType, String status) {
+        if (profileType == ProfileType.SINGLE) {
+            SingleProfileEntity entity = singleProfileRepository.findById(id)
+                    .orElseThrow(() -> new ProfileNotFoundException("Single profile not found: " + id));
+            if (status.equals(entity.getStatus())) {
+                return false;
+            }
+            entity.setStatus(status);
+            singleProfileRepository.save(entity);
+        } else {
+            GroupProfileEntity entity = groupProfileRepository.findById(id)
+                    .orElseThrow(() -> new ProfileNotFoundException("Group profile not found: " + id));
+            if (status.equals(entity.getStatus())) {
+                return false;
+            }
+            entity.setStatus(status);
+            groupProfileRepository.save(entity);
+        }
         return true;
     }
 
@@ -417,6 +726,13 @@ public class ProfileServiceImpl implements ProfileService {
         if (profileDto == null || !StringUtils.hasText(profileDto.getName())) {
             throw new ProfileValidationException("Group profile name is required");
         }
+        if (profileDto.getMemberWeights() != null) {
+            profileDto.getMemberWeights().forEach((profileId, weight) -> {
+                if (weight == null || weight < 0) {
+                    throw new ProfileValidationException("Member weight cannot be negative: " + profileId);
+                }
+            });
+        }
     }
 
     private void validateMemberProfiles(Set<String> memberProfileIds) {
@@ -455,6 +771,18 @@ public class ProfileServiceImpl implements ProfileService {
                     entity.getMemberProfiles().add(profile)
                 );
             }
+            entity.getMemberWeights().keySet().retainAll(dto.getMemberProfileIds());
+        }
+
+        // Update member weights
+        if (dto.getMemberWeights() != null) {
+            entity.getMemberWeights().clear();
+            entity.getMemberProfiles().forEach(profile -> {
+                Integer weight = dto.getMemberWeights().get(profile.getId());
+                if (weight != null) {
+                    entity.getMemberWeights().put(profile.getId(), weight);
+                }
+            });
         }
     }
     
@@ -1,21 +1,38 @@
 package com.itasca.spoofing.service.impl;
 
 
+import com.itasca.spoofing.entity.ProfileStatsRollupEntity;
+import com.itasca.spoofing.entity.UserEntity;
+import com.itasca.spoofing.exception.ProfileNotFoundException;
+import com.itasca.spoofing.exception.UnauthorizedAccessException;
+import com.itasca.spoofing.model.ProfileRankingDto;
+import com.itasca.spoofing.model.QuarantineDto;
 import com.itasca.spoofing.model.ProfileType;
 import com.itasca.spoofing.entity.ProfileStatsEntity;
+import com.itasca.spoofing.model.RankingMetric;
+import com.itasca.spoofing.model.SessionOutcome;
+import com.itasca.spoofing.model.StatsPeriod;
+import com.itasca.spoofing.model.UsageSubject;
 import com.itasca.spoofing.repository.ProfileStatsRepository;
+import com.itasca.spoofing.repository.ProfileStatsRollupRepository;
+import com.itasca.spoofing.repository.SingleProfileRepository;
+import com.itasca.spoofing.repository.UserRepository;
 import com.itasca.spoofing.service.ProfileStatsService;
+import com.itasca.spoofing.service.quarantine.ProfileQuarantine;
+import com.itasca.spoofing.service.stats.DistinctUserCounter;
+import com.itasca.spoofing.service.stats.ProfileStatsBuffer;
+import com.itasca.spoofing.service.stats.StatsLeaderboard;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -25,47 +42,108 @@ public class ProfileStatsServiceImpl implements ProfileStatsService {
     @Autowired
     private ProfileStatsRepository statsRepository;
 
+    @Autowired
+    private ProfileStatsRollupRepository rollupRepository;
+
+    @Autowired
+    private ProfileStatsBuffer statsBuffer;
+
+    @Autowired
+    private StatsLeaderboard leaderboard;
+
+    @Autowired
+    private DistinctUserCounter distinctUserCounter;
+
+    @Autowired
+    private ProfileQuarantine profileQuarantine;
+
+    @Autowired
+    private SingleProfileRepository singleProfileRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // ==================== EVENT RECORDING ====================
+    // Events only touch the in-memory buffer, it writes them to the database in batches.
+    // Session outcomes of single profiles also feed the quarantine.
+
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void recordProfileUsage(String profileId, ProfileType profileType) {
-        ProfileStatsEntity stats = getOrCreateTodayStats(profileId, profileType);
-        stats.setUsageCount(stats.getUsageCount() + 1);
-        statsRepository.save(stats);
+        statsBuffer.increment(profileId, profileType, ProfileStatsBuffer.Metric.USAGE);
         log.debug("Recorded usage for profile: {} ({})", profileId, profileType);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void recordSuccessfulSession(String profileId, ProfileType profileType, int durationMinutes, int urlsVisited) {
-        ProfileStatsEntity stats = getOrCreateTodayStats(profileId, profileType);
-        stats.setSuccessCount(stats.getSuccessCount() + 1);
-        statsRepository.save(stats);
+        statsBuffer.increment(profileId, profileType, ProfileStatsBuffer.Metric.SUCCESS);
+        recordOutcome(profileId, profileType, SessionOutcome.SUCCESS);
         log.debug("Recorded successful session for profile: {} (duration: {}min, URLs: {})",
                 profileId, durationMinutes, urlsVisited);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void recordFailedSession(String profileId, ProfileType profileType) {
-        ProfileStatsEntity stats = getOrCreateTodayStats(profileId, profileType);
-        stats.setFailureCount(stats.getFailureCount() + 1);
-        statsRepository.save(stats);
+        statsBuffer.increment(profileId, profileType, ProfileStatsBuffer.Metric.FAILURE);
+        recordOutcome(profileId, profileType, SessionOutcome.FAILURE);
         log.debug("Recorded failed session for profile: {} ({})", profileId, profileType);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void recordProxyFailure(String profileId, ProfileType profileType) {
-        ProfileStatsEntity stats = getOrCreateTodayStats(profileId, profileType);
-        stats.setFailureCount(stats.getFailureCount() + 1);
-        statsRepository.save(stats);
+        statsBuffer.increment(profileId, profileType, ProfileStatsBuffer.Metric.FAILURE);
+        statsBuffer.increment(profileId, profileType, ProfileStatsBuffer.Metric.PROXY_FAILURE);
+        recordOutcome(profileId, profileType, SessionOutcome.PROXY_FAILURE);
         log.debug("Recorded proxy failure for profile: {} ({})", profileId, profileType);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void recordFingerprintDetection(String profileId, ProfileType profileType) {
-        ProfileStatsEntity stats = getOrCreateTodayStats(profileId, profileType);
-        stats.setFailureCount(stats.getFailureCount() + 1);
-        statsRepository.save(stats);
+        statsBuffer.increment(profileId, profileType, ProfileStatsBuffer.Metric.FAILURE);
+        statsBuffer.increment(profileId, profileType, ProfileStatsBuffer.Metric.DETECTION);
+        recordOutcome(profileId, profileType, SessionOutcome.FINGERPRINT_DETECTION);
         log.debug("Recorded fingerprint detection for profile: {} ({})", profileId, profileType);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void recordSessionOutcome(String profileId, SessionOutcome outcome, int durationMinutes, int urlsVisited) {
+        switch (outcome) {
+            case SUCCESS:
+                recordSuccessfulSession(profileId, ProfileType.SINGLE, durationMinutes, urlsVisited);
+                break;
+            case PROXY_FAILURE:
+                recordProxyFailure(profileId, ProfileType.SINGLE);
+                break;
+            case FINGERPRINT_DETECTION:
+                recordFingerprintDetection(profileId, ProfileType.SINGLE);
+                break;
+            default:
+                recordFailedSession(profileId, ProfileType.SINGLE);
+                break;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void reportSessionOutcome(String profileId, SessionOutcome outcome, int durationMinutes, int urlsVisited,
+                                     String reporterEmail) {
+        if (!singleProfileRepository.existsById(profileId)) {
+            throw new ProfileNotFoundException("Single profile not found: " + profileId);
+        }
+        UserEntity user = userRepository.findByEmail(reporterEmail)
+                .orElseThrow(() -> new ProfileNotFoundException("User not found: " + reporterEmail));
+        // Outcomes can quarantine the profile, so only its users may report them
+        if (!userRepository.hasProfileAccess(user, profileId)) {
+            throw new UnauthorizedAccessException("User does not have access to profile: " + profileId);
+        }
+        recordSessionOutcome(profileId, outcome, durationMinutes, urlsVisited);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ProfileStatsEntity getTodayStats(String profileId) {
@@ -88,75 +166,128 @@ public class ProfileStatsServiceImpl implements ProfileStatsService {
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> getProfilePerformanceReport(String profileId) {
-        List<ProfileStatsEntity> monthStats = getMonthStats(profileId);
-
-        Map<String, Object> report = new HashMap<>();
-
-        if (monthStats.isEmpty()) {
-            report.put("totalUsage", 0);
-            report.put("totalSessions", 0);
-            report.put("successRate", 0.0);
-            report.put("averageSessionDuration", 0.0);
-            report.put("totalUrlsVisited", 0);
-            report.put("proxyFailures", 0);
-            report.put("fingerprintDetections", 0);
-            return report;
-        }
+        return getProfilePerformanceReport(profileId, StatsPeriod.MONTH);
+    }
 
-        int totalUsage = monthStats.stream().mapToInt(ProfileStatsEntity::getUsageCount).sum();
-        int totalSuccessful = monthStats.stream().mapToInt(ProfileStatsEntity::getSuccessCount).sum();
-        int totalFailed = monthStats.stream().mapToInt(ProfileStatsEntity::getFailureCount).sum();
-        int totalSessions = totalSuccessful + totalFailed;
-        int totalDuration = 0; // Simplified
-        int totalUrls = 0; // Simplified
-        int totalProxyFailures = totalFailed;
-        int totalFingerprintDetections = 0; // Simplified
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProfilePerformanceReport(String profileId, StatsPeriod period) {
+        LocalDate today = LocalDate.now();
+        LocalDate start = period.startOf(today);
+        Map<String, Object> report = report(rollupRepository.findByPeriodAndPeriodStartAndProfileId(period, start, profileId));
+        report.put("distinctUsers", distinctUserCounter.count(UsageSubject.PROFILE, profileId, start, today));
+        return report;
+    }
 
-        double successRate = totalSessions > 0 ? (double) totalSuccessful / totalSessions * 100 : 0.0;
-        double avgSessionDuration = totalSuccessful > 0 ? (double) totalDuration / totalSuccessful : 0.0;
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getFleetReport(StatsPeriod period) {
+        LocalDate today = LocalDate.now();
+        LocalDate start = period.startOf(today);
+        List<ProfileStatsRollupEntity> rows = rollupRepository.findByPeriodAndPeriodStartAndProfileId(
+                period, start, ProfileStatsRollupEntity.FLEET_PROFILE_ID);
 
-        report.put("totalUsage", totalUsage);
-        report.put("totalSessions", totalSessions);
-        report.put("successfulSessions", totalSuccessful);
-        report.put("failedSessions", totalFailed);
-        report.put("successRate", Math.round(successRate * 100.0) / 100.0);
-        report.put("averageSessionDuration", Math.round(avgSessionDuration * 100.0) / 100.0);
-        report.put("totalUrlsVisited", totalUrls);
-        report.put("proxyFailures", totalProxyFailures);
-        report.put("fingerprintDetections", totalFingerprintDetections);
+        Map<String, Object> report = report(rows);
+        report.put("period", period.getValue());
+        report.put("periodStart", start);
+        report.put("distinctUsers", distinctUserCounter.count(
+                UsageSubject.PROFILE, ProfileStatsRollupEntity.FLEET_PROFILE_ID, start, today));
+        Map<String, Object> byType = new HashMap<>();
+        for (ProfileStatsRollupEntity row : rows) {
+            byType.put(row.getProfileType().getValue(), report(List.of(row)));
+        }
+        report.put("byProfileType", byType);
+        return report;
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getGroupReport(String groupId, StatsPeriod period) {
+        LocalDate today = LocalDate.now();
+        LocalDate start = period.startOf(today);
+        Map<String, Object> report = new HashMap<>();
+        report.put("groupId", groupId);
+        report.put("period", period.getValue());
+        report.put("periodStart", start);
+        report.put("distinctUsers", distinctUserCounter.count(UsageSubject.GROUP, groupId, start, today));
         return report;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProfileStatsEntity> getTopPerformingProfiles(LocalDate since, int limit) {
-        return statsRepository.findByDateAfter(since).stream().limit(limit).collect(Collectors.toList());
+    public List<ProfileRankingDto> getTopPerformingProfiles(StatsPeriod period, RankingMetric metric, int limit) {
+        List<ProfileStatsRollupEntity> rows = leaderboard.top(period, metric, limit);
+        List<ProfileRankingDto> rankings = new ArrayList<>(rows.size());
+        for (ProfileStatsRollupEntity row : rows) {
+            rankings.add(ProfileRankingDto.builder()
+                    .rank(rankings.size() + 1)
+                    .profileId(row.getProfileId())
+                    .profileType(row.getProfileType())
+                    .usageCount(row.getUsageCount())
+                    .successCount(row.getSuccessCount())
+                    .failureCount(row.getFailureCount())
+                    .successRate(Math.round(StatsLeaderboard.successRate(row) * 100.0) / 100.0)
+                    .build());
+        }
+        return rankings;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ProfileStatsEntity> getProblemsProfiles(LocalDate since, double failureThreshold) {
-        return statsRepository.findByDateAfter(since).stream()
-                .filter(stats -> stats.getFailureCount() > stats.getSuccessCount() * failureThreshold)
-                .collect(Collectors.toList());
+        return statsRepository.findProblemDays(since, failureThreshold);
     }
 
     @Override
-    public void cleanupOldStats(int daysToKeep) {
-        LocalDate cutoffDate = LocalDate.now().minusDays(daysToKeep);
-        statsRepository.deleteByDateBefore(cutoffDate);
-        log.info("Cleaned up statistics older than {} days", daysToKeep);
+    public List<QuarantineDto> getQuarantinedProfiles() {
+        return profileQuarantine.getQuarantined();
     }
 
-    private ProfileStatsEntity getOrCreateTodayStats(String profileId, ProfileType profileType) {
-        Optional<ProfileStatsEntity> existingStats = statsRepository.findByProfileIdAndDate(profileId, LocalDate.now());
+    @Override
+    public boolean releaseQuarantine(String profileId) {
+        return profileQuarantine.release(profileId);
+    }
 
-        if (existingStats.isPresent()) {
-            return existingStats.get();
+    private void recordOutcome(String profileId, ProfileType profileType, SessionOutcome outcome) {
+        // Groups are not selected from other groups, only their members can be quarantined
+        if (profileType == ProfileType.SINGLE) {
+            profileQuarantine.record(profileId, outcome);
         }
+    }
+
+    /**
+     * Report of the summed rollup rows
+     */
+    private Map<String, Object> report(List<ProfileStatsRollupEntity> rows) {
+        long totalUsage = rows.stream().mapToLong(ProfileStatsRollupEntity::getUsageCount).sum();
+        long totalSuccessful = rows.stream().mapToLong(ProfileStatsRollupEntity::getSuccessCount).sum();
+        long totalFailed = rows.stream().mapToLong(ProfileStatsRollupEntity::getFailureCount).sum();
+        // Rows from before failures were counted by cause have no cause counts
+        long proxyFailures = rows.stream().mapToLong(row -> row.getProxyFailureCount() != null ? row.getProxyFailureCount() : 0).sum();
+        long detections = rows.stream().mapToLong(row -> row.getDetectionCount() != null ? row.getDetectionCount() : 0).sum();
+        long totalSessions = totalSuccessful + totalFailed;
+        double successRate = totalSessions > 0 ? (double) totalSuccessful / totalSessions * 100 : 0.0;
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("totalUsage", totalUsage);
+        report.put("totalSessions", totalSessions);
+        report.put("successfulSessions", totalSuccessful);
+        report.put("failedSessions", totalFailed);
+        report.put("successRate", Math.round(successRate * 100.0) / 100.0);
+        report.put("averageSessionDuration", 0.0); // Not tracked
+        report.put("totalUrlsVisited", 0); // Not tracked
+        report.put("proxyFailures", proxyFailures);
+        report.put("fingerprintDetections", detections);
+        return report;
+    }
 
-        ProfileStatsEntity newStats = ProfileStatsEntity.createStats(profileId, profileType);
-        return statsRepository.save(newStats);
+    @Override
+    public void cleanupOldStats(int daysToKeep) {
+        LocalDate cutoffDate = LocalDate.now().minusDays(daysToKeep);
+        statsRepository.deleteByDateBefore(cutoffDate);
+        // Weekly and monthly rollups outlive the daily rows
+        rollupRepository.deleteByPeriodAndPeriodStartBefore(StatsPeriod.DAY, cutoffDate);
+        distinctUserCounter.deleteBefore(cutoffDate);
+        log.info("Cleaned up statistics older than {} days", daysToKeep);
     }
 }
\ No newline at end of file
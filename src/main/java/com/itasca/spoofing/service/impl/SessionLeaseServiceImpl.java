@@ -0,0 +1,222 @@
+package com.itasca.spoofing.service.impl;
+
+import com.itasca.spoofing.entity.GroupSessionLeaseEntity;
+import com.itasca.spoofing.entity.UserEntity;
+import com.itasca.spoofing.event.SessionLeaseEvent;
+import com.itasca.spoofing.exception.ProfileNotFoundException;
+import com.itasca.spoofing.exception.ProfileValidationException;
+import com.itasca.spoofing.exception.UnauthorizedAccessException;
+import com.itasca.spoofing.model.SessionLeaseDto;
+import com.itasca.spoofing.model.SessionSlotResult;
+import com.itasca.spoofing.repository.GroupProfileRepository;
+import com.itasca.spoofing.repository.GroupSessionLeaseRepository;
+import com.itasca.spoofing.repository.UserRepository;
+import com.itasca.spoofing.service.SessionLeaseService;
+import com.itasca.spoofing.service.SessionSlotService;
+import com.itasca.spoofing.service.cache.ProfileCacheInvalidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Group sessions as leases. Acquiring a lease takes a session slot and
+ * reclaiming or releasing it gives the slot back in the same transaction,
+ * so the slot counter always matches the number of lease rows. Only users
+ * with access to the group can acquire leases in it.
+ */
+@Service
+@Transactional
+@Slf4j
+public class SessionLeaseServiceImpl implements SessionLeaseService {
+
+    @Autowired
+    private GroupSessionLeaseRepository leaseRepository;
+
+    @Autowired
+    private GroupProfileRepository groupProfileRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SessionSlotService sessionSlotService;
+
+    @Autowired
+    private ProfileCacheInvalidator profileCacheInvalidator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${session.lease.ttl-seconds:120}")
+    private long leaseTtlSeconds;
+
+    @Value("${session.lease.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    // ==================== CLIENT LEASE LIFECYCLE ====================
+
+    @Override
+    public SessionLeaseDto acquireLease(String groupId, String profileId, String ownerEmail) {
+        UserEntity user = userRepository.findByEmail(ownerEmail)
+                .orElseThrow(() -> new ProfileNotFoundException("User not found: " + ownerEmail));
+        if (!userRepository.hasGroupAccess(user, groupId)) {
+            throw new UnauthorizedAccessException("User does not have access to group: " + groupId);
+        }
+        if (profileId != null && !groupProfileRepository.isMember(groupId, profileId)) {
+            throw new ProfileNotFoundException("Profile " + profileId + " is not a member of group " + groupId);
+        }
+
+        SessionSlotResult result = sessionSlotService.acquireSlot(groupId);
+        if (result == SessionSlotResult.GROUP_NOT_FOUND) {
+            throw new ProfileNotFoundException("Group not found: " + groupId);
+        }
+        if (result == SessionSlotResult.CAPACITY_REACHED) {
+            throw new ProfileValidationException("Group has reached maximum concurrent usage limit");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        GroupSessionLeaseEntity lease = leaseRepository.save(GroupSessionLeaseEntity.builder()
+                .id(UUID.randomUUID().toString())
+                .groupId(groupId)
+                .profileId(profileId)
+                .userId(user.getId())
+                .ownerEmail(ownerEmail)
+                .acquiredAt(now)
+                .lastHeartbeatAt(now)
+                .expiresAt(now.plusSeconds(leaseTtlSeconds))
+                .build());
+
+        eventPublisher.publishEvent(SessionLeaseEvent.acquired(lease.getId(), lease.getExpiresAt()));
+
+        log.info("Session lease {} acquired in group {} by {}", lease.getId(), groupId, ownerEmail);
+        return toDto(lease);
+    }
+
+    @Override
+    public LocalDateTime renewLease(String leaseId, String ownerEmail) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusSeconds(leaseTtlSeconds);
+
+        if (leaseRepository.renew(leaseId, ownerEmail, now, expiresAt) == 0) {
+            throw new ProfileNotFoundException("Session lease not found or expired: " + leaseId);
+        }
+
+        eventPublisher.publishEvent(SessionLeaseEvent.renewed(leaseId, expiresAt));
+        return expiresAt;
+    }
+
+    @Override
+    public boolean releaseLease(String leaseId, String ownerEmail) {
+        GroupSessionLeaseEntity lease = leaseRepository.findById(leaseId)
+                .orElseThrow(() -> new ProfileNotFoundException("Session lease not found or expired: " + leaseId));
+
+        if (!lease.getOwnerEmail().equals(ownerEmail)) {
+            throw new UnauthorizedAccessException("Session lease belongs to another user: " + leaseId);
+        }
+
+        return release(leaseId, lease.getGroupId());
+    }
+
+    @Override
+    public boolean releaseOldestLease(String groupId, String profileId, Long userId) {
+        List<GroupSessionLeaseEntity> leases = leaseRepository.findByGroupIdAndUserIdOrderByAcquiredAtAsc(groupId, userId);
+
+        return leases.stream()
+                .filter(lease -> profileId == null || Objects.equals(profileId, lease.getProfileId()))
+                .findFirst()
+                .map(lease -> release(lease.getId(), groupId))
+                .orElse(false);
+    }
+
+    // ==================== RECLAMATION ====================
+
+    @Override
+    public boolean reclaimIfExpired(String leaseId) {
+        String groupId = leaseRepository.findGroupIdById(leaseId).orElse(null);
+        if (groupId == null || leaseRepository.deleteIfExpired(leaseId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+
+        groupProfileRepository.releaseSessionSlot(groupId);
+        profileCacheInvalidator.evictGroupUsage(groupId);
+        eventPublisher.publishEvent(SessionLeaseEvent.released(leaseId));
+
+        log.info("Reclaimed expired session lease {} in group {}", leaseId, groupId);
+        return true;
+    }
+
+    @Override
+    public int reclaimExpiredLeases() {
+        List<String> expiredIds = leaseRepository.findExpiredLeaseIds(LocalDateTime.now(), PageRequest.of(0, sweepBatchSize));
+
+        int reclaimed = 0;
+        for (String leaseId : expiredIds) {
+            if (reclaimIfExpired(leaseId)) {
+                reclaimed++;
+            }
+        }
+        return reclaimed;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findMiscountedGroupIds() {
+        return leaseRepository.findMiscountedGroupIds();
+    }
+
+    @Override
+    public boolean reconcileSessionCount(String groupId) {
+        // Acquires hold the group row from taking the slot until their lease row commits, so once
+        // the lock is ours every counted slot has its lease. The lock must be this transaction's
+        // first read, the lease count below then reads from a snapshot taken after it.
+        Integer sessions = groupProfileRepository.lockCurrentActiveSessions(groupId).orElse(null);
+        if (sessions == null) {
+            return false;
+        }
+        int leases = (int) leaseRepository.countByGroupId(groupId);
+        if (sessions == leases) {
+            return false;
+        }
+
+        groupProfileRepository.setCurrentActiveSessions(groupId, leases);
+        profileCacheInvalidator.evictGroupUsage(groupId);
+        log.warn("Corrected session counter of group {} from {} to {} live leases", groupId, sessions, leases);
+        return true;
+    }
+
+    private boolean release(String leaseId, String groupId) {
+        // Only the caller that deletes the row gives the slot back, so a release racing the reaper cannot double count
+        if (leaseRepository.deleteLease(leaseId) == 0) {
+            return false;
+        }
+
+        groupProfileRepository.releaseSessionSlot(groupId);
+        profileCacheInvalidator.evictGroupUsage(groupId);
+        eventPublisher.publishEvent(SessionLeaseEvent.released(leaseId));
+
+        log.info("Session lease {} released in group {}", leaseId, groupId);
+        return true;
+    }
+
+    private SessionLeaseDto toDto(GroupSessionLeaseEntity lease) {
+        return SessionLeaseDto.builder()
+                .leaseId(lease.getId())
+                .groupId(lease.getGroupId())
+                .profileId(lease.getProfileId())
+                .userId(lease.getUserId())
+                .acquiredAt(lease.getAcquiredAt())
+                .lastHeartbeatAt(lease.getLastHeartbeatAt())
+                .expiresAt(lease.getExpiresAt())
+                .ttlSeconds(leaseTtlSeconds)
+                .build();
+    }
+}
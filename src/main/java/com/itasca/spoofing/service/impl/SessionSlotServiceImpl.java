@@ -0,0 +1,64 @@
+package com.itasca.spoofing.service.impl;
+
+import com.itasca.spoofing.exception.ProfileNotFoundException;
+import com.itasca.spoofing.model.SessionSlotResult;
+import com.itasca.spoofing.repository.GroupProfileRepository;
+import com.itasca.spoofing.service.SessionSlotService;
+import com.itasca.spoofing.service.cache.ProfileCacheInvalidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Session slot accounting for groups. Each acquire and release is a single
+ * conditional UPDATE, so the database serializes concurrent callers on the
+ * group row and the capacity check can never be lost between read and write.
+ */
+@Service
+@Transactional
+@Slf4j
+public class SessionSlotServiceImpl implements SessionSlotService {
+
+    @Autowired
+    private GroupProfileRepository groupProfileRepository;
+
+    @Autowired
+    private ProfileCacheInvalidator profileCacheInvalidator;
+
+    @Override
+    public SessionSlotResult acquireSlot(String groupId) {
+        if (groupProfileRepository.tryAcquireSessionSlot(groupId) == 1) {
+            profileCacheInvalidator.evictGroupUsage(groupId);
+            log.debug("Acquired session slot in group: {}", groupId);
+            return SessionSlotResult.ACQUIRED;
+        }
+
+        // Nothing updated, either the group is full or it does not exist
+        return groupProfileRepository.existsById(groupId)
+                ? SessionSlotResult.CAPACITY_REACHED
+                : SessionSlotResult.GROUP_NOT_FOUND;
+    }
+
+    @Override
+    public boolean releaseSlot(String groupId) {
+        if (groupProfileRepository.releaseSessionSlot(groupId) == 1) {
+            profileCacheInvalidator.evictGroupUsage(groupId);
+            log.debug("Released session slot in group: {}", groupId);
+            return true;
+        }
+
+        if (!groupProfileRepository.existsById(groupId)) {
+            throw new ProfileNotFoundException("Group not found: " + groupId);
+        }
+        log.warn("No active session slot to release in group: {}", groupId);
+        return false;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getActiveSessions(String groupId) {
+        return groupProfileRepository.findCurrentActiveSessionsById(groupId)
+                .orElseThrow(() -> new ProfileNotFoundException("Group not found: " + groupId));
+    }
+}
@@ -6,7 +6,10 @@ import com.itasca.spoofing.model.URLDto;
 import com.itasca.spoofing.repository.URLGroupRepository;
 import com.itasca.spoofing.service.URLGroupService;
 import com.itasca.spoofing.service.URLService;
+import com.itasca.spoofing.service.cache.CacheNames;
+import com.itasca.spoofing.service.cache.ProfileCacheInvalidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -22,6 +25,9 @@ public class URLGroupServiceImpl implements URLGroupService {
     @Autowired
     private URLService urlService;
 
+    @Autowired
+    private ProfileCacheInvalidator profileCacheInvalidator;
+
     @Override
     public List<URLGroupDto> getAllURLGroups() {
         return urlGroupRepository.findAll().stream()
@@ -30,6 +36,7 @@ public class URLGroupServiceImpl implements URLGroupService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.URL_GROUPS, key = "#id", sync = true)
     public Optional<URLGroupDto> getURLGroupById(Long id) {
         return urlGroupRepository.findById(id)
                 .map(this::convertToDto);
@@ -39,6 +46,7 @@ public class URLGroupServiceImpl implements URLGroupService {
     public URLGroupDto createURLGroup(URLGroupDto urlGroupDto) {
         URLGroupEntity entity = convertToEntity(urlGroupDto);
         URLGroupEntity savedEntity = urlGroupRepository.save(entity);
+        profileCacheInvalidator.evictUrlGroups();
         return convertToDto(savedEntity);
     }
 
@@ -54,12 +62,14 @@ public class URLGroupServiceImpl implements URLGroupService {
         entity.setUrls(urlStrings);
         
         URLGroupEntity savedEntity = urlGroupRepository.save(entity);
+        profileCacheInvalidator.evictUrlGroups();
         return convertToDto(savedEntity);
     }
 
     @Override
     public void deleteURLGroup(Long id) {
         urlGroupRepository.deleteById(id);
+        profileCacheInvalidator.evictUrlGroups();
     }
 
     @Override
@@ -75,6 +85,7 @@ public class URLGroupServiceImpl implements URLGroupService {
         }
         
         URLGroupEntity savedEntity = urlGroupRepository.save(entity);
+        profileCacheInvalidator.evictUrlGroups();
         return convertToDto(savedEntity);
     }
 
@@ -87,6 +98,7 @@ public class URLGroupServiceImpl implements URLGroupService {
             entity.getUrls().add(url.getUrl());
         }
         URLGroupEntity savedEntity = urlGroupRepository.save(entity);
+        profileCacheInvalidator.evictUrlGroups();
         return convertToDto(savedEntity);
     }
 
@@ -97,10 +109,12 @@ public class URLGroupServiceImpl implements URLGroupService {
         
         entity.getUrls().remove(url.getUrl());
         URLGroupEntity savedEntity = urlGroupRepository.save(entity);
+        profileCacheInvalidator.evictUrlGroups();
         return convertToDto(savedEntity);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.URL_GROUPS, key = "'default'", sync = true)
     public URLGroupDto getDefaultUrlGroup() {
         URLGroupEntity defaultGroup = urlGroupRepository.findByName("Default");
         if (defaultGroup != null) {
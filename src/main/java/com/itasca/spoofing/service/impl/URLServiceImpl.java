@@ -4,6 +4,7 @@ import com.itasca.spoofing.entity.URLEntity;
 import com.itasca.spoofing.model.URLDto;
 import com.itasca.spoofing.repository.URLRepository;
 import com.itasca.spoofing.service.URLService;
+import com.itasca.spoofing.service.cache.ProfileCacheInvalidator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,6 +17,9 @@ public class URLServiceImpl implements URLService {
     @Autowired
     private URLRepository urlRepository;
 
+    @Autowired
+    private ProfileCacheInvalidator profileCacheInvalidator;
+
     @Override
     public List<URLDto> getAllUrls() {
         return urlRepository.findAll().stream()
@@ -34,12 +38,15 @@ public class URLServiceImpl implements URLService {
     public URLDto createUrl(URLDto urlDto) {
         URLEntity entity = convertToEntity(urlDto);
         URLEntity savedEntity = urlRepository.save(entity);
+        // URL groups resolve their URL strings to URL details
+        profileCacheInvalidator.evictUrlGroups();
         return convertToDto(savedEntity);
     }
 
     @Override
     public void deleteUrl(Long id) {
         urlRepository.deleteById(id);
+        profileCacheInvalidator.evictUrlGroups();
     }
 
     @Override
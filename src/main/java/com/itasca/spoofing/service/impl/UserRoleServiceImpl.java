@@ -1,5 +1,6 @@
 package com.itasca.spoofing.service.impl;
 
+import com.itasca.spoofing.event.UserAccessChangedEvent;
 import com.itasca.spoofing.model.UserDto;
 import com.itasca.spoofing.entity.*;
 import com.itasca.spoofing.repository.UserRepository;
@@ -12,6 +13,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,6 +31,9 @@ public class UserRoleServiceImpl implements UserRoleService {
     @Autowired
     private ProfileAuditService auditService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     @CacheEvict(value = "users", key = "#userId")
     public boolean changeUserRole(Long userId, UserRole newRole, String changedBy) {
@@ -45,6 +50,7 @@ public class UserRoleServiceImpl implements UserRoleService {
         user.getRoles().clear();
         user.getRoles().add(newRole);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccessChangedEvent(userId));
         return true;
     }
 
@@ -60,6 +66,7 @@ public class UserRoleServiceImpl implements UserRoleService {
 
         user.getRoles().add(role);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccessChangedEvent(userId));
         return true;
     }
 
@@ -75,6 +82,7 @@ public class UserRoleServiceImpl implements UserRoleService {
 
         user.getRoles().remove(role);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccessChangedEvent(userId));
         return true;
     }
 
@@ -111,7 +119,6 @@ public class UserRoleServiceImpl implements UserRoleService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "user_hierarchy", key = "#managerId + '_reports'")
     public List<UserDto> getDirectReports(Long managerId) {
         return new ArrayList<>();
     }
@@ -1,11 +1,19 @@
 package com.itasca.spoofing.service.impl;
 
 import com.itasca.spoofing.entity.UserEntity;
+import com.itasca.spoofing.event.UserAccessChangedEvent;
+import com.itasca.spoofing.model.CursorPageDto;
 import com.itasca.spoofing.model.UserDto;
 import com.itasca.spoofing.repository.UserRepository;
 import com.itasca.spoofing.service.UserService;
+import com.itasca.spoofing.service.cache.CacheNames;
+import com.itasca.spoofing.service.cache.ProfileCacheInvalidator;
+import com.itasca.spoofing.service.pagination.KeysetCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -30,6 +38,12 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProfileCacheInvalidator profileCacheInvalidator;
+
     @Override
     @Transactional(readOnly = true)
     public Page<UserDto> getUsers(Pageable pageable) {
@@ -39,6 +53,24 @@ public class UserServiceImpl implements UserService {
         return userEntities.map(this::convertToDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<UserDto> getUsersAfter(String cursor, int size, boolean includeTotal) {
+        log.debug("Retrieving users after cursor: {}, size: {}", cursor, size);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.clampSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<UserEntity> rows = position == null
+                ? userRepository.findFirstKeysetPage(limit)
+                : userRepository.findKeysetPageAfter(position.getTimestamp(), position.getLongId(), limit);
+        Long total = includeTotal ? userRepository.count() : null;
+
+        return CursorPageDto.of(rows, pageSize,
+                user -> KeysetCursor.of(user.getCreatedAt(), user.getId()).encode(),
+                users -> users.stream().map(this::convertToDto).toList(), total);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<UserDto> getUserById(Long id) {
@@ -69,12 +101,15 @@ public class UserServiceImpl implements UserService {
         entity.setLastName(userDto.getLastName());
         entity.setStatus(userDto.getStatus());
         UserEntity updated = userRepository.save(entity);
+        // Status or email may have changed, cached tokens must be checked again
+        eventPublisher.publishEvent(new UserAccessChangedEvent(id));
         return convertToDto(updated);
     }
 
     @Override
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserAccessChangedEvent(id));
     }
 
     @Override
@@ -92,10 +127,12 @@ public class UserServiceImpl implements UserService {
         }
         
         UserEntity saved = userRepository.save(user);
+        profileCacheInvalidator.evictAssignments();
         return convertToDto(saved);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.ASSIGNED_PROFILES, key = "#userId", sync = true)
     public java.util.List<com.itasca.spoofing.model.GroupProfileDto> getAssignedProfiles(Long userId) {
         UserEntity user = userRepository.findById(userId).orElseThrow();
         return user.getAssignedGroups().stream()
@@ -118,6 +155,8 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.ASSIGNED_PROFILES, sync = true,
+            key = "'email:' + T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication().getName()")
     public java.util.List<com.itasca.spoofing.model.GroupProfileDto> getCurrentUserAssignedProfiles() {
         org.springframework.security.core.Authentication authentication = 
             org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
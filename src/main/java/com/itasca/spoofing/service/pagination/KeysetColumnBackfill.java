@@ -0,0 +1,68 @@
+package com.itasca.spoofing.service.pagination;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Makes created_at usable as a keyset column on tables created before it was required.
+ *
+ * A row without created_at cannot produce a cursor and is skipped by the range predicates,
+ * so rows still missing it are given their updated_at (or the current time) on startup.
+ * New schemas get the column as NOT NULL from the entity mapping, which schema update does
+ * not apply to existing columns, so on MySQL the constraint is added once the rows are filled.
+ */
+@Component
+@Slf4j
+public class KeysetColumnBackfill {
+
+    static final List<String> TABLES = List.of("single_profiles", "group_profiles", "users");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        boolean mysql;
+        try {
+            mysql = "MySQL".equalsIgnoreCase(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName()));
+        } catch (Exception e) {
+            log.error("Could not determine the database for the created_at backfill: {}", e.getMessage(), e);
+            return;
+        }
+
+        for (String table : TABLES) {
+            try {
+                int filled = jdbcTemplate.update("UPDATE " + table
+                        + " SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL");
+                if (filled > 0) {
+                    log.info("Filled created_at of {} rows in {}", filled, table);
+                }
+                if (mysql) {
+                    requireCreatedAt(table);
+                }
+            } catch (Exception e) {
+                log.error("Error backfilling created_at in {}: {}", table, e.getMessage(), e);
+            }
+        }
+    }
+
+    private void requireCreatedAt(String table) {
+        List<Map<String, Object>> columns = jdbcTemplate.queryForList(
+                "SELECT COLUMN_TYPE, IS_NULLABLE FROM information_schema.COLUMNS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = 'created_at'", table);
+        if (columns.isEmpty() || !"YES".equals(columns.get(0).get("IS_NULLABLE"))) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + table + " MODIFY created_at " + columns.get(0).get("COLUMN_TYPE") + " NOT NULL");
+        log.info("Made {}.created_at NOT NULL", table);
+    }
+}
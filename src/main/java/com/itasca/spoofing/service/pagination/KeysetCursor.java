@@ -0,0 +1,81 @@
+package com.itasca.spoofing.service.pagination;
+
+import com.itasca.spoofing.exception.ProfileValidationException;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by (timestamp, id), passed to clients as an opaque token.
+ *
+ * The next page is read with a range predicate on the index instead of an OFFSET,
+ * so every page costs the same no matter how deep the client has scrolled.
+ */
+@Getter
+@ToString
+public final class KeysetCursor {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 200;
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime timestamp;
+    private final String id;
+
+    private KeysetCursor(LocalDateTime timestamp, String id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public static KeysetCursor of(LocalDateTime timestamp, Object id) {
+        if (timestamp == null || id == null) {
+            throw new IllegalArgumentException("Cursor needs both a timestamp and an id");
+        }
+        return new KeysetCursor(timestamp, id.toString());
+    }
+
+    /**
+     * Decode a token from {@link #encode()}, null or blank means the first page
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 3);
+            if (parts.length != 3 || !VERSION.equals(parts[0]) || parts[2].isEmpty()) {
+                throw new ProfileValidationException("Invalid cursor");
+            }
+            return new KeysetCursor(LocalDateTime.parse(parts[1]), parts[2]);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ProfileValidationException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = VERSION + SEPARATOR + timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Long getLongId() {
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            throw new ProfileValidationException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Page size bounded to 1..{@value #MAX_SIZE}
+     */
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+}
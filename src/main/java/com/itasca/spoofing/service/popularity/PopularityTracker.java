@@ -0,0 +1,119 @@
+package com.itasca.spoofing.service.popularity;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itasca.spoofing.event.ProfileUsageEvent;
+import com.itasca.spoofing.model.PopularityWindow;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Most used groups and profiles, from {@link ProfileUsageEvent}s after commit.
+ *
+ * Usage is counted in {@link SpaceSaving} summaries: all time, per sliding window and
+ * per user, the latter for the most recently active users only. Memory is fixed by the
+ * configured capacities whatever the number of profiles or events. Counts are kept in
+ * memory per instance and start over on restart.
+ */
+@Component
+public class PopularityTracker {
+
+    @Value("${popularity.capacity:1000}")
+    private int capacity;
+
+    @Value("${popularity.window-capacity:200}")
+    private int windowCapacity;
+
+    @Value("${popularity.user-capacity:8}")
+    private int userCapacity;
+
+    @Value("${popularity.max-users:10000}")
+    private long maxUsers;
+
+    private final Map<PopularityWindow, Tracked> groups = new EnumMap<>(PopularityWindow.class);
+    private final Map<PopularityWindow, Tracked> profiles = new EnumMap<>(PopularityWindow.class);
+    private Cache<Long, SpaceSaving> userGroups;
+
+    @PostConstruct
+    public void init() {
+        for (PopularityWindow window : PopularityWindow.values()) {
+            groups.put(window, tracked(window));
+            profiles.put(window, tracked(window));
+        }
+        userGroups = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileUsage(ProfileUsageEvent event) {
+        if (event.getGroupId() != null) {
+            groups.values().forEach(tracked -> tracked.offer(event.getGroupId()));
+            if (event.getUserId() != null) {
+                userGroups.get(event.getUserId(), id -> new SpaceSaving(userCapacity)).offer(event.getGroupId(), 1);
+            }
+        }
+        if (event.getProfileId() != null) {
+            profiles.values().forEach(tracked -> tracked.offer(event.getProfileId()));
+        }
+    }
+
+    /**
+     * The n most used groups in the window, highest first
+     */
+    public List<SpaceSaving.Estimate> topGroups(PopularityWindow window, int n) {
+        return groups.get(window).top(n);
+    }
+
+    /**
+     * The n most used single profiles in the window, highest first
+     */
+    public List<SpaceSaving.Estimate> topProfiles(PopularityWindow window, int n) {
+        return profiles.get(window).top(n);
+    }
+
+    /**
+     * The groups a user used most, highest first, empty for users without recent usage
+     */
+    public List<SpaceSaving.Estimate> topGroupsForUser(Long userId, int n) {
+        SpaceSaving summary = userGroups.getIfPresent(userId);
+        return summary != null ? summary.top(n) : List.of();
+    }
+
+    private Tracked tracked(PopularityWindow window) {
+        if (window.getLength() == null) {
+            return new Tracked(new SpaceSaving(capacity), null);
+        }
+        return new Tracked(null, new WindowedSpaceSaving(window.getLength(), window.getBuckets(), windowCapacity,
+                System::currentTimeMillis));
+    }
+
+    // All-time summary or sliding window, exactly one of them is set
+    private static final class Tracked {
+        private final SpaceSaving allTime;
+        private final WindowedSpaceSaving windowed;
+
+        private Tracked(SpaceSaving allTime, WindowedSpaceSaving windowed) {
+            this.allTime = allTime;
+            this.windowed = windowed;
+        }
+
+        private void offer(String key) {
+            if (allTime != null) {
+                allTime.offer(key, 1);
+            } else {
+                windowed.offer(key, 1);
+            }
+        }
+
+        private List<SpaceSaving.Estimate> top(int n) {
+            return allTime != null ? allTime.top(n) : windowed.top(n);
+        }
+    }
+}
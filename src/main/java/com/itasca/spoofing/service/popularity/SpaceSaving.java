@@ -0,0 +1,171 @@
+package com.itasca.spoofing.service.popularity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy hitters summary with a fixed number of counters.
+ *
+ * A new key takes over the counter of the least counted key once all counters are in
+ * use, starting from that key's count, which is kept as the new key's error. Estimated
+ * counts never undercount, overcount by at most the error, and every key counted more
+ * than total / capacity times is guaranteed to hold a counter.
+ */
+public class SpaceSaving {
+
+    /**
+     * Estimated count of a key; count - error is a lower bound of the true count
+     */
+    public static final class Estimate {
+        private final String key;
+        private final long count;
+        private final long error;
+
+        Estimate(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+    }
+
+    private static final class Counter {
+        private final String key;
+        private long count;
+        private long error;
+
+        private Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private static final Comparator<Counter> BY_COUNT = Comparator
+            .comparingLong((Counter counter) -> counter.count)
+            .thenComparing(counter -> counter.key);
+
+    private static final Comparator<Estimate> HIGHEST_FIRST = Comparator
+            .comparingLong(Estimate::getCount).reversed()
+            .thenComparing(Estimate::getKey);
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byCount = new TreeSet<>(BY_COUNT);
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Count a key weight times
+     */
+    public synchronized void offer(String key, long weight) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count += weight;
+            byCount.add(counter);
+            return;
+        }
+
+        if (counters.size() < capacity) {
+            counter = new Counter(key, weight, 0);
+        } else {
+            Counter evicted = byCount.pollFirst();
+            counters.remove(evicted.key);
+            counter = new Counter(key, evicted.count + weight, evicted.count);
+        }
+        counters.put(key, counter);
+        byCount.add(counter);
+    }
+
+    /**
+     * The n most counted keys, highest first
+     */
+    public List<Estimate> top(int n) {
+        return merge(List.of(this), n);
+    }
+
+    /**
+     * Estimated count of one key, the floor of the summary for keys without a counter
+     */
+    public synchronized Estimate estimate(String key) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            return new Estimate(key, counter.count, counter.error);
+        }
+        long floor = floor();
+        return new Estimate(key, floor, floor);
+    }
+
+    public synchronized void clear() {
+        counters.clear();
+        byCount.clear();
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    /**
+     * The n most counted keys over several summaries, highest first. A key without a
+     * counter in one summary may still have up to that summary's floor there, so the
+     * floor is added to both its count and its error.
+     */
+    public static List<Estimate> merge(Collection<SpaceSaving> summaries, int n) {
+        List<Map<String, Estimate>> snapshots = new ArrayList<>(summaries.size());
+        List<Long> floors = new ArrayList<>(summaries.size());
+        Set<String> keys = new HashSet<>();
+        for (SpaceSaving summary : summaries) {
+            synchronized (summary) {
+                Map<String, Estimate> snapshot = new HashMap<>();
+                summary.counters.values().forEach(counter ->
+                        snapshot.put(counter.key, new Estimate(counter.key, counter.count, counter.error)));
+                snapshots.add(snapshot);
+                floors.add(summary.floor());
+                keys.addAll(snapshot.keySet());
+            }
+        }
+
+        List<Estimate> merged = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            long count = 0;
+            long error = 0;
+            for (int i = 0; i < snapshots.size(); i++) {
+                Estimate estimate = snapshots.get(i).get(key);
+                count += estimate != null ? estimate.count : floors.get(i);
+                error += estimate != null ? estimate.error : floors.get(i);
+            }
+            merged.add(new Estimate(key, count, error));
+        }
+        merged.sort(HIGHEST_FIRST);
+        return merged.subList(0, Math.min(n, merged.size()));
+    }
+
+    // Largest count an uncounted key may have, 0 while counters are free
+    private long floor() {
+        return counters.size() < capacity || byCount.isEmpty() ? 0 : byCount.first().count;
+    }
+}
@@ -0,0 +1,70 @@
+package com.itasca.spoofing.service.popularity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Heavy hitters over a sliding time window.
+ *
+ * The window is split into buckets, each a {@link SpaceSaving} summary of its slice of
+ * time. The bucket of the oldest slice is cleared and reused when time moves on, and
+ * queries merge the buckets still inside the window, so memory is buckets * capacity
+ * counters. The oldest bucket is partly outside the window, which therefore covers
+ * between (buckets - 1) / buckets and all of the configured length.
+ */
+public class WindowedSpaceSaving {
+
+    private final long bucketMillis;
+    private final SpaceSaving[] buckets;
+    private final long[] bucketEpochs;
+    private final LongSupplier clock;
+
+    public WindowedSpaceSaving(Duration window, int bucketCount, int capacity, LongSupplier clock) {
+        if (bucketCount < 1 || window.toMillis() < bucketCount) {
+            throw new IllegalArgumentException("Window must be split into at least one bucket of a millisecond");
+        }
+        this.bucketMillis = window.toMillis() / bucketCount;
+        this.buckets = new SpaceSaving[bucketCount];
+        this.bucketEpochs = new long[bucketCount];
+        this.clock = clock;
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new SpaceSaving(capacity);
+            bucketEpochs[i] = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Count a key weight times now
+     */
+    public void offer(String key, long weight) {
+        long epoch = clock.getAsLong() / bucketMillis;
+        int index = (int) Math.floorMod(epoch, (long) buckets.length);
+        SpaceSaving bucket;
+        synchronized (this) {
+            if (bucketEpochs[index] != epoch) {
+                buckets[index].clear();
+                bucketEpochs[index] = epoch;
+            }
+            bucket = buckets[index];
+        }
+        bucket.offer(key, weight);
+    }
+
+    /**
+     * The n most counted keys inside the window, highest first
+     */
+    public List<SpaceSaving.Estimate> top(int n) {
+        long epoch = clock.getAsLong() / bucketMillis;
+        List<SpaceSaving> live = new ArrayList<>(buckets.length);
+        synchronized (this) {
+            for (int i = 0; i < buckets.length; i++) {
+                if (bucketEpochs[i] > epoch - buckets.length) {
+                    live.add(buckets[i]);
+                }
+            }
+        }
+        return SpaceSaving.merge(live, n);
+    }
+}
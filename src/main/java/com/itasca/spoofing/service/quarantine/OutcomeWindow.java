@@ -0,0 +1,87 @@
+package com.itasca.spoofing.service.quarantine;
+
+import com.itasca.spoofing.model.SessionOutcome;
+
+/**
+ * Ring buffer of the latest session outcomes of one profile with their times.
+ *
+ * Keeps at most capacity outcomes, so the counts cover the last capacity sessions
+ * that fall inside the time window. Not thread safe.
+ */
+public class OutcomeWindow {
+
+    public static final class Tally {
+        private int sessions;
+        private int failures;
+        private int proxyFailures;
+        private int detections;
+
+        public int getSessions() {
+            return sessions;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        public int getProxyFailures() {
+            return proxyFailures;
+        }
+
+        public int getDetections() {
+            return detections;
+        }
+    }
+
+    private final long[] times;
+    private final SessionOutcome[] outcomes;
+    private int next;
+    private int size;
+
+    public OutcomeWindow(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.times = new long[capacity];
+        this.outcomes = new SessionOutcome[capacity];
+    }
+
+    /**
+     * Record an outcome, replacing the oldest once full
+     */
+    public void record(long timeMillis, SessionOutcome outcome) {
+        times[next] = timeMillis;
+        outcomes[next] = outcome;
+        next = (next + 1) % times.length;
+        size = Math.min(size + 1, times.length);
+    }
+
+    /**
+     * Counts of the recorded outcomes at or after the given time
+     */
+    public Tally tally(long sinceMillis) {
+        Tally tally = new Tally();
+        for (int i = 0; i < size; i++) {
+            if (times[i] < sinceMillis) {
+                continue;
+            }
+            tally.sessions++;
+            switch (outcomes[i]) {
+                case PROXY_FAILURE:
+                    tally.proxyFailures++;
+                    tally.failures++;
+                    break;
+                case FINGERPRINT_DETECTION:
+                    tally.detections++;
+                    tally.failures++;
+                    break;
+                case FAILURE:
+                    tally.failures++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return tally;
+    }
+}
@@ -0,0 +1,274 @@
+package com.itasca.spoofing.service.quarantine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itasca.spoofing.model.QuarantineDto;
+import com.itasca.spoofing.model.SessionOutcome;
+import com.itasca.spoofing.service.cache.ClusterMessenger;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Takes profiles that keep failing out of group rotation for a while.
+ *
+ * Every reported session outcome goes into the {@link OutcomeWindow} of its profile and
+ * the window is checked right away. A profile is quarantined when enough of its recent
+ * sessions failed, or on repeated fingerprint detections, and is skipped by group
+ * selection until its cool-off ends. The cool-off doubles for every quarantine that
+ * follows the previous one within max-cool-off. Quarantines live in memory and are
+ * broadcast to the other instances, so every selector skips the profile. The profile
+ * status in the database is left alone.
+ */
+@Component
+@Slf4j
+public class ProfileQuarantine {
+
+    static final String QUARANTINE_TOPIC = "quarantine";
+    private static final String QUARANTINED = "Q";
+    private static final String RELEASED = "R";
+
+    @Value("${quarantine.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quarantine.window-ms:1800000}")
+    private long windowMs;
+
+    // Latest outcomes kept per profile
+    @Value("${quarantine.window-size:20}")
+    private int windowSize;
+
+    // Sessions needed in the window before the failure rate counts
+    @Value("${quarantine.min-sessions:5}")
+    private int minSessions;
+
+    @Value("${quarantine.failure-rate:0.5}")
+    private double failureRate;
+
+    // Fingerprint detections in the window that quarantine regardless of the rate
+    @Value("${quarantine.max-detections:2}")
+    private int maxDetections;
+
+    @Value("${quarantine.cool-off-ms:1800000}")
+    private long coolOffMs;
+
+    @Value("${quarantine.max-cool-off-ms:86400000}")
+    private long maxCoolOffMs;
+
+    @Value("${quarantine.max-profiles:100000}")
+    private long maxProfiles;
+
+    @Autowired(required = false)
+    private ClusterMessenger clusterMessenger;
+
+    private LongSupplier clock = System::currentTimeMillis;
+
+    private Cache<String, OutcomeWindow> windows;
+
+    // Current and recently ended quarantines, the latter to count strikes
+    private final Map<String, Quarantine> quarantines = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        windows = Caffeine.newBuilder()
+                .maximumSize(maxProfiles)
+                .expireAfterAccess(Duration.ofMillis(windowMs))
+                .build();
+        if (enabled && clusterMessenger != null) {
+            clusterMessenger.subscribe(QUARANTINE_TOPIC, this::onRemoteChange);
+        }
+    }
+
+    /**
+     * Record the outcome of a session on a profile, returns whether it quarantined the profile
+     */
+    public boolean record(String profileId, SessionOutcome outcome) {
+        if (!enabled || profileId == null) {
+            return false;
+        }
+        long now = clock.getAsLong();
+        if (isQuarantined(profileId, now)) {
+            // Sessions started before the quarantine say nothing new
+            return false;
+        }
+
+        OutcomeWindow window = windows.get(profileId, id -> new OutcomeWindow(windowSize));
+        OutcomeWindow.Tally tally;
+        synchronized (window) {
+            window.record(now, outcome);
+            tally = window.tally(now - windowMs);
+        }
+
+        String reason = evaluate(tally);
+        if (reason == null) {
+            return false;
+        }
+        quarantine(profileId, reason, now);
+        return true;
+    }
+
+    /**
+     * Whether group selection has to skip the profile
+     */
+    public boolean isQuarantined(String profileId) {
+        return !quarantines.isEmpty() && isQuarantined(profileId, clock.getAsLong());
+    }
+
+    /**
+     * Profiles currently in quarantine, the longest remaining first
+     */
+    public List<QuarantineDto> getQuarantined() {
+        long now = clock.getAsLong();
+        List<QuarantineDto> quarantined = new ArrayList<>();
+        quarantines.forEach((profileId, quarantine) -> {
+            if (quarantine.until > now) {
+                quarantined.add(QuarantineDto.builder()
+                        .profileId(profileId)
+                        .reason(quarantine.reason)
+                        .quarantinedAt(toDateTime(quarantine.since))
+                        .releasedAt(toDateTime(quarantine.until))
+                        .strikes(quarantine.strikes)
+                        .build());
+            }
+        });
+        quarantined.sort(Comparator.comparing(QuarantineDto::getReleasedAt).reversed());
+        return quarantined;
+    }
+
+    /**
+     * End a quarantine early and forget its strikes, returns whether the profile was quarantined
+     */
+    public boolean release(String profileId) {
+        boolean released = releaseLocally(profileId);
+        broadcast(RELEASED + "\n" + profileId);
+        return released;
+    }
+
+    /**
+     * Apply a quarantine started by another instance, the later of it and a local one wins
+     */
+    public void applyRemoteQuarantine(String profileId, long since, long until, int strikes, String reason) {
+        Quarantine remote = new Quarantine(reason, since, until, strikes);
+        quarantines.merge(profileId, remote, (local, incoming) -> incoming.until >= local.until ? incoming : local);
+        windows.invalidate(profileId);
+        log.info("Profile {} quarantined by another instance (strike {}): {}", profileId, strikes, reason);
+    }
+
+    /**
+     * Apply a release made on another instance
+     */
+    public void applyRemoteRelease(String profileId) {
+        releaseLocally(profileId);
+    }
+
+    /**
+     * Forget quarantines that ended too long ago to count as a strike
+     */
+    @Scheduled(fixedDelayString = "${quarantine.purge-interval-ms:600000}")
+    public void purge() {
+        long cutoff = clock.getAsLong() - maxCoolOffMs;
+        quarantines.values().removeIf(quarantine -> quarantine.until < cutoff);
+    }
+
+    void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Why the outcomes in the window call for a quarantine, or null if they do not
+     */
+    private String evaluate(OutcomeWindow.Tally tally) {
+        if (maxDetections > 0 && tally.getDetections() >= maxDetections) {
+            return tally.getDetections() + " fingerprint detections";
+        }
+        if (tally.getSessions() >= minSessions && tally.getFailures() >= failureRate * tally.getSessions()) {
+            return tally.getFailures() + " of " + tally.getSessions() + " sessions failed ("
+                    + tally.getProxyFailures() + " proxy failures, " + tally.getDetections() + " fingerprint detections)";
+        }
+        return null;
+    }
+
+    private void quarantine(String profileId, String reason, long now) {
+        Quarantine quarantine = quarantines.compute(profileId, (id, previous) -> {
+            if (previous != null && previous.until > now) {
+                return previous;
+            }
+            // A repeat offender within max-cool-off of its last release is a further strike
+            int strikes = previous != null && now - previous.until <= maxCoolOffMs ? previous.strikes + 1 : 1;
+            long coolOff = Math.min(coolOffMs << Math.min(strikes - 1, 30), maxCoolOffMs);
+            return new Quarantine(reason, now, now + coolOff, strikes);
+        });
+        // Start over after the cool-off instead of judging the profile on old failures
+        windows.invalidate(profileId);
+        log.warn("Quarantined profile {} for {} s (strike {}): {}",
+                profileId, (quarantine.until - now) / 1000, quarantine.strikes, quarantine.reason);
+        // The reason goes last, it is the only free text field
+        broadcast(String.join("\n", QUARANTINED, profileId, String.valueOf(quarantine.since),
+                String.valueOf(quarantine.until), String.valueOf(quarantine.strikes), quarantine.reason));
+    }
+
+    private boolean releaseLocally(String profileId) {
+        Quarantine quarantine = quarantines.remove(profileId);
+        windows.invalidate(profileId);
+        boolean released = quarantine != null && quarantine.until > clock.getAsLong();
+        if (released) {
+            log.info("Released profile {} from quarantine", profileId);
+        }
+        return released;
+    }
+
+    private void onRemoteChange(String payload) {
+        String[] fields = payload.split("\n", 6);
+        if (QUARANTINED.equals(fields[0]) && fields.length == 6) {
+            applyRemoteQuarantine(fields[1], Long.parseLong(fields[2]), Long.parseLong(fields[3]),
+                    Integer.parseInt(fields[4]), fields[5]);
+        } else if (RELEASED.equals(fields[0]) && fields.length == 2) {
+            applyRemoteRelease(fields[1]);
+        } else {
+            log.warn("Ignoring malformed quarantine message: {}", payload);
+        }
+    }
+
+    private void broadcast(String payload) {
+        if (clusterMessenger != null) {
+            clusterMessenger.broadcast(QUARANTINE_TOPIC, payload);
+        }
+    }
+
+    private boolean isQuarantined(String profileId, long now) {
+        Quarantine quarantine = quarantines.get(profileId);
+        return quarantine != null && quarantine.until > now;
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static final class Quarantine {
+        private final String reason;
+        private final long since;
+        private final long until;
+        private final int strikes;
+
+        private Quarantine(String reason, long since, long until, int strikes) {
+            this.reason = reason;
+            this.since = since;
+            this.until = until;
+            this.strikes = strikes;
+        }
+    }
+}
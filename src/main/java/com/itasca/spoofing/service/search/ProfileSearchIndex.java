@@ -0,0 +1,265 @@
+package com.itasca.spoofing.service.search;
+
+import com.itasca.spoofing.event.ProfileChangedEvent;
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.repository.GroupProfileRepository;
+import com.itasca.spoofing.repository.SingleProfileRepository;
+import com.itasca.spoofing.service.cache.ClusterMessenger;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Embedded search index over single profiles (name, description, operating system,
+ * user agent, WebGL renderer) and group profiles (name, description).
+ *
+ * Both {@link TrigramIndex}es are built in the background once the application is ready
+ * and kept in sync from {@link ProfileChangedEvent}s after commit. Until a build has
+ * finished {@link #isReady()} is false and callers fall back to a database query.
+ *
+ * A rebuild loads fresh indexes while the current ones keep serving, then swaps them in
+ * and reindexes the profiles that changed during the load. Changes are broadcast to the
+ * other instances, which reindex the profiles from the database.
+ */
+@Component
+@Slf4j
+public class ProfileSearchIndex {
+
+    // Name weighs most, then operating system, then the free text fields
+    private static final double[] SINGLE_FIELD_WEIGHTS = {4.0, 1.0, 2.0, 1.0, 1.0};
+    private static final double[] GROUP_FIELD_WEIGHTS = {4.0, 1.0};
+
+    static final String CHANGE_TOPIC = "search";
+    private static final String REBUILD = "*";
+
+    @Autowired
+    private SingleProfileRepository singleProfileRepository;
+
+    @Autowired
+    private GroupProfileRepository groupProfileRepository;
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.index.min-similarity:0.5}")
+    private double minSimilarity;
+
+    @Value("${search.index.build-batch-size:1000}")
+    private int buildBatchSize;
+
+    // Changes with more profiles are broadcast as a rebuild
+    @Value("${search.index.max-broadcast-ids:1000}")
+    private int maxBroadcastIds;
+
+    @Autowired(required = false)
+    private ClusterMessenger clusterMessenger;
+
+    private volatile TrigramIndex singleIndex;
+    private volatile TrigramIndex groupIndex;
+
+    private volatile boolean ready;
+
+    // Profiles changed while a rebuild reads the database
+    private volatile boolean building;
+    private final Set<String> changedSingles = ConcurrentHashMap.newKeySet();
+    private final Set<String> changedGroups = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        if (enabled && clusterMessenger != null) {
+            clusterMessenger.subscribe(CHANGE_TOPIC, this::onRemoteChange);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Profile search index disabled, searches use the database");
+            return;
+        }
+        rebuildInBackground();
+    }
+
+    /**
+     * Rebuild both indexes from the database into new indexes and swap them in
+     */
+    public synchronized void rebuild() {
+        changedSingles.clear();
+        changedGroups.clear();
+        building = true;
+        try {
+            long started = System.currentTimeMillis();
+            TrigramIndex singles = new TrigramIndex(SINGLE_FIELD_WEIGHTS, minSimilarity);
+            TrigramIndex groups = new TrigramIndex(GROUP_FIELD_WEIGHTS, minSimilarity);
+            load(singles, singleProfileRepository::findSearchDocumentsAfter);
+            load(groups, groupProfileRepository::findSearchDocumentsAfter);
+
+            singleIndex = singles;
+            groupIndex = groups;
+            building = false;
+            // Rows read before a change committed are stale in the new indexes
+            reindex(ProfileType.SINGLE, drain(changedSingles));
+            reindex(ProfileType.GROUP, drain(changedGroups));
+            ready = true;
+            log.info("Built profile search index ({} single, {} group profiles) in {} ms",
+                    singles.size(), groups.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Failed to build profile search index, searches use the database: {}", e.getMessage(), e);
+        } finally {
+            building = false;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Search one profile type, see {@link TrigramIndex#search(String, int, int)}
+     */
+    public TrigramIndex.Hits search(ProfileType profileType, String query, int offset, int limit) {
+        if (!ready) {
+            throw new IllegalStateException("Profile search index is not ready");
+        }
+        return indexFor(profileType).search(query, offset, limit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(ProfileChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ProfileType profileType = event.getProfileType();
+        switch (event.getChangeType()) {
+            case DELETED:
+                record(profileType, event.getProfileIds());
+                TrigramIndex index = indexFor(profileType);
+                if (index != null) {
+                    event.getProfileIds().forEach(index::remove);
+                }
+                break;
+            case CREATED:
+            case UPDATED:
+                record(profileType, event.getProfileIds());
+                reindex(profileType, event.getProfileIds());
+                break;
+            case MEMBERSHIP_CHANGED:
+                // Group updates publish membership changes, which may carry a new name or description
+                if (profileType != ProfileType.GROUP) {
+                    return;
+                }
+                record(profileType, event.getProfileIds());
+                reindex(profileType, event.getProfileIds());
+                break;
+            default:
+                // Status and weight changes do not touch indexed fields
+                return;
+        }
+        broadcast(profileType, event.getProfileIds());
+    }
+
+    /**
+     * Change from another instance: the type followed by the changed IDs, one per line, or a rebuild request
+     */
+    private void onRemoteChange(String payload) {
+        String[] lines = payload.split("\n");
+        if (lines.length == 2 && REBUILD.equals(lines[1])) {
+            rebuildInBackground();
+            return;
+        }
+        ProfileType profileType = ProfileType.valueOf(lines[0]);
+        List<String> ids = Arrays.asList(lines).subList(1, lines.length);
+        record(profileType, ids);
+        reindex(profileType, ids);
+    }
+
+    private void broadcast(ProfileType profileType, Collection<String> ids) {
+        if (clusterMessenger == null || ids.isEmpty()) {
+            return;
+        }
+        String changed = ids.size() > maxBroadcastIds ? REBUILD : String.join("\n", ids);
+        clusterMessenger.broadcast(CHANGE_TOPIC, profileType.name() + "\n" + changed);
+    }
+
+    private void record(ProfileType profileType, Collection<String> ids) {
+        if (building) {
+            (profileType == ProfileType.GROUP ? changedGroups : changedSingles).addAll(ids);
+        }
+    }
+
+    /**
+     * Load the given profiles from the database into the current index, removing the ones that are gone
+     */
+    private void reindex(ProfileType profileType, Collection<String> ids) {
+        TrigramIndex index = indexFor(profileType);
+        if (index == null || ids.isEmpty()) {
+            return;
+        }
+        List<String> remaining = new ArrayList<>(ids);
+        for (int from = 0; from < remaining.size(); from += buildBatchSize) {
+            List<String> batch = remaining.subList(from, Math.min(from + buildBatchSize, remaining.size()));
+            List<Object[]> rows = profileType == ProfileType.GROUP
+                    ? groupProfileRepository.findSearchDocuments(batch)
+                    : singleProfileRepository.findSearchDocuments(batch);
+
+            Set<String> missing = new HashSet<>(batch);
+            for (Object[] row : rows) {
+                put(index, row);
+                missing.remove((String) row[0]);
+            }
+            missing.forEach(index::remove);
+        }
+    }
+
+    private void rebuildInBackground() {
+        Thread builder = new Thread(this::rebuild, "profile-search-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    private static List<String> drain(Set<String> changed) {
+        List<String> ids = new ArrayList<>(changed);
+        ids.forEach(changed::remove);
+        return ids;
+    }
+
+    private void load(TrigramIndex index, BiFunction<String, Limit, List<Object[]>> pageAfter) {
+        String afterId = "";
+        List<Object[]> rows;
+        do {
+            rows = pageAfter.apply(afterId, Limit.of(buildBatchSize));
+            for (Object[] row : rows) {
+                put(index, row);
+            }
+            if (!rows.isEmpty()) {
+                afterId = (String) rows.get(rows.size() - 1)[0];
+            }
+        } while (rows.size() == buildBatchSize);
+    }
+
+    private static void put(TrigramIndex index, Object[] row) {
+        String[] fields = Arrays.stream(row, 1, row.length)
+                .map(value -> value == null ? null : value.toString())
+                .toArray(String[]::new);
+        index.put((String) row[0], fields);
+    }
+
+    private TrigramIndex indexFor(ProfileType profileType) {
+        return profileType == ProfileType.GROUP ? groupIndex : singleIndex;
+    }
+}
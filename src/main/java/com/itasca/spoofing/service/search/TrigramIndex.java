@@ -0,0 +1,452 @@
+package com.itasca.spoofing.service.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over a fixed set of weighted text fields per document.
+ *
+ * Text is lowercased and split into words; every word is padded with two leading spaces
+ * so that word prefixes produce their own trigrams ("chr" matches "Chrome" via "  c", " ch", "chr").
+ * Posting lists hold sorted document slots, so candidate lookup never touches the database.
+ * Slots of removed documents are reused by later ones, so the lists stay as dense as the index.
+ * Candidates are then scored per query term against each field: the share of the term's
+ * trigrams found in the field, plus a bonus for a word prefix or whole word match. Terms
+ * are combined with AND and a term whose best similarity is below the minimum rejects the
+ * document, which keeps fuzzy matching to near misses such as one typo.
+ */
+public final class TrigramIndex {
+
+    private static final double PREFIX_BONUS = 1.0;
+    private static final double WORD_BONUS = 0.5;
+    private static final int[] NO_SLOTS = new int[0];
+
+    private final double[] fieldWeights;
+    private final double minSimilarity;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> slotsById = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final List<String> ids = new ArrayList<>();
+    private final List<String[]> documents = new ArrayList<>();
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    /**
+     * Create an index whose documents have one field per weight
+     */
+    public TrigramIndex(double[] fieldWeights, double minSimilarity) {
+        if (fieldWeights.length == 0) {
+            throw new IllegalArgumentException("At least one field is required");
+        }
+        if (minSimilarity <= 0 || minSimilarity > 1) {
+            throw new IllegalArgumentException("Minimum similarity must be in (0, 1]");
+        }
+        this.fieldWeights = fieldWeights.clone();
+        this.minSimilarity = minSimilarity;
+    }
+
+    /**
+     * Add or replace a document, null fields are indexed as empty
+     */
+    public void put(String id, String... fields) {
+        if (fields.length != fieldWeights.length) {
+            throw new IllegalArgumentException("Expected " + fieldWeights.length + " fields, got " + fields.length);
+        }
+        String[] normalized = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            normalized[i] = normalize(fields[i]);
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.get(id);
+            if (slot == null) {
+                slot = allocateSlot(id);
+            } else {
+                unindex(slot);
+            }
+            documents.set(slot, normalized);
+            for (String gram : documentGrams(normalized)) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a document, unknown IDs are ignored
+     */
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.remove(id);
+            if (slot != null) {
+                unindex(slot);
+                documents.set(slot, null);
+                ids.set(slot, null);
+                if (freeCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+                }
+                freeSlots[freeCount++] = slot;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove every document and release their slots
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slotsById.clear();
+            postings.clear();
+            ids.clear();
+            documents.clear();
+            freeCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank documents matching every term of the query and return one page of their IDs.
+     * Ties are broken by the first field, then by ID, so pages are stable.
+     */
+    public Hits search(String query, int offset, int limit) {
+        List<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            return new Hits(0, List.of());
+        }
+
+        List<String[]> termGrams = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            termGrams.add(queryGrams(term));
+        }
+
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot : candidates(termGrams)) {
+                String[] document = documents.get(slot);
+                double score = score(document, terms, termGrams);
+                if (score > 0) {
+                    matches.add(new Match(ids.get(slot), document[0], score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingDouble(Match::score).reversed()
+                .thenComparing(Match::sortKey)
+                .thenComparing(Match::id));
+
+        int from = Math.min(Math.max(offset, 0), matches.size());
+        int to = Math.min(from + Math.max(limit, 0), matches.size());
+        List<String> page = new ArrayList<>(to - from);
+        for (Match match : matches.subList(from, to)) {
+            page.add(match.id());
+        }
+        return new Hits(matches.size(), page);
+    }
+
+    // Slots sharing enough trigrams with every term, terms with the rarest trigrams first
+    private int[] candidates(List<String[]> termGrams) {
+        List<TermPostings> terms = new ArrayList<>(termGrams.size());
+        for (String[] grams : termGrams) {
+            TermPostings term = termPostings(grams);
+            if (term == null) {
+                return NO_SLOTS;
+            }
+            terms.add(term);
+        }
+        terms.sort(Comparator.comparingLong(TermPostings::seedBound));
+
+        int[] result = null;
+        for (TermPostings term : terms) {
+            result = term.match(result);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result == null ? NO_SLOTS : result;
+    }
+
+    // Posting lists of a term's trigrams, rarest first, or null if too few of them occur
+    private TermPostings termPostings(String[] grams) {
+        int required = Math.max(1, (int) Math.ceil(grams.length * minSimilarity));
+        List<Postings> lists = new ArrayList<>(grams.length);
+        for (String gram : grams) {
+            Postings list = postings.get(gram);
+            if (list != null) {
+                lists.add(list);
+            }
+        }
+        if (lists.size() < required) {
+            return null;
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        return new TermPostings(lists.toArray(new Postings[0]), required);
+    }
+
+    private double score(String[] document, List<String> terms, List<String[]> termGrams) {
+        double total = 0;
+        for (int t = 0; t < terms.size(); t++) {
+            String prefix = "  " + terms.get(t);
+            String word = prefix + " ";
+            String[] grams = termGrams.get(t);
+
+            double best = 0;
+            double bestSimilarity = 0;
+            for (int f = 0; f < document.length; f++) {
+                String field = document[f];
+                if (field.isEmpty()) {
+                    continue;
+                }
+                int found = 0;
+                for (String gram : grams) {
+                    if (field.contains(gram)) {
+                        found++;
+                    }
+                }
+                double similarity = (double) found / grams.length;
+                double bonus = field.contains(word) ? PREFIX_BONUS + WORD_BONUS
+                        : field.contains(prefix) ? PREFIX_BONUS : 0;
+                best = Math.max(best, fieldWeights[f] * (similarity + bonus));
+                bestSimilarity = Math.max(bestSimilarity, similarity);
+            }
+            if (bestSimilarity < minSimilarity) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private int allocateSlot(String id) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+            ids.set(slot, id);
+        } else {
+            slot = ids.size();
+            ids.add(id);
+            documents.add(null);
+        }
+        slotsById.put(id, slot);
+        return slot;
+    }
+
+    private void unindex(int slot) {
+        for (String gram : documentGrams(documents.get(slot))) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(slot) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> documentGrams(String[] fields) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i + 3 <= field.length(); i++) {
+                String gram = field.substring(i, i + 3);
+                if (!gram.isBlank()) {
+                    grams.add(gram);
+                }
+            }
+        }
+        return grams;
+    }
+
+    // Trigrams of a padded query term; no trailing pad so a term also matches longer words
+    private static String[] queryGrams(String term) {
+        String padded = "  " + term;
+        String[] grams = new String[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = padded.substring(i, i + 3);
+        }
+        return grams;
+    }
+
+    private static List<String> terms(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && !terms.contains(word)) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    // Words joined and led by two spaces with a trailing space, e.g. "  intel  uhd  620 "
+    static String normalize(String text) {
+        List<String> words = terms(text);
+        if (words.isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (String word : words) {
+            builder.append("  ").append(word);
+        }
+        return builder.append(' ').toString();
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * One page of matching document IDs and the total number of matches
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Hits {
+        private final int total;
+        private final List<String> ids;
+    }
+
+    private record Match(String id, String sortKey, double score) {
+    }
+
+    /**
+     * Posting lists of one query term, rarest first. A slot matches if it is in at least
+     * {@code required} of them, so it must be in one of the first
+     * {@code lists.length - required + 1} lists, whose union seeds the candidates.
+     */
+    private record TermPostings(Postings[] lists, int required) {
+
+        long seedBound() {
+            long bound = 0;
+            for (int i = 0; i <= lists.length - required; i++) {
+                bound += lists[i].size;
+            }
+            return bound;
+        }
+
+        // Matching slots among the given sorted slots, or among all slots if null
+        int[] match(int[] within) {
+            int[] seeds;
+            if (within != null && within.length <= seedBound()) {
+                seeds = within;
+            } else {
+                seeds = union(lists.length - required + 1);
+                if (within != null) {
+                    seeds = intersect(seeds, within);
+                }
+            }
+
+            int[] out = new int[seeds.length];
+            int n = 0;
+            for (int slot : seeds) {
+                int found = 0;
+                for (int i = 0; i < lists.length && found + lists.length - i >= required; i++) {
+                    if (lists[i].contains(slot) && ++found >= required) {
+                        break;
+                    }
+                }
+                if (found >= required) {
+                    out[n++] = slot;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+
+        // Sorted distinct slots of the first count lists
+        private int[] union(int count) {
+            if (count == 1) {
+                return Arrays.copyOf(lists[0].slots, lists[0].size);
+            }
+            int[] all = new int[(int) seedBound()];
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                System.arraycopy(lists[i].slots, 0, all, n, lists[i].size);
+                n += lists[i].size;
+            }
+            Arrays.sort(all, 0, n);
+            int distinct = 0;
+            for (int i = 0; i < n; i++) {
+                if (distinct == 0 || all[i] != all[distinct - 1]) {
+                    all[distinct++] = all[i];
+                }
+            }
+            return Arrays.copyOf(all, distinct);
+        }
+    }
+
+    // Sorted, growable array of document slots
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            int index = Arrays.binarySearch(slots, 0, size, slot);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, index, slots, index + 1, size - index);
+            slots[index] = slot;
+            size++;
+        }
+
+        boolean contains(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+
+        boolean remove(int slot) {
+            int index = Arrays.binarySearch(slots, 0, size, slot);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.itasca.spoofing.service.selection;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Walker/Vose alias table for O(1) sampling from a discrete weighted distribution.
+ * Built once in O(n) and immutable afterwards, so it can be shared between threads.
+ */
+public final class AliasTable {
+
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+     * Build a table over the given non-negative weights. At least one weight must be positive.
+     */
+    public AliasTable(int[] weights) {
+        int n = weights.length;
+        long total = 0;
+        for (int weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights cannot be negative");
+            }
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+
+        this.probability = new double[n];
+        this.alias = new int[n];
+
+        // Scale so the average bucket is exactly 1.0
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = (double) weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Whatever is left is full up to floating point error
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1.0;
+        }
+    }
+
+    /**
+     * Sample an index with probability proportional to its weight
+     */
+    public int sample() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    public int size() {
+        return probability.length;
+    }
+}
@@ -0,0 +1,168 @@
+package com.itasca.spoofing.service.selection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Immutable view of a group's members used for profile selection.
+ * All members are kept (with their active flag and weight) so status and weight
+ * changes can be applied in memory without reloading the group from the database.
+ */
+public final class GroupSelectionSnapshot {
+
+    public static final int DEFAULT_WEIGHT = 1;
+
+    // Draws before random and weighted picks fall back to a scan for a selectable member
+    private static final int REDRAWS = 3;
+
+    private final String selectionMode;
+    private final String[] memberIds;
+    private final boolean[] memberActive;
+    private final int[] memberWeights;
+    private final String[] activeIds;
+
+    // Active members with a positive weight and their alias table, weighted mode only
+    private final String[] weightedIds;
+    private final AliasTable aliasTable;
+
+    public GroupSelectionSnapshot(String selectionMode, String[] memberIds, boolean[] memberActive, int[] memberWeights) {
+        this.selectionMode = selectionMode != null ? selectionMode.toLowerCase() : "random";
+        this.memberIds = memberIds;
+        this.memberActive = memberActive;
+        this.memberWeights = memberWeights;
+
+        List<String> active = new ArrayList<>(memberIds.length);
+        for (int i = 0; i < memberIds.length; i++) {
+            if (memberActive[i]) {
+                active.add(memberIds[i]);
+            }
+        }
+        this.activeIds = active.toArray(new String[0]);
+
+        if ("weighted".equals(this.selectionMode)) {
+            List<String> ids = new ArrayList<>(activeIds.length);
+            int[] weights = new int[activeIds.length];
+            for (int i = 0; i < memberIds.length; i++) {
+                if (memberActive[i] && memberWeights[i] > 0) {
+                    weights[ids.size()] = memberWeights[i];
+                    ids.add(memberIds[i]);
+                }
+            }
+            this.weightedIds = ids.toArray(new String[0]);
+            this.aliasTable = ids.isEmpty() ? null : new AliasTable(Arrays.copyOf(weights, ids.size()));
+        } else {
+            this.weightedIds = null;
+            this.aliasTable = null;
+        }
+    }
+
+    /**
+     * Pick the next active member ID, or null if the group has no selectable members
+     */
+    public String pick(AtomicLong cursor) {
+        return pick(cursor, null);
+    }
+
+    /**
+     * Pick the next active member ID that is not excluded, or null if there is none.
+     * Excluded members are skipped without changing the odds of the others much:
+     * sequential mode moves on to the next member, random and weighted modes draw again
+     * a few times and then take the first selectable member after a random position.
+     */
+    public String pick(AtomicLong cursor, Predicate<String> excluded) {
+        int size = activeIds.length;
+        if (size == 0) {
+            return null;
+        }
+
+        switch (selectionMode) {
+            case "sequential":
+                for (int attempt = 0; attempt < size; attempt++) {
+                    String id = activeIds[(int) Math.floorMod(cursor.getAndIncrement(), (long) size)];
+                    if (excluded == null || !excluded.test(id)) {
+                        return id;
+                    }
+                }
+                return null;
+            case "weighted":
+                if (aliasTable == null) {
+                    return null;
+                }
+                for (int attempt = 0; attempt < REDRAWS; attempt++) {
+                    String id = weightedIds[aliasTable.sample()];
+                    if (excluded == null || !excluded.test(id)) {
+                        return id;
+                    }
+                }
+                return firstSelectable(weightedIds, excluded);
+            case "random":
+            default:
+                for (int attempt = 0; attempt < REDRAWS; attempt++) {
+                    String id = activeIds[ThreadLocalRandom.current().nextInt(size)];
+                    if (excluded == null || !excluded.test(id)) {
+                        return id;
+                    }
+                }
+                return firstSelectable(activeIds, excluded);
+        }
+    }
+
+    /**
+     * Copy of this snapshot with the given member marked active or inactive
+     */
+    public GroupSelectionSnapshot withMemberStatus(String profileId, boolean active) {
+        boolean[] updated = memberActive.clone();
+        boolean changed = false;
+        for (int i = 0; i < memberIds.length; i++) {
+            if (memberIds[i].equals(profileId) && updated[i] != active) {
+                updated[i] = active;
+                changed = true;
+            }
+        }
+        return changed ? new GroupSelectionSnapshot(selectionMode, memberIds, updated, memberWeights) : this;
+    }
+
+    /**
+     * Copy of this snapshot with new weights for the given members, other members keep their weight
+     */
+    public GroupSelectionSnapshot withMemberWeights(Map<String, Integer> weights) {
+        int[] updated = memberWeights.clone();
+        boolean changed = false;
+        for (int i = 0; i < memberIds.length; i++) {
+            Integer weight = weights.get(memberIds[i]);
+            if (weight != null && updated[i] != weight) {
+                updated[i] = weight;
+                changed = true;
+            }
+        }
+        return changed ? new GroupSelectionSnapshot(selectionMode, memberIds, memberActive, updated) : this;
+    }
+
+    private static String firstSelectable(String[] ids, Predicate<String> excluded) {
+        int start = ThreadLocalRandom.current().nextInt(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            String id = ids[(start + i) % ids.length];
+            if (!excluded.test(id)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    public String getSelectionMode() {
+        return selectionMode;
+    }
+
+    public String[] getMemberIds() {
+        return memberIds.clone();
+    }
+
+    public int getActiveCount() {
+        return activeIds.length;
+    }
+}
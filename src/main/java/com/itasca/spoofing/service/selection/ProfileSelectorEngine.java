@@ -0,0 +1,246 @@
+package com.itasca.spoofing.service.selection;
+
+import com.itasca.spoofing.event.ProfileChangedEvent;
+import com.itasca.spoofing.exception.ProfileNotFoundException;
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.repository.GroupProfileRepository;
+import com.itasca.spoofing.service.quarantine.ProfileQuarantine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory profile selection for group rotation.
+ *
+ * Each group is backed by an immutable {@link GroupSelectionSnapshot} loaded once
+ * from the database and replaced when a {@link ProfileChangedEvent} touches the
+ * group or one of its members. Selections only read the snapshot and advance an
+ * atomic cursor, so they never hit the database. Members in {@link ProfileQuarantine}
+ * are skipped.
+ *
+ * A reverse index maps members to the groups whose installed snapshot contains them,
+ * so member changes reach those groups. Entries are added when a snapshot is installed
+ * and removed when it is dropped.
+ */
+@Component
+@Slf4j
+public class ProfileSelectorEngine {
+
+    @Autowired
+    private GroupProfileRepository groupProfileRepository;
+
+    @Autowired
+    private ProfileQuarantine profileQuarantine;
+
+    private final Map<String, GroupSelector> selectors = new ConcurrentHashMap<>();
+
+    // Reverse index of profile ID -> IDs of loaded groups containing it
+    private final Map<String, Set<String>> groupsByMember = new ConcurrentHashMap<>();
+
+    // Bumped on every member status change, a load that saw one may have read the old status
+    private final AtomicLong memberChanges = new AtomicLong();
+
+    /**
+     * Select the next profile ID from a group, or null if no member is active and out of quarantine
+     */
+    public String selectNextProfileId(String groupId) {
+        GroupSelector selector = selectors.computeIfAbsent(groupId, id -> new GroupSelector());
+        GroupSelectionSnapshot snapshot = selector.snapshot;
+        if (snapshot == null) {
+            snapshot = load(groupId, selector);
+        }
+        return snapshot.pick(selector.cursor, profileQuarantine::isQuarantined);
+    }
+
+    /**
+     * Drop the snapshot of a group so it is reloaded on next selection
+     */
+    public void invalidateGroup(String groupId) {
+        GroupSelector selector = selectors.get(groupId);
+        if (selector != null) {
+            synchronized (selector) {
+                selector.generation++;
+                if (selector.snapshot != null) {
+                    unindex(groupId, selector.snapshot);
+                    selector.snapshot = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Forget a group that no longer exists
+     */
+    public void removeGroup(String groupId) {
+        invalidateGroup(groupId);
+        selectors.remove(groupId);
+    }
+
+    /**
+     * IDs of the loaded groups containing any of the profiles
+     */
+    public Set<String> groupsContaining(Collection<String> profileIds) {
+        Set<String> groupIds = new HashSet<>();
+        for (String profileId : profileIds) {
+            groupIds.addAll(groupsByMember.getOrDefault(profileId, Set.of()));
+        }
+        return groupIds;
+    }
+
+    /**
+     * Drop all snapshots
+     */
+    public void invalidateAll() {
+        selectors.keySet().forEach(this::invalidateGroup);
+    }
+
+    /**
+     * Apply member weight changes to a loaded group
+     */
+    public void updateMemberWeights(String groupId, Map<String, Integer> weights) {
+        GroupSelector selector = selectors.get(groupId);
+        if (selector == null) {
+            return;
+        }
+        synchronized (selector) {
+            selector.generation++;
+            if (selector.snapshot != null) {
+                selector.snapshot = selector.snapshot.withMemberWeights(weights);
+            }
+        }
+    }
+
+    /**
+     * Apply a member status change to every loaded group containing the profile
+     */
+    public void updateMemberStatus(String profileId, boolean active) {
+        memberChanges.incrementAndGet();
+        for (String groupId : groupsByMember.getOrDefault(profileId, Set.of())) {
+            GroupSelector selector = selectors.get(groupId);
+            if (selector == null) {
+                continue;
+            }
+            synchronized (selector) {
+                // Bump the generation so an in-flight load cannot install older member data
+                selector.generation++;
+                if (selector.snapshot != null) {
+                    selector.snapshot = selector.snapshot.withMemberStatus(profileId, active);
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(ProfileChangedEvent event) {
+        if (event.getProfileType() == ProfileType.GROUP) {
+            if (event.getChangeType() == ProfileChangedEvent.ChangeType.DELETED) {
+                event.getProfileIds().forEach(this::removeGroup);
+            } else if (event.getChangeType() == ProfileChangedEvent.ChangeType.WEIGHTS_CHANGED) {
+                event.getProfileIds().forEach(groupId -> updateMemberWeights(groupId, event.getMemberWeights()));
+            } else {
+                event.getProfileIds().forEach(this::invalidateGroup);
+            }
+            return;
+        }
+
+        switch (event.getChangeType()) {
+            case STATUS_CHANGED:
+                boolean active = "Active".equals(event.getStatus());
+                event.getProfileIds().forEach(profileId -> updateMemberStatus(profileId, active));
+                break;
+            case DELETED:
+                // Dropping the snapshots also drops their index entries
+                groupsContaining(event.getProfileIds()).forEach(this::invalidateGroup);
+                break;
+            default:
+                // Creation and plain field updates do not affect selection
+                break;
+        }
+    }
+
+    private GroupSelectionSnapshot load(String groupId, GroupSelector selector) {
+        int generation;
+        synchronized (selector) {
+            generation = selector.generation;
+        }
+        long changes = memberChanges.get();
+
+        String selectionMode = groupProfileRepository.findSelectionModeById(groupId)
+                .orElseThrow(() -> {
+                    selectors.remove(groupId, selector);
+                    return new ProfileNotFoundException("Group not found: " + groupId);
+                });
+
+        List<Object[]> members = groupProfileRepository.findMemberStatuses(groupId);
+        String[] memberIds = new String[members.size()];
+        boolean[] memberActive = new boolean[members.size()];
+        for (int i = 0; i < members.size(); i++) {
+            memberIds[i] = (String) members.get(i)[0];
+            memberActive[i] = "Active".equals(members.get(i)[1]);
+        }
+
+        int[] memberWeights = new int[members.size()];
+        Arrays.fill(memberWeights, GroupSelectionSnapshot.DEFAULT_WEIGHT);
+        if ("weighted".equalsIgnoreCase(selectionMode)) {
+            Map<String, Integer> explicitWeights = new HashMap<>();
+            for (Object[] row : groupProfileRepository.findMemberWeights(groupId)) {
+                explicitWeights.put((String) row[0], (Integer) row[1]);
+            }
+            for (int i = 0; i < memberIds.length; i++) {
+                memberWeights[i] = explicitWeights.getOrDefault(memberIds[i], GroupSelectionSnapshot.DEFAULT_WEIGHT);
+            }
+        }
+
+        GroupSelectionSnapshot snapshot = new GroupSelectionSnapshot(selectionMode, memberIds, memberActive, memberWeights);
+        synchronized (selector) {
+            // Skip installing when the group or a member changed during the load, the next selection loads again
+            if (selector.generation == generation && memberChanges.get() == changes && selectors.get(groupId) == selector) {
+                if (selector.snapshot != null) {
+                    unindex(groupId, selector.snapshot);
+                }
+                selector.snapshot = snapshot;
+                index(groupId, snapshot);
+            }
+        }
+
+        log.debug("Loaded selection snapshot for group {} ({} members, {} active)",
+                groupId, memberIds.length, snapshot.getActiveCount());
+        return snapshot;
+    }
+
+    private void index(String groupId, GroupSelectionSnapshot snapshot) {
+        for (String memberId : snapshot.getMemberIds()) {
+            groupsByMember.compute(memberId, (id, groupIds) -> {
+                Set<String> updated = groupIds != null ? groupIds : ConcurrentHashMap.newKeySet();
+                updated.add(groupId);
+                return updated;
+            });
+        }
+    }
+
+    private void unindex(String groupId, GroupSelectionSnapshot snapshot) {
+        for (String memberId : snapshot.getMemberIds()) {
+            groupsByMember.computeIfPresent(memberId, (id, groupIds) -> {
+                groupIds.remove(groupId);
+                return groupIds.isEmpty() ? null : groupIds;
+            });
+        }
+    }
+
+    private static final class GroupSelector {
+        private final AtomicLong cursor = new AtomicLong();
+        private volatile GroupSelectionSnapshot snapshot;
+        private int generation;
+    }
+}
@@ -0,0 +1,143 @@
+package com.itasca.spoofing.service.session;
+
+import com.itasca.spoofing.event.SessionLeaseEvent;
+import com.itasca.spoofing.service.SessionLeaseService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reclaims expired session leases.
+ *
+ * Leases acquired or renewed on this instance are tracked in a {@link DelayQueue}
+ * and reclaimed by a single background thread as soon as they expire. A periodic
+ * database sweep backs this up for leases created on other instances or lost on
+ * restart, and resets group session counters from the remaining leases.
+ */
+@Component
+@Slf4j
+public class SessionLeaseReaper {
+
+    @Autowired
+    private SessionLeaseService sessionLeaseService;
+
+    private final DelayQueue<LeaseExpiry> expiryQueue = new DelayQueue<>();
+
+    // Latest known deadline per lease, older queue entries for the same lease are skipped
+    private final Map<String, Long> deadlines = new ConcurrentHashMap<>();
+
+    private Thread reaperThread;
+
+    @PostConstruct
+    public void start() {
+        reaperThread = new Thread(this::reapLoop, "session-lease-reaper");
+        reaperThread.setDaemon(true);
+        reaperThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reaperThread != null) {
+            reaperThread.interrupt();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionLeaseEvent(SessionLeaseEvent event) {
+        if (event.getType() == SessionLeaseEvent.Type.RELEASED) {
+            deadlines.remove(event.getLeaseId());
+            return;
+        }
+
+        // Round up so the lease is past its expiry in the database when the entry fires
+        long deadline = event.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + 1;
+        deadlines.put(event.getLeaseId(), deadline);
+        expiryQueue.offer(new LeaseExpiry(event.getLeaseId(), deadline));
+    }
+
+    /**
+     * Database backstop for leases this instance is not tracking
+     */
+    @Scheduled(fixedDelayString = "${session.lease.sweep-interval-ms:60000}",
+            initialDelayString = "${session.lease.sweep-interval-ms:60000}")
+    public void sweep() {
+        try {
+            int reclaimed = sessionLeaseService.reclaimExpiredLeases();
+            // One transaction per group, so a correction only locks the group it corrects
+            int corrected = 0;
+            for (String groupId : sessionLeaseService.findMiscountedGroupIds()) {
+                if (sessionLeaseService.reconcileSessionCount(groupId)) {
+                    corrected++;
+                }
+            }
+            if (reclaimed > 0 || corrected > 0) {
+                log.info("Lease sweep reclaimed {} leases and corrected {} group counters", reclaimed, corrected);
+            }
+        } catch (Exception e) {
+            log.error("Error sweeping expired session leases: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Number of leases this instance is tracking
+     */
+    public int getTrackedLeaseCount() {
+        return deadlines.size();
+    }
+
+    private void reapLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            LeaseExpiry expiry;
+            try {
+                expiry = expiryQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            Long deadline = deadlines.get(expiry.leaseId);
+            if (deadline == null || deadline > expiry.deadline) {
+                // Released, or renewed and queued again with a later deadline
+                continue;
+            }
+
+            try {
+                sessionLeaseService.reclaimIfExpired(expiry.leaseId);
+                deadlines.remove(expiry.leaseId, deadline);
+            } catch (Exception e) {
+                log.error("Error reclaiming session lease {}: {}", expiry.leaseId, e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final class LeaseExpiry implements Delayed {
+        private final String leaseId;
+        private final long deadline;
+
+        private LeaseExpiry(String leaseId, long deadline) {
+            this.leaseId = leaseId;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadline, ((LeaseExpiry) other).deadline);
+        }
+    }
+}
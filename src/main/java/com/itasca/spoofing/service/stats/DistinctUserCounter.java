@@ -0,0 +1,312 @@
+package com.itasca.spoofing.service.stats;
+
+import com.itasca.spoofing.entity.ProfileStatsRollupEntity;
+import com.itasca.spoofing.event.ProfileUsageEvent;
+import com.itasca.spoofing.model.UsageSubject;
+import com.itasca.spoofing.repository.DistinctUserSketchRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Number of distinct users per profile, per group and fleet-wide, per day and over ranges of days.
+ *
+ * Each (subject, day) has a {@link HyperLogLog} sketch, a few KB whatever the number of
+ * users, and a range is counted by merging the sketches of its days. Users of
+ * {@link ProfileUsageEvent}s are buffered per sketch and merged into the stored sketches
+ * on every stats flush; the version of the row lets instances merge into the same sketch.
+ * Counts therefore lag by at most one flush interval.
+ *
+ * With stats.distinct-users.redis.enabled the sketches are Redis HyperLogLogs instead,
+ * added to with PFADD and counted with PFCOUNT, which merges the days itself. Events seen
+ * while Redis is unreachable are not counted.
+ */
+@Component
+@Slf4j
+public class DistinctUserCounter {
+
+    private static final int LOOKUP_BATCH_SIZE = 500;
+
+    @Autowired
+    private DistinctUserSketchRepository sketchRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${stats.distinct-users.precision:13}")
+    private int precision;
+
+    @Value("${stats.distinct-users.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    @Value("${stats.distinct-users.redis.key-prefix:spoofing:distinct-users}")
+    private String redisKeyPrefix;
+
+    @Value("${stats.distinct-users.redis.retention-days:90}")
+    private int redisRetentionDays;
+
+    @Value("${stats.distinct-users.redis.retry-after-ms:30000}")
+    private long redisRetryMs;
+
+    private final Map<SketchKey, Set<Long>> pending = new ConcurrentHashMap<>();
+
+    private volatile long redisDownUntil;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileUsage(ProfileUsageEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        if (event.getProfileId() != null) {
+            add(UsageSubject.PROFILE, event.getProfileId(), today, event.getUserId());
+        }
+        if (event.getGroupId() != null) {
+            add(UsageSubject.GROUP, event.getGroupId(), today, event.getUserId());
+        }
+        add(UsageSubject.PROFILE, ProfileStatsRollupEntity.FLEET_PROFILE_ID, today, event.getUserId());
+    }
+
+    /**
+     * Count a user of a subject on a day
+     */
+    public void add(UsageSubject subject, String subjectId, LocalDate date, long userId) {
+        if (redisEnabled) {
+            addToRedis(subject, subjectId, date, userId);
+            return;
+        }
+        // compute is atomic with the remove in drain, so no user is added to a drained set
+        pending.compute(new SketchKey(subject, subjectId, date), (key, users) -> {
+            Set<Long> set = users != null ? users : new HashSet<>();
+            set.add(userId);
+            return set;
+        });
+    }
+
+    /**
+     * Estimated number of distinct users of a subject over the days from through to,
+     * null when Redis is enabled but unreachable
+     */
+    public Long count(UsageSubject subject, String subjectId, LocalDate from, LocalDate to) {
+        if (redisEnabled) {
+            return countInRedis(subject, subjectId, from, to);
+        }
+        HyperLogLog merged = null;
+        for (byte[] bytes : sketchRepository.findSketches(subject, subjectId, from, to)) {
+            HyperLogLog sketch = HyperLogLog.fromBytes(bytes);
+            if (merged == null) {
+                merged = sketch;
+            } else if (sketch.getPrecision() < merged.getPrecision()) {
+                // Sketches written before a precision change merge at the lower precision
+                sketch.merge(merged);
+                merged = sketch;
+            } else {
+                merged.merge(sketch);
+            }
+        }
+        return merged != null ? merged.estimate() : 0L;
+    }
+
+    /**
+     * Merge the buffered users into the stored sketches, returns the number of sketches merged
+     */
+    @Scheduled(fixedDelayString = "${stats.flush-interval-ms:5000}",
+            initialDelayString = "${stats.flush-interval-ms:5000}")
+    public synchronized int flush() {
+        Map<SketchKey, Set<Long>> drained = drain();
+        if (drained.isEmpty()) {
+            return 0;
+        }
+
+        // Stored sketches are looked up a day and subject type at a time
+        Map<SketchKey, List<SketchKey>> byDay = new LinkedHashMap<>();
+        for (SketchKey key : drained.keySet()) {
+            byDay.computeIfAbsent(new SketchKey(key.subject, "", key.date), day -> new ArrayList<>()).add(key);
+        }
+
+        int merged = 0;
+        int retried = 0;
+        for (Map.Entry<SketchKey, List<SketchKey>> day : byDay.entrySet()) {
+            List<SketchKey> keys = day.getValue();
+            for (int i = 0; i < keys.size(); i += LOOKUP_BATCH_SIZE) {
+                List<SketchKey> batch = keys.subList(i, Math.min(i + LOOKUP_BATCH_SIZE, keys.size()));
+                List<String> subjectIds = new ArrayList<>(batch.size());
+                batch.forEach(key -> subjectIds.add(key.subjectId));
+
+                Map<String, DistinctUserSketchRepository.StoredSketch> stored;
+                try {
+                    stored = sketchRepository.findDay(day.getKey().subject, day.getKey().date, subjectIds);
+                } catch (Exception e) {
+                    log.error("Error reading distinct user sketches, will retry: {}", e.getMessage(), e);
+                    batch.forEach(key -> restore(key, drained.get(key)));
+                    retried += batch.size();
+                    continue;
+                }
+
+                for (SketchKey key : batch) {
+                    try {
+                        if (merge(key, stored.get(key.subjectId), drained.get(key))) {
+                            merged++;
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        log.error("Error writing distinct user sketch of {} {}: {}",
+                                key.subject.getValue(), key.subjectId, e.getMessage(), e);
+                    }
+                    // Lost a race with another instance or failed, merge again on the next flush
+                    restore(key, drained.get(key));
+                    retried++;
+                }
+            }
+        }
+        log.debug("Flushed {} distinct user sketches, {} left for the next flush", merged, retried);
+        return merged;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int flushed = flush();
+        log.info("Flushed {} pending distinct user sketches on shutdown", flushed);
+    }
+
+    /**
+     * Delete stored sketches of days before the cutoff, Redis keys expire by themselves
+     */
+    public int deleteBefore(LocalDate cutoff) {
+        return sketchRepository.deleteBefore(cutoff);
+    }
+
+    /**
+     * Number of (subject, day) sketches with buffered users
+     */
+    public int getPendingKeyCount() {
+        return pending.size();
+    }
+
+    /**
+     * Add users to a stored sketch, false when another writer changed it first
+     */
+    private boolean merge(SketchKey key, DistinctUserSketchRepository.StoredSketch stored, Set<Long> users) {
+        HyperLogLog sketch = stored != null ? HyperLogLog.fromBytes(stored.getSketch()) : new HyperLogLog(precision);
+        boolean changed = false;
+        if (sketch.getPrecision() > precision) {
+            sketch = sketch.fold(precision);
+            changed = true;
+        }
+        for (Long user : users) {
+            changed |= sketch.add(user);
+        }
+
+        if (stored == null) {
+            return sketchRepository.insert(key.subject, key.subjectId, key.date, sketch.toBytes());
+        }
+        // Users already in the sketch need no write
+        return !changed || sketchRepository.update(stored.getId(), stored.getVersion(), sketch.toBytes());
+    }
+
+    private Map<SketchKey, Set<Long>> drain() {
+        Map<SketchKey, Set<Long>> drained = new LinkedHashMap<>();
+        for (SketchKey key : pending.keySet()) {
+            Set<Long> users = pending.remove(key);
+            if (users != null) {
+                drained.put(key, users);
+            }
+        }
+        return drained;
+    }
+
+    private void restore(SketchKey key, Set<Long> users) {
+        pending.merge(key, users, (current, restored) -> {
+            current.addAll(restored);
+            return current;
+        });
+    }
+
+    private void addToRedis(UsageSubject subject, String subjectId, LocalDate date, long userId) {
+        if (System.currentTimeMillis() < redisDownUntil) {
+            return;
+        }
+        try {
+            String key = redisKey(subject, subjectId, date);
+            Long added = redisTemplate.opsForHyperLogLog().add(key, Long.toString(userId));
+            if (added != null && added == 1) {
+                redisTemplate.expire(key, Duration.ofDays(redisRetentionDays + 1L));
+            }
+        } catch (Exception e) {
+            redisUnavailable(e);
+        }
+    }
+
+    private Long countInRedis(UsageSubject subject, String subjectId, LocalDate from, LocalDate to) {
+        if (System.currentTimeMillis() < redisDownUntil) {
+            return null;
+        }
+        List<String> keys = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            keys.add(redisKey(subject, subjectId, date));
+        }
+        if (keys.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return redisTemplate.opsForHyperLogLog().size(keys.toArray(String[]::new));
+        } catch (Exception e) {
+            redisUnavailable(e);
+            return null;
+        }
+    }
+
+    private void redisUnavailable(Exception e) {
+        redisDownUntil = System.currentTimeMillis() + redisRetryMs;
+        log.warn("Redis unavailable for distinct user counts, skipping it for {} ms: {}", redisRetryMs, e.getMessage());
+    }
+
+    private String redisKey(UsageSubject subject, String subjectId, LocalDate date) {
+        return redisKeyPrefix + ":" + subject.getValue() + ":" + subjectId + ":" + date;
+    }
+
+    private static final class SketchKey {
+        private final UsageSubject subject;
+        private final String subjectId;
+        private final LocalDate date;
+
+        private SketchKey(UsageSubject subject, String subjectId, LocalDate date) {
+            this.subject = subject;
+            this.subjectId = subjectId;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SketchKey)) {
+                return false;
+            }
+            SketchKey other = (SketchKey) o;
+            return subject == other.subject && subjectId.equals(other.subjectId) && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(subject, subjectId, date);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.itasca.spoofing.service.stats;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct longs added to it.
+ *
+ * Holds 2^precision one-byte registers, so precision 13 takes 8 KB with a standard error
+ * of 1.04 / sqrt(2^13), about 1.15%. Sketches merge by taking the maximum of each register,
+ * which gives the sketch of the union, and one with a higher precision can be folded down
+ * to merge with a lower one. Serialized sketches list only their set registers while that
+ * is smaller, so sketches of a few values stay a few bytes. Not thread safe.
+ */
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private static final byte DENSE = 1;
+    private static final byte SPARSE = 2;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Add a value, returns whether the sketch changed
+     */
+    public boolean add(long value) {
+        long hash = mix(value);
+        int index = (int) (hash >>> (64 - precision));
+        // Rank of the first set bit after the index bits, the bit past them bounds it
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Estimated number of distinct values added
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Linear counting is more accurate while many registers are empty
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Add every value of another sketch, folding it down first when it is more precise
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision < precision) {
+            throw new IllegalArgumentException("Cannot merge a sketch of precision " + other.precision
+                    + " into one of precision " + precision);
+        }
+        HyperLogLog source = other.precision > precision ? other.fold(precision) : other;
+        for (int i = 0; i < registers.length; i++) {
+            if (source.registers[i] > registers[i]) {
+                registers[i] = source.registers[i];
+            }
+        }
+    }
+
+    /**
+     * The same sketch at a lower precision, as if its values had been added to that one
+     */
+    public HyperLogLog fold(int lowerPrecision) {
+        if (lowerPrecision > precision) {
+            throw new IllegalArgumentException("Cannot fold precision " + precision + " up to " + lowerPrecision);
+        }
+        HyperLogLog folded = new HyperLogLog(lowerPrecision);
+        int shift = precision - lowerPrecision;
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] == 0) {
+                continue;
+            }
+            // The index bits dropped by the fold become the leading bits of the rank
+            int dropped = i & ((1 << shift) - 1);
+            int rank = dropped != 0
+                    ? Integer.numberOfLeadingZeros(dropped) - (32 - shift) + 1
+                    : registers[i] + shift;
+            int index = i >>> shift;
+            if (rank > folded.registers[index]) {
+                folded.registers[index] = (byte) rank;
+            }
+        }
+        return folded;
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Serialized form: a format byte, the precision, then either every register or
+     * the index and value of each set register
+     */
+    public byte[] toBytes() {
+        int set = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                set++;
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + Math.min(registers.length, set * 3));
+        out.write(precision);
+        if (set * 3 < registers.length) {
+            out.write(SPARSE);
+            for (int i = 0; i < registers.length; i++) {
+                if (registers[i] != 0) {
+                    out.write(i >>> 8);
+                    out.write(i);
+                    out.write(registers[i]);
+                }
+            }
+        } else {
+            out.write(DENSE);
+            out.write(registers, 0, registers.length);
+        }
+        return out.toByteArray();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < 2) {
+            throw new IllegalArgumentException("Not a serialized sketch");
+        }
+        HyperLogLog sketch = new HyperLogLog(bytes[0]);
+        if (bytes[1] == DENSE && bytes.length == 2 + sketch.registers.length) {
+            System.arraycopy(bytes, 2, sketch.registers, 0, sketch.registers.length);
+        } else if (bytes[1] == SPARSE && (bytes.length - 2) % 3 == 0) {
+            for (int i = 2; i < bytes.length; i += 3) {
+                int index = ((bytes[i] & 0xff) << 8) | (bytes[i + 1] & 0xff);
+                if (index >= sketch.registers.length) {
+                    throw new IllegalArgumentException("Register " + index + " out of range");
+                }
+                sketch.registers[index] = bytes[i + 2];
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown sketch format " + bytes[1]);
+        }
+        return sketch;
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /**
+     * Murmur3 finalizer, spreads sequential ids over all 64 bits
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
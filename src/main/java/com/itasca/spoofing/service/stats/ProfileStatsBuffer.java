@@ -0,0 +1,260 @@
+package com.itasca.spoofing.service.stats;
+
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.repository.ProfileStatsBatchRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for profile usage counters.
+ *
+ * Increments go to striped {@link LongAdder}s keyed by (profile, type, day) and
+ * are written with one batched upsert per flush, on a fixed interval and on
+ * shutdown, together with their day, week and month rollups. Stored stats therefore
+ * lag live traffic by at most one flush interval. The upsert merges on the unique key
+ * of (profile, day), so flushing only starts once startup has found that key, merging
+ * duplicate rows and adding it where it is missing.
+ */
+@Component
+@Slf4j
+public class ProfileStatsBuffer {
+
+    public enum Metric {
+        USAGE,
+        SUCCESS,
+        FAILURE,
+        // Causes of failures, counted on top of FAILURE
+        PROXY_FAILURE,
+        DETECTION
+    }
+
+    @Autowired
+    private ProfileStatsBatchRepository statsBatchRepository;
+
+    @Autowired
+    private StatsLeaderboard leaderboard;
+
+    @Value("${stats.rollup.backfill-chunk-size:5000}")
+    private int backfillChunkSize;
+
+    private final Map<StatsKey, Counters> counters = new ConcurrentHashMap<>();
+
+    // Serializes flushes so the scheduler and shutdown never drain concurrently
+    private final Object flushLock = new Object();
+
+    // Without the unique key every flush would insert new daily rows instead of adding to them
+    private volatile boolean dailyKeyPresent;
+
+    /**
+     * Count one event for a profile today
+     */
+    public void increment(String profileId, ProfileType profileType, Metric metric) {
+        add(new StatsKey(profileId, profileType, LocalDate.now()), metric, 1);
+    }
+
+    /**
+     * Write all pending increments, returns number of rows upserted
+     */
+    @Scheduled(fixedDelayString = "${stats.flush-interval-ms:5000}",
+            initialDelayString = "${stats.flush-interval-ms:5000}")
+    public int flush() {
+        if (!dailyKeyPresent) {
+            log.debug("Profile stats unique key not confirmed, keeping {} rows buffered", counters.size());
+            return 0;
+        }
+        synchronized (flushLock) {
+            List<ProfileStatsDelta> deltas = drain();
+            if (deltas.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                statsBatchRepository.upsertDeltas(deltas);
+                log.debug("Flushed {} profile stats rows", deltas.size());
+            } catch (Exception e) {
+                // Put the increments back so the next flush retries them
+                deltas.forEach(this::restore);
+                log.error("Error flushing {} profile stats rows, will retry: {}", deltas.size(), e.getMessage(), e);
+                return 0;
+            }
+
+            try {
+                leaderboard.onFlushed(deltas);
+            } catch (Exception e) {
+                // The counters are stored, the periodic reload catches the leaderboards up
+                log.warn("Error updating stats leaderboards: {}", e.getMessage());
+            }
+            return deltas.size();
+        }
+    }
+
+    /**
+     * Make sure the daily rows have their unique key before the first flush, merging
+     * duplicates left by older versions so the key can be added
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void verifyDailyKey() {
+        try {
+            if (!statsBatchRepository.hasDailyUniqueKey()) {
+                int merged = statsBatchRepository.mergeDuplicateDailyRows();
+                log.warn("profile_stats had no unique key on (profile_id, date), merged {} duplicate rows", merged);
+                statsBatchRepository.addDailyUniqueKey();
+            }
+            dailyKeyPresent = statsBatchRepository.hasDailyUniqueKey();
+        } catch (Exception e) {
+            log.error("Error adding the profile stats unique key: {}", e.getMessage(), e);
+        }
+        if (!dailyKeyPresent) {
+            log.error("profile_stats has no unique key on (profile_id, date), profile stats are not flushed");
+        }
+    }
+
+    /**
+     * Build the rollups from the daily rows once, when they are introduced on an existing database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillRollups() {
+        // Under the flush lock so no flush adds to the rollups while they are built
+        synchronized (flushLock) {
+            try {
+                if (statsBatchRepository.hasRollups()) {
+                    return;
+                }
+                long started = System.currentTimeMillis();
+                long rows = statsBatchRepository.backfillRollups(backfillChunkSize);
+                if (rows > 0) {
+                    log.info("Built profile stats rollups from {} daily rows in {} ms", rows, System.currentTimeMillis() - started);
+                }
+            } catch (Exception e) {
+                log.error("Error building profile stats rollups: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int flushed = flush();
+        log.info("Flushed {} pending profile stats rows on shutdown", flushed);
+    }
+
+    /**
+     * Number of (profile, type, day) keys currently buffered
+     */
+    public int getPendingKeyCount() {
+        return counters.size();
+    }
+
+    private List<ProfileStatsDelta> drain() {
+        LocalDate today = LocalDate.now();
+        List<ProfileStatsDelta> deltas = new ArrayList<>();
+
+        for (Map.Entry<StatsKey, Counters> entry : counters.entrySet()) {
+            StatsKey key = entry.getKey();
+            Counters value = entry.getValue();
+
+            // Past days receive no new increments, so drop their entry before draining it
+            if (key.date.isBefore(today)) {
+                counters.remove(key, value);
+            }
+
+            // sumThenReset swaps each cell atomically, so concurrent increments land in this flush or the next
+            long usage = value.usage.sumThenReset();
+            long success = value.success.sumThenReset();
+            long failure = value.failure.sumThenReset();
+            long proxyFailure = value.proxyFailure.sumThenReset();
+            long detection = value.detection.sumThenReset();
+            if (usage != 0 || success != 0 || failure != 0 || proxyFailure != 0 || detection != 0) {
+                deltas.add(new ProfileStatsDelta(key.profileId, key.profileType, key.date,
+                        usage, success, failure, proxyFailure, detection));
+            }
+        }
+        return deltas;
+    }
+
+    private void restore(ProfileStatsDelta delta) {
+        StatsKey key = new StatsKey(delta.getProfileId(), delta.getProfileType(), delta.getDate());
+        add(key, Metric.USAGE, delta.getUsageCount());
+        add(key, Metric.SUCCESS, delta.getSuccessCount());
+        add(key, Metric.FAILURE, delta.getFailureCount());
+        add(key, Metric.PROXY_FAILURE, delta.getProxyFailureCount());
+        add(key, Metric.DETECTION, delta.getDetectionCount());
+    }
+
+    private void add(StatsKey key, Metric metric, long amount) {
+        if (amount == 0) {
+            return;
+        }
+        Counters value = counters.computeIfAbsent(key, k -> new Counters());
+        switch (metric) {
+            case USAGE:
+                value.usage.add(amount);
+                break;
+            case SUCCESS:
+                value.success.add(amount);
+                break;
+            case FAILURE:
+                value.failure.add(amount);
+                break;
+            case PROXY_FAILURE:
+                value.proxyFailure.add(amount);
+                break;
+            case DETECTION:
+                value.detection.add(amount);
+                break;
+        }
+    }
+
+    private static final class StatsKey {
+        private final String profileId;
+        private final ProfileType profileType;
+        private final LocalDate date;
+
+        private StatsKey(String profileId, ProfileType profileType, LocalDate date) {
+            this.profileId = profileId;
+            this.profileType = profileType;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StatsKey)) {
+                return false;
+            }
+            StatsKey other = (StatsKey) o;
+            return profileId.equals(other.profileId) && profileType == other.profileType && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(profileId, profileType, date);
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder usage = new LongAdder();
+        private final LongAdder success = new LongAdder();
+        private final LongAdder failure = new LongAdder();
+        private final LongAdder proxyFailure = new LongAdder();
+        private final LongAdder detection = new LongAdder();
+    }
+}
@@ -0,0 +1,33 @@
+package com.itasca.spoofing.service.stats;
+
+import com.itasca.spoofing.model.ProfileType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Counter increments for one profile and day, drained from the stats buffer
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ProfileStatsDelta {
+
+    private final String profileId;
+    private final ProfileType profileType;
+    private final LocalDate date;
+    private final long usageCount;
+    private final long successCount;
+    private final long failureCount;
+
+    // Failures by cause, included in failureCount
+    private final long proxyFailureCount;
+    private final long detectionCount;
+
+    public ProfileStatsDelta(String profileId, ProfileType profileType, LocalDate date,
+                             long usageCount, long successCount, long failureCount) {
+        this(profileId, profileType, date, usageCount, successCount, failureCount, 0, 0);
+    }
+}
@@ -0,0 +1,77 @@
+package com.itasca.spoofing.service.stats;
+
+import com.itasca.spoofing.entity.ProfileStatsRollupEntity;
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.model.StatsPeriod;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Counter increments for one profile, or the fleet, and one rollup period
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ProfileStatsRollupDelta {
+
+    // Key order, upserts in this order lock rows consistently across instances
+    private static final Comparator<ProfileStatsRollupDelta> KEY_ORDER = Comparator
+            .comparing(ProfileStatsRollupDelta::getPeriod)
+            .thenComparing(ProfileStatsRollupDelta::getPeriodStart)
+            .thenComparing(ProfileStatsRollupDelta::getProfileId)
+            .thenComparing(ProfileStatsRollupDelta::getProfileType);
+
+    private final StatsPeriod period;
+    private final LocalDate periodStart;
+    private final String profileId;
+    private final ProfileType profileType;
+    private long usageCount;
+    private long successCount;
+    private long failureCount;
+    private long proxyFailureCount;
+    private long detectionCount;
+
+    /**
+     * Sum daily deltas into the day, week and month rows of each profile and of the fleet, in key order
+     */
+    public static List<ProfileStatsRollupDelta> rollUp(Collection<ProfileStatsDelta> deltas) {
+        Map<ProfileStatsRollupDelta, ProfileStatsRollupDelta> rollups = new TreeMap<>(KEY_ORDER);
+        for (ProfileStatsDelta delta : deltas) {
+            for (StatsPeriod period : StatsPeriod.values()) {
+                LocalDate start = period.startOf(delta.getDate());
+                add(rollups, new ProfileStatsRollupDelta(period, start, delta.getProfileId(), delta.getProfileType(),
+                        delta.getUsageCount(), delta.getSuccessCount(), delta.getFailureCount(),
+                        delta.getProxyFailureCount(), delta.getDetectionCount()));
+                add(rollups, new ProfileStatsRollupDelta(period, start, ProfileStatsRollupEntity.FLEET_PROFILE_ID,
+                        delta.getProfileType(), delta.getUsageCount(), delta.getSuccessCount(), delta.getFailureCount(),
+                        delta.getProxyFailureCount(), delta.getDetectionCount()));
+            }
+        }
+        return new ArrayList<>(rollups.values());
+    }
+
+    private static void add(Map<ProfileStatsRollupDelta, ProfileStatsRollupDelta> rollups, ProfileStatsRollupDelta delta) {
+        ProfileStatsRollupDelta existing = rollups.putIfAbsent(delta, delta);
+        if (existing != null) {
+            existing.usageCount += delta.usageCount;
+            existing.successCount += delta.successCount;
+            existing.failureCount += delta.failureCount;
+            existing.proxyFailureCount += delta.proxyFailureCount;
+            existing.detectionCount += delta.detectionCount;
+        }
+    }
+
+    public boolean isFleet() {
+        return Objects.equals(profileId, ProfileStatsRollupEntity.FLEET_PROFILE_ID);
+    }
+}
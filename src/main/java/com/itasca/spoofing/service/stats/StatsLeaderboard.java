@@ -0,0 +1,185 @@
+package com.itasca.spoofing.service.stats;
+
+import com.itasca.spoofing.entity.ProfileStatsRollupEntity;
+import com.itasca.spoofing.model.RankingMetric;
+import com.itasca.spoofing.model.StatsPeriod;
+import com.itasca.spoofing.repository.ProfileStatsRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Top profiles of the current day, week and month by usage and by success rate.
+ *
+ * Each ranking is a {@link TopK} loaded from the rollups on first use and then updated
+ * after every stats flush with the new totals of the profiles that were flushed, so
+ * reading the top n costs O(n). A ranking is reloaded when it can no longer tell its
+ * leaders apart, when its period rolls over, and periodically to pick up counters
+ * flushed by other instances.
+ */
+@Component
+@Slf4j
+public class StatsLeaderboard {
+
+    private static final int LOOKUP_BATCH_SIZE = 500;
+
+    @Autowired
+    private ProfileStatsRollupRepository rollupRepository;
+
+    @Value("${stats.leaderboard.capacity:100}")
+    private int capacity;
+
+    // Profiles need this many sessions in the period to be ranked by success rate
+    @Value("${stats.leaderboard.min-sessions:10}")
+    private long minSessions;
+
+    private final Map<String, Ranking> rankings = new ConcurrentHashMap<>();
+
+    /**
+     * The top profiles of the current period, at most the configured capacity
+     */
+    public List<ProfileStatsRollupEntity> top(StatsPeriod period, RankingMetric metric, int limit) {
+        int n = Math.max(1, Math.min(limit, capacity));
+        Ranking ranking = current(period, metric);
+        List<TopK.Entry<ProfileStatsRollupEntity>> top = ranking.topK.top(n);
+        if (top == null) {
+            List<TopK.Entry<ProfileStatsRollupEntity>> leaders = load(ranking);
+            top = leaders.subList(0, Math.min(n, leaders.size()));
+        }
+        List<ProfileStatsRollupEntity> rows = new ArrayList<>(top.size());
+        top.forEach(entry -> rows.add(entry.getValue()));
+        return rows;
+    }
+
+    /**
+     * Update the rankings with the current totals of the flushed profiles
+     */
+    public void onFlushed(Collection<ProfileStatsDelta> deltas) {
+        LocalDate today = LocalDate.now();
+        Set<String> profileIds = new LinkedHashSet<>();
+        for (ProfileStatsDelta delta : deltas) {
+            profileIds.add(delta.getProfileId());
+        }
+        List<String> ids = new ArrayList<>(profileIds);
+
+        for (StatsPeriod period : StatsPeriod.values()) {
+            Ranking byUsage = rankings.get(key(period, RankingMetric.USAGE));
+            Ranking byRate = rankings.get(key(period, RankingMetric.SUCCESS_RATE));
+            LocalDate start = period.startOf(today);
+            if (!isCurrent(byUsage, start) && !isCurrent(byRate, start)) {
+                // Not loaded yet, or about to roll over and reload
+                continue;
+            }
+            for (int i = 0; i < ids.size(); i += LOOKUP_BATCH_SIZE) {
+                List<String> batch = ids.subList(i, Math.min(i + LOOKUP_BATCH_SIZE, ids.size()));
+                for (ProfileStatsRollupEntity row : rollupRepository.findByPeriodAndPeriodStartAndProfileIdIn(period, start, batch)) {
+                    if (isCurrent(byUsage, start)) {
+                        byUsage.topK.update(row.getProfileId(), row.getUsageCount(), row);
+                    }
+                    if (isCurrent(byRate, start)) {
+                        if (sessions(row) >= minSessions) {
+                            byRate.topK.update(row.getProfileId(), successRate(row), row);
+                        } else {
+                            byRate.topK.remove(row.getProfileId());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reload every ranking in use, picking up counters flushed by other instances
+     */
+    @Scheduled(fixedDelayString = "${stats.leaderboard.reload-interval-ms:60000}",
+            initialDelayString = "${stats.leaderboard.reload-interval-ms:60000}")
+    public void reload() {
+        try {
+            for (Ranking ranking : rankings.values()) {
+                LocalDate start = ranking.period.startOf(LocalDate.now());
+                if (ranking.periodStart.equals(start)) {
+                    load(ranking);
+                } else {
+                    rankings.remove(key(ranking.period, ranking.metric), ranking);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error reloading stats leaderboards: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Percent of sessions of a rollup that succeeded
+     */
+    public static double successRate(ProfileStatsRollupEntity row) {
+        long sessions = sessions(row);
+        return sessions > 0 ? (double) row.getSuccessCount() / sessions * 100 : 0.0;
+    }
+
+    private Ranking current(StatsPeriod period, RankingMetric metric) {
+        LocalDate start = period.startOf(LocalDate.now());
+        return rankings.compute(key(period, metric), (key, ranking) -> {
+            if (isCurrent(ranking, start)) {
+                return ranking;
+            }
+            Ranking fresh = new Ranking(period, metric, start, new TopK<>(capacity));
+            load(fresh);
+            return fresh;
+        });
+    }
+
+    private List<TopK.Entry<ProfileStatsRollupEntity>> load(Ranking ranking) {
+        Limit limit = Limit.of(capacity);
+        List<ProfileStatsRollupEntity> rows = ranking.metric == RankingMetric.USAGE
+                ? rollupRepository.findTopByUsage(ranking.period, ranking.periodStart, limit)
+                : rollupRepository.findTopBySuccessRate(ranking.period, ranking.periodStart, minSessions, limit);
+
+        List<TopK.Entry<ProfileStatsRollupEntity>> leaders = new ArrayList<>(rows.size());
+        for (ProfileStatsRollupEntity row : rows) {
+            double score = ranking.metric == RankingMetric.USAGE ? row.getUsageCount() : successRate(row);
+            leaders.add(TopK.entry(row.getProfileId(), score, row));
+        }
+        ranking.topK.reset(leaders, rows.size() < capacity);
+        log.debug("Loaded {} {} leaderboard of {} with {} profiles",
+                ranking.metric.getValue(), ranking.period.getValue(), ranking.periodStart, rows.size());
+        return leaders;
+    }
+
+    private static boolean isCurrent(Ranking ranking, LocalDate start) {
+        return ranking != null && ranking.periodStart.equals(start);
+    }
+
+    private static long sessions(ProfileStatsRollupEntity row) {
+        return row.getSuccessCount() + row.getFailureCount();
+    }
+
+    private static String key(StatsPeriod period, RankingMetric metric) {
+        return period.name() + ":" + metric.name();
+    }
+
+    private static final class Ranking {
+        private final StatsPeriod period;
+        private final RankingMetric metric;
+        private final LocalDate periodStart;
+        private final TopK<ProfileStatsRollupEntity> topK;
+
+        private Ranking(StatsPeriod period, RankingMetric metric, LocalDate periodStart, TopK<ProfileStatsRollupEntity> topK) {
+            this.period = period;
+            this.metric = metric;
+            this.periodStart = periodStart;
+            this.topK = topK;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.itasca.spoofing.service.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Bounded ranking of the highest scoring keys, updated one key at a time.
+ *
+ * Holds at most capacity entries ordered by score, ties by key. Scores may go down as
+ * well as up, so alongside the entries it keeps a ceiling: no key outside the ranking
+ * scores more than the ceiling. Entries at or above the ceiling are the true leaders;
+ * {@link #top(int)} returns null when fewer than the requested number are known and the
+ * caller has to {@link #reset} it from the full data.
+ */
+public class TopK<V> {
+
+    public static final class Entry<V> {
+        private final String key;
+        private final double score;
+        private final V value;
+
+        private Entry(String key, double score, V value) {
+            this.key = key;
+            this.score = score;
+            this.value = value;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public V getValue() {
+            return value;
+        }
+    }
+
+    private static final Comparator<Entry<?>> ORDER = Comparator
+            .comparingDouble((Entry<?> entry) -> entry.score).reversed()
+            .thenComparing(entry -> entry.key);
+
+    private final int capacity;
+    private final TreeSet<Entry<V>> ranking = new TreeSet<>(ORDER);
+    private final Map<String, Entry<V>> entries = new HashMap<>();
+
+    // Upper bound of the scores of keys not in the ranking
+    private double ceiling = Double.NEGATIVE_INFINITY;
+
+    public TopK(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Replace the ranking with the leaders of the full data, in order. complete means
+     * there are no other keys; otherwise the last leader's score bounds the rest.
+     */
+    public synchronized void reset(List<Entry<V>> leaders, boolean complete) {
+        ranking.clear();
+        entries.clear();
+        for (Entry<V> leader : leaders.subList(0, Math.min(leaders.size(), capacity))) {
+            ranking.add(leader);
+            entries.put(leader.key, leader);
+        }
+        ceiling = complete || ranking.isEmpty() ? Double.NEGATIVE_INFINITY : ranking.last().score;
+    }
+
+    /**
+     * Record the current score of a key
+     */
+    public synchronized void update(String key, double score, V value) {
+        Entry<V> previous = entries.remove(key);
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+        if (previous == null && score <= ceiling) {
+            // Still below keys that may be outside the ranking
+            return;
+        }
+
+        Entry<V> entry = new Entry<>(key, score, value);
+        ranking.add(entry);
+        entries.put(key, entry);
+        if (ranking.size() > capacity) {
+            Entry<V> evicted = ranking.pollLast();
+            entries.remove(evicted.key);
+            ceiling = Math.max(ceiling, evicted.score);
+        }
+    }
+
+    /**
+     * Stop ranking a key that no longer qualifies
+     */
+    public synchronized void remove(String key) {
+        Entry<V> previous = entries.remove(key);
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+    }
+
+    /**
+     * The n leaders in order, or null when the ranking cannot tell them apart from keys outside it
+     */
+    public synchronized List<Entry<V>> top(int n) {
+        List<Entry<V>> top = new ArrayList<>(Math.min(n, ranking.size()));
+        Iterator<Entry<V>> iterator = ranking.iterator();
+        while (top.size() < n && iterator.hasNext()) {
+            Entry<V> entry = iterator.next();
+            if (entry.score < ceiling) {
+                return null;
+            }
+            top.add(entry);
+        }
+        if (top.size() < n && ceiling != Double.NEGATIVE_INFINITY) {
+            return null;
+        }
+        return top;
+    }
+
+    public synchronized int size() {
+        return ranking.size();
+    }
+
+    public static <V> Entry<V> entry(String key, double score, V value) {
+        return new Entry<>(key, score, value);
+    }
+}
@@ -0,0 +1,61 @@
+package com.itasca.spoofing.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MySqlDriverSettingsCheckTest {
+
+    @Test
+    void settingsComeFromTheUrlOrTheProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("useCursorFetch", "true");
+
+        assertThat(MySqlDriverSettingsCheck.missingSettings("jdbc:mysql://db/app", properties))
+                .containsExactly("rewriteBatchedStatements");
+        assertThat(MySqlDriverSettingsCheck.missingSettings(
+                "jdbc:mysql://db/app?rewriteBatchedStatements=true", properties)).isEmpty();
+        // The URL wins over the properties
+        assertThat(MySqlDriverSettingsCheck.missingSettings(
+                "jdbc:mysql://db/app?useCursorFetch=false&rewriteBatchedStatements=true", properties))
+                .containsExactly("useCursorFetch");
+    }
+
+    @Test
+    void everyProfileKeepsTheDriverSettings() throws IOException {
+        for (String profile : new String[]{null, "dev", "staging", "prod"}) {
+            StandardEnvironment environment = new StandardEnvironment();
+            if (profile != null) {
+                load(environment, "application-" + profile + ".yml");
+            }
+            load(environment, "application.yml");
+            Binder binder = Binder.get(environment);
+
+            String url = binder.bind("spring.datasource.url", String.class).get();
+            Properties properties = new Properties();
+            properties.putAll(binder.bind("spring.datasource.hikari.data-source-properties",
+                    Bindable.mapOf(String.class, String.class)).orElse(Map.of()));
+
+            assertThat(MySqlDriverSettingsCheck.missingSettings(url, properties)).as(String.valueOf(profile)).isEmpty();
+        }
+    }
+
+    /**
+     * Add the documents of a config file after the sources already there, so earlier files win
+     */
+    private static void load(StandardEnvironment environment, String file) throws IOException {
+        List<PropertySource<?>> sources = new YamlPropertySourceLoader().load(file, new ClassPathResource(file));
+        sources.forEach(environment.getPropertySources()::addLast);
+    }
+}
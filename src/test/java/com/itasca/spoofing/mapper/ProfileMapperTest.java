@@ -0,0 +1,149 @@
+package com.itasca.spoofing.mapper;
+
+import com.itasca.spoofing.entity.*;
+import com.itasca.spoofing.model.GroupProfileDto;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.repository.GroupProfileRepository;
+import com.itasca.spoofing.repository.SingleProfileRepository;
+import com.itasca.spoofing.repository.URLRepository;
+import com.itasca.spoofing.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ProfileMapperTest {
+
+    // Members, member weights, assigned users, URL groups, URL lists and URL entities
+    private static final long MAX_MAPPING_QUERIES = 6;
+
+    @Autowired
+    private ProfileMapper profileMapper;
+
+    @Autowired
+    private GroupProfileRepository groupProfileRepository;
+
+    @Autowired
+    private SingleProfileRepository singleProfileRepository;
+
+    @Autowired
+    private URLRepository urlRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void groupMappingQueryCountDoesNotGrowWithMembers() {
+        String smallGroupId = createGroup(10);
+        String largeGroupId = createGroup(500);
+
+        long smallGroupQueries = countMappingQueries(smallGroupId, 10);
+        long largeGroupQueries = countMappingQueries(largeGroupId, 500);
+
+        assertThat(largeGroupQueries).isEqualTo(smallGroupQueries);
+        assertThat(largeGroupQueries).isLessThanOrEqualTo(MAX_MAPPING_QUERIES);
+    }
+
+    @Test
+    void profileListMappingQueryCountDoesNotGrowWithProfiles() {
+        String groupId = createGroup(200);
+        Statistics statistics = statistics();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<SingleProfileEntity> members = new ArrayList<>(
+                    groupProfileRepository.findByIdWithMembers(groupId).orElseThrow().getMemberProfiles());
+
+            statistics.clear();
+            List<SingleProfileDto> dtos = profileMapper.toSingleProfileDtos(members);
+
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+            assertThat(dtos).hasSize(200);
+            assertThat(dtos).allSatisfy(dto -> assertThat(dto.getUrlGroups().get(0).getUrls())
+                    .allSatisfy(url -> assertThat(url.getId()).isNotNull()));
+        });
+    }
+
+    private long countMappingQueries(String groupId, int memberCount) {
+        Statistics statistics = statistics();
+
+        return transactionTemplate.execute(status -> {
+            GroupProfileEntity group = groupProfileRepository.findById(groupId).orElseThrow();
+
+            statistics.clear();
+            GroupProfileDto dto = profileMapper.toDto(group);
+            long queries = statistics.getPrepareStatementCount();
+
+            assertThat(dto.getMemberProfiles()).hasSize(memberCount);
+            assertThat(dto.getMemberWeights()).hasSize(memberCount);
+            assertThat(dto.getAssignedUserIds()).hasSize(1);
+            assertThat(dto.getMemberProfiles()).allSatisfy(member -> assertThat(member.getUrlGroups().get(0).getUrls())
+                    .extracting("id").doesNotContainNull());
+            return queries;
+        });
+    }
+
+    private String createGroup(int memberCount) {
+        String suffix = UUID.randomUUID().toString();
+
+        return transactionTemplate.execute(status -> {
+            GroupProfileEntity group = GroupProfileEntity.builder()
+                    .id(UUID.randomUUID().toString())
+                    .name("mapper-test-" + suffix)
+                    .build();
+
+            for (int i = 0; i < memberCount; i++) {
+                String url = "https://example.com/" + suffix + "/" + i;
+                urlRepository.save(URLEntity.builder().url(url).name("url " + i).build());
+
+                SingleProfileEntity member = SingleProfileEntity.builder()
+                        .id(UUID.randomUUID().toString())
+                        .name("mapper-test-" + suffix + "-" + i)
+                        .build();
+                URLGroupEntity urlGroup = URLGroupEntity.builder()
+                        .name("urls " + i)
+                        .urls(new ArrayList<>(List.of(url)))
+                        .singleProfile(member)
+                        .build();
+                member.getUrlGroups().add(urlGroup);
+                singleProfileRepository.save(member);
+
+                group.getMemberProfiles().add(member);
+                group.getMemberWeights().put(member.getId(), i + 1);
+            }
+            groupProfileRepository.save(group);
+
+            UserEntity user = UserEntity.builder()
+                    .username("mapper-test-" + suffix)
+                    .email("mapper-test-" + suffix + "@example.com")
+                    .password("password")
+                    .assignedGroups(Set.of(group))
+                    .build();
+            userRepository.save(user);
+
+            return group.getId();
+        });
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
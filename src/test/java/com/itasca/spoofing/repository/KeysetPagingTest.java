@@ -0,0 +1,128 @@
+package com.itasca.spoofing.repository;
+
+import com.itasca.spoofing.entity.SingleProfileEntity;
+import com.itasca.spoofing.entity.UserEntity;
+import com.itasca.spoofing.entity.UserRole;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.service.ProfileService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class KeysetPagingTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private SingleProfileRepository singleProfileRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void profilesCreatedAtTheSameTimePageWithoutGapsOrDuplicates() {
+        String prefix = "keyset-" + UUID.randomUUID() + "-";
+        List<String> ids = profileService.createSingleProfiles(IntStream.range(0, 8)
+                        .mapToObj(i -> SingleProfileDto.builder().name(prefix + i).build())
+                        .toList())
+                .stream()
+                .map(SingleProfileDto::getId)
+                .toList();
+        LocalDateTime createdAt = sharedTimestamp();
+        ids.forEach(id -> jdbcTemplate.update("UPDATE single_profiles SET created_at = ? WHERE id = ?", createdAt, id));
+
+        List<String> paged = readAll(createdAt, "",
+                (after, id) -> singleProfileRepository.findKeysetPageAfter(after, id, Limit.of(PAGE_SIZE)),
+                SingleProfileEntity::getCreatedAt, SingleProfileEntity::getId);
+
+        assertThat(paged).containsExactlyElementsOf(ids.stream().sorted().toList());
+    }
+
+    @Test
+    void usersCreatedAtTheSameTimePageWithoutGapsOrDuplicates() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            String name = "keyset-" + UUID.randomUUID();
+            ids.add(userRepository.save(UserEntity.builder()
+                    .username(name)
+                    .email(name + "@example.com")
+                    .password("secret")
+                    .roles(Set.of(UserRole.USER))
+                    .build()).getId());
+        }
+        LocalDateTime createdAt = sharedTimestamp();
+        ids.forEach(id -> jdbcTemplate.update("UPDATE users SET created_at = ? WHERE id = ?", createdAt, id));
+
+        try {
+            List<Long> paged = readAll(createdAt, 0L,
+                    (after, id) -> userRepository.findKeysetPageAfter(after, id, Limit.of(PAGE_SIZE)),
+                    UserEntity::getCreatedAt, UserEntity::getId);
+
+            assertThat(paged).containsExactlyElementsOf(ids.stream().sorted().toList());
+        } finally {
+            userRepository.deleteAllById(ids);
+        }
+    }
+
+    @Test
+    void createdAtIsRequired() {
+        String id = profileService.createSingleProfile(SingleProfileDto.builder()
+                .name("keyset-" + UUID.randomUUID()).build()).getId();
+
+        assertThatThrownBy(() -> jdbcTemplate.update("UPDATE single_profiles SET created_at = NULL WHERE id = ?", id))
+                .isInstanceOf(RuntimeException.class);
+        assertThat(singleProfileRepository.findById(id).orElseThrow().getCreatedAt()).isNotNull();
+    }
+
+    /**
+     * Every row from the start position on, read one keyset page at a time
+     */
+    private <E, K> List<K> readAll(LocalDateTime createdAt, K startId, BiFunction<LocalDateTime, K, List<E>> page,
+                                   Function<E, LocalDateTime> timestamp, Function<E, K> key) {
+        List<K> keys = new ArrayList<>();
+        LocalDateTime afterTimestamp = createdAt;
+        K afterId = startId;
+        List<E> rows;
+        do {
+            rows = page.apply(afterTimestamp, afterId);
+            assertThat(rows.size()).isLessThanOrEqualTo(PAGE_SIZE);
+            for (E row : rows) {
+                keys.add(key.apply(row));
+                afterTimestamp = timestamp.apply(row);
+                afterId = key.apply(row);
+            }
+        } while (rows.size() == PAGE_SIZE);
+        return keys;
+    }
+
+    /**
+     * A timestamp after every other row, so the pages only hold the rows of the test
+     */
+    private static LocalDateTime sharedTimestamp() {
+        return LocalDateTime.of(2999, 1, 1, 0, 0).plusMinutes(ThreadLocalRandom.current().nextInt(1_000_000));
+    }
+}
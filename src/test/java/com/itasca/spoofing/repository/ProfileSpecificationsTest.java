@@ -0,0 +1,139 @@
+package com.itasca.spoofing.repository;
+
+import com.itasca.spoofing.model.GroupProfileDto;
+import com.itasca.spoofing.model.ProfileFilterDto;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.service.ProfileService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.itasca.spoofing.repository.ProfileSpecificationsTest$RecordingInspector")
+@ActiveProfiles("test")
+class ProfileSpecificationsTest {
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private SingleProfileRepository singleProfileRepository;
+
+    @Autowired
+    private GroupProfileRepository groupProfileRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void criteriaAreCombinedAcrossColumnsAndMembership() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        SingleProfileDto linux = createProfile(tag + "-linux", "Linux", 4);
+        SingleProfileDto windows = createProfile(tag + "-win", "Windows", 16);
+        createProfile(tag + "-win-small", "Windows", 2);
+        GroupProfileDto group = profileService.createGroupProfile(GroupProfileDto.builder()
+                .name(tag + "-group")
+                .memberProfileIds(Set.of(linux.getId(), windows.getId()))
+                .build());
+
+        ProfileFilterDto filter = ProfileFilterDto.builder()
+                .statuses(List.of("Active"))
+                .operatingSystems(List.of("Windows", "Linux"))
+                .minHardwareConcurrency(4)
+                .groupIds(List.of(group.getId()))
+                .neverUsed(true)
+                .build();
+        List<SingleProfileDto> matches = profileService.filterSingleProfiles(filter, PageRequest.of(0, 10)).getContent();
+        assertThat(matches).extracting(SingleProfileDto::getId).containsExactlyInAnyOrder(linux.getId(), windows.getId());
+
+        ProfileFilterDto groupFilter = ProfileFilterDto.builder()
+                .memberProfileIds(List.of(windows.getId()))
+                .createdFrom(LocalDateTime.now().minusMinutes(5))
+                .build();
+        assertThat(profileService.filterGroupProfiles(groupFilter, PageRequest.of(0, 10)).getContent())
+                .extracting(GroupProfileDto::getId).containsExactly(group.getId());
+    }
+
+    @Test
+    void commonFilterShapesUseCompositeIndexes() {
+        assertPlanUses("IDX_SINGLE_PROFILE_STATUS_OS", () -> singleProfileRepository.findAll(
+                ProfileSpecifications.singleProfiles(ProfileFilterDto.builder()
+                        .statuses(List.of("Active")).operatingSystems(List.of("Windows")).build())));
+
+        assertPlanUses("IDX_SINGLE_PROFILE_STATUS_CORES", () -> singleProfileRepository.findAll(
+                ProfileSpecifications.singleProfiles(ProfileFilterDto.builder()
+                        .statuses(List.of("Active")).minHardwareConcurrency(8).maxHardwareConcurrency(16).build())));
+
+        assertPlanUses("IDX_SINGLE_PROFILE_STATUS_LAST_USED", () -> singleProfileRepository.findAll(
+                ProfileSpecifications.singleProfiles(ProfileFilterDto.builder()
+                        .statuses(List.of("Active")).lastUsedFrom(LocalDateTime.now().minusDays(1)).build())));
+
+        assertPlanUses("IDX_GROUP_PROFILE_STATUS_COUNTRY", () -> groupProfileRepository.findAll(
+                ProfileSpecifications.groupProfiles(ProfileFilterDto.builder()
+                        .statuses(List.of("Active")).proxyCountries(List.of("DE")).build())));
+
+        assertPlanUses("IDX_GROUP_MEMBERS_PROFILE", () -> groupProfileRepository.findAll(
+                ProfileSpecifications.groupProfiles(ProfileFilterDto.builder()
+                        .memberProfileIds(List.of(UUID.randomUUID().toString())).build())));
+    }
+
+    private void assertPlanUses(String indexName, Supplier<List<?>> query) {
+        RecordingInspector.STATEMENTS.clear();
+        query.get();
+        String sql = RecordingInspector.STATEMENTS.stream()
+                .filter(statement -> statement.startsWith("select"))
+                .findFirst()
+                .orElseThrow();
+
+        // Bind nulls, H2 still plans the parameters as ?1, ?2 ...
+        String plan = jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+        assertThat(plan).as("plan for %s", sql).contains(indexName);
+    }
+
+    private SingleProfileDto createProfile(String name, String operatingSystem, int cores) {
+        return profileService.createSingleProfile(SingleProfileDto.builder()
+                .name(name)
+                .operatingSystem(operatingSystem)
+                .hardwareConcurrency(cores)
+                .build());
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+
+        static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
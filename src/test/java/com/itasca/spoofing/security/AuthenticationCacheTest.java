@@ -0,0 +1,118 @@
+package com.itasca.spoofing.security;
+
+import com.itasca.spoofing.service.cache.ClusterMessenger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthenticationCacheTest {
+
+    private static final Set<SimpleGrantedAuthority> AUTHORITIES = Set.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    private AuthenticationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AuthenticationCache();
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "maxTtlSeconds", 300L);
+        cache.init();
+    }
+
+    @Test
+    void cachedTokenReturnsPrincipalUntilUserIsInvalidated() {
+        cache.put("token-a", 1L, "a@example.com", AUTHORITIES, inOneHour(), cache.currentVersion());
+        cache.put("token-b", 2L, "b@example.com", AUTHORITIES, inOneHour(), cache.currentVersion());
+
+        Authentication authentication = cache.get("token-a");
+        assertThat(authentication.getName()).isEqualTo("a@example.com");
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+
+        cache.invalidateUser(1L);
+
+        assertThat(cache.get("token-a")).isNull();
+        assertThat(cache.get("token-b")).isNotNull();
+    }
+
+    @Test
+    void lookupRacingWithInvalidationIsNotCached() {
+        long version = cache.currentVersion();
+        cache.invalidateUser(1L);
+
+        cache.put("token-a", 1L, "a@example.com", AUTHORITIES, inOneHour(), version);
+
+        assertThat(cache.get("token-a")).isNull();
+    }
+
+    @Test
+    void expiredTokenIsNotReturned() {
+        cache.put("token-a", 1L, "a@example.com", AUTHORITIES,
+                new Date(System.currentTimeMillis() - 1000), cache.currentVersion());
+
+        assertThat(cache.get("token-a")).isNull();
+    }
+
+    @Test
+    void invalidationsReachOtherInstances() {
+        RecordingMessenger messenger = new RecordingMessenger();
+        AuthenticationCache clustered = new AuthenticationCache();
+        ReflectionTestUtils.setField(clustered, "maxSize", 100L);
+        ReflectionTestUtils.setField(clustered, "maxTtlSeconds", 300L);
+        ReflectionTestUtils.setField(clustered, "clusterMessenger", messenger);
+        clustered.init();
+
+        clustered.invalidateUser(1L);
+        clustered.invalidateAll();
+        assertThat(messenger.sent).containsExactly("auth:1", "auth:*");
+
+        clustered.put("token-a", 1L, "a@example.com", AUTHORITIES, inOneHour(), clustered.currentVersion());
+        clustered.put("token-b", 2L, "b@example.com", AUTHORITIES, inOneHour(), clustered.currentVersion());
+        long version = clustered.currentVersion();
+
+        // Messages from other instances evict locally without being sent on again
+        messenger.receive(AuthenticationCache.INVALIDATION_TOPIC, "1");
+        assertThat(clustered.get("token-a")).isNull();
+        assertThat(clustered.get("token-b")).isNotNull();
+        assertThat(clustered.currentVersion()).isGreaterThan(version);
+
+        messenger.receive(AuthenticationCache.INVALIDATION_TOPIC, "*");
+        assertThat(clustered.get("token-b")).isNull();
+        assertThat(messenger.sent).hasSize(2);
+    }
+
+    private static Date inOneHour() {
+        return new Date(System.currentTimeMillis() + 3_600_000);
+    }
+
+    private static class RecordingMessenger implements ClusterMessenger {
+
+        private final List<String> sent = new ArrayList<>();
+        private final Map<String, Consumer<String>> listeners = new HashMap<>();
+
+        @Override
+        public void broadcast(String topic, String payload) {
+            sent.add(topic + ":" + payload);
+        }
+
+        @Override
+        public void subscribe(String topic, Consumer<String> listener) {
+            listeners.put(topic, listener);
+        }
+
+        void receive(String topic, String payload) {
+            listeners.get(topic).accept(payload);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.itasca.spoofing.service.audit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditPartitionManagerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private AuditPartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        // H2 stands in for MySQL, with its named lock functions backed by NamedLock
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:audit-partitions;DB_CLOSE_DELAY=-1"));
+        String functions = NamedLock.class.getName();
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS GET_LOCK FOR '" + functions + ".getLock'");
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS RELEASE_LOCK FOR '" + functions + ".releaseLock'");
+        NamedLock.reset();
+
+        manager = new AuditPartitionManager();
+        ReflectionTestUtils.setField(manager, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(manager, "enabled", true);
+    }
+
+    @Test
+    void maintenanceIsSkippedOffMySql() {
+        manager.start();
+        manager.maintain();
+
+        assertThat(NamedLock.requests).hasValue(0);
+    }
+
+    @Test
+    void maintenanceIsSkippedWhileAnotherInstanceHoldsTheLock() {
+        ReflectionTestUtils.setField(manager, "supported", true);
+        NamedLock.heldElsewhere = true;
+
+        manager.maintain();
+
+        assertThat(NamedLock.requests).hasValue(1);
+        assertThat(NamedLock.releases).hasValue(0);
+    }
+
+    @Test
+    void lockIsReleasedWhenMaintenanceFails() {
+        ReflectionTestUtils.setField(manager, "supported", true);
+
+        // H2 has no information_schema.PARTITIONS, so the run fails after taking the lock
+        manager.maintain();
+
+        assertThat(NamedLock.requests).hasValue(1);
+        assertThat(NamedLock.releases).hasValue(1);
+    }
+
+    @Test
+    void partitionNamesRoundTripAndForeignNamesAreIgnored() {
+        assertThat(AuditPartitionManager.partitionName(YearMonth.of(2026, 3))).isEqualTo("p202603");
+        assertThat(AuditPartitionManager.monthlyPartitions(List.of("p202603", "pmax", "p_archive")))
+                .containsExactly(Map.entry("p202603", YearMonth.of(2026, 3)));
+    }
+
+    @Test
+    void missingMonthsContinueAfterTheNewestPartition() {
+        List<YearMonth> existing = List.of(YearMonth.of(2026, 9), YearMonth.of(2026, 10));
+
+        assertThat(AuditPartitionManager.missingMonths(existing, YearMonth.of(2027, 1)))
+                .containsExactly(YearMonth.of(2026, 11), YearMonth.of(2026, 12), YearMonth.of(2027, 1));
+        assertThat(AuditPartitionManager.missingMonths(existing, YearMonth.of(2026, 10))).isEmpty();
+    }
+
+    @Test
+    void expiredPartitionsAreThoseBeforeTheCutoff() {
+        Map<String, YearMonth> partitions = AuditPartitionManager.monthlyPartitions(
+                List.of("p202607", "p202608", "p202609", "p202610", "pmax"));
+
+        assertThat(AuditPartitionManager.expiredPartitions(partitions, YearMonth.of(2026, 9)))
+                .containsExactly("p202607", "p202608");
+    }
+
+    @Test
+    void definitionsBoundEachMonthByTheNextAndEndWithMaxValue() {
+        String definitions = AuditPartitionManager.partitionDefinitions(List.of(YearMonth.of(2026, 12)));
+
+        assertThat(definitions).isEqualTo("PARTITION p202612 VALUES LESS THAN ('2027-01-01 00:00:00'), "
+                + "PARTITION pmax VALUES LESS THAN (MAXVALUE)");
+    }
+
+    /**
+     * GET_LOCK and RELEASE_LOCK for H2, counting their calls
+     */
+    public static final class NamedLock {
+
+        static final AtomicInteger requests = new AtomicInteger();
+        static final AtomicInteger releases = new AtomicInteger();
+        static volatile boolean heldElsewhere;
+
+        static void reset() {
+            requests.set(0);
+            releases.set(0);
+            heldElsewhere = false;
+        }
+
+        public static int getLock(String name, int timeout) {
+            requests.incrementAndGet();
+            return heldElsewhere ? 0 : 1;
+        }
+
+        public static int releaseLock(String name) {
+            releases.incrementAndGet();
+            return 1;
+        }
+    }
+}
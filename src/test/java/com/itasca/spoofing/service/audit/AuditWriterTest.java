@@ -0,0 +1,123 @@
+package com.itasca.spoofing.service.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.repository.ProfileAuditRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuditWriterTest {
+
+    @Autowired
+    private AuditWriter auditWriter;
+
+    @Autowired
+    private ProfileAuditRepository auditRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${audit.spill.directory}")
+    private String spillDirectory;
+
+    @Test
+    void submittedRecordsAreWrittenInBatches() throws Exception {
+        String profileId = UUID.randomUUID().toString();
+        for (int i = 0; i < 1000; i++) {
+            auditWriter.submit(record(profileId));
+        }
+
+        assertThat(awaitCount(profileId, 1000)).isEqualTo(1000);
+    }
+
+    @Test
+    void recordsFromRolledBackTransactionsAreDiscarded() throws Exception {
+        String profileId = UUID.randomUUID().toString();
+        transactionTemplate.executeWithoutResult(status -> {
+            auditWriter.submit(record(profileId));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> auditWriter.submit(record(profileId)));
+
+        assertThat(awaitCount(profileId, 1)).isEqualTo(1);
+        Thread.sleep(200);
+        assertThat(auditRepository.countByProfileIdAndAction(profileId, "USE")).isEqualTo(1);
+    }
+
+    @Test
+    void spilledRecordsAreReplayedWhileTheQueueIsBusy() throws Exception {
+        String spilledId = UUID.randomUUID().toString();
+        StringBuilder spill = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            spill.append(objectMapper.writeValueAsString(record(spilledId))).append('\n');
+        }
+        spill.append("not json\n");
+        Path spillFile = Paths.get(spillDirectory, "audit-spill.ndjson");
+        Files.createDirectories(spillFile.getParent());
+        Files.writeString(spillFile, spill.toString(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        // Keep the writer busy so it is never idle long enough for a full replay
+        String liveId = UUID.randomUUID().toString();
+        AtomicBoolean submitting = new AtomicBoolean(true);
+        Thread load = new Thread(() -> {
+            while (submitting.get()) {
+                auditWriter.submit(record(liveId));
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        load.start();
+        try {
+            assertThat(awaitCount(spilledId, 1000)).isEqualTo(1000);
+        } finally {
+            submitting.set(false);
+            load.join();
+        }
+        assertThat(auditRepository.countByProfileIdAndAction(liveId, "USE")).isPositive();
+    }
+
+    private AuditRecord record(String profileId) {
+        return AuditRecord.builder()
+                .profileId(profileId)
+                .profileType(ProfileType.SINGLE)
+                .action("USE")
+                .userId("test")
+                .actionTimestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private long awaitCount(String profileId, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        long count;
+        do {
+            count = auditRepository.countByProfileIdAndAction(profileId, "USE");
+            if (count >= expected) {
+                break;
+            }
+            Thread.sleep(50);
+        } while (System.currentTimeMillis() < deadline);
+        return count;
+    }
+}
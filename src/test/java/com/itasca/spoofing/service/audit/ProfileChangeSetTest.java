@@ -0,0 +1,48 @@
+package com.itasca.spoofing.service.audit;
+
+import com.itasca.spoofing.entity.GroupProfileEntity;
+import com.itasca.spoofing.entity.SingleProfileEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProfileChangeSetTest {
+
+    @Test
+    void bookkeepingFieldsAreNotAnUpdate() {
+        SingleProfileEntity profile = SingleProfileEntity.builder().id("p1").name("Profile").build();
+        Map<String, Object> before = ProfileChangeSet.capture(profile);
+
+        profile.setLastUsed("2026-01-01T10:00:00");
+        profile.setUpdatedAt(LocalDateTime.now());
+
+        assertThat(ProfileChangeSet.diff(before, ProfileChangeSet.capture(profile)).isEmpty()).isTrue();
+    }
+
+    @Test
+    void diffRecordsChangedFieldsAndMembers() {
+        SingleProfileEntity first = SingleProfileEntity.builder().id("p1").name("First").build();
+        SingleProfileEntity second = SingleProfileEntity.builder().id("p2").name("Second").build();
+        GroupProfileEntity group = GroupProfileEntity.builder().id("g1").name("Group").build();
+        group.getMemberProfiles().add(first);
+        Map<String, Object> before = ProfileChangeSet.capture(group);
+
+        group.setName("Renamed");
+        group.setCurrentProfileIndex(5);
+        group.getProxyConfig().setPassword("secret");
+        group.getMemberProfiles().remove(first);
+        group.getMemberProfiles().add(second);
+
+        ProfileChangeSet changes = ProfileChangeSet.diff(before, ProfileChangeSet.capture(group));
+
+        assertThat(changes.getChangedFields()).containsExactlyInAnyOrder("name", "proxy_password", "member_profile_ids");
+        assertThat(changes.getChanges().get("name")).isEqualTo(Map.of("from", "Group", "to", "Renamed"));
+        assertThat(changes.getChanges().get("proxy_password").toString()).doesNotContain("secret");
+        assertThat(changes.getChanges().get("member_profile_ids"))
+                .isEqualTo(Map.of("added", List.of("p2"), "removed", List.of("p1")));
+    }
+}
@@ -0,0 +1,55 @@
+package com.itasca.spoofing.service.bulkimport;
+
+import com.itasca.spoofing.model.ImportFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportRecordReaderTest {
+
+    @Test
+    void csvQuotedFieldsKeepCommasQuotesAndLineBreaks() throws Exception {
+        String csv = "Name,description,operating_system\r\n"
+                + "First,\"Has, comma\",Windows\r\n"
+                + "\r\n"
+                + "Second,\"Says \"\"hi\"\"\non two lines\",\n"
+                + "Third,a,b,extra\n";
+
+        try (ImportRecordReader reader = reader(csv, ImportFormat.CSV)) {
+            ImportRecord first = reader.next();
+            assertThat(first.getRowNumber()).isEqualTo(1);
+            assertThat(first.getFields()).isEqualTo(Map.of(
+                    "name", "First", "description", "Has, comma", "operating_system", "Windows"));
+
+            ImportRecord second = reader.next();
+            assertThat(second.getRowNumber()).isEqualTo(2);
+            assertThat(second.getFields()).isEqualTo(Map.of(
+                    "name", "Second", "description", "Says \"hi\"\non two lines"));
+
+            ImportRecord third = reader.next();
+            assertThat(third.getError()).contains("Expected 3 columns");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void skipResumesAfterProcessedRows() throws Exception {
+        String ndjson = "{\"name\":\"a\"}\n\n{\"name\":\"b\"}\n{\"name\":\"c\"}\n";
+
+        try (ImportRecordReader reader = reader(ndjson, ImportFormat.NDJSON)) {
+            assertThat(reader.skip(2)).isEqualTo(2);
+            ImportRecord record = reader.next();
+            assertThat(record.getRowNumber()).isEqualTo(3);
+            assertThat(record.getLine()).isEqualTo("{\"name\":\"c\"}");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    private static ImportRecordReader reader(String input, ImportFormat format) {
+        return new ImportRecordReader(new BufferedReader(new StringReader(input)), format);
+    }
+}
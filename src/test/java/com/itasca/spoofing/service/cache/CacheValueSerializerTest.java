@@ -0,0 +1,105 @@
+package com.itasca.spoofing.service.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itasca.spoofing.model.GroupProfileDto;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.model.URLDto;
+import com.itasca.spoofing.model.URLGroupDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheValueSerializerTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final JavaType groupType = CacheNames.valueType(CacheNames.GROUP_PROFILES, objectMapper.getTypeFactory());
+
+    @Test
+    void everyFormatRoundTripsAndStaysReadableAfterAFormatChange() {
+        GroupProfileDto group = group(50);
+        CacheValueSerializer smile = serializer(CacheValueSerializer.Format.SMILE, 1024);
+        CacheValueSerializer json = serializer(CacheValueSerializer.Format.JSON, -1);
+
+        byte[] compressed = smile.serialize(group);
+        byte[] plain = json.serialize(group);
+        assertThat(compressed[3]).isEqualTo((byte) 1);
+        assertThat(plain[3]).isEqualTo((byte) 0);
+
+        assertThat(smile.deserialize(plain)).isEqualTo(group);
+        assertThat(json.deserialize(compressed)).isEqualTo(group);
+        assertThat(smile.deserialize(serializer(CacheValueSerializer.Format.SMILE, -1).serialize(group))).isEqualTo(group);
+    }
+
+    @Test
+    void readsHeaderlessJsonAndRejectsUnknownVersions() {
+        GroupProfileDto group = group(3);
+        CacheValueSerializer serializer = serializer(CacheValueSerializer.Format.SMILE, 1024);
+
+        byte[] legacy = new Jackson2JsonRedisSerializer<>(objectMapper, groupType).serialize(group);
+        assertThat(serializer.deserialize(legacy)).isEqualTo(group);
+
+        byte[] future = serializer.serialize(group);
+        future[1] = CacheValueSerializer.VERSION + 1;
+        assertThatThrownBy(() -> serializer.deserialize(future)).isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> serializer.deserialize(new byte[] {CacheValueSerializer.MAGIC}))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void largeGroupsAreMuchSmallerThanTypedJson() {
+        GroupProfileDto group = group(200);
+
+        int generic = new GenericJackson2JsonRedisSerializer().serialize(group).length;
+        int typedJson = serializer(CacheValueSerializer.Format.JSON, -1).serialize(group).length;
+        int smile = serializer(CacheValueSerializer.Format.SMILE, -1).serialize(group).length;
+        int smileLz4 = serializer(CacheValueSerializer.Format.SMILE, 1024).serialize(group).length;
+
+        assertThat(typedJson).isLessThan(generic);
+        assertThat(smile).isLessThan(typedJson);
+        assertThat(smileLz4).isLessThan(generic / 4);
+    }
+
+    private CacheValueSerializer serializer(CacheValueSerializer.Format format, int compressionThreshold) {
+        return new CacheValueSerializer(objectMapper, groupType, format, compressionThreshold);
+    }
+
+    private static GroupProfileDto group(int members) {
+        URLGroupDto urlGroup = URLGroupDto.builder().id(7L).name("Default")
+                .urls(List.of(URLDto.builder().id(1L).url("https://example.com/login").build())).build();
+        Set<SingleProfileDto> memberProfiles = new HashSet<>();
+        Map<String, Integer> weights = new HashMap<>();
+        for (int i = 0; i < members; i++) {
+            String id = String.format("00000000-0000-0000-0000-%012d", i);
+            memberProfiles.add(SingleProfileDto.builder()
+                    .id(id)
+                    .name("Profile " + i)
+                    .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0." + i + " Safari/537.36")
+                    .webglRenderer("ANGLE (NVIDIA, NVIDIA GeForce RTX 30" + (i % 10) + "0 Direct3D11 vs_5_0 ps_5_0)")
+                    .hardwareConcurrency(4 + i % 12)
+                    .urlGroups(List.of(urlGroup))
+                    .generatedFingerprint(Map.of("canvas_hash", Integer.toHexString(i * 31), "audio_hash", Integer.toHexString(i * 17)))
+                    .build());
+            weights.put(id, 1 + i % 5);
+        }
+        return GroupProfileDto.builder()
+                .id("g1")
+                .name("Group")
+                .memberProfiles(memberProfiles)
+                .memberProfileIds(weights.keySet())
+                .memberWeights(weights)
+                .urlGroup(urlGroup)
+                .build();
+    }
+}
@@ -0,0 +1,206 @@
+package com.itasca.spoofing.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itasca.spoofing.model.GroupProfileDto;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.model.URLDto;
+import com.itasca.spoofing.model.URLGroupDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoLevelCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> published = new ArrayList<>();
+
+    @Test
+    void readsFallThroughTiersAndLoadOnce() {
+        ConcurrentMapCache shared = new ConcurrentMapCache("profiles", false);
+        TwoLevelCache cache = cache(shared);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("p1", () -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        assertThat(cache.get("p1", () -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+        assertThat(shared.get("p1").get()).isEqualTo("v1");
+
+        // Another instance only has the shared tier
+        TwoLevelCache other = cache(shared);
+        assertThat(other.get("p1", () -> "reloaded")).isEqualTo("v1");
+        assertThat(meterRegistry.get("cache.l2.gets").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void missesAreNotCachedAndEvictionsAreBroadcast() {
+        ConcurrentMapCache shared = new ConcurrentMapCache("profiles", false);
+        TwoLevelCache cache = cache(shared);
+
+        assertThat((Object) cache.get("missing", () -> null)).isNull();
+        assertThat(cache.get("missing")).isNull();
+
+        cache.get(42L, () -> "v");
+        cache.evict(42L);
+        assertThat(cache.get("42")).isNull();
+        assertThat(shared.get("42")).isNull();
+
+        cache.clear();
+        assertThat(published).containsExactly("profiles:42", "profiles:null");
+    }
+
+    @Test
+    void remoteInvalidationDropsOnlyTheLocalCopy() {
+        ConcurrentMapCache shared = new ConcurrentMapCache("profiles", false);
+        TwoLevelCache cache = cache(shared);
+        cache.get("p1", () -> "v1");
+
+        shared.put("p1", "v2");
+        assertThat(cache.get("p1").get()).isEqualTo("v1");
+        cache.evictLocal("p1");
+        assertThat(cache.get("p1").get()).isEqualTo("v2");
+    }
+
+    @Test
+    void valueLoadedAcrossAnInvalidationIsNotShared() {
+        ConcurrentMapCache shared = new ConcurrentMapCache("profiles", false);
+        TwoLevelCache cache = cache(shared);
+
+        // Another instance invalidates the cache while this one reads an old row
+        assertThat(cache.get("p1", () -> {
+            cache.evictLocal("p0");
+            return "old";
+        })).isEqualTo("old");
+        assertThat(shared.get("p1")).isNull();
+
+        assertThat(cache.get("p2", () -> "v2")).isEqualTo("v2");
+        assertThat(shared.get("p2").get()).isEqualTo("v2");
+    }
+
+    @Test
+    void failingSharedTierFallsBackToLocalAndIsClearedOnRecovery() throws InterruptedException {
+        FlakyCache shared = new FlakyCache();
+        shared.put("stale", "old");
+        TwoLevelCache cache = new TwoLevelCache("profiles", Caffeine.newBuilder().build(), shared,
+                (name, key) -> { }, 50, meterRegistry);
+
+        shared.failing = true;
+        assertThat(cache.get("p1", () -> "local")).isEqualTo("local");
+        cache.evict("stale");
+        assertThat(meterRegistry.get("cache.l2.errors").counter().count()).isEqualTo(1);
+
+        shared.failing = false;
+        Thread.sleep(60);
+        assertThat(cache.get("p2", () -> "fresh")).isEqualTo("fresh");
+        assertThat(shared.get("stale")).isNull();
+    }
+
+    @Test
+    void channelMessagesReachCachesAndTopicSubscribers() {
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(null, null, "cache-invalidation", 1000,
+                new MockEnvironment(), meterRegistry);
+        Cache cache = manager.getCache("profiles");
+        cache.put("p1", "v1");
+        List<String> received = new ArrayList<>();
+        manager.subscribe("auth", received::add);
+
+        manager.onMessage(message("other\nprofiles\np1"), null);
+        manager.onMessage(message("other\ntopic:auth\n42"), null);
+        manager.onMessage(message("other\ntopic:unknown\n1"), null);
+        assertThat(cache.get("p1")).isNull();
+        assertThat(received).containsExactly("42");
+
+        // Without Redis there is nobody to tell
+        manager.broadcast("auth", "7");
+        assertThat(received).containsExactly("42");
+    }
+
+    @Test
+    void cachedDtosRoundTripThroughTheSharedTierSerializer() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        SingleProfileDto member = SingleProfileDto.builder().id("p1").name("Member").build();
+        GroupProfileDto group = GroupProfileDto.builder()
+                .id("g1")
+                .name("Group")
+                .memberProfiles(Set.of(member))
+                .memberProfileIds(Set.of("p1"))
+                .memberWeights(Map.of("p1", 3))
+                .build();
+        URLGroupDto urlGroup = URLGroupDto.builder().id(7L).name("Default")
+                .urls(List.of(URLDto.builder().id(1L).url("about:blank").build())).build();
+
+        assertThat(roundTrip(objectMapper, CacheNames.SINGLE_PROFILES, member)).isEqualTo(member);
+        assertThat(roundTrip(objectMapper, CacheNames.GROUP_PROFILES, group)).isEqualTo(group);
+        assertThat(roundTrip(objectMapper, CacheNames.ASSIGNED_PROFILES, List.of(group))).isEqualTo(List.of(group));
+        assertThat(roundTrip(objectMapper, CacheNames.URL_GROUPS, urlGroup)).isEqualTo(urlGroup);
+    }
+
+    private Object roundTrip(ObjectMapper objectMapper, String cacheName, Object value) {
+        Jackson2JsonRedisSerializer<Object> serializer =
+                new Jackson2JsonRedisSerializer<>(objectMapper, CacheNames.valueType(cacheName, objectMapper.getTypeFactory()));
+        return serializer.deserialize(serializer.serialize(value));
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("cache-invalidation".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private TwoLevelCache cache(Cache shared) {
+        return new TwoLevelCache("profiles", Caffeine.newBuilder().build(), shared,
+                (name, key) -> published.add(name + ":" + key), 1000, meterRegistry);
+    }
+
+    private static class FlakyCache extends ConcurrentMapCache {
+
+        private volatile boolean failing;
+
+        FlakyCache() {
+            super("profiles", false);
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            check();
+            return super.get(key);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            check();
+            super.put(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            check();
+            super.evict(key);
+        }
+
+        @Override
+        public void clear() {
+            check();
+            super.clear();
+        }
+
+        private void check() {
+            if (failing) {
+                throw new IllegalStateException("Redis is down");
+            }
+        }
+    }
+}
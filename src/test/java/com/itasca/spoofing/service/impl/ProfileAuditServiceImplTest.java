@@ -0,0 +1,106 @@
+package com.itasca.spoofing.service.impl;
+
+import com.itasca.spoofing.entity.ProfileAuditEntity;
+import com.itasca.spoofing.model.CursorPageDto;
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.repository.ProfileAuditRepository;
+import com.itasca.spoofing.service.ProfileAuditService;
+import com.itasca.spoofing.service.audit.AuditQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProfileAuditServiceImplTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Autowired
+    private ProfileAuditService auditService;
+
+    @Autowired
+    private ProfileAuditRepository auditRepository;
+
+    private String profileId;
+
+    @BeforeEach
+    void seed() {
+        // One entry per hour, alternating USE and UPDATE, with two entries sharing each timestamp
+        profileId = UUID.randomUUID().toString();
+        List<ProfileAuditEntity> audits = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            for (int copy = 0; copy < 2; copy++) {
+                audits.add(ProfileAuditEntity.builder()
+                        .profileId(profileId)
+                        .profileType(ProfileType.SINGLE)
+                        .action(i % 2 == 0 ? "USE" : "UPDATE")
+                        .userId("test")
+                        .actionTimestamp(START.plusHours(i))
+                        .build());
+            }
+        }
+        auditRepository.saveAll(audits);
+    }
+
+    @Test
+    void pagesCoverTheWindowNewestFirstWithoutGapsOrDuplicates() {
+        AuditQuery query = AuditQuery.builder()
+                .profileId(profileId)
+                .from(START.plusHours(10))
+                .to(START.plusHours(40))
+                .build();
+
+        List<ProfileAuditEntity> seen = new ArrayList<>();
+        String cursor = null;
+        CursorPageDto<ProfileAuditEntity> page;
+        do {
+            page = auditService.findAuditEntries(query, cursor, 7, true);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+
+        assertThat(page.getTotalCount()).isEqualTo(60);
+        assertThat(seen).hasSize(60);
+        assertThat(seen).extracting(ProfileAuditEntity::getId).doesNotHaveDuplicates();
+        assertThat(seen.get(0).getActionTimestamp()).isEqualTo(START.plusHours(39));
+        assertThat(seen.get(seen.size() - 1).getActionTimestamp()).isEqualTo(START.plusHours(10));
+        for (int i = 1; i < seen.size(); i++) {
+            assertThat(seen.get(i).getActionTimestamp()).isBeforeOrEqualTo(seen.get(i - 1).getActionTimestamp());
+        }
+    }
+
+    @Test
+    void actionFilterNarrowsProfileHistory() {
+        AuditQuery query = AuditQuery.builder().profileId(profileId).action("update").build();
+
+        CursorPageDto<ProfileAuditEntity> page = auditService.findAuditEntries(query, null, 200, true);
+
+        assertThat(page.getTotalCount()).isEqualTo(50);
+        assertThat(page.getItems()).hasSize(50).allMatch(audit -> audit.getAction().equals("UPDATE"));
+    }
+
+    @Test
+    void exportStreamsMatchingEntriesOldestFirst() throws Exception {
+        AuditQuery query = AuditQuery.builder().profileId(profileId).from(START).to(START.plusHours(5)).build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = auditService.exportAuditEntries(query, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(10);
+        assertThat(lines).hasSize(10);
+        assertThat(lines[0]).contains(profileId).contains("USE");
+    }
+}
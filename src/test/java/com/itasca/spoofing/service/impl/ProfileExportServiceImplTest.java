@@ -0,0 +1,61 @@
+package com.itasca.spoofing.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itasca.spoofing.entity.SingleProfileEntity;
+import com.itasca.spoofing.repository.SingleProfileRepository;
+import com.itasca.spoofing.service.ProfileExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "export.chunk-size=50")
+@ActiveProfiles("test")
+class ProfileExportServiceImplTest {
+
+    @Autowired
+    private ProfileExportService exportService;
+
+    @Autowired
+    private SingleProfileRepository singleProfileRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportWritesOneJsonLinePerProfileAcrossChunks() throws Exception {
+        List<SingleProfileEntity> profiles = IntStream.range(0, 123)
+                .mapToObj(i -> SingleProfileEntity.builder()
+                        .id(UUID.randomUUID().toString())
+                        .name("export-test-" + i)
+                        .build())
+                .toList();
+        singleProfileRepository.saveAll(profiles);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = exportService.exportSingleProfiles(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(singleProfileRepository.count());
+        assertThat(lines).hasSize((int) exported);
+
+        Set<String> ids = new HashSet<>();
+        for (String line : lines) {
+            JsonNode profile = objectMapper.readTree(line);
+            ids.add(profile.get("id").asText());
+        }
+        assertThat(ids).hasSize(lines.length);
+        assertThat(ids).containsAll(profiles.stream().map(SingleProfileEntity::getId).toList());
+    }
+}
@@ -0,0 +1,145 @@
+package com.itasca.spoofing.service.impl;
+
+import com.itasca.spoofing.entity.ProfileImportJobEntity;
+import com.itasca.spoofing.entity.SingleProfileEntity;
+import com.itasca.spoofing.exception.ProfileValidationException;
+import com.itasca.spoofing.model.ImportFormat;
+import com.itasca.spoofing.model.ImportJobStatus;
+import com.itasca.spoofing.model.ProfileImportErrorDto;
+import com.itasca.spoofing.model.ProfileImportJobDto;
+import com.itasca.spoofing.repository.ProfileImportJobRepository;
+import com.itasca.spoofing.repository.SingleProfileRepository;
+import com.itasca.spoofing.service.ProfileImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "import.chunk-size=20")
+@ActiveProfiles("test")
+class ProfileImportServiceImplTest {
+
+    @Autowired
+    private ProfileImportService importService;
+
+    @Autowired
+    private SingleProfileRepository singleProfileRepository;
+
+    @Autowired
+    private ProfileImportJobRepository jobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void importCommitsValidRowsAndReportsRejectedOnes() throws Exception {
+        String prefix = "import-" + UUID.randomUUID() + "-";
+        singleProfileRepository.save(SingleProfileEntity.builder()
+                .id(UUID.randomUUID().toString())
+                .name(prefix + "taken")
+                .build());
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            ndjson.append("{\"name\":\"").append(prefix).append(i).append("\",\"operating_system\":\"Linux\"}\n");
+        }
+        ndjson.append("{\"name\":\"").append(prefix).append("TAKEN\"}\n");   // row 51, name exists
+        ndjson.append("{\"name\":\"").append(prefix).append("7\"}\n");       // row 52, duplicate of row 8
+        ndjson.append("{\"description\":\"no name\"}\n");                   // row 53
+        ndjson.append("{not json\n");                                       // row 54
+
+        ProfileImportJobDto job = importService.startImport(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)), ImportFormat.NDJSON);
+        ProfileImportJobDto finished = awaitFinished(job.getJobId());
+
+        assertThat(finished.getStatus()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(finished.getProcessedRows()).isEqualTo(54);
+        assertThat(finished.getImportedCount()).isEqualTo(50);
+        assertThat(finished.getFailedCount()).isEqualTo(4);
+        assertThat(singleProfileRepository.findByNameContainingIgnoreCase(prefix)).hasSize(51);
+
+        List<ProfileImportErrorDto> errors = importService.getImportErrors(job.getJobId(), 0, 100);
+        assertThat(errors).extracting(ProfileImportErrorDto::getRowNumber).containsExactly(51L, 52L, 53L, 54L);
+        assertThat(errors.get(0).getMessage()).startsWith("Profile name already exists");
+        assertThat(errors.get(2).getMessage()).isEqualTo("Profile name is required");
+        assertThat(importService.getImportErrors(job.getJobId(), 52, 100)).hasSize(2);
+    }
+
+    @Test
+    void runningJobIsClaimedByOneRunOnly() throws Exception {
+        ProfileImportJobEntity job = saveJob(ImportJobStatus.RUNNING, LocalDateTime.now(), "");
+
+        assertThatThrownBy(() -> importService.resumeImport(job.getId()))
+                .isInstanceOf(ProfileValidationException.class)
+                .hasMessageContaining("already running");
+        assertThat(claim(job.getId(), "other", LocalDateTime.now().minusMinutes(5))).isFalse();
+        assertThat(importService.recoverStaleJobs()).isZero();
+
+        // Once the heartbeat is older than the lease another run takes over and the old owner is fenced off
+        assertThat(claim(job.getId(), "other", LocalDateTime.now().plusSeconds(1))).isTrue();
+        Integer recorded = transactionTemplate.execute(status ->
+                jobRepository.recordProgress(job.getId(), "owner", 1, 1, 0, LocalDateTime.now()));
+        assertThat(recorded).isZero();
+        assertThat(jobRepository.findById(job.getId()).orElseThrow().getLeaseOwner()).isEqualTo("other");
+    }
+
+    @Test
+    void staleRunningJobIsRecovered() throws Exception {
+        String prefix = "recover-" + UUID.randomUUID() + "-";
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            ndjson.append("{\"name\":\"").append(prefix).append(i).append("\",\"operating_system\":\"Linux\"}\n");
+        }
+        ProfileImportJobEntity job = saveJob(ImportJobStatus.RUNNING, LocalDateTime.now().minusHours(1), ndjson.toString());
+
+        assertThat(importService.recoverStaleJobs()).isGreaterThanOrEqualTo(1);
+        ProfileImportJobDto finished = awaitFinished(job.getId());
+
+        assertThat(finished.getStatus()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(finished.getImportedCount()).isEqualTo(30);
+        assertThat(singleProfileRepository.findByNameContainingIgnoreCase(prefix)).hasSize(30);
+        assertThat(jobRepository.findById(job.getId()).orElseThrow().getLeaseOwner()).isNull();
+    }
+
+    private ProfileImportJobEntity saveJob(ImportJobStatus status, LocalDateTime heartbeatAt, String content)
+            throws Exception {
+        Path source = Files.createTempFile("import-", ".ndjson");
+        Files.writeString(source, content);
+        return jobRepository.save(ProfileImportJobEntity.builder()
+                .id(UUID.randomUUID().toString())
+                .format(ImportFormat.NDJSON)
+                .status(status)
+                .sourceFile(source.toString())
+                .leaseOwner("owner")
+                .heartbeatAt(heartbeatAt)
+                .build());
+    }
+
+    private boolean claim(String jobId, String owner, LocalDateTime staleBefore) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                jobRepository.claim(jobId, owner, LocalDateTime.now(), staleBefore)));
+    }
+
+    private ProfileImportJobDto awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            ProfileImportJobDto job = importService.getImportJob(jobId).orElseThrow();
+            if (job.getStatus() == ImportJobStatus.COMPLETED || job.getStatus() == ImportJobStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Import job did not finish: " + jobId);
+    }
+}
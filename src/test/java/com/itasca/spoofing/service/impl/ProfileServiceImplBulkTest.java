@@ -0,0 +1,88 @@
+package com.itasca.spoofing.service.impl;
+
+import com.itasca.spoofing.model.BulkOperationResultDto;
+import com.itasca.spoofing.model.GroupProfileDto;
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.repository.GroupProfileRepository;
+import com.itasca.spoofing.repository.SingleProfileRepository;
+import com.itasca.spoofing.service.ProfileService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "bulk.chunk-size=2")
+@ActiveProfiles("test")
+class ProfileServiceImplBulkTest {
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private SingleProfileRepository singleProfileRepository;
+
+    @Autowired
+    private GroupProfileRepository groupProfileRepository;
+
+    @Test
+    void bulkStatusUpdateReportsChangedUnchangedAndMissingProfiles() {
+        List<String> ids = createProfiles(3);
+        String missing = UUID.randomUUID().toString();
+
+        BulkOperationResultDto first = profileService.bulkStatusUpdate(
+                List.of(ids.get(0), ids.get(1), missing), "Inactive", ProfileType.SINGLE);
+        assertThat(first.getRequested()).isEqualTo(3);
+        assertThat(first.getAffected()).isEqualTo(2);
+        assertThat(first.getNotFoundIds()).containsExactly(missing);
+
+        BulkOperationResultDto second = profileService.bulkStatusUpdate(ids, "Inactive", ProfileType.SINGLE);
+        assertThat(second.getAffected()).isEqualTo(1);
+        assertThat(second.getUnchanged()).isEqualTo(2);
+        assertThat(singleProfileRepository.findAllById(ids)).allSatisfy(
+                profile -> assertThat(profile.getStatus()).isEqualTo("Inactive"));
+    }
+
+    @Test
+    void bulkDeleteRemovesProfilesAndTheirGroupMemberships() {
+        List<String> ids = createProfiles(3);
+        GroupProfileDto group = profileService.createGroupProfile(GroupProfileDto.builder()
+                .name("bulk-group-" + UUID.randomUUID())
+                .memberProfileIds(Set.of(ids.get(0), ids.get(1), ids.get(2)))
+                .memberWeights(Map.of(ids.get(0), 3))
+                .build());
+
+        BulkOperationResultDto result = profileService.deleteMultipleProfiles(
+                List.of(ids.get(0), ids.get(1), ids.get(0)), ProfileType.SINGLE);
+
+        assertThat(result.getRequested()).isEqualTo(2);
+        assertThat(result.getAffected()).isEqualTo(2);
+        assertThat(result.getDeletedRows()).containsEntry("group_profile_members", 2)
+                .containsEntry("group_profile_member_weights", 1);
+        assertThat(singleProfileRepository.findAllById(ids)).extracting("id").containsExactly(ids.get(2));
+        assertThat(groupProfileRepository.findByIdWithMembers(group.getId()).orElseThrow().getMemberProfiles())
+                .extracting("id").containsExactly(ids.get(2));
+
+        BulkOperationResultDto groupResult = profileService.deleteMultipleProfiles(List.of(group.getId()), ProfileType.GROUP);
+        assertThat(groupResult.getAffected()).isEqualTo(1);
+        assertThat(groupProfileRepository.existsById(group.getId())).isFalse();
+        assertThat(singleProfileRepository.existsById(ids.get(2))).isTrue();
+    }
+
+    private List<String> createProfiles(int count) {
+        String prefix = "bulk-" + UUID.randomUUID() + "-";
+        return profileService.createSingleProfiles(java.util.stream.IntStream.range(0, count)
+                        .mapToObj(i -> SingleProfileDto.builder().name(prefix + i).build())
+                        .toList())
+                .stream()
+                .map(SingleProfileDto::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,89 @@
+package com.itasca.spoofing.service.impl;
+
+import com.itasca.spoofing.entity.GroupType;
+import com.itasca.spoofing.model.GroupProfileDto;
+import com.itasca.spoofing.model.GroupProfileSummaryDto;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.model.SingleProfileSummaryDto;
+import com.itasca.spoofing.service.GroupManagementService;
+import com.itasca.spoofing.service.ProfileService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProfileServiceImplSummaryTest {
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private GroupManagementService groupManagementService;
+
+    @Test
+    void singleProfileSummariesMatchTheFullView() {
+        SingleProfileDto profile = profileService.createSingleProfile(SingleProfileDto.builder()
+                .name("summary-" + UUID.randomUUID())
+                .operatingSystem("Linux")
+                .build());
+
+        SingleProfileSummaryDto summary = profileService.getAllSingleProfileSummaries().stream()
+                .filter(candidate -> candidate.getId().equals(profile.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(summary.getName()).isEqualTo(profile.getName());
+        assertThat(summary.getStatus()).isEqualTo(profile.getStatus());
+        assertThat(summary.getOperatingSystem()).isEqualTo("Linux");
+        assertThat(summary.getLastUsed()).isEqualTo(profile.getLastUsed());
+        assertThat(summary.getCreated()).isNotNull();
+
+        PageRequest pageable = PageRequest.of(0, 5, Sort.by("name"));
+        Page<SingleProfileSummaryDto> summaries = profileService.getSingleProfileSummaries(pageable);
+        Page<SingleProfileDto> profiles = profileService.getSingleProfiles(pageable);
+        assertThat(summaries.getTotalElements()).isEqualTo(profiles.getTotalElements());
+        assertThat(summaries.getContent()).extracting(SingleProfileSummaryDto::getId)
+                .containsExactlyElementsOf(profiles.getContent().stream().map(SingleProfileDto::getId).toList());
+    }
+
+    @Test
+    void groupSummariesCountMembersWithoutLoadingThem() {
+        String prefix = "summary-member-" + UUID.randomUUID() + "-";
+        List<String> memberIds = profileService.createSingleProfiles(List.of(
+                        SingleProfileDto.builder().name(prefix + 0).build(),
+                        SingleProfileDto.builder().name(prefix + 1).build()))
+                .stream()
+                .map(SingleProfileDto::getId)
+                .toList();
+        GroupProfileDto group = profileService.createGroupProfile(GroupProfileDto.builder()
+                .name("summary-group-" + UUID.randomUUID())
+                .selectionMode("sequential")
+                .memberProfileIds(Set.copyOf(memberIds))
+                .build());
+
+        GroupProfileSummaryDto summary = profileService.getAllGroupProfileSummaries().stream()
+                .filter(candidate -> candidate.getId().equals(group.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(summary.getMemberCount()).isEqualTo(2);
+        assertThat(summary.getGroupType()).isEqualTo(GroupType.CUSTOM);
+        assertThat(summary.getSelectionMode()).isEqualTo("sequential");
+
+        Page<GroupProfileSummaryDto> custom = groupManagementService.getCustomGroupSummaries(PageRequest.of(0, 1000));
+        assertThat(custom.getContent()).allSatisfy(
+                candidate -> assertThat(candidate.getGroupType()).isEqualTo(GroupType.CUSTOM));
+        assertThat(custom.getContent()).extracting(GroupProfileSummaryDto::getId).contains(group.getId());
+        assertThat(custom.getTotalElements())
+                .isEqualTo(groupManagementService.getCustomGroups(PageRequest.of(0, 1000)).getTotalElements());
+    }
+}
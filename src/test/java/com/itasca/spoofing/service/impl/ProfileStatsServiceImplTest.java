@@ -0,0 +1,120 @@
+package com.itasca.spoofing.service.impl;
+
+import com.itasca.spoofing.entity.GroupProfileEntity;
+import com.itasca.spoofing.entity.UserEntity;
+import com.itasca.spoofing.entity.UserRole;
+import com.itasca.spoofing.exception.ProfileNotFoundException;
+import com.itasca.spoofing.exception.UnauthorizedAccessException;
+import com.itasca.spoofing.model.SessionOutcome;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.model.StatsPeriod;
+import com.itasca.spoofing.repository.GroupProfileRepository;
+import com.itasca.spoofing.repository.SingleProfileRepository;
+import com.itasca.spoofing.repository.UserRepository;
+import com.itasca.spoofing.service.ProfileService;
+import com.itasca.spoofing.service.ProfileStatsService;
+import com.itasca.spoofing.service.stats.ProfileStatsBuffer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "stats.flush-interval-ms=3600000")
+@ActiveProfiles("test")
+class ProfileStatsServiceImplTest {
+
+    @Autowired
+    private ProfileStatsService statsService;
+
+    @Autowired
+    private ProfileStatsBuffer statsBuffer;
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private GroupProfileRepository groupProfileRepository;
+
+    @Autowired
+    private SingleProfileRepository singleProfileRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void sessionOutcomesAreCountedByCauseAndQuarantineTheProfile() {
+        String profileId = UUID.randomUUID().toString();
+        statsService.recordSessionOutcome(profileId, SessionOutcome.SUCCESS, 10, 3);
+        statsService.recordSessionOutcome(profileId, SessionOutcome.PROXY_FAILURE, 0, 0);
+        statsService.recordSessionOutcome(profileId, SessionOutcome.FINGERPRINT_DETECTION, 0, 0);
+        statsService.recordSessionOutcome(profileId, SessionOutcome.FINGERPRINT_DETECTION, 0, 0);
+        statsBuffer.flush();
+
+        Map<String, Object> report = statsService.getProfilePerformanceReport(profileId, StatsPeriod.DAY);
+        assertThat(report)
+                .containsEntry("successfulSessions", 1L)
+                .containsEntry("failedSessions", 3L)
+                .containsEntry("proxyFailures", 1L)
+                .containsEntry("fingerprintDetections", 2L);
+
+        assertThat(statsService.getProblemsProfiles(LocalDate.now().minusDays(1), 2.0))
+                .anySatisfy(stats -> assertThat(stats.getProfileId()).isEqualTo(profileId));
+        assertThat(statsService.getQuarantinedProfiles())
+                .anySatisfy(entry -> assertThat(entry.getProfileId()).isEqualTo(profileId));
+        assertThat(statsService.releaseQuarantine(profileId)).isTrue();
+    }
+
+    @Test
+    void onlyUsersOfTheProfileMayReportOutcomes() {
+        String suffix = UUID.randomUUID().toString();
+        String profileId = profileService.createSingleProfile(SingleProfileDto.builder()
+                .name("outcome-" + suffix).build()).getId();
+        GroupProfileEntity group = groupProfileRepository.save(GroupProfileEntity.builder()
+                .id(UUID.randomUUID().toString())
+                .name("outcome-group-" + suffix)
+                .memberProfiles(Set.of(singleProfileRepository.findById(profileId).orElseThrow()))
+                .build());
+        UserEntity assigned = createUser("outcome-member-" + suffix, UserRole.USER);
+        assigned.getAssignedGroups().add(group);
+        UserEntity member = userRepository.save(assigned);
+        UserEntity stranger = createUser("outcome-stranger-" + suffix, UserRole.USER);
+        UserEntity admin = createUser("outcome-admin-" + suffix, UserRole.ADMIN);
+
+        try {
+            assertThatThrownBy(() -> statsService.reportSessionOutcome(UUID.randomUUID().toString(),
+                    SessionOutcome.FAILURE, 0, 0, member.getEmail()))
+                    .isInstanceOf(ProfileNotFoundException.class);
+            assertThatThrownBy(() -> statsService.reportSessionOutcome(profileId,
+                    SessionOutcome.FAILURE, 0, 0, stranger.getEmail()))
+                    .isInstanceOf(UnauthorizedAccessException.class);
+
+            statsService.reportSessionOutcome(profileId, SessionOutcome.SUCCESS, 5, 1, member.getEmail());
+            statsService.reportSessionOutcome(profileId, SessionOutcome.SUCCESS, 5, 1, admin.getEmail());
+            statsBuffer.flush();
+            assertThat(statsService.getProfilePerformanceReport(profileId, StatsPeriod.DAY))
+                    .containsEntry("successfulSessions", 2L)
+                    .containsEntry("failedSessions", 0L);
+        } finally {
+            userRepository.deleteAll(userRepository.findAllById(List.of(member.getId(), stranger.getId(), admin.getId())));
+            groupProfileRepository.deleteById(group.getId());
+        }
+    }
+
+    private UserEntity createUser(String name, UserRole role) {
+        return userRepository.save(UserEntity.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("secret")
+                .roles(Set.of(role))
+                .build());
+    }
+}
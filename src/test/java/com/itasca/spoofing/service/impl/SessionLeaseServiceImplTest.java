@@ -0,0 +1,270 @@
+package com.itasca.spoofing.service.impl;
+
+import com.itasca.spoofing.entity.GroupProfileEntity;
+import com.itasca.spoofing.entity.GroupSessionLeaseEntity;
+import com.itasca.spoofing.entity.UserEntity;
+import com.itasca.spoofing.entity.UserRole;
+import com.itasca.spoofing.exception.ProfileNotFoundException;
+import com.itasca.spoofing.exception.ProfileValidationException;
+import com.itasca.spoofing.exception.UnauthorizedAccessException;
+import com.itasca.spoofing.model.GroupProfileDto;
+import com.itasca.spoofing.model.SessionLeaseDto;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.repository.GroupProfileRepository;
+import com.itasca.spoofing.repository.GroupSessionLeaseRepository;
+import com.itasca.spoofing.repository.SingleProfileRepository;
+import com.itasca.spoofing.repository.UserRepository;
+import com.itasca.spoofing.service.GroupManagementService;
+import com.itasca.spoofing.service.ProfileService;
+import com.itasca.spoofing.service.SessionLeaseService;
+import com.itasca.spoofing.service.SessionSlotService;
+import com.itasca.spoofing.service.UserService;
+import com.itasca.spoofing.service.session.SessionLeaseReaper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionLeaseServiceImplTest {
+
+    private static final int MAX_CONCURRENT_USAGE = 3;
+
+    @Autowired
+    private SessionLeaseService sessionLeaseService;
+
+    @Autowired
+    private SessionSlotService sessionSlotService;
+
+    @Autowired
+    private SessionLeaseReaper sessionLeaseReaper;
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GroupManagementService groupManagementService;
+
+    @Autowired
+    private GroupProfileRepository groupProfileRepository;
+
+    @Autowired
+    private GroupSessionLeaseRepository leaseRepository;
+
+    @Autowired
+    private SingleProfileRepository singleProfileRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String groupId;
+    private String memberId;
+    private String outsiderId;
+    private UserEntity owner;
+    private UserEntity stranger;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        memberId = profileService.createSingleProfile(SingleProfileDto.builder().name("lease-member-" + suffix).build()).getId();
+        outsiderId = profileService.createSingleProfile(SingleProfileDto.builder().name("lease-outsider-" + suffix).build()).getId();
+
+        groupId = UUID.randomUUID().toString();
+        GroupProfileEntity group = groupProfileRepository.save(GroupProfileEntity.builder()
+                .id(groupId)
+                .name("lease-test-" + suffix)
+                .maxConcurrentUsage(MAX_CONCURRENT_USAGE)
+                .memberProfiles(Set.of(singleProfileRepository.findById(memberId).orElseThrow()))
+                .build());
+
+        owner = createUser("owner-" + suffix, UserRole.USER);
+        owner.getAssignedGroups().add(group);
+        owner = userRepository.save(owner);
+        stranger = createUser("stranger-" + suffix, UserRole.USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaseRepository.deleteAll(leaseRepository.findAll().stream()
+                .filter(lease -> lease.getGroupId().equals(groupId))
+                .toList());
+        userRepository.deleteAll(userRepository.findAllById(List.of(owner.getId(), stranger.getId())));
+        groupProfileRepository.deleteById(groupId);
+        singleProfileRepository.deleteAllById(List.of(memberId, outsiderId));
+    }
+
+    @Test
+    void acquireRequiresGroupAccessAndAMemberProfile() {
+        assertThatThrownBy(() -> sessionLeaseService.acquireLease(groupId, memberId, stranger.getEmail()))
+                .isInstanceOf(UnauthorizedAccessException.class);
+        assertThatThrownBy(() -> sessionLeaseService.acquireLease(groupId, outsiderId, owner.getEmail()))
+                .isInstanceOf(ProfileNotFoundException.class);
+        assertThat(sessionSlotService.getActiveSessions(groupId)).isZero();
+
+        // Administrators use groups without being assigned to them
+        UserEntity admin = createUser("admin-" + UUID.randomUUID(), UserRole.ADMIN);
+        try {
+            SessionLeaseDto lease = sessionLeaseService.acquireLease(groupId, null, admin.getEmail());
+            assertThat(lease.getUserId()).isEqualTo(admin.getId());
+            assertThat(sessionSlotService.getActiveSessions(groupId)).isEqualTo(1);
+        } finally {
+            leaseRepository.deleteAll(leaseRepository.findByGroupIdAndUserIdOrderByAcquiredAtAsc(groupId, admin.getId()));
+            userRepository.delete(admin);
+        }
+    }
+
+    @Test
+    void leaseLifecycleHoldsAndReturnsASlot() {
+        SessionLeaseDto lease = sessionLeaseService.acquireLease(groupId, memberId, owner.getEmail());
+        assertThat(lease.getProfileId()).isEqualTo(memberId);
+        assertThat(lease.getExpiresAt()).isAfter(lease.getAcquiredAt());
+        assertThat(sessionSlotService.getActiveSessions(groupId)).isEqualTo(1);
+
+        LocalDateTime renewedUntil = sessionLeaseService.renewLease(lease.getLeaseId(), owner.getEmail());
+        assertThat(renewedUntil).isAfterOrEqualTo(lease.getExpiresAt());
+        assertThatThrownBy(() -> sessionLeaseService.renewLease(lease.getLeaseId(), stranger.getEmail()))
+                .isInstanceOf(ProfileNotFoundException.class);
+        assertThatThrownBy(() -> sessionLeaseService.releaseLease(lease.getLeaseId(), stranger.getEmail()))
+                .isInstanceOf(UnauthorizedAccessException.class);
+
+        assertThat(sessionLeaseService.releaseLease(lease.getLeaseId(), owner.getEmail())).isTrue();
+        assertThat(sessionSlotService.getActiveSessions(groupId)).isZero();
+        assertThatThrownBy(() -> sessionLeaseService.releaseLease(lease.getLeaseId(), owner.getEmail()))
+                .isInstanceOf(ProfileNotFoundException.class);
+    }
+
+    @Test
+    void cachedGroupsFollowSessionsAndRotation() {
+        // Load both caches first
+        assertThat(assignedSessions()).isZero();
+        String lastUsed = profileService.getGroupProfile(groupId).orElseThrow().getLastUsed();
+
+        SessionLeaseDto lease = sessionLeaseService.acquireLease(groupId, memberId, owner.getEmail());
+        assertThat(assignedSessions()).isEqualTo(1);
+        sessionLeaseService.releaseLease(lease.getLeaseId(), owner.getEmail());
+        assertThat(assignedSessions()).isZero();
+
+        groupManagementService.getNextProfileFromGroup(groupId, owner.getId());
+        assertThat(profileService.getGroupProfile(groupId).orElseThrow().getLastUsed()).isNotEqualTo(lastUsed);
+    }
+
+    @Test
+    void acquireStopsAtMaxConcurrentUsage() {
+        for (int i = 0; i < MAX_CONCURRENT_USAGE; i++) {
+            sessionLeaseService.acquireLease(groupId, memberId, owner.getEmail());
+        }
+        assertThatThrownBy(() -> sessionLeaseService.acquireLease(groupId, memberId, owner.getEmail()))
+                .isInstanceOf(ProfileValidationException.class);
+
+        assertThat(sessionLeaseService.releaseOldestLease(groupId, memberId, owner.getId())).isTrue();
+        assertThat(sessionSlotService.getActiveSessions(groupId)).isEqualTo(MAX_CONCURRENT_USAGE - 1);
+    }
+
+    @Test
+    void expiredLeasesAreReclaimedOnce() {
+        SessionLeaseDto expired = sessionLeaseService.acquireLease(groupId, memberId, owner.getEmail());
+        SessionLeaseDto live = sessionLeaseService.acquireLease(groupId, memberId, owner.getEmail());
+        expire(expired.getLeaseId());
+
+        assertThat(sessionLeaseService.reclaimIfExpired(live.getLeaseId())).isFalse();
+        assertThat(sessionLeaseService.reclaimExpiredLeases()).isGreaterThanOrEqualTo(1);
+        assertThat(sessionLeaseService.reclaimIfExpired(expired.getLeaseId())).isFalse();
+        assertThat(leaseRepository.existsById(expired.getLeaseId())).isFalse();
+        assertThat(sessionSlotService.getActiveSessions(groupId)).isEqualTo(1);
+
+        assertThatThrownBy(() -> sessionLeaseService.renewLease(expired.getLeaseId(), owner.getEmail()))
+                .isInstanceOf(ProfileNotFoundException.class);
+    }
+
+    @Test
+    void reaperSweepCorrectsCountersFromLeases() {
+        sessionLeaseService.acquireLease(groupId, memberId, owner.getEmail());
+        GroupProfileEntity group = groupProfileRepository.findById(groupId).orElseThrow();
+        group.setCurrentActiveSessions(MAX_CONCURRENT_USAGE);
+        groupProfileRepository.save(group);
+
+        assertThat(sessionLeaseService.findMiscountedGroupIds()).contains(groupId);
+        sessionLeaseReaper.sweep();
+        assertThat(sessionSlotService.getActiveSessions(groupId)).isEqualTo(1);
+        assertThat(sessionLeaseService.findMiscountedGroupIds()).doesNotContain(groupId);
+        assertThat(sessionLeaseService.reconcileSessionCount(groupId)).isFalse();
+    }
+
+    @Test
+    void reconcilingDuringAcquiresNeverUndercounts() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicBoolean acquiring = new AtomicBoolean(true);
+        try {
+            Future<?> reconciler = executor.submit(() -> {
+                while (acquiring.get()) {
+                    sessionLeaseService.reconcileSessionCount(groupId);
+                }
+            });
+            Future<?> clients = executor.submit(() -> {
+                for (int i = 0; i < 30; i++) {
+                    List<SessionLeaseDto> leases = new ArrayList<>();
+                    for (int j = 0; j < MAX_CONCURRENT_USAGE; j++) {
+                        leases.add(sessionLeaseService.acquireLease(groupId, memberId, owner.getEmail()));
+                    }
+                    leases.forEach(lease -> sessionLeaseService.releaseLease(lease.getLeaseId(), owner.getEmail()));
+                }
+                return null;
+            });
+            clients.get(60, TimeUnit.SECONDS);
+            acquiring.set(false);
+            reconciler.get(10, TimeUnit.SECONDS);
+        } finally {
+            acquiring.set(false);
+            executor.shutdownNow();
+        }
+
+        assertThat(sessionSlotService.getActiveSessions(groupId)).isZero();
+        assertThat(leaseRepository.countByGroupId(groupId)).isZero();
+    }
+
+    /**
+     * Session counter of the group in the cached assigned profiles of its owner
+     */
+    private int assignedSessions() {
+        return userService.getAssignedProfiles(owner.getId()).stream()
+                .filter(group -> group.getId().equals(groupId))
+                .map(GroupProfileDto::getCurrentActiveSessions)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void expire(String leaseId) {
+        GroupSessionLeaseEntity lease = leaseRepository.findById(leaseId).orElseThrow();
+        lease.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        leaseRepository.save(lease);
+    }
+
+    private UserEntity createUser(String name, UserRole role) {
+        return userRepository.save(UserEntity.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("secret")
+                .roles(Set.of(role))
+                .build());
+    }
+}
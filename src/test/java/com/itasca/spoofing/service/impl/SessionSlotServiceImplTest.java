@@ -0,0 +1,105 @@
+package com.itasca.spoofing.service.impl;
+
+import com.itasca.spoofing.entity.GroupProfileEntity;
+import com.itasca.spoofing.model.SessionSlotResult;
+import com.itasca.spoofing.repository.GroupProfileRepository;
+import com.itasca.spoofing.service.SessionSlotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionSlotServiceImplTest {
+
+    private static final int THREADS = 64;
+    private static final int MAX_CONCURRENT_USAGE = 10;
+
+    @Autowired
+    private SessionSlotService sessionSlotService;
+
+    @Autowired
+    private GroupProfileRepository groupProfileRepository;
+
+    private String groupId;
+
+    @BeforeEach
+    void setUp() {
+        groupId = UUID.randomUUID().toString();
+        groupProfileRepository.save(GroupProfileEntity.builder()
+                .id(groupId)
+                .name("slot-test-" + groupId)
+                .maxConcurrentUsage(MAX_CONCURRENT_USAGE)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        groupProfileRepository.deleteById(groupId);
+    }
+
+    @Test
+    void acquireNeverExceedsMaxConcurrentUsage() throws Exception {
+        List<SessionSlotResult> results = hammer(() -> sessionSlotService.acquireSlot(groupId));
+
+        assertThat(results).filteredOn(SessionSlotResult::isAcquired).hasSize(MAX_CONCURRENT_USAGE);
+        assertThat(results).filteredOn(result -> result == SessionSlotResult.CAPACITY_REACHED)
+                .hasSize(THREADS - MAX_CONCURRENT_USAGE);
+        assertThat(sessionSlotService.getActiveSessions(groupId)).isEqualTo(MAX_CONCURRENT_USAGE);
+    }
+
+    @Test
+    void releaseNeverGoesBelowZero() throws Exception {
+        for (int i = 0; i < MAX_CONCURRENT_USAGE; i++) {
+            sessionSlotService.acquireSlot(groupId);
+        }
+
+        List<Boolean> results = hammer(() -> sessionSlotService.releaseSlot(groupId));
+
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(MAX_CONCURRENT_USAGE);
+        assertThat(sessionSlotService.getActiveSessions(groupId)).isZero();
+    }
+
+    @Test
+    void acquireOnMissingGroupReportsNotFound() {
+        assertThat(sessionSlotService.acquireSlot("missing-group")).isEqualTo(SessionSlotResult.GROUP_NOT_FOUND);
+    }
+
+    private <T> List<T> hammer(Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.itasca.spoofing.service.pagination;
+
+import com.itasca.spoofing.exception.ProfileValidationException;
+import com.itasca.spoofing.model.CursorPageDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodedCursorRoundTrips() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123456000);
+        String token = KeysetCursor.of(createdAt, "a1b2-c3").encode();
+
+        KeysetCursor decoded = KeysetCursor.decode(token);
+
+        assertThat(decoded.getTimestamp()).isEqualTo(createdAt);
+        assertThat(decoded.getId()).isEqualTo("a1b2-c3");
+        assertThat(KeysetCursor.decode(KeysetCursor.of(createdAt, 42L).encode()).getLongId()).isEqualTo(42L);
+    }
+
+    @Test
+    void emptyCursorIsFirstPageAndGarbageIsRejected() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode(" ")).isNull();
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor")).isInstanceOf(ProfileValidationException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("djF8bm90LWEtZGF0ZXx4")).isInstanceOf(ProfileValidationException.class);
+    }
+
+    @Test
+    void extraRowSignalsNextPage() {
+        CursorPageDto<Integer> page = CursorPageDto.of(List.of(1, 2, 3), 2, String::valueOf, Function.identity(), null);
+        assertThat(page.getItems()).containsExactly(1, 2);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo("2");
+
+        CursorPageDto<Integer> last = CursorPageDto.of(List.of(1, 2), 2, String::valueOf, Function.identity(), 2L);
+        assertThat(last.isHasMore()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+        assertThat(last.getTotalCount()).isEqualTo(2L);
+    }
+}
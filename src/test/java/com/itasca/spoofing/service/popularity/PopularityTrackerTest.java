@@ -0,0 +1,42 @@
+package com.itasca.spoofing.service.popularity;
+
+import com.itasca.spoofing.event.ProfileUsageEvent;
+import com.itasca.spoofing.model.PopularityWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PopularityTrackerTest {
+
+    private PopularityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new PopularityTracker();
+        ReflectionTestUtils.setField(tracker, "capacity", 100);
+        ReflectionTestUtils.setField(tracker, "windowCapacity", 20);
+        ReflectionTestUtils.setField(tracker, "userCapacity", 2);
+        ReflectionTestUtils.setField(tracker, "maxUsers", 100L);
+        tracker.init();
+    }
+
+    @Test
+    void ranksGroupsAndProfilesGloballyAndPerUser() {
+        for (int i = 0; i < 5; i++) {
+            tracker.onProfileUsage(new ProfileUsageEvent("g1", "p1", 1L));
+        }
+        tracker.onProfileUsage(new ProfileUsageEvent("g2", "p2", 1L));
+        tracker.onProfileUsage(new ProfileUsageEvent("g2", null, 2L));
+        tracker.onProfileUsage(new ProfileUsageEvent("g2", "p2", 2L));
+
+        for (PopularityWindow window : PopularityWindow.values()) {
+            assertThat(tracker.topGroups(window, 2)).extracting(SpaceSaving.Estimate::getKey).containsExactly("g1", "g2");
+            assertThat(tracker.topProfiles(window, 2)).extracting(SpaceSaving.Estimate::getCount).containsExactly(5L, 2L);
+        }
+        assertThat(tracker.topGroupsForUser(1L, 1)).extracting(SpaceSaving.Estimate::getKey).containsExactly("g1");
+        assertThat(tracker.topGroupsForUser(2L, 1)).extracting(SpaceSaving.Estimate::getKey).containsExactly("g2");
+        assertThat(tracker.topGroupsForUser(3L, 1)).isEmpty();
+    }
+}
@@ -0,0 +1,70 @@
+package com.itasca.spoofing.service.popularity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingTest {
+
+    @Test
+    void findsHeavyHittersWithinTheErrorBoundOnASkewedStream() {
+        SpaceSaving summary = new SpaceSaving(50);
+        Map<String, Long> truth = new HashMap<>();
+        Random random = new Random(7);
+        int total = 100_000;
+        for (int i = 0; i < total; i++) {
+            // Ten hot keys take half the stream, the rest is spread over 10k keys
+            String key = random.nextBoolean() ? "hot" + random.nextInt(10) : "cold" + random.nextInt(10_000);
+            summary.offer(key, 1);
+            truth.merge(key, 1L, Long::sum);
+        }
+
+        List<SpaceSaving.Estimate> top = summary.top(10);
+        assertThat(top).extracting(SpaceSaving.Estimate::getKey).allMatch(key -> key.startsWith("hot"));
+        for (SpaceSaving.Estimate estimate : top) {
+            long actual = truth.get(estimate.getKey());
+            assertThat(estimate.getCount()).isGreaterThanOrEqualTo(actual);
+            assertThat(estimate.getCount() - estimate.getError()).isLessThanOrEqualTo(actual);
+            assertThat(estimate.getError()).isLessThanOrEqualTo(total / 50);
+        }
+        assertThat(summary.size()).isEqualTo(50);
+    }
+
+    @Test
+    void mergedSummariesAddCountsAndFloors() {
+        SpaceSaving first = new SpaceSaving(2);
+        SpaceSaving second = new SpaceSaving(2);
+        first.offer("a", 5);
+        first.offer("b", 3);
+        second.offer("a", 2);
+        second.offer("c", 4);
+
+        List<SpaceSaving.Estimate> merged = SpaceSaving.merge(List.of(first, second), 3);
+
+        // c may have had up to first's floor of 3 there, b up to second's floor of 2
+        assertThat(merged).extracting(SpaceSaving.Estimate::getKey).containsExactly("a", "c", "b");
+        assertThat(merged).extracting(SpaceSaving.Estimate::getCount).containsExactly(7L, 7L, 5L);
+        assertThat(merged).extracting(SpaceSaving.Estimate::getError).containsExactly(0L, 3L, 2L);
+    }
+
+    @Test
+    void windowForgetsUsageOlderThanItsLength() {
+        AtomicLong now = new AtomicLong(0);
+        WindowedSpaceSaving window = new WindowedSpaceSaving(Duration.ofMinutes(60), 12, 10, now::get);
+
+        window.offer("old", 10);
+        now.set(Duration.ofMinutes(30).toMillis());
+        window.offer("recent", 3);
+        assertThat(window.top(2)).extracting(SpaceSaving.Estimate::getKey).containsExactly("old", "recent");
+
+        now.set(Duration.ofMinutes(65).toMillis());
+        assertThat(window.top(2)).extracting(SpaceSaving.Estimate::getKey).containsExactly("recent");
+    }
+}
@@ -0,0 +1,178 @@
+package com.itasca.spoofing.service.quarantine;
+
+import com.itasca.spoofing.model.SessionOutcome;
+import com.itasca.spoofing.service.cache.ClusterMessenger;
+import com.itasca.spoofing.service.selection.GroupSelectionSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProfileQuarantineTest {
+
+    private static final long MINUTE = 60_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private ProfileQuarantine quarantine;
+
+    @BeforeEach
+    void setUp() {
+        quarantine = createQuarantine(null);
+    }
+
+    private ProfileQuarantine createQuarantine(ClusterMessenger messenger) {
+        ProfileQuarantine quarantine = new ProfileQuarantine();
+        ReflectionTestUtils.setField(quarantine, "clusterMessenger", messenger);
+        ReflectionTestUtils.setField(quarantine, "enabled", true);
+        ReflectionTestUtils.setField(quarantine, "windowMs", 30 * MINUTE);
+        ReflectionTestUtils.setField(quarantine, "windowSize", 10);
+        ReflectionTestUtils.setField(quarantine, "minSessions", 4);
+        ReflectionTestUtils.setField(quarantine, "failureRate", 0.5);
+        ReflectionTestUtils.setField(quarantine, "maxDetections", 2);
+        ReflectionTestUtils.setField(quarantine, "coolOffMs", 10 * MINUTE);
+        ReflectionTestUtils.setField(quarantine, "maxCoolOffMs", 60 * MINUTE);
+        ReflectionTestUtils.setField(quarantine, "maxProfiles", 1000L);
+        quarantine.init();
+        quarantine.setClock(now::get);
+        return quarantine;
+    }
+
+    @Test
+    void quarantinesOnFailureRateAndReadmitsAfterADoublingCoolOff() {
+        assertThat(quarantine.record("p", SessionOutcome.SUCCESS)).isFalse();
+        assertThat(quarantine.record("p", SessionOutcome.SUCCESS)).isFalse();
+        assertThat(quarantine.record("p", SessionOutcome.PROXY_FAILURE)).isFalse();
+        // Two of four sessions failed
+        assertThat(quarantine.record("p", SessionOutcome.FAILURE)).isTrue();
+        assertThat(quarantine.isQuarantined("p")).isTrue();
+        assertThat(quarantine.getQuarantined()).singleElement()
+                .satisfies(entry -> assertThat(entry.getStrikes()).isEqualTo(1));
+
+        now.addAndGet(10 * MINUTE);
+        assertThat(quarantine.isQuarantined("p")).isFalse();
+
+        // The window started over, so four new sessions are needed and the cool-off doubles
+        for (int i = 0; i < 3; i++) {
+            assertThat(quarantine.record("p", SessionOutcome.FAILURE)).isFalse();
+        }
+        assertThat(quarantine.record("p", SessionOutcome.FAILURE)).isTrue();
+        now.addAndGet(10 * MINUTE);
+        assertThat(quarantine.isQuarantined("p")).isTrue();
+        now.addAndGet(10 * MINUTE);
+        assertThat(quarantine.isQuarantined("p")).isFalse();
+    }
+
+    @Test
+    void detectionsQuarantineAndOldOutcomesLeaveTheWindow() {
+        assertThat(quarantine.record("p", SessionOutcome.FINGERPRINT_DETECTION)).isFalse();
+        now.addAndGet(31 * MINUTE);
+        assertThat(quarantine.record("p", SessionOutcome.FINGERPRINT_DETECTION)).isFalse();
+        assertThat(quarantine.record("p", SessionOutcome.FINGERPRINT_DETECTION)).isTrue();
+
+        assertThat(quarantine.release("p")).isTrue();
+        assertThat(quarantine.isQuarantined("p")).isFalse();
+        assertThat(quarantine.release("p")).isFalse();
+    }
+
+    @Test
+    void quarantinesAndReleasesReachOtherInstances() {
+        RecordingMessenger messenger = new RecordingMessenger();
+        RecordingMessenger remoteMessenger = new RecordingMessenger();
+        ProfileQuarantine local = createQuarantine(messenger);
+        ProfileQuarantine remote = createQuarantine(remoteMessenger);
+
+        local.record("p", SessionOutcome.FINGERPRINT_DETECTION);
+        local.record("p", SessionOutcome.FINGERPRINT_DETECTION);
+        assertThat(messenger.sent).hasSize(1);
+        messenger.deliverTo(remoteMessenger);
+        assertThat(remote.isQuarantined("p")).isTrue();
+        assertThat(remote.getQuarantined()).singleElement().satisfies(entry -> {
+            assertThat(entry.getReleasedAt()).isEqualTo(local.getQuarantined().get(0).getReleasedAt());
+            assertThat(entry.getReason()).isEqualTo("2 fingerprint detections");
+        });
+
+        assertThat(local.release("p")).isTrue();
+        messenger.deliverTo(remoteMessenger);
+        assertThat(remote.isQuarantined("p")).isFalse();
+        assertThat(messenger.sent).isEmpty();
+    }
+
+    @Test
+    void remoteQuarantinesAreAppliedWithoutRebroadcast() {
+        RecordingMessenger messenger = new RecordingMessenger();
+        quarantine = createQuarantine(messenger);
+
+        long until = now.get() + 10 * MINUTE;
+        messenger.receive(String.join("\n", "Q", "p", String.valueOf(now.get()), String.valueOf(until), "2", "remote"));
+        assertThat(quarantine.isQuarantined("p")).isTrue();
+        assertThat(quarantine.getQuarantined()).singleElement()
+                .satisfies(entry -> assertThat(entry.getStrikes()).isEqualTo(2));
+
+        // An earlier ending quarantine does not cut the current one short
+        quarantine.applyRemoteQuarantine("p", now.get(), now.get() + MINUTE, 1, "older");
+        now.addAndGet(5 * MINUTE);
+        assertThat(quarantine.isQuarantined("p")).isTrue();
+
+        messenger.receive("R\np");
+        assertThat(quarantine.isQuarantined("p")).isFalse();
+        assertThat(messenger.sent).isEmpty();
+    }
+
+    @Test
+    void selectionSkipsExcludedMembers() {
+        String[] ids = {"a", "b", "c", "d"};
+        boolean[] active = {true, true, true, true};
+        int[] weights = {1, 1, 1, 5};
+        Set<String> excluded = Set.of("b", "d");
+
+        for (String mode : new String[]{"sequential", "random", "weighted"}) {
+            GroupSelectionSnapshot snapshot = new GroupSelectionSnapshot(mode, ids, active, weights);
+            AtomicLong cursor = new AtomicLong();
+            Set<String> picked = new HashSet<>();
+            for (int i = 0; i < 200; i++) {
+                picked.add(snapshot.pick(cursor, excluded::contains));
+            }
+            assertThat(picked).as(mode).containsExactlyInAnyOrder("a", "c");
+            assertThat(snapshot.pick(cursor, id -> true)).as(mode).isNull();
+        }
+    }
+
+    private static class RecordingMessenger implements ClusterMessenger {
+
+        private final List<String> sent = new ArrayList<>();
+        private final Map<String, Consumer<String>> listeners = new HashMap<>();
+
+        @Override
+        public void broadcast(String topic, String payload) {
+            assertThat(topic).isEqualTo(ProfileQuarantine.QUARANTINE_TOPIC);
+            sent.add(payload);
+        }
+
+        @Override
+        public void subscribe(String topic, Consumer<String> listener) {
+            listeners.put(topic, listener);
+        }
+
+        void receive(String payload) {
+            listeners.get(ProfileQuarantine.QUARANTINE_TOPIC).accept(payload);
+        }
+
+        /**
+         * Hand the sent messages to the messenger of another instance
+         */
+        void deliverTo(RecordingMessenger other) {
+            sent.forEach(other::receive);
+            sent.clear();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.itasca.spoofing.service.search;
+
+import com.itasca.spoofing.entity.SingleProfileEntity;
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.repository.SingleProfileRepository;
+import com.itasca.spoofing.service.cache.TwoLevelCacheManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProfileSearchIndexTest {
+
+    @Autowired
+    private ProfileSearchIndex profileSearchIndex;
+
+    @Autowired
+    private SingleProfileRepository singleProfileRepository;
+
+    @Autowired
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void awaitIndex() throws InterruptedException {
+        for (int i = 0; i < 200 && !profileSearchIndex.isReady(); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(profileSearchIndex.isReady()).isTrue();
+    }
+
+    @Test
+    void changesFromOtherInstancesAreReindexedFromTheDatabase() {
+        String word = "remote" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+        // Saved without an event, as if another instance had written it
+        SingleProfileEntity profile = singleProfileRepository.save(SingleProfileEntity.builder()
+                .id(UUID.randomUUID().toString())
+                .name(word + " Profile")
+                .build());
+        assertThat(search(word).getTotal()).isZero();
+
+        receive(ProfileType.SINGLE.name() + "\n" + profile.getId());
+        assertThat(search(word).getIds()).containsExactly(profile.getId());
+
+        singleProfileRepository.deleteById(profile.getId());
+        receive(ProfileType.SINGLE.name() + "\n" + profile.getId());
+        assertThat(search(word).getTotal()).isZero();
+    }
+
+    @Test
+    void rebuildSwapsInAFreshIndexWithoutGoingOffline() {
+        String word = "rebuild" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+        SingleProfileEntity profile = singleProfileRepository.save(SingleProfileEntity.builder()
+                .id(UUID.randomUUID().toString())
+                .name(word + " Profile")
+                .build());
+
+        profileSearchIndex.rebuild();
+
+        assertThat(profileSearchIndex.isReady()).isTrue();
+        assertThat(search(word).getIds()).containsExactly(profile.getId());
+        singleProfileRepository.deleteById(profile.getId());
+    }
+
+    private TrigramIndex.Hits search(String query) {
+        return profileSearchIndex.search(ProfileType.SINGLE, query, 0, 10);
+    }
+
+    private void receive(String payload) {
+        String body = "other\ntopic:" + ProfileSearchIndex.CHANGE_TOPIC + "\n" + payload;
+        cacheManager.onMessage(new DefaultMessage("cache-invalidation".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)), null);
+    }
+}
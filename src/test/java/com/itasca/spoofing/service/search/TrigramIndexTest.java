@@ -0,0 +1,86 @@
+package com.itasca.spoofing.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // name, description, operating system
+        index = new TrigramIndex(new double[]{4.0, 1.0, 2.0}, 0.5);
+        index.put("p1", "Chrome Windows Desk", "office machine", "Windows");
+        index.put("p2", "Firefox Linux", "uses chrome for testing", "Linux");
+        index.put("p3", "Safari Mac", null, "MacOS");
+    }
+
+    @Test
+    void namePrefixRanksAboveDescriptionMatch() {
+        TrigramIndex.Hits hits = index.search("chr", 0, 10);
+
+        assertThat(hits.getTotal()).isEqualTo(2);
+        assertThat(hits.getIds()).containsExactly("p1", "p2");
+    }
+
+    @Test
+    void allTermsMustMatchAndTyposAreTolerated() {
+        assertThat(index.search("chrome linux", 0, 10).getIds()).containsExactly("p2");
+        assertThat(index.search("safaro", 0, 10).getIds()).containsExactly("p3");
+        assertThat(index.search("opera", 0, 10).getTotal()).isZero();
+        assertThat(index.search(" -- ", 0, 10).getTotal()).isZero();
+    }
+
+    @Test
+    void updatesAndRemovalsAreReflected() {
+        index.put("p3", "Edge Windows", null, "Windows");
+        index.remove("p1");
+
+        assertThat(index.search("safari", 0, 10).getTotal()).isZero();
+        assertThat(index.search("windows", 0, 10).getIds()).containsExactly("p3");
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void removedSlotsAreReusedWithoutLeakingOldDocuments() {
+        for (int round = 0; round < 3; round++) {
+            index.put("tmp" + round, "Opera Temp " + round, null, "Windows");
+            index.remove("tmp" + round);
+        }
+        index.put("p4", "Brave Linux", "privacy build", "Linux");
+
+        assertThat(index.search("opera", 0, 10).getTotal()).isZero();
+        assertThat(index.search("brave", 0, 10).getIds()).containsExactly("p4");
+        assertThat(index.search("linux", 0, 10).getIds()).containsExactlyInAnyOrder("p2", "p4");
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void rareTermsNarrowCommonOnes() {
+        for (int i = 0; i < 50; i++) {
+            index.put("w" + i, "Windows Worker " + i, null, "Windows");
+        }
+        index.put("x", "Windows Zebra", null, "Windows");
+
+        assertThat(index.search("windows zebra", 0, 10).getIds()).containsExactly("x");
+        assertThat(index.search("zebar windows", 0, 10).getIds()).containsExactly("x");
+        assertThat(index.search("windows", 0, 100).getTotal()).isEqualTo(52);
+    }
+
+    @Test
+    void pagesAreSlicesOfTheRanking() {
+        for (int i = 0; i < 5; i++) {
+            index.put("w" + i, "Worker " + i, null, "Windows");
+        }
+
+        TrigramIndex.Hits first = index.search("worker", 0, 3);
+        TrigramIndex.Hits second = index.search("worker", 3, 3);
+
+        assertThat(first.getTotal()).isEqualTo(5);
+        assertThat(first.getIds()).containsExactly("w0", "w1", "w2");
+        assertThat(second.getIds()).containsExactly("w3", "w4");
+    }
+}
@@ -0,0 +1,91 @@
+package com.itasca.spoofing.service.selection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class GroupSelectionSnapshotTest {
+
+    private static final int DRAWS = 100_000;
+
+    @Test
+    void sequentialWrapsAroundActiveMembers() {
+        GroupSelectionSnapshot snapshot = new GroupSelectionSnapshot("Sequential",
+                new String[]{"a", "b", "c", "d"}, new boolean[]{true, false, true, true}, new int[]{1, 1, 1, 1});
+        AtomicLong cursor = new AtomicLong();
+
+        List<String> picked = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            picked.add(snapshot.pick(cursor));
+        }
+        assertThat(picked).containsExactly("a", "c", "d", "a", "c", "d", "a");
+
+        // A cursor that overflowed keeps cycling instead of going negative
+        cursor.set(Long.MAX_VALUE);
+        assertThat(snapshot.pick(cursor)).isNotNull();
+        assertThat(snapshot.pick(cursor)).isNotNull();
+    }
+
+    @Test
+    void weightedPicksFollowTheWeights() {
+        GroupSelectionSnapshot snapshot = new GroupSelectionSnapshot("weighted",
+                new String[]{"a", "b", "c", "d"}, new boolean[]{true, true, true, false}, new int[]{1, 3, 0, 10});
+
+        Map<String, Integer> counts = draw(snapshot);
+        assertThat(counts).containsOnlyKeys("a", "b");
+        assertThat(counts.get("a") / (double) DRAWS).isCloseTo(0.25, offset(0.02));
+        assertThat(counts.get("b") / (double) DRAWS).isCloseTo(0.75, offset(0.02));
+    }
+
+    @Test
+    void statusAndWeightChangesReturnUpdatedCopies() {
+        GroupSelectionSnapshot snapshot = new GroupSelectionSnapshot("weighted",
+                new String[]{"a", "b"}, new boolean[]{true, true}, new int[]{1, 1});
+
+        assertThat(snapshot.withMemberStatus("a", true)).isSameAs(snapshot);
+        assertThat(snapshot.withMemberWeights(Map.of("a", 1))).isSameAs(snapshot);
+
+        GroupSelectionSnapshot onlyB = snapshot.withMemberStatus("a", false);
+        assertThat(onlyB.getActiveCount()).isEqualTo(1);
+        assertThat(draw(onlyB)).containsOnlyKeys("b");
+
+        assertThat(draw(snapshot.withMemberWeights(Map.of("b", 0)))).containsOnlyKeys("a");
+        assertThat(snapshot.withMemberWeights(Map.of("a", 0, "b", 0)).pick(new AtomicLong())).isNull();
+    }
+
+    @Test
+    void aliasTableSamplesInProportionToWeights() {
+        int[] weights = {5, 0, 1, 4};
+        AliasTable table = new AliasTable(weights);
+        int[] counts = new int[weights.length];
+        for (int i = 0; i < DRAWS; i++) {
+            counts[table.sample()]++;
+        }
+
+        assertThat(table.size()).isEqualTo(4);
+        assertThat(counts[1]).isZero();
+        for (int i = 0; i < weights.length; i++) {
+            assertThat(counts[i] / (double) DRAWS).isCloseTo(weights[i] / 10.0, offset(0.02));
+        }
+
+        assertThatThrownBy(() -> new AliasTable(new int[]{0, 0})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AliasTable(new int[]{1, -1})).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Map<String, Integer> draw(GroupSelectionSnapshot snapshot) {
+        AtomicLong cursor = new AtomicLong();
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < DRAWS; i++) {
+            counts.merge(snapshot.pick(cursor), 1, Integer::sum);
+        }
+        return counts;
+    }
+}
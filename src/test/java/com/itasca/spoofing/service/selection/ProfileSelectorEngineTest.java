@@ -0,0 +1,109 @@
+package com.itasca.spoofing.service.selection;
+
+import com.itasca.spoofing.event.ProfileChangedEvent;
+import com.itasca.spoofing.model.GroupProfileDto;
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.model.SingleProfileDto;
+import com.itasca.spoofing.service.GroupManagementService;
+import com.itasca.spoofing.service.ProfileService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProfileSelectorEngineTest {
+
+    @Autowired
+    private ProfileSelectorEngine profileSelectorEngine;
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private GroupManagementService groupManagementService;
+
+    @Test
+    void sequentialSelectionWrapsAroundMembersInIdOrder() {
+        List<String> ids = createProfiles(3);
+        String groupId = createGroup(ids, "sequential");
+
+        List<String> picked = select(groupId, 6);
+        List<String> sorted = ids.stream().sorted().toList();
+        assertThat(picked.subList(0, 3)).containsExactlyElementsOf(sorted);
+        assertThat(picked.subList(3, 6)).containsExactlyElementsOf(sorted);
+    }
+
+    @Test
+    void profileChangesReachLoadedSnapshots() {
+        List<String> ids = createProfiles(3);
+        String groupId = createGroup(ids, "random");
+        select(groupId, 1);
+        assertThat(profileSelectorEngine.groupsContaining(ids)).containsExactly(groupId);
+
+        profileService.deactivateProfile(ids.get(0), ProfileType.SINGLE);
+        assertThat(new HashSet<>(select(groupId, 200))).containsExactlyInAnyOrder(ids.get(1), ids.get(2));
+
+        groupManagementService.removeProfilesFromGroup(groupId, Set.of(ids.get(1)));
+        assertThat(new HashSet<>(select(groupId, 200))).containsExactly(ids.get(2));
+        // The member that left no longer points at the group
+        assertThat(profileSelectorEngine.groupsContaining(Set.of(ids.get(1)))).isEmpty();
+
+        profileService.activateProfile(ids.get(0), ProfileType.SINGLE);
+        assertThat(new HashSet<>(select(groupId, 200))).containsExactlyInAnyOrder(ids.get(0), ids.get(2));
+    }
+
+    @Test
+    void deletedGroupsAndMembersLeaveTheIndex() {
+        List<String> ids = createProfiles(2);
+        String first = createGroup(ids, "random");
+        String second = createGroup(ids.subList(0, 1), "random");
+        select(first, 1);
+        select(second, 1);
+        assertThat(profileSelectorEngine.groupsContaining(Set.of(ids.get(0)))).containsExactlyInAnyOrder(first, second);
+
+        profileSelectorEngine.onProfileChanged(ProfileChangedEvent.deleted(Set.of(second), ProfileType.GROUP));
+        assertThat(profileSelectorEngine.groupsContaining(ids)).containsExactly(first);
+
+        profileService.deleteMultipleProfiles(List.of(ids.get(0)), ProfileType.SINGLE);
+        assertThat(profileSelectorEngine.groupsContaining(ids)).isEmpty();
+        assertThat(new HashSet<>(select(first, 50))).containsExactly(ids.get(1));
+        assertThat(profileSelectorEngine.groupsContaining(ids)).containsExactly(first);
+    }
+
+    private List<String> select(String groupId, int count) {
+        List<String> picked = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            picked.add(profileSelectorEngine.selectNextProfileId(groupId));
+        }
+        return picked;
+    }
+
+    private String createGroup(List<String> memberIds, String selectionMode) {
+        return profileService.createGroupProfile(GroupProfileDto.builder()
+                .name("selector-group-" + UUID.randomUUID())
+                .selectionMode(selectionMode)
+                .memberProfileIds(new HashSet<>(memberIds))
+                .build()).getId();
+    }
+
+    private List<String> createProfiles(int count) {
+        String prefix = "selector-" + UUID.randomUUID() + "-";
+        return profileService.createSingleProfiles(IntStream.range(0, count)
+                        .mapToObj(i -> SingleProfileDto.builder().name(prefix + i).build())
+                        .toList())
+                .stream()
+                .map(SingleProfileDto::getId)
+                .toList();
+    }
+}
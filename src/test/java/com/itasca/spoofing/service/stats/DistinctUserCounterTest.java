@@ -0,0 +1,75 @@
+package com.itasca.spoofing.service.stats;
+
+import com.itasca.spoofing.model.UsageSubject;
+import com.itasca.spoofing.repository.DistinctUserSketchRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest(properties = "stats.flush-interval-ms=3600000")
+@ActiveProfiles("test")
+class DistinctUserCounterTest {
+
+    @Autowired
+    private DistinctUserCounter counter;
+
+    @Autowired
+    private DistinctUserSketchRepository sketchRepository;
+
+    @Test
+    void countsDistinctUsersAcrossDaysAndFlushes() {
+        String profileId = UUID.randomUUID().toString();
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+
+        for (long user = 1; user <= 100; user++) {
+            counter.add(UsageSubject.PROFILE, profileId, yesterday, user);
+        }
+        counter.flush();
+        // Half of them again plus 50 new users, merged into the stored sketches
+        for (long user = 51; user <= 150; user++) {
+            counter.add(UsageSubject.PROFILE, profileId, yesterday, user);
+            counter.add(UsageSubject.PROFILE, profileId, today, user);
+        }
+        counter.flush();
+
+        assertThat(counter.getPendingKeyCount()).isZero();
+        assertThat(counter.count(UsageSubject.PROFILE, profileId, yesterday, yesterday)).isCloseTo(150L, within(3L));
+        assertThat(counter.count(UsageSubject.PROFILE, profileId, today, today)).isCloseTo(100L, within(2L));
+        assertThat(counter.count(UsageSubject.PROFILE, profileId, yesterday, today)).isCloseTo(150L, within(3L));
+        assertThat(counter.count(UsageSubject.GROUP, profileId, yesterday, today)).isZero();
+    }
+
+    @Test
+    void retriesWhenAnotherInstanceWroteTheSketchFirst() {
+        String groupId = UUID.randomUUID().toString();
+        LocalDate today = LocalDate.now();
+        counter.add(UsageSubject.GROUP, groupId, today, 1L);
+        counter.flush();
+
+        // Another instance merges its users in between this one reading and writing the sketch
+        DistinctUserSketchRepository.StoredSketch stored =
+                sketchRepository.findDay(UsageSubject.GROUP, today, List.of(groupId)).get(groupId);
+        HyperLogLog other = HyperLogLog.fromBytes(stored.getSketch());
+        other.add(2L);
+        assertThat(sketchRepository.update(stored.getId(), stored.getVersion(), other.toBytes())).isTrue();
+        assertThat(sketchRepository.update(stored.getId(), stored.getVersion(), other.toBytes())).isFalse();
+
+        counter.add(UsageSubject.GROUP, groupId, today, 3L);
+        counter.flush();
+
+        Map<String, DistinctUserSketchRepository.StoredSketch> after =
+                sketchRepository.findDay(UsageSubject.GROUP, today, List.of(groupId));
+        assertThat(after.get(groupId).getVersion()).isEqualTo(stored.getVersion() + 2);
+        assertThat(counter.count(UsageSubject.GROUP, groupId, today, today)).isEqualTo(3L);
+    }
+}
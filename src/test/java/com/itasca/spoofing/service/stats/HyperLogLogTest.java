@@ -0,0 +1,67 @@
+package com.itasca.spoofing.service.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesWithinAFewStandardErrors() {
+        for (int distinct : new int[]{10, 1_000, 100_000}) {
+            HyperLogLog sketch = new HyperLogLog(13);
+            for (int i = 0; i < distinct; i++) {
+                sketch.add(i);
+                // Duplicates do not count
+                sketch.add(i);
+            }
+            assertThat((double) sketch.estimate()).isCloseTo(distinct, within(Math.max(1, distinct * 0.04)));
+        }
+    }
+
+    @Test
+    void mergeCountsTheUnion() {
+        HyperLogLog monday = new HyperLogLog(13);
+        HyperLogLog tuesday = new HyperLogLog(13);
+        for (int i = 0; i < 30_000; i++) {
+            monday.add(i);
+            tuesday.add(i + 20_000);
+        }
+        monday.merge(tuesday);
+        assertThat((double) monday.estimate()).isCloseTo(50_000, within(2_000.0));
+    }
+
+    @Test
+    void foldedSketchMatchesOneBuiltAtTheLowerPrecision() {
+        HyperLogLog precise = new HyperLogLog(14);
+        HyperLogLog coarse = new HyperLogLog(10);
+        for (int i = 0; i < 20_000; i++) {
+            precise.add(i * 7L);
+            coarse.add(i * 7L);
+        }
+        assertThat(precise.fold(10).toBytes()).isEqualTo(coarse.toBytes());
+
+        HyperLogLog merged = new HyperLogLog(10);
+        merged.merge(precise);
+        assertThat(merged.estimate()).isEqualTo(coarse.estimate());
+    }
+
+    @Test
+    void serializesSparseAndDenseSketches() {
+        HyperLogLog small = new HyperLogLog(13);
+        small.add(1);
+        small.add(2);
+        byte[] sparse = small.toBytes();
+        assertThat(sparse).hasSize(2 + 2 * 3);
+        assertThat(HyperLogLog.fromBytes(sparse).estimate()).isEqualTo(2);
+
+        HyperLogLog large = new HyperLogLog(13);
+        for (int i = 0; i < 50_000; i++) {
+            large.add(i);
+        }
+        byte[] dense = large.toBytes();
+        assertThat(dense).hasSize(2 + 8192);
+        assertThat(HyperLogLog.fromBytes(dense).estimate()).isEqualTo(large.estimate());
+    }
+}
@@ -0,0 +1,139 @@
+package com.itasca.spoofing.service.stats;
+
+import com.itasca.spoofing.entity.ProfileStatsEntity;
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.repository.ProfileStatsBatchRepository;
+import com.itasca.spoofing.repository.ProfileStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "stats.flush-interval-ms=3600000")
+@ActiveProfiles("test")
+class ProfileStatsBufferTest {
+
+    private static final int THREADS = 64;
+    private static final int EVENTS_PER_THREAD = 500;
+
+    @Autowired
+    private ProfileStatsBuffer statsBuffer;
+
+    @Autowired
+    private ProfileStatsRepository statsRepository;
+
+    @Autowired
+    private ProfileStatsBatchRepository statsBatchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentIncrementsAreNotLostAcrossFlushes() throws Exception {
+        String profileId = UUID.randomUUID().toString();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < EVENTS_PER_THREAD; j++) {
+                        statsBuffer.increment(profileId, ProfileType.SINGLE, ProfileStatsBuffer.Metric.USAGE);
+                        if (j % 5 == 0) {
+                            statsBuffer.increment(profileId, ProfileType.SINGLE, ProfileStatsBuffer.Metric.FAILURE);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            // Flush while writers are still running
+            while (!futures.stream().allMatch(Future::isDone)) {
+                statsBuffer.flush();
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        statsBuffer.flush();
+
+        ProfileStatsEntity stats = statsRepository.findByProfileIdAndDate(profileId, LocalDate.now()).orElseThrow();
+        assertThat(stats.getUsageCount()).isEqualTo(THREADS * EVENTS_PER_THREAD);
+        assertThat(stats.getFailureCount()).isEqualTo(THREADS * EVENTS_PER_THREAD / 5);
+        assertThat(stats.getSuccessCount()).isZero();
+    }
+
+    @Test
+    void flushWithNothingPendingWritesNothing() {
+        statsBuffer.flush();
+        assertThat(statsBuffer.flush()).isZero();
+    }
+
+    @Test
+    void duplicateDailyRowsAreMergedBeforeFlushingStarts() {
+        String profileId = UUID.randomUUID().toString();
+        jdbcTemplate.execute("ALTER TABLE profile_stats DROP CONSTRAINT uk_profile_stats_profile_date");
+        try {
+            // Left by the select-then-insert writes of older versions
+            statsRepository.saveAll(List.of(dailyRow(profileId, 2, 1), dailyRow(profileId, 3, 0)));
+            assertThat(statsBatchRepository.hasDailyUniqueKey()).isFalse();
+
+            statsBuffer.verifyDailyKey();
+            assertThat(statsBatchRepository.hasDailyUniqueKey()).isTrue();
+            statsBuffer.increment(profileId, ProfileType.SINGLE, ProfileStatsBuffer.Metric.USAGE);
+            statsBuffer.flush();
+
+            ProfileStatsEntity stats = statsRepository.findByProfileIdAndDate(profileId, LocalDate.now()).orElseThrow();
+            assertThat(stats.getUsageCount()).isEqualTo(6);
+            assertThat(stats.getFailureCount()).isEqualTo(1);
+        } finally {
+            if (!statsBatchRepository.hasDailyUniqueKey()) {
+                statsBatchRepository.mergeDuplicateDailyRows();
+                statsBatchRepository.addDailyUniqueKey();
+            }
+        }
+    }
+
+    @Test
+    void nothingIsFlushedWithoutTheUniqueKey() {
+        String profileId = UUID.randomUUID().toString();
+        ReflectionTestUtils.setField(statsBuffer, "dailyKeyPresent", false);
+        try {
+            statsBuffer.increment(profileId, ProfileType.SINGLE, ProfileStatsBuffer.Metric.USAGE);
+            assertThat(statsBuffer.flush()).isZero();
+            assertThat(statsRepository.findByProfileIdAndDate(profileId, LocalDate.now())).isEmpty();
+        } finally {
+            ReflectionTestUtils.setField(statsBuffer, "dailyKeyPresent", true);
+        }
+        assertThat(statsBuffer.flush()).isEqualTo(1);
+        assertThat(statsRepository.findByProfileIdAndDate(profileId, LocalDate.now())).isPresent();
+    }
+
+    private static ProfileStatsEntity dailyRow(String profileId, int usage, int failures) {
+        return ProfileStatsEntity.builder()
+                .profileId(profileId)
+                .profileType(ProfileType.SINGLE)
+                .date(LocalDate.now())
+                .usageCount(usage)
+                .failureCount(failures)
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.itasca.spoofing.service.stats;
+
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.model.StatsPeriod;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProfileStatsRollupDeltaTest {
+
+    @Test
+    void daysRollUpIntoTheirWeekAndMonthAndTheFleet() {
+        // Sunday 2026-03-01 and Monday 2026-03-02 share a month but not a week
+        List<ProfileStatsRollupDelta> rollups = ProfileStatsRollupDelta.rollUp(List.of(
+                new ProfileStatsDelta("a", ProfileType.SINGLE, LocalDate.of(2026, 3, 1), 1, 1, 0),
+                new ProfileStatsDelta("a", ProfileType.SINGLE, LocalDate.of(2026, 3, 2), 2, 0, 1),
+                new ProfileStatsDelta("b", ProfileType.SINGLE, LocalDate.of(2026, 3, 2), 4, 0, 0)));
+
+        assertThat(rollups).filteredOn(r -> r.getPeriod() == StatsPeriod.MONTH && r.getProfileId().equals("a"))
+                .singleElement().satisfies(r -> assertThat(r.getUsageCount()).isEqualTo(3));
+        assertThat(rollups).filteredOn(r -> r.getPeriod() == StatsPeriod.WEEK && r.getProfileId().equals("a"))
+                .extracting(ProfileStatsRollupDelta::getPeriodStart)
+                .containsExactly(LocalDate.of(2026, 2, 23), LocalDate.of(2026, 3, 2));
+        assertThat(rollups).filteredOn(r -> r.getPeriod() == StatsPeriod.MONTH && r.isFleet())
+                .singleElement().satisfies(r -> assertThat(r.getUsageCount()).isEqualTo(7));
+        // Days: a and fleet on the 1st, a, b and fleet on the 2nd, weeks the same, one month of a, b and fleet
+        assertThat(rollups).hasSize(13);
+    }
+}
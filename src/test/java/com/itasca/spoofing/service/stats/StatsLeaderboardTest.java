@@ -0,0 +1,94 @@
+package com.itasca.spoofing.service.stats;
+
+import com.itasca.spoofing.entity.ProfileStatsRollupEntity;
+import com.itasca.spoofing.model.ProfileRankingDto;
+import com.itasca.spoofing.model.ProfileType;
+import com.itasca.spoofing.model.RankingMetric;
+import com.itasca.spoofing.model.StatsPeriod;
+import com.itasca.spoofing.repository.ProfileStatsBatchRepository;
+import com.itasca.spoofing.repository.ProfileStatsRollupRepository;
+import com.itasca.spoofing.service.ProfileStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "stats.flush-interval-ms=3600000")
+@ActiveProfiles("test")
+class StatsLeaderboardTest {
+
+    @Autowired
+    private ProfileStatsBatchRepository statsBatchRepository;
+
+    @Autowired
+    private ProfileStatsRollupRepository rollupRepository;
+
+    @Autowired
+    private StatsLeaderboard leaderboard;
+
+    @Autowired
+    private ProfileStatsService statsService;
+
+    @Test
+    void flushesMaintainPeriodRollupsAndFleetTotals() {
+        String profileId = UUID.randomUUID().toString();
+        LocalDate today = LocalDate.now();
+        Map<String, Object> fleetBefore = statsService.getFleetReport(StatsPeriod.MONTH);
+
+        flush(List.of(
+                new ProfileStatsDelta(profileId, ProfileType.SINGLE, today, 10, 6, 2),
+                new ProfileStatsDelta(profileId, ProfileType.SINGLE, today, 5, 3, 1)));
+
+        List<ProfileStatsRollupEntity> week = rollupRepository.findByPeriodAndPeriodStartAndProfileId(
+                StatsPeriod.WEEK, StatsPeriod.WEEK.startOf(today), profileId);
+        assertThat(week).singleElement().satisfies(row -> {
+            assertThat(row.getUsageCount()).isEqualTo(15);
+            assertThat(row.getSuccessCount()).isEqualTo(9);
+            assertThat(row.getFailureCount()).isEqualTo(3);
+        });
+
+        Map<String, Object> report = statsService.getProfilePerformanceReport(profileId);
+        assertThat(report).containsEntry("totalUsage", 15L).containsEntry("successRate", 75.0);
+
+        Map<String, Object> fleetAfter = statsService.getFleetReport(StatsPeriod.MONTH);
+        assertThat((Long) fleetAfter.get("totalUsage") - (Long) fleetBefore.get("totalUsage")).isEqualTo(15);
+    }
+
+    @Test
+    void leaderboardFollowsFlushedTotals() {
+        LocalDate today = LocalDate.now();
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+
+        // Load the ranking before the flush so the flush has to update it
+        leaderboard.top(StatsPeriod.DAY, RankingMetric.USAGE, 10);
+        flush(List.of(
+                new ProfileStatsDelta(first, ProfileType.SINGLE, today, 1_000_000, 90, 10),
+                new ProfileStatsDelta(second, ProfileType.SINGLE, today, 2_000_000, 50, 50)));
+
+        List<ProfileRankingDto> byUsage = statsService.getTopPerformingProfiles(StatsPeriod.DAY, RankingMetric.USAGE, 2);
+        assertThat(byUsage).extracting(ProfileRankingDto::getProfileId).containsExactly(second, first);
+        assertThat(byUsage.get(0).getRank()).isEqualTo(1);
+
+        flush(List.of(new ProfileStatsDelta(first, ProfileType.SINGLE, today, 1_500_000, 0, 0)));
+
+        byUsage = statsService.getTopPerformingProfiles(StatsPeriod.DAY, RankingMetric.USAGE, 2);
+        assertThat(byUsage).extracting(ProfileRankingDto::getProfileId).containsExactly(first, second);
+        assertThat(byUsage.get(0).getUsageCount()).isEqualTo(2_500_000);
+
+        List<ProfileRankingDto> byRate = statsService.getTopPerformingProfiles(StatsPeriod.DAY, RankingMetric.SUCCESS_RATE, 100);
+        assertThat(byRate).extracting(ProfileRankingDto::getProfileId).containsSubsequence(first, second);
+    }
+
+    private void flush(List<ProfileStatsDelta> deltas) {
+        statsBatchRepository.upsertDeltas(deltas);
+        leaderboard.onFlushed(deltas);
+    }
+}
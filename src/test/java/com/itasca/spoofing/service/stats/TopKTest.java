@@ -0,0 +1,75 @@
+package com.itasca.spoofing.service.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKTest {
+
+    @Test
+    void keepsTheHighestScoresInOrder() {
+        TopK<String> topK = new TopK<>(3);
+        topK.reset(List.of(), true);
+        topK.update("a", 5, "a");
+        topK.update("b", 9, "b");
+        topK.update("c", 1, "c");
+        topK.update("d", 7, "d");
+
+        assertThat(topK.top(3)).extracting(TopK.Entry::getKey).containsExactly("b", "d", "a");
+        assertThat(topK.size()).isEqualTo(3);
+    }
+
+    @Test
+    void aLeaderFallingBelowEvictedKeysMakesTheRankingUnknown() {
+        TopK<String> topK = new TopK<>(2);
+        topK.reset(List.of(), true);
+        topK.update("a", 5, "a");
+        topK.update("b", 9, "b");
+        topK.update("c", 7, "c");
+        // a was evicted with 5, b drops below it
+        topK.update("b", 2, "b");
+
+        assertThat(topK.top(1)).extracting(TopK.Entry::getKey).containsExactly("c");
+        assertThat(topK.top(2)).isNull();
+    }
+
+    @Test
+    void matchesAFullSortUnderRandomUpdatesOrAsksForAReload() {
+        Random random = new Random(42);
+        Map<String, Double> scores = new HashMap<>();
+        TopK<String> topK = new TopK<>(10);
+        topK.reset(List.of(), true);
+
+        for (int i = 0; i < 20_000; i++) {
+            String key = "k" + random.nextInt(200);
+            double score = random.nextInt(1000);
+            scores.put(key, score);
+            topK.update(key, score, key);
+
+            List<TopK.Entry<String>> top = topK.top(5);
+            if (top == null) {
+                topK.reset(expected(scores, 10), scores.size() <= 10);
+                top = topK.top(5);
+            }
+            assertThat(top).extracting(TopK.Entry::getKey)
+                    .containsExactlyElementsOf(expected(scores, 5).stream().map(TopK.Entry::getKey).toList());
+        }
+    }
+
+    private static List<TopK.Entry<String>> expected(Map<String, Double> scores, int n) {
+        return scores.entrySet().stream()
+                .sorted(Comparator.comparing(Map.Entry<String, Double>::getValue).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .limit(n)
+                .map(entry -> TopK.entry(entry.getKey(), entry.getValue(), entry.getKey()))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}